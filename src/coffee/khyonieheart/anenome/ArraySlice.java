@@ -0,0 +1,76 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+/**
+ * Range of indices within an array, as handed out by a {@link ChunkCursor}. The slice does not copy the array; elements are read and
+ * written through {@link #array()} at indices from {@link #from()} up to but excluding {@link #to()}.
+ *
+ * @param <A> Type of array, such as {@code String[]} or {@code int[]}
+ */
+public final class ArraySlice<A>
+{
+	private final A array;
+	private final int from;
+	private final int to;
+
+	ArraySlice(
+		@NotNull A array,
+		int from,
+		int to
+	) {
+		this.array = array;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Returns the whole underlying array.
+	 *
+	 * @return Array this slice is part of
+	 */
+	@NotNull
+	public A array()
+	{
+		return this.array;
+	}
+
+	/**
+	 * Returns the first index of this slice.
+	 *
+	 * @return Start index (inclusive)
+	 */
+	public int from()
+	{
+		return this.from;
+	}
+
+	/**
+	 * Returns the index after the last index of this slice.
+	 *
+	 * @return End index (exclusive)
+	 */
+	public int to()
+	{
+		return this.to;
+	}
+
+	/**
+	 * Returns the number of indices in this slice.
+	 *
+	 * @return Length of this slice
+	 */
+	public int length()
+	{
+		return this.to - this.from;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ArraySlice[" + this.from + ", " + this.to + ")";
+	}
+}
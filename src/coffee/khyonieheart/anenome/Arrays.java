@@ -12,6 +12,8 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.function.Function;
 
+import coffee.khyonieheart.anenome.metrics.Metrics;
+
 /**
  * Little utilities to handle arrays.
  */
@@ -47,39 +49,7 @@ public class Arrays
 		@NotNull String delimiter,
 		@Nullable Function<T, String> mapper
 	) {
-		Objects.requireNonNull(data);
-		Objects.requireNonNull(delimiter);
-
-		StringBuilder builder = new StringBuilder();
-		ArrayIterator<T> iter = new ArrayIterator<>(data);
-		if (mapper != null)
-		{
-			while (iter.hasNext())
-			{
-				T next = iter.next();
-				builder.append(next == null ? "null" : mapper.apply(next));
-
-				if (iter.hasNext())
-				{
-					builder.append(delimiter);
-				}
-			}
-
-			return builder.toString();
-		}
-
-		while (iter.hasNext())
-		{
-			T next = iter.next();
-			builder.append(next == null ? "null" : next.toString());
-
-			if (iter.hasNext())
-			{
-				builder.append(delimiter);
-			}
-		}
-
-		return builder.toString();
+		return Strings.join(delimiter, data, mapper);
 	}
 
 	/**
@@ -122,6 +92,7 @@ public class Arrays
 		Objects.requireNonNull(type);
 		Objects.requireNonNull(mapper);
 
+		long start = Metrics.startTimer();
 		R[] mapped = (R[]) Array.newInstance(type, data.length);
 
 		for (int i = 0; i < data.length; i++)
@@ -135,6 +106,8 @@ public class Arrays
 			mapped[i] = mapper.apply(data[i]);
 		}
 
+		Metrics.ARRAYS_MAP.stopTimer(start);
+
 		return mapped;
 	}
 
@@ -221,6 +194,18 @@ public class Arrays
 		return newData;
 	}
 
+	/**
+	 * Copies an array into a new array of the given length. Longer copies are padded with the default value, and shorter copies are
+	 * truncated.
+	 *
+	 * @param <T> Type of array
+	 *
+	 * @param data Array to copy
+	 * @param length Length of the copy
+	 * @param defaultValue Value for elements past the end of the original array
+	 *
+	 * @return Copy of the array
+	 */
 	@SuppressWarnings("unchecked")
 	public static <T> T[] copyOf(
 		@NotNull T[] data,
@@ -231,19 +216,11 @@ public class Arrays
 		RuntimeConditions.requirePositive(length);
 
 		T[] copy = (T[]) Array.newInstance(data.getClass().getComponentType(), length);
+		System.arraycopy(data, 0, copy, 0, Math.min(length, data.length));
 
-		if (length >= data.length)
+		if (length > data.length && defaultValue != null)
 		{
-			int index = 0;
-			for (; index < data.length; index++)
-			{
-				copy[index] = data[index];
-			}
-
-			for (; index < length; index++)
-			{
-				copy[index] = defaultValue;
-			}
+			java.util.Arrays.fill(copy, data.length, length, defaultValue);
 		}
 
 		return copy;
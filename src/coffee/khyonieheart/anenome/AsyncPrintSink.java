@@ -0,0 +1,668 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import coffee.khyonieheart.anenome.exception.StringFormatException;
+
+/**
+ * Asynchronous sink for formatted output. Producers hand a compiled {@link FormatTemplate} and its parameters (or an already formatted
+ * string) to a lock-free ring buffer and return immediately; a single background thread formats queued messages and writes them to the
+ * target {@link PrintStream} in batches.
+ * <p>
+ * Parameters are captured by reference and formatted later, on the background thread. Callers must not modify a parameter array, or any
+ * mutable parameter, after handing it to the sink.
+ */
+public final class AsyncPrintSink implements AutoCloseable
+{
+	private static final int BATCH_SIZE = 256;
+	private static final int BATCH_CHARS = 8192;
+	private static final long IDLE_PARK_NANOS = 1_000_000;
+
+	/**
+	 * What producers do when the ring buffer is full.
+	 */
+	public static enum Backpressure
+	{
+		/** Wait for the background thread to make space. */
+		BLOCK,
+		/** Discard the message and count it as dropped. */
+		DROP,
+		/** Spill into an unbounded overflow queue. Messages are never dropped, at the cost of unbounded memory use under sustained load. */
+		GROW
+	}
+
+	private final PrintStream out;
+	private final Backpressure backpressure;
+	private final Slot[] slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private long head = 0;
+	private final ConcurrentLinkedQueue<Slot> overflow = new ConcurrentLinkedQueue<>();
+
+	private final Thread consumer;
+	private final Thread shutdownHook;
+	private volatile boolean sleeping = false;
+	private volatile boolean closed = false;
+
+	private final LongAdder written = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+
+	/**
+	 * Constructs a new sink and starts its background thread.
+	 *
+	 * @param out Stream to write to
+	 * @param capacity Number of messages the ring buffer can hold, rounded up to the next power of two
+	 * @param backpressure What producers do when the ring buffer is full
+	 * @param flushOnShutdown Whether to register a shutdown hook that writes all queued messages before the JVM exits
+	 *
+	 * @throws IllegalArgumentException If capacity is less than 1 or greater than 2^30
+	 */
+	public AsyncPrintSink(
+		@NotNull PrintStream out,
+		@Positive int capacity,
+		@NotNull Backpressure backpressure,
+		boolean flushOnShutdown
+	) {
+		this.out = Objects.requireNonNull(out);
+		this.backpressure = Objects.requireNonNull(backpressure);
+		RuntimeConditions.requireRange(capacity, 1, 1 << 30);
+
+		int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+		this.slots = new Slot[size];
+		this.mask = size - 1;
+		for (int i = 0; i < size; i++)
+		{
+			this.slots[i] = new Slot(i);
+		}
+
+		this.consumer = new Thread(this::run, "Anenome AsyncPrintSink");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+
+		this.shutdownHook = flushOnShutdown ? new Thread(this::close, "Anenome AsyncPrintSink shutdown") : null;
+		if (this.shutdownHook != null)
+		{
+			Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+		}
+	}
+
+	/**
+	 * Constructs a new sink writing to the given stream, holding up to 8192 messages, blocking when full and flushing on shutdown.
+	 *
+	 * @param out Stream to write to
+	 */
+	public AsyncPrintSink(
+		@NotNull PrintStream out
+	) {
+		this(out, 8192, Backpressure.BLOCK, true);
+	}
+
+	/**
+	 * Queues a formatted message.
+	 *
+	 * @param template Compiled template
+	 * @param parameters Parameters, formatted later on the background thread
+	 *
+	 * @return True if the message was queued, false if it was dropped or this sink is closed
+	 * @throws StringFormatException If the template has named placeholders, or fewer parameters are given than it requires
+	 */
+	public boolean pformat(
+		@NotNull FormatTemplate template,
+		@NotNull Object... parameters
+	) {
+		return this.publish(checked(template, parameters), parameters, null, false);
+	}
+
+	/**
+	 * Queues a formatted message, terminated by a line separator.
+	 *
+	 * @param template Compiled template
+	 * @param parameters Parameters, formatted later on the background thread
+	 *
+	 * @return True if the message was queued, false if it was dropped or this sink is closed
+	 * @throws StringFormatException If the template has named placeholders, or fewer parameters are given than it requires
+	 */
+	public boolean pformatln(
+		@NotNull FormatTemplate template,
+		@NotNull Object... parameters
+	) {
+		return this.publish(checked(template, parameters), parameters, null, true);
+	}
+
+	/**
+	 * Queues a formatted message. The format string is compiled through {@link Strings#template(String)} on the calling thread.
+	 *
+	 * @param format Format string
+	 * @param parameters Parameters, formatted later on the background thread
+	 *
+	 * @return True if the message was queued, false if it was dropped or this sink is closed
+	 * @throws StringFormatException If the format string is invalid or has named placeholders, or too few parameters are given
+	 */
+	public boolean pformat(
+		@NotNull String format,
+		@NotNull Object... parameters
+	) {
+		return this.pformat(Strings.template(format), parameters);
+	}
+
+	/**
+	 * Queues a formatted message, terminated by a line separator. The format string is compiled through {@link Strings#template(String)}
+	 * on the calling thread.
+	 *
+	 * @param format Format string
+	 * @param parameters Parameters, formatted later on the background thread
+	 *
+	 * @return True if the message was queued, false if it was dropped or this sink is closed
+	 * @throws StringFormatException If the format string is invalid or has named placeholders, or too few parameters are given
+	 */
+	public boolean pformatln(
+		@NotNull String format,
+		@NotNull Object... parameters
+	) {
+		return this.pformatln(Strings.template(format), parameters);
+	}
+
+	/**
+	 * Queues an already formatted message.
+	 *
+	 * @param text Message
+	 *
+	 * @return True if the message was queued, false if it was dropped or this sink is closed
+	 */
+	public boolean print(
+		@NotNull String text
+	) {
+		return this.publish(null, null, Objects.requireNonNull(text), false);
+	}
+
+	/**
+	 * Queues an already formatted message, terminated by a line separator.
+	 *
+	 * @param text Message
+	 *
+	 * @return True if the message was queued, false if it was dropped or this sink is closed
+	 */
+	public boolean println(
+		@NotNull String text
+	) {
+		return this.publish(null, null, Objects.requireNonNull(text), true);
+	}
+
+	/**
+	 * Waits until every message queued before this call has been written and the underlying stream flushed.
+	 *
+	 * @throws InterruptedException If interrupted while waiting
+	 */
+	public void flush()
+		throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(1);
+		if (!this.enqueue(null, null, null, false, latch, true))
+		{
+			return;
+		}
+
+		latch.await();
+	}
+
+	/**
+	 * Stops accepting messages, writes every message already queued and stops the background thread. Calling this more than once has no
+	 * further effect.
+	 */
+	@Override
+	public void close()
+	{
+		this.closed = true;
+		LockSupport.unpark(this.consumer);
+
+		if (this.shutdownHook != null)
+		{
+			try {
+				Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+			} catch (IllegalStateException e) {
+				// The JVM is already shutting down, which is when the hook runs anyway
+			}
+		}
+
+		if (Thread.currentThread() == this.consumer)
+		{
+			return;
+		}
+
+		this.awaitConsumer();
+	}
+
+	/**
+	 * Returns the number of messages written to the stream.
+	 *
+	 * @return Written message count
+	 */
+	public long written()
+	{
+		return this.written.sum();
+	}
+
+	/**
+	 * Returns the number of messages dropped because the ring buffer was full or this sink was closed.
+	 *
+	 * @return Dropped message count
+	 */
+	public long dropped()
+	{
+		return this.dropped.sum();
+	}
+
+	/**
+	 * Returns the number of messages that could not be written because formatting them threw an exception.
+	 *
+	 * @return Failed message count
+	 */
+	public long failed()
+	{
+		return this.failed.sum();
+	}
+
+	//--------------------------------------------------------------------------------
+	private static FormatTemplate checked(
+		FormatTemplate template,
+		Object[] parameters
+	) {
+		Objects.requireNonNull(template);
+
+		if (template.isNamed())
+		{
+			throw new StringFormatException("Format \"" + template.source() + "\" has named placeholders; use formatNamed");
+		}
+
+		if (Objects.requireNonNull(parameters).length < template.requiredParameters())
+		{
+			throw new StringFormatException("Format \"" + template.source() + "\" requires " + template.requiredParameters() + " parameters; received " + parameters.length);
+		}
+
+		return template;
+	}
+
+	private boolean publish(
+		FormatTemplate template,
+		Object[] parameters,
+		String text,
+		boolean newline
+	) {
+		if (this.enqueue(template, parameters, text, newline, null, false))
+		{
+			return true;
+		}
+
+		this.dropped.increment();
+		return false;
+	}
+
+	private boolean enqueue(
+		FormatTemplate template,
+		Object[] parameters,
+		String text,
+		boolean newline,
+		CountDownLatch marker,
+		boolean forceBlock
+	) {
+		if (this.closed)
+		{
+			return false;
+		}
+
+		// Once messages have spilled, keep spilling until the consumer has taken them all, so that no later message overtakes them through
+		// the ring
+		if (this.backpressure == Backpressure.GROW && !this.overflow.isEmpty())
+		{
+			return this.confirm(this.spill(template, parameters, text, newline, marker), -1, marker);
+		}
+
+		int spins = 0;
+		long position;
+		while ((position = this.tryEnqueue(template, parameters, text, newline, marker)) < 0)
+		{
+			if (this.closed)
+			{
+				return false;
+			}
+
+			if (!forceBlock && this.backpressure == Backpressure.DROP)
+			{
+				return false;
+			}
+
+			if (!forceBlock && this.backpressure == Backpressure.GROW)
+			{
+				return this.confirm(this.spill(template, parameters, text, newline, marker), -1, marker);
+			}
+
+			// Blocking: spin briefly, then back off
+			if (spins++ < 64)
+			{
+				Thread.onSpinWait();
+				continue;
+			}
+
+			this.wakeConsumer();
+			LockSupport.parkNanos(10_000);
+		}
+
+		return this.confirm(null, position, marker);
+	}
+
+	/**
+	 * Claims and publishes a ring slot.
+	 *
+	 * @return Position of the slot, or -1 if the ring is full
+	 */
+	private long tryEnqueue(
+		FormatTemplate template,
+		Object[] parameters,
+		String text,
+		boolean newline,
+		CountDownLatch marker
+	) {
+		long position = this.tail.get();
+		Slot slot;
+
+		while (true)
+		{
+			slot = this.slots[(int) position & this.mask];
+			long difference = slot.sequence - position;
+
+			if (difference == 0)
+			{
+				if (this.tail.compareAndSet(position, position + 1))
+				{
+					break;
+				}
+
+				position = this.tail.get();
+				continue;
+			}
+
+			if (difference < 0)
+			{
+				return -1;
+			}
+
+			position = this.tail.get();
+		}
+
+		slot.set(template, parameters, text, newline, marker);
+		slot.sequence = position + 1;
+		this.wakeConsumer();
+
+		return position;
+	}
+
+	private Slot spill(
+		FormatTemplate template,
+		Object[] parameters,
+		String text,
+		boolean newline,
+		CountDownLatch marker
+	) {
+		Slot slot = new Slot(0);
+		slot.set(template, parameters, text, newline, marker);
+		this.overflow.add(slot);
+		this.wakeConsumer();
+
+		return slot;
+	}
+
+	/**
+	 * Checks that a published message will be written. The sink may have closed after {@link #enqueue} checked, and the consumer made its
+	 * last check for work before the message was published; if so, the message is taken back and its marker released.
+	 *
+	 * @param spilled Slot added to the overflow queue, or null for a ring slot
+	 * @param position Position of the ring slot
+	 *
+	 * @return True if the message will be written or already has been, false if it was taken back
+	 */
+	private boolean confirm(
+		Slot spilled,
+		long position,
+		CountDownLatch marker
+	) {
+		if (!this.closed || Thread.currentThread() == this.consumer)
+		{
+			return true;
+		}
+
+		// Once the consumer has exited, whatever it did not take is still where the producer left it
+		this.awaitConsumer();
+		boolean taken = spilled != null ? !this.overflow.remove(spilled) : this.slots[(int) position & this.mask].sequence != position + 1;
+		if (taken)
+		{
+			return true;
+		}
+
+		if (spilled == null)
+		{
+			this.slots[(int) position & this.mask].clear();
+		}
+
+		if (marker != null)
+		{
+			marker.countDown();
+		}
+
+		return false;
+	}
+
+	private void awaitConsumer()
+	{
+		boolean interrupted = false;
+		while (this.consumer.isAlive())
+		{
+			try {
+				this.consumer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void wakeConsumer()
+	{
+		if (this.sleeping)
+		{
+			LockSupport.unpark(this.consumer);
+		}
+	}
+
+	private void run()
+	{
+		StringBuilder builder = new StringBuilder(BATCH_CHARS);
+		String separator = System.lineSeparator();
+
+		while (true)
+		{
+			int count = this.drain(builder, separator);
+			if (count > 0)
+			{
+				continue;
+			}
+
+			if (this.closed)
+			{
+				// Producers may have claimed a slot just before the sink closed; give them a moment to finish publishing
+				if (this.tail.get() == this.head && this.overflow.isEmpty())
+				{
+					break;
+				}
+
+				Thread.onSpinWait();
+				continue;
+			}
+
+			this.sleeping = true;
+			if (this.isEmpty())
+			{
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+			this.sleeping = false;
+		}
+
+		this.out.flush();
+	}
+
+	/**
+	 * Writes one batch of messages.
+	 *
+	 * @return Number of messages taken from the queue
+	 */
+	private int drain(
+		StringBuilder builder,
+		String separator
+	) {
+		builder.setLength(0);
+		int count = 0;
+
+		while (count < BATCH_SIZE && builder.length() < BATCH_CHARS)
+		{
+			Slot slot = this.slots[(int) this.head & this.mask];
+			boolean fromRing = slot.sequence == this.head + 1;
+
+			if (!fromRing)
+			{
+				// Every slot claimed in the ring was queued before anything still in the overflow queue, so a slot that is claimed but not
+				// yet published must be written first; wait for its producer rather than skipping ahead
+				if (this.tail.get() != this.head)
+				{
+					break;
+				}
+
+				slot = this.overflow.poll();
+				if (slot == null)
+				{
+					break;
+				}
+			}
+
+			count++;
+			if (slot.marker != null)
+			{
+				this.write(builder);
+				this.out.flush();
+				slot.marker.countDown();
+			}
+			else
+			{
+				this.append(builder, slot, separator);
+			}
+
+			slot.clear();
+			if (fromRing)
+			{
+				slot.sequence = this.head + this.slots.length;
+				this.head++;
+			}
+		}
+
+		this.write(builder);
+
+		return count;
+	}
+
+	private void append(
+		StringBuilder builder,
+		Slot slot,
+		String separator
+	) {
+		int mark = builder.length();
+
+		try {
+			if (slot.template != null)
+			{
+				slot.template.formatTo(builder, slot.parameters);
+			}
+			else
+			{
+				builder.append(slot.text);
+			}
+
+			if (slot.newline)
+			{
+				builder.append(separator);
+			}
+
+			this.written.increment();
+		} catch (RuntimeException e) {
+			builder.setLength(mark);
+			this.failed.increment();
+		}
+	}
+
+	private void write(
+		StringBuilder builder
+	) {
+		if (builder.length() == 0)
+		{
+			return;
+		}
+
+		this.out.append(builder);
+		builder.setLength(0);
+	}
+
+	private boolean isEmpty()
+	{
+		return this.slots[(int) this.head & this.mask].sequence != this.head + 1 && this.overflow.isEmpty();
+	}
+
+	//--------------------------------------------------------------------------------
+	private static final class Slot
+	{
+		private volatile long sequence;
+
+		private FormatTemplate template;
+		private Object[] parameters;
+		private String text;
+		private boolean newline;
+		private CountDownLatch marker;
+
+		private Slot(
+			long sequence
+		) {
+			this.sequence = sequence;
+		}
+
+		private void set(
+			FormatTemplate template,
+			Object[] parameters,
+			String text,
+			boolean newline,
+			CountDownLatch marker
+		) {
+			this.template = template;
+			this.parameters = parameters;
+			this.text = text;
+			this.newline = newline;
+			this.marker = marker;
+		}
+
+		private void clear()
+		{
+			this.set(null, null, null, false, null);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+
+/**
+ * A read-only window over a region of another {@link CharSequence}. No characters are copied until {@link #toString()} is called, so
+ * changes to a mutable backing sequence are visible through the view.
+ */
+public final class CharSequenceView implements CharSequence
+{
+	private final CharSequence backing;
+	private final int offset;
+	private final int length;
+
+	/**
+	 * Constructs a view over {@code [start, end)} of the given sequence.
+	 *
+	 * @param backing Sequence to view
+	 * @param start Start index (inclusive)
+	 * @param end End index (exclusive)
+	 *
+	 * @throws IndexOutOfBoundsException If the region lies outside the bounds of the backing sequence
+	 */
+	public CharSequenceView(
+		@NotNull CharSequence backing,
+		int start,
+		int end
+	) {
+		this.backing = Objects.requireNonNull(backing);
+		Objects.checkFromToIndex(start, end, backing.length());
+
+		this.offset = start;
+		this.length = end - start;
+	}
+
+	@Override
+	public int length()
+	{
+		return this.length;
+	}
+
+	@Override
+	public char charAt(
+		int index
+	) {
+		return this.backing.charAt(this.offset + Objects.checkIndex(index, this.length));
+	}
+
+	@Override
+	public CharSequence subSequence(
+		int start,
+		int end
+	) {
+		Objects.checkFromToIndex(start, end, this.length);
+
+		return new CharSequenceView(this.backing, this.offset + start, this.offset + end);
+	}
+
+	/**
+	 * Tests whether this view contains exactly the same characters as the given sequence, without copying either.
+	 *
+	 * @param other Sequence to compare against
+	 *
+	 * @return True if both sequences have the same length and characters
+	 */
+	public boolean contentEquals(
+		@NotNull CharSequence other
+	) {
+		Objects.requireNonNull(other);
+
+		if (other.length() != this.length)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < this.length; i++)
+		{
+			if (this.backing.charAt(this.offset + i) != other.charAt(i))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.backing.subSequence(this.offset, this.offset + this.length).toString();
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands out the indices of an array to concurrent workers in chunks, so that every index is claimed by exactly one worker. Claiming a
+ * chunk is a single atomic add, with no locks.
+ * <p>
+ * Chunks shrink as the array is consumed. Each claim takes a fixed share of what remains, so early chunks are large and cheap to hand out,
+ * while the last few are small enough that no worker is left finishing a large chunk after the others have run dry. Chunks never drop
+ * below the minimum size given at construction.
+ * <p>
+ * A cursor is used once; after every index has been claimed, it stays exhausted.
+ *
+ * @param <A> Type of array, such as {@code String[]} or {@code int[]}
+ */
+public abstract class ChunkCursor<A>
+{
+	/**
+	 * Default smallest chunk, large enough that claiming costs little next to processing the chunk.
+	 */
+	public static final int DEFAULT_MIN_CHUNK = 256;
+
+	/**
+	 * Number of chunks each worker should get out of what remains, when sizing the next chunk.
+	 */
+	private static final int CHUNKS_PER_WORKER = 4;
+
+	private final AtomicLong position = new AtomicLong();
+	private final int length;
+	private final int minChunk;
+	private volatile int workers = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Constructs a cursor over the given number of indices.
+	 *
+	 * @param length Number of indices
+	 * @param minChunk Smallest chunk to hand out, except for the very last
+	 *
+	 * @throws IllegalArgumentException If length is negative or minChunk is less than 1
+	 */
+	protected ChunkCursor(
+		@Positive int length,
+		int minChunk
+	) {
+		this.length = RuntimeConditions.requirePositive(length);
+		this.minChunk = RuntimeConditions.requireRange(minChunk, 1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the array whose indices this cursor hands out.
+	 *
+	 * @return Underlying array
+	 */
+	@NotNull
+	protected abstract A array();
+
+	/**
+	 * Returns the total number of indices.
+	 *
+	 * @return Length of the underlying array
+	 */
+	public int length()
+	{
+		return this.length;
+	}
+
+	/**
+	 * Returns the number of indices not yet claimed.
+	 *
+	 * @return Unclaimed indices
+	 */
+	public int remaining()
+	{
+		return (int) Math.max(0, this.length - this.position.get());
+	}
+
+	/**
+	 * Returns whether every index has been claimed.
+	 *
+	 * @return True if no chunks are left
+	 */
+	public boolean isExhausted()
+	{
+		return this.position.get() >= this.length;
+	}
+
+	/**
+	 * Claims the next chunk of indices.
+	 *
+	 * @return Claimed chunk, or null if every index has been claimed
+	 */
+	@Nullable
+	public ArraySlice<A> next()
+	{
+		long current = this.position.get();
+		if (current >= this.length)
+		{
+			return null;
+		}
+
+		// The size is computed from a possibly stale position, which only makes the chunk slightly larger than ideal
+		int size = this.chunkSize(this.length - current);
+		long from = this.position.getAndAdd(size);
+		if (from >= this.length)
+		{
+			return null;
+		}
+
+		return new ArraySlice<>(this.array(), (int) from, (int) Math.min(this.length, from + size));
+	}
+
+	/**
+	 * Claims chunks on the given number of threads until every index has been claimed, passing each chunk to the action. The calling thread
+	 * works as one of the workers, and the call returns once all of them are done.
+	 * <p>
+	 * If the action throws, no further chunks are handed out and the exception is rethrown once every worker has stopped, with the
+	 * exceptions of any other workers attached as suppressed. Workers are platform threads.
+	 *
+	 * @param workers Number of threads to work on, including the calling thread
+	 * @param action Action to run for each chunk
+	 *
+	 * @throws IllegalArgumentException If workers is less than 1
+	 * @throws IllegalStateException If the calling thread is interrupted while waiting for the other workers
+	 */
+	public void forEachChunk(
+		int workers,
+		@NotNull Consumer<? super ArraySlice<A>> action
+	) {
+		RuntimeConditions.requireRange(workers, 1, Integer.MAX_VALUE);
+		Objects.requireNonNull(action);
+
+		this.workers = workers;
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Runnable work = () -> {
+			try {
+				ArraySlice<A> slice;
+				while ((slice = this.next()) != null)
+				{
+					action.accept(slice);
+				}
+			} catch (Throwable t) {
+				// Stop everyone else from claiming further chunks
+				this.position.set(this.length);
+				// Workers may throw the same instance, which can not suppress itself
+				if (!failure.compareAndSet(null, t) && failure.get() != t)
+				{
+					failure.get().addSuppressed(t);
+				}
+			}
+		};
+
+		Thread[] threads = new Thread[workers - 1];
+		for (int i = 0; i < threads.length; i++)
+		{
+			threads[i] = new Thread(work, "ChunkCursor worker " + (i + 1));
+			threads[i].start();
+		}
+
+		work.run();
+
+		boolean interrupted = false;
+		for (Thread thread : threads)
+		{
+			while (true)
+			{
+				try {
+					thread.join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					this.position.set(this.length);
+				}
+			}
+		}
+
+		Throwable thrown = failure.get();
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+			IllegalStateException exception = new IllegalStateException("Interrupted while waiting for workers");
+			if (thrown != null)
+			{
+				exception.addSuppressed(thrown);
+			}
+
+			throw exception;
+		}
+
+		if (thrown instanceof RuntimeException runtime)
+		{
+			throw runtime;
+		}
+
+		if (thrown instanceof Error error)
+		{
+			throw error;
+		}
+
+		if (thrown != null)
+		{
+			throw new UndeclaredThrowableException(thrown);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.getClass().getSimpleName() + "[length=" + this.length + ", remaining=" + this.remaining() + "]";
+	}
+
+	//--------------------------------------------------------------------------------
+	private int chunkSize(
+		long remaining
+	) {
+		long share = remaining / ((long) this.workers * CHUNKS_PER_WORKER);
+
+		return (int) Math.max(this.minChunk, Math.min(remaining, share));
+	}
+}
@@ -0,0 +1,697 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.operation.DoubleOption;
+
+/**
+ * Weighted set of strings supporting ranked prefix completion. Completing a prefix returns the k heaviest strings that start with it,
+ * in time that depends on the prefix length and k rather than on the number of strings held.
+ * <p>
+ * Strings are stored in an array-backed trie in which every node records the heaviest weight found beneath it, so the search for the
+ * top k only ever descends into subtrees that can still contribute. When no string starts with the prefix, completion falls back to
+ * strings that start with something within a small Levenshtein distance of it, which catches typos in what has been typed so far.
+ * <p>
+ * Reads never lock. Every change publishes a new immutable {@link Snapshot}, and readers work against whichever snapshot was current
+ * when they started. Changes rebuild the trie, so registering many strings at once should go through {@link #putAll(Map)}.
+ */
+public final class CompletionTrie
+{
+	private final Map<String, Double> weights = new HashMap<>();
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	/**
+	 * Adds a string, or changes its weight if it is already present.
+	 *
+	 * @param key String to add
+	 * @param weight Rank of the string. Heavier strings complete first.
+	 *
+	 * @throws IllegalArgumentException If weight is NaN
+	 */
+	public synchronized void put(
+		@NotNull String key,
+		double weight
+	) {
+		Objects.requireNonNull(key);
+		requireWeight(weight);
+
+		this.weights.put(key, weight);
+		this.publish();
+	}
+
+	/**
+	 * Adds several strings at once, rebuilding the trie only once.
+	 *
+	 * @param weights Strings and their weights
+	 *
+	 * @throws IllegalArgumentException If any weight is NaN
+	 */
+	public synchronized void putAll(
+		@NotNull Map<String, ? extends Number> weights
+	) {
+		Objects.requireNonNull(weights);
+
+		Map<String, Double> checked = new HashMap<>(weights.size() * 2);
+		for (Map.Entry<String, ? extends Number> entry : weights.entrySet())
+		{
+			checked.put(Objects.requireNonNull(entry.getKey()), requireWeight(entry.getValue().doubleValue()));
+		}
+
+		this.weights.putAll(checked);
+		this.publish();
+	}
+
+	/**
+	 * Removes a string.
+	 *
+	 * @param key String to remove
+	 *
+	 * @return True if the string was present
+	 */
+	public synchronized boolean remove(
+		@NotNull String key
+	) {
+		if (this.weights.remove(Objects.requireNonNull(key)) == null)
+		{
+			return false;
+		}
+
+		this.publish();
+
+		return true;
+	}
+
+	/**
+	 * Returns the current snapshot. The snapshot never changes, even as strings are added to or removed from this trie.
+	 *
+	 * @return Current snapshot
+	 */
+	@NotNull
+	public Snapshot snapshot()
+	{
+		return this.snapshot;
+	}
+
+	/**
+	 * Returns the number of strings held.
+	 *
+	 * @return Number of strings
+	 */
+	public int size()
+	{
+		return this.snapshot.size();
+	}
+
+	/**
+	 * Returns the heaviest strings starting with the given prefix, falling back to strings starting with a near miss of the prefix. See
+	 * {@link Snapshot#complete(String, int)}.
+	 *
+	 * @param prefix Text typed so far
+	 * @param k Maximum number of completions
+	 *
+	 * @return Up to k completions, heaviest first
+	 */
+	@NotNull
+	public List<String> complete(
+		@NotNull String prefix,
+		int k
+	) {
+		return this.snapshot.complete(prefix, k);
+	}
+
+	/**
+	 * Returns the heaviest strings starting with the given prefix, falling back to strings starting with something within the given
+	 * distance of the prefix. See {@link Snapshot#complete(String, int, int)}.
+	 *
+	 * @param prefix Text typed so far
+	 * @param k Maximum number of completions
+	 * @param maxDistance Largest Levenshtein distance for the fallback, or 0 to disable it
+	 *
+	 * @return Up to k completions
+	 */
+	@NotNull
+	public List<String> complete(
+		@NotNull String prefix,
+		int k,
+		int maxDistance
+	) {
+		return this.snapshot.complete(prefix, k, maxDistance);
+	}
+
+	//--------------------------------------------------------------------------------
+	private void publish()
+	{
+		this.snapshot = Snapshot.build(this.weights);
+	}
+
+	private static double requireWeight(
+		double weight
+	) {
+		if (Double.isNaN(weight))
+		{
+			throw new IllegalArgumentException("Weight can not be NaN");
+		}
+
+		return weight;
+	}
+
+	/**
+	 * Immutable state of a {@link CompletionTrie} at one point in time. Safe to share between any number of threads.
+	 * <p>
+	 * Nodes are numbered in depth-first order. The edges leaving a node occupy a contiguous range of the edge arrays, sorted by character,
+	 * so finding a child is a binary search.
+	 */
+	public static final class Snapshot
+	{
+		static final Snapshot EMPTY = build(Map.of());
+
+		private final String[] keys;
+		private final double[] weights;
+
+		private int[] firstEdge;
+		private int[] edgeCount;
+		private int[] entry;
+		private double[] maxWeight;
+		private int[] heaviestKey;
+		private int nodes;
+
+		private char[] edgeChars;
+		private int[] edgeTargets;
+		private int edges;
+
+		private Snapshot(
+			String[] keys,
+			double[] weights
+		) {
+			this.keys = keys;
+			this.weights = weights;
+
+			int capacity = Math.max(16, keys.length * 4);
+			this.firstEdge = new int[capacity];
+			this.edgeCount = new int[capacity];
+			this.entry = new int[capacity];
+			this.maxWeight = new double[capacity];
+			this.heaviestKey = new int[capacity];
+			this.edgeChars = new char[capacity];
+			this.edgeTargets = new int[capacity];
+
+			this.buildNode(0, keys.length, 0);
+		}
+
+		static Snapshot build(
+			Map<String, Double> weights
+		) {
+			String[] keys = weights.keySet().toArray(new String[0]);
+			java.util.Arrays.sort(keys);
+
+			double[] sorted = new double[keys.length];
+			for (int i = 0; i < keys.length; i++)
+			{
+				sorted[i] = weights.get(keys[i]);
+			}
+
+			return new Snapshot(keys, sorted);
+		}
+
+		/**
+		 * Returns the number of strings in this snapshot.
+		 *
+		 * @return Number of strings
+		 */
+		public int size()
+		{
+			return this.keys.length;
+		}
+
+		/**
+		 * Returns the weight of the given string.
+		 *
+		 * @param key String to look up
+		 *
+		 * @return Weight of the string, or none if it is not present
+		 */
+		@NotNull
+		public DoubleOption weight(
+			@NotNull String key
+		) {
+			int node = this.find(Objects.requireNonNull(key));
+			if (node < 0 || this.entry[node] < 0)
+			{
+				return DoubleOption.none();
+			}
+
+			return DoubleOption.some(this.weights[this.entry[node]]);
+		}
+
+		/**
+		 * Returns the heaviest strings starting with the given prefix. If none do, falls back to strings starting with something within
+		 * Levenshtein distance 1 of the prefix, or 2 for prefixes of six or more characters; prefixes shorter than three characters do
+		 * not fall back.
+		 *
+		 * @param prefix Text typed so far
+		 * @param k Maximum number of completions
+		 *
+		 * @return Up to k completions, heaviest first and alphabetically among equal weights
+		 * @throws IllegalArgumentException If k is negative
+		 */
+		@NotNull
+		public List<String> complete(
+			@NotNull String prefix,
+			int k
+		) {
+			int length = Objects.requireNonNull(prefix).length();
+
+			return this.complete(prefix, k, length < 3 ? 0 : length < 6 ? 1 : 2);
+		}
+
+		/**
+		 * Returns the heaviest strings starting with the given prefix. If none do, falls back to strings starting with something within
+		 * the given Levenshtein distance of the prefix, closest first and heaviest first among equally close strings.
+		 *
+		 * @param prefix Text typed so far
+		 * @param k Maximum number of completions
+		 * @param maxDistance Largest distance for the fallback, or 0 to disable it
+		 *
+		 * @return Up to k completions
+		 * @throws IllegalArgumentException If k or maxDistance is negative
+		 */
+		@NotNull
+		public List<String> complete(
+			@NotNull String prefix,
+			int k,
+			int maxDistance
+		) {
+			Objects.requireNonNull(prefix);
+			RuntimeConditions.requirePositive(k);
+			RuntimeConditions.requirePositive(maxDistance);
+
+			if (k == 0 || this.keys.length == 0)
+			{
+				return Collections.emptyList();
+			}
+
+			List<String> completions = new ArrayList<>(Math.min(k, this.keys.length));
+			int node = this.find(prefix);
+			if (node >= 0)
+			{
+				TopK search = new TopK(k);
+				search.pushNode(node, this.maxWeight[node], this.heaviestKey[node]);
+				this.drain(search, completions, k);
+
+				return completions;
+			}
+
+			if (maxDistance == 0)
+			{
+				return completions;
+			}
+
+			// Group every near miss by distance, then rank each group by weight in turn
+			List<TopK> levels = new ArrayList<>(maxDistance);
+			for (int i = 0; i < maxDistance; i++)
+			{
+				levels.add(new TopK(k));
+			}
+
+			int[] row = new int[prefix.length() + 1];
+			for (int j = 0; j < row.length; j++)
+			{
+				row[j] = j;
+			}
+
+			this.fuzzy(0, row, Integer.MAX_VALUE, prefix, maxDistance, levels);
+			for (TopK level : levels)
+			{
+				this.drain(level, completions, k);
+			}
+
+			return completions;
+		}
+
+		//--------------------------------------------------------------------------------
+		private int buildNode(
+			int from,
+			int to,
+			int depth
+		) {
+			int node = this.newNode();
+			double max = Double.NEGATIVE_INFINITY;
+			int heaviest = -1;
+			int i = from;
+
+			this.entry[node] = -1;
+			if (i < to && this.keys[i].length() == depth)
+			{
+				this.entry[node] = i;
+				max = this.weights[i];
+				heaviest = i;
+				i++;
+			}
+
+			// Keys are sorted, so the keys under each child form a contiguous run
+			int children = 0;
+			for (int j = i; j < to; children++)
+			{
+				char c = this.keys[j].charAt(depth);
+				while (j < to && this.keys[j].charAt(depth) == c)
+				{
+					j++;
+				}
+			}
+
+			int first = this.reserveEdges(children);
+			this.firstEdge[node] = first;
+			this.edgeCount[node] = children;
+
+			for (int edge = first; i < to; edge++)
+			{
+				char c = this.keys[i].charAt(depth);
+				int j = i;
+				while (j < to && this.keys[j].charAt(depth) == c)
+				{
+					j++;
+				}
+
+				int child = this.buildNode(i, j, depth + 1);
+				this.edgeChars[edge] = c;
+				this.edgeTargets[edge] = child;
+				// Children are visited in key order, so on equal weight the first key carrying it is kept
+				if (heaviest < 0 || this.maxWeight[child] > max)
+				{
+					max = this.maxWeight[child];
+					heaviest = this.heaviestKey[child];
+				}
+				i = j;
+			}
+
+			this.maxWeight[node] = max;
+			this.heaviestKey[node] = heaviest;
+
+			return node;
+		}
+
+		private int newNode()
+		{
+			if (this.nodes == this.firstEdge.length)
+			{
+				int capacity = this.nodes * 2;
+				this.firstEdge = java.util.Arrays.copyOf(this.firstEdge, capacity);
+				this.edgeCount = java.util.Arrays.copyOf(this.edgeCount, capacity);
+				this.entry = java.util.Arrays.copyOf(this.entry, capacity);
+				this.maxWeight = java.util.Arrays.copyOf(this.maxWeight, capacity);
+				this.heaviestKey = java.util.Arrays.copyOf(this.heaviestKey, capacity);
+			}
+
+			return this.nodes++;
+		}
+
+		private int reserveEdges(
+			int count
+		) {
+			if (this.edges + count > this.edgeChars.length)
+			{
+				int capacity = Math.max(this.edges + count, this.edgeChars.length * 2);
+				this.edgeChars = java.util.Arrays.copyOf(this.edgeChars, capacity);
+				this.edgeTargets = java.util.Arrays.copyOf(this.edgeTargets, capacity);
+			}
+
+			int first = this.edges;
+			this.edges += count;
+
+			return first;
+		}
+
+		private int child(
+			int node,
+			char c
+		) {
+			int low = this.firstEdge[node];
+			int high = low + this.edgeCount[node] - 1;
+			while (low <= high)
+			{
+				int middle = (low + high) >>> 1;
+				char edge = this.edgeChars[middle];
+				if (edge < c)
+				{
+					low = middle + 1;
+				}
+				else if (edge > c)
+				{
+					high = middle - 1;
+				}
+				else
+				{
+					return this.edgeTargets[middle];
+				}
+			}
+
+			return -1;
+		}
+
+		private int find(
+			String prefix
+		) {
+			int node = 0;
+			for (int i = 0; i < prefix.length() && node >= 0; i++)
+			{
+				node = this.child(node, prefix.charAt(i));
+			}
+
+			return node;
+		}
+
+		/**
+		 * Walks the trie alongside the rows of the Levenshtein matrix between the prefix and each node's path. A node whose path is within
+		 * the distance limit is a near miss for every string beneath it; the walk continues past it only while a deeper node could be
+		 * closer still.
+		 *
+		 * @param inherited Smallest distance of any near miss on the path to this node
+		 */
+		private void fuzzy(
+			int node,
+			int[] row,
+			int inherited,
+			String prefix,
+			int maxDistance,
+			List<TopK> levels
+		) {
+			int length = prefix.length();
+			inherited = Math.min(inherited, row[length]);
+
+			int best = Integer.MAX_VALUE;
+			for (int value : row)
+			{
+				best = Math.min(best, value);
+			}
+
+			if (best >= inherited || best > maxDistance)
+			{
+				// Nothing deeper can improve on the distance already reached, so the whole subtree ranks at that distance
+				if (inherited <= maxDistance)
+				{
+					levels.get(inherited - 1).pushNode(node, this.maxWeight[node], this.heaviestKey[node]);
+				}
+
+				return;
+			}
+
+			if (inherited <= maxDistance && this.entry[node] >= 0)
+			{
+				levels.get(inherited - 1).pushEntry(this.entry[node], this.weights[this.entry[node]]);
+			}
+
+			int[] next = new int[length + 1];
+			int first = this.firstEdge[node];
+			for (int edge = first; edge < first + this.edgeCount[node]; edge++)
+			{
+				char c = this.edgeChars[edge];
+				next[0] = row[0] + 1;
+				for (int j = 1; j <= length; j++)
+				{
+					int substitute = row[j - 1] + (prefix.charAt(j - 1) == c ? 0 : 1);
+					next[j] = Math.min(substitute, Math.min(row[j], next[j - 1]) + 1);
+				}
+
+				this.fuzzy(this.edgeTargets[edge], next.clone(), inherited, prefix, maxDistance, levels);
+			}
+		}
+
+		/**
+		 * Pops from a best-first search until k completions have been collected in total.
+		 */
+		private void drain(
+			TopK search,
+			List<String> completions,
+			int k
+		) {
+			while (completions.size() < k && !search.isEmpty())
+			{
+				int item = search.pop();
+				if (item < 0)
+				{
+					completions.add(this.keys[~item]);
+					continue;
+				}
+
+				if (this.entry[item] >= 0)
+				{
+					search.pushEntry(this.entry[item], this.weights[this.entry[item]]);
+				}
+
+				int first = this.firstEdge[item];
+				for (int edge = first; edge < first + this.edgeCount[item]; edge++)
+				{
+					int child = this.edgeTargets[edge];
+					search.pushNode(child, this.maxWeight[child], this.heaviestKey[child]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Max-heap of pending nodes and entries, ordered by weight and then by key index. A node ranks as the first key beneath it carrying
+	 * its heaviest weight, so an entry reaches the top only once nothing still queued can outweigh it or precede it alphabetically at the
+	 * same weight. Entries are stored as their bitwise complement to tell them apart from nodes.
+	 */
+	private static final class TopK
+	{
+		private double[] priorities;
+		private int[] keys;
+		private int[] items;
+		private int size;
+
+		TopK(
+			int k
+		) {
+			int capacity = Math.max(8, Math.min(k, 1024) * 2);
+			this.priorities = new double[capacity];
+			this.keys = new int[capacity];
+			this.items = new int[capacity];
+		}
+
+		boolean isEmpty()
+		{
+			return this.size == 0;
+		}
+
+		void pushNode(
+			int node,
+			double weight,
+			int heaviestKey
+		) {
+			this.push(node, weight, heaviestKey);
+		}
+
+		void pushEntry(
+			int entry,
+			double weight
+		) {
+			this.push(~entry, weight, entry);
+		}
+
+		int pop()
+		{
+			int top = this.items[0];
+			this.size--;
+			if (this.size > 0)
+			{
+				this.siftDown(this.priorities[this.size], this.keys[this.size], this.items[this.size]);
+			}
+
+			return top;
+		}
+
+		//--------------------------------------------------------------------------------
+		private void push(
+			int item,
+			double priority,
+			int key
+		) {
+			if (this.size == this.items.length)
+			{
+				this.priorities = java.util.Arrays.copyOf(this.priorities, this.size * 2);
+				this.keys = java.util.Arrays.copyOf(this.keys, this.size * 2);
+				this.items = java.util.Arrays.copyOf(this.items, this.size * 2);
+			}
+
+			int i = this.size++;
+			while (i > 0)
+			{
+				int parent = (i - 1) >>> 1;
+				if (!before(priority, key, this.priorities[parent], this.keys[parent]))
+				{
+					break;
+				}
+
+				this.priorities[i] = this.priorities[parent];
+				this.keys[i] = this.keys[parent];
+				this.items[i] = this.items[parent];
+				i = parent;
+			}
+
+			this.priorities[i] = priority;
+			this.keys[i] = key;
+			this.items[i] = item;
+		}
+
+		private void siftDown(
+			double priority,
+			int key,
+			int item
+		) {
+			int i = 0;
+			int half = this.size >>> 1;
+			while (i < half)
+			{
+				int child = 2 * i + 1;
+				int right = child + 1;
+				if (right < this.size && before(this.priorities[right], this.keys[right], this.priorities[child], this.keys[child]))
+				{
+					child = right;
+				}
+
+				if (!before(this.priorities[child], this.keys[child], priority, key))
+				{
+					break;
+				}
+
+				this.priorities[i] = this.priorities[child];
+				this.keys[i] = this.keys[child];
+				this.items[i] = this.items[child];
+				i = child;
+			}
+
+			this.priorities[i] = priority;
+			this.keys[i] = key;
+			this.items[i] = item;
+		}
+
+		/**
+		 * Heavier items come first, and lower key indices on equal weight, which keeps equally weighted strings in alphabetical order. The
+		 * items queued at any one time cover disjoint ranges of keys, so no two share a key index.
+		 */
+		private static boolean before(
+			double priority,
+			int key,
+			double otherPriority,
+			int otherKey
+		) {
+			if (priority != otherPriority)
+			{
+				return priority > otherPriority;
+			}
+
+			return key < otherKey;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Hands out chunks of an array of doubles to any number of concurrent workers. See {@link ChunkCursor}.
+ */
+public final class ConcurrentDoubleArrayCursor extends ChunkCursor<double[]>
+{
+	private final double[] data;
+
+	/**
+	 * Constructs a cursor over the given array with the default minimum chunk size.
+	 *
+	 * @param data Array to hand out
+	 */
+	public ConcurrentDoubleArrayCursor(
+		@NotNull double[] data
+	) {
+		this(data, DEFAULT_MIN_CHUNK);
+	}
+
+	/**
+	 * Constructs a cursor over the given array.
+	 *
+	 * @param data Array to hand out
+	 * @param minChunk Smallest chunk to hand out, except for the very last
+	 */
+	public ConcurrentDoubleArrayCursor(
+		@NotNull double[] data,
+		int minChunk
+	) {
+		super(Objects.requireNonNull(data).length, minChunk);
+
+		this.data = data;
+	}
+
+	/**
+	 * Calls an action for every element on the given number of threads. See {@link #forEachChunk(int, Consumer)}.
+	 *
+	 * @param workers Number of threads to work on, including the calling thread
+	 * @param action Action to run for each element
+	 */
+	public void forEach(
+		int workers,
+		@NotNull DoubleConsumer action
+	) {
+		Objects.requireNonNull(action);
+
+		this.forEachChunk(workers, slice -> {
+			double[] array = slice.array();
+			for (int i = slice.from(); i < slice.to(); i++)
+			{
+				action.accept(array[i]);
+			}
+		});
+	}
+
+	@Override
+	protected double[] array()
+	{
+		return this.data;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Hands out chunks of an array of ints to any number of concurrent workers. See {@link ChunkCursor}.
+ */
+public final class ConcurrentIntArrayCursor extends ChunkCursor<int[]>
+{
+	private final int[] data;
+
+	/**
+	 * Constructs a cursor over the given array with the default minimum chunk size.
+	 *
+	 * @param data Array to hand out
+	 */
+	public ConcurrentIntArrayCursor(
+		@NotNull int[] data
+	) {
+		this(data, DEFAULT_MIN_CHUNK);
+	}
+
+	/**
+	 * Constructs a cursor over the given array.
+	 *
+	 * @param data Array to hand out
+	 * @param minChunk Smallest chunk to hand out, except for the very last
+	 */
+	public ConcurrentIntArrayCursor(
+		@NotNull int[] data,
+		int minChunk
+	) {
+		super(Objects.requireNonNull(data).length, minChunk);
+
+		this.data = data;
+	}
+
+	/**
+	 * Calls an action for every element on the given number of threads. See {@link #forEachChunk(int, Consumer)}.
+	 *
+	 * @param workers Number of threads to work on, including the calling thread
+	 * @param action Action to run for each element
+	 */
+	public void forEach(
+		int workers,
+		@NotNull IntConsumer action
+	) {
+		Objects.requireNonNull(action);
+
+		this.forEachChunk(workers, slice -> {
+			int[] array = slice.array();
+			for (int i = slice.from(); i < slice.to(); i++)
+			{
+				action.accept(array[i]);
+			}
+		});
+	}
+
+	@Override
+	protected int[] array()
+	{
+		return this.data;
+	}
+}
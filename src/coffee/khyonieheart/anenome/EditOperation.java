@@ -0,0 +1,119 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+
+/**
+ * A single step of an {@link EditScript}.
+ */
+public final class EditOperation
+{
+	/**
+	 * Kind of edit.
+	 */
+	public static enum Type
+	{
+		/** A character of B is inserted into A */
+		INSERT,
+		/** A character of A is removed */
+		DELETE,
+		/** A character of A is replaced with a character of B */
+		SUBSTITUTE
+	}
+
+	private final Type type;
+	private final int indexA;
+	private final int indexB;
+	private final char character;
+
+	EditOperation(
+		@NotNull Type type,
+		int indexA,
+		int indexB,
+		char character
+	) {
+		this.type = Objects.requireNonNull(type);
+		this.indexA = indexA;
+		this.indexB = indexB;
+		this.character = character;
+	}
+
+	/**
+	 * Returns the kind of this edit.
+	 *
+	 * @return Edit type
+	 */
+	@NotNull
+	public Type type()
+	{
+		return this.type;
+	}
+
+	/**
+	 * Returns the position in string A this edit applies to. For insertions, this is the position the new character is inserted before.
+	 *
+	 * @return Index into string A
+	 */
+	public int indexA()
+	{
+		return this.indexA;
+	}
+
+	/**
+	 * Returns the corresponding position in string B. For deletions, this is the position in B at which the deleted character would
+	 * have been.
+	 *
+	 * @return Index into string B
+	 */
+	public int indexB()
+	{
+		return this.indexB;
+	}
+
+	/**
+	 * Returns the character inserted or substituted in from string B, or the character deleted from string A.
+	 *
+	 * @return Character affected by this edit
+	 */
+	public char character()
+	{
+		return this.character;
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof EditOperation other))
+		{
+			return false;
+		}
+
+		return this.type == other.type && this.indexA == other.indexA && this.indexB == other.indexB && this.character == other.character;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(this.type, this.indexA, this.indexB, this.character);
+	}
+
+	@Override
+	public String toString()
+	{
+		return switch (this.type) {
+			case INSERT -> "Insert '" + this.character + "' at " + this.indexA;
+			case DELETE -> "Delete '" + this.character + "' at " + this.indexA;
+			case SUBSTITUTE -> "Substitute '" + this.character + "' at " + this.indexA;
+		};
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A minimal sequence of single-character edits transforming one string into another, as produced by
+ * {@link Strings#editScript(CharSequence, CharSequence)}. Operations are ordered by their position in string A.
+ */
+public final class EditScript
+{
+	private final List<EditOperation> operations;
+	private final int lengthA;
+	private final int lengthB;
+
+	EditScript(
+		@NotNull List<EditOperation> operations,
+		int lengthA,
+		int lengthB
+	) {
+		this.operations = Collections.unmodifiableList(operations);
+		this.lengthA = lengthA;
+		this.lengthB = lengthB;
+	}
+
+	/**
+	 * Returns the edits in this script.
+	 *
+	 * @return Unmodifiable list of edits, ordered by position
+	 */
+	@NotNull
+	public List<EditOperation> operations()
+	{
+		return this.operations;
+	}
+
+	/**
+	 * Returns the Levenshtein distance between the two strings, which is the number of edits in this script.
+	 *
+	 * @return Edit distance
+	 */
+	public int distance()
+	{
+		return this.operations.size();
+	}
+
+	/**
+	 * Applies this script to the string it was computed from.
+	 *
+	 * @param source String A
+	 *
+	 * @return String B
+	 * @throws IllegalArgumentException If the given string is not the length of string A
+	 */
+	@NotNull
+	public String apply(
+		@NotNull CharSequence source
+	) {
+		Objects.requireNonNull(source);
+		if (source.length() != this.lengthA)
+		{
+			throw new IllegalArgumentException("Script was computed for a string of length " + this.lengthA + "; received " + source.length());
+		}
+
+		StringBuilder builder = new StringBuilder(this.lengthB);
+		int position = 0;
+		for (EditOperation operation : this.operations)
+		{
+			builder.append(source, position, operation.indexA());
+			position = operation.indexA();
+
+			switch (operation.type())
+			{
+				case INSERT -> builder.append(operation.character());
+				case DELETE -> position++;
+				case SUBSTITUTE -> {
+					builder.append(operation.character());
+					position++;
+				}
+			}
+		}
+
+		return builder.append(source, position, source.length()).toString();
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.operations.toString();
+	}
+}
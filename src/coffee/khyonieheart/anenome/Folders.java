@@ -3,6 +3,8 @@ package coffee.khyonieheart.anenome;
 import java.io.File;
 import java.util.Objects;
 
+import coffee.khyonieheart.anenome.jfr.FolderEvent;
+
 public class Folders
 {
 	@NotNull
@@ -12,12 +14,24 @@ public class Folders
 	{
 		Objects.requireNonNull(file);
 
+		FolderEvent event = FolderEvent.start();
 		if (file.exists())
 		{
+			if (event != null)
+			{
+				event.finish(file.getAbsolutePath(), "ensureFolder", false);
+			}
+
 			return file;
 		}
 
-		if (!file.mkdirs())
+		boolean created = file.mkdirs();
+		if (event != null)
+		{
+			event.finish(file.getAbsolutePath(), "ensureFolder", created);
+		}
+
+		if (!created)
 		{
 			throw new IllegalStateException("Could not create folder " + file.getAbsolutePath());
 		}
@@ -0,0 +1,298 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Destination for rendered {@link FormatTemplate} output. Rendering code writes characters and numbers here without caring whether they
+ * end up in a {@link StringBuilder} or encoded directly into a {@link ByteBuffer}.
+ */
+abstract class FormatOutput
+{
+	abstract void put(
+		char c
+	);
+
+	abstract void putDigits(
+		long value
+	);
+
+	void putDouble(
+		double value
+	) {
+		this.put(Double.toString(value));
+	}
+
+	void put(
+		CharSequence text
+	) {
+		int length = text.length();
+		for (int i = 0; i < length; i++)
+		{
+			this.put(text.charAt(i));
+		}
+	}
+
+	void fill(
+		char c,
+		int count
+	) {
+		for (int i = 0; i < count; i++)
+		{
+			this.put(c);
+		}
+	}
+
+	/**
+	 * Writes an argument without any format spec applied. Integral boxes are written as digits without an intermediate string.
+	 */
+	void putObject(
+		Object value
+	) {
+		if (value == null)
+		{
+			this.put("null");
+			return;
+		}
+
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+		{
+			this.putDigits(((Number) value).longValue());
+			return;
+		}
+
+		if (value instanceof CharSequence text)
+		{
+			this.put(text);
+			return;
+		}
+
+		this.put(value.toString());
+	}
+
+	//--------------------------------------------------------------------------------
+	/**
+	 * Output into a {@link StringBuilder}.
+	 */
+	static final class Chars extends FormatOutput
+	{
+		private final StringBuilder builder;
+
+		Chars(
+			StringBuilder builder
+		) {
+			this.builder = builder;
+		}
+
+		@Override
+		void put(
+			char c
+		) {
+			this.builder.append(c);
+		}
+
+		@Override
+		void put(
+			CharSequence text
+		) {
+			this.builder.append(text);
+		}
+
+		@Override
+		void putDigits(
+			long value
+		) {
+			this.builder.append(value);
+		}
+
+		@Override
+		void putDouble(
+			double value
+		) {
+			this.builder.append(value);
+		}
+	}
+
+	/**
+	 * UTF-8 output into a {@link ByteBuffer}. Output is resumable: the first {@code skip} bytes of a segment are discarded, and once the
+	 * buffer is full further output is counted but not written. This lets a segment be rendered again after the caller has drained the
+	 * buffer, continuing exactly where it stopped.
+	 */
+	static final class Utf8 extends FormatOutput
+	{
+		private static final ThreadLocal<Utf8> LOCAL = ThreadLocal.withInitial(Utf8::new);
+
+		private final byte[] digits = new byte[20];
+
+		private ByteBuffer destination;
+		private int skip;
+		private int produced;
+		private boolean overflowed;
+		private char pendingHigh;
+		private boolean inUse;
+
+		/**
+		 * Returns this thread's shared output, so that one-shot formatting allocates nothing. If it is already in use further up the stack,
+		 * as when a parameter's {@code toString()} formats a message of its own, a new output is returned instead. Pair with
+		 * {@link #release()}.
+		 */
+		static Utf8 acquire()
+		{
+			Utf8 out = LOCAL.get();
+			if (out.inUse)
+			{
+				return new Utf8();
+			}
+
+			out.inUse = true;
+
+			return out;
+		}
+
+		void release()
+		{
+			this.inUse = false;
+		}
+
+		void begin(
+			ByteBuffer destination,
+			int skip
+		) {
+			this.destination = destination;
+			this.skip = skip;
+			this.produced = 0;
+			this.overflowed = false;
+			this.pendingHigh = 0;
+		}
+
+		/**
+		 * Finishes the current segment.
+		 *
+		 * @return Number of bytes of this segment written so far, including skipped bytes, or -1 if the whole segment was written
+		 */
+		int end()
+		{
+			if (this.pendingHigh != 0)
+			{
+				this.pendingHigh = 0;
+				this.putByte('?');
+			}
+
+			this.destination = null;
+
+			return this.overflowed ? this.produced : -1;
+		}
+
+		@Override
+		void put(
+			char c
+		) {
+			if (this.overflowed)
+			{
+				return;
+			}
+
+			if (this.pendingHigh != 0)
+			{
+				char high = this.pendingHigh;
+				this.pendingHigh = 0;
+
+				if (Character.isLowSurrogate(c))
+				{
+					int codePoint = Character.toCodePoint(high, c);
+					this.putByte(0xF0 | (codePoint >> 18));
+					this.putByte(0x80 | ((codePoint >> 12) & 0x3F));
+					this.putByte(0x80 | ((codePoint >> 6) & 0x3F));
+					this.putByte(0x80 | (codePoint & 0x3F));
+					return;
+				}
+
+				this.putByte('?');
+			}
+
+			if (c < 0x80)
+			{
+				this.putByte(c);
+			}
+			else if (c < 0x800)
+			{
+				this.putByte(0xC0 | (c >> 6));
+				this.putByte(0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c))
+			{
+				this.pendingHigh = c;
+			}
+			else if (Character.isLowSurrogate(c))
+			{
+				this.putByte('?');
+			}
+			else
+			{
+				this.putByte(0xE0 | (c >> 12));
+				this.putByte(0x80 | ((c >> 6) & 0x3F));
+				this.putByte(0x80 | (c & 0x3F));
+			}
+		}
+
+		@Override
+		void putDigits(
+			long value
+		) {
+			byte[] digits = this.digits;
+			int position = digits.length;
+			boolean negative = value < 0;
+
+			// Work with negative values, so that Long.MIN_VALUE needs no special case
+			if (!negative)
+			{
+				value = -value;
+			}
+
+			do
+			{
+				digits[--position] = (byte) ('0' - (value % 10));
+				value /= 10;
+			}
+			while (value != 0);
+
+			if (negative)
+			{
+				this.putByte('-');
+			}
+
+			for (; position < digits.length; position++)
+			{
+				this.putByte(digits[position]);
+			}
+		}
+
+		private void putByte(
+			int b
+		) {
+			if (this.overflowed)
+			{
+				return;
+			}
+
+			if (this.produced < this.skip)
+			{
+				this.produced++;
+				return;
+			}
+
+			if (!this.destination.hasRemaining())
+			{
+				this.overflowed = true;
+				return;
+			}
+
+			this.destination.put((byte) b);
+			this.produced++;
+		}
+	}
+}
@@ -0,0 +1,511 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import coffee.khyonieheart.anenome.exception.StringFormatException;
+
+/**
+ * A parsed {@code {:...}} format spec. Specs are parsed once when a {@link FormatTemplate} is compiled.
+ * <p>
+ * Grammar: {@code {:[[fill]align][0][width][,][.precision][type]}}
+ * <ul>
+ * <li>{@code align} - One of {@code <} (left, the default), {@code >} (right) or {@code ^} (centered), padded with {@code fill} (space by default)</li>
+ * <li>{@code 0} - Pad numbers with zeroes after the sign</li>
+ * <li>{@code width} - Minimum number of characters to fill</li>
+ * <li>{@code ,} - Seperate thousands with commas</li>
+ * <li>{@code precision} - Digits after the decimal point for floating point numbers, or maximum length for anything else</li>
+ * <li>{@code type} - One of {@code d} (decimal), {@code x}/{@code X} (lower/upper case hex), {@code b} (binary) or {@code f} (fixed-point)</li>
+ * </ul>
+ * Numbers are written digit by digit into the output, without an intermediate string.
+ */
+final class FormatSpec
+{
+	private static final long[] POWERS_OF_TEN = new long[19];
+	private static final int DEFAULT_PRECISION = 6;
+	private static final char[] LOWER_HEX = "0123456789abcdef".toCharArray();
+	private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+
+	static
+	{
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+		{
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private final char fill;
+	private final char alignment;
+	private final boolean zeroPad;
+	private final int width;
+	private final boolean grouping;
+	private final int precision;
+	private final char type;
+
+	private FormatSpec(
+		char fill,
+		char alignment,
+		boolean zeroPad,
+		int width,
+		boolean grouping,
+		int precision,
+		char type
+	) {
+		this.fill = fill;
+		this.alignment = alignment;
+		this.zeroPad = zeroPad;
+		this.width = width;
+		this.grouping = grouping;
+		this.precision = precision;
+		this.type = type;
+	}
+
+	/**
+	 * Parses the text following the colon of a format spec.
+	 */
+	static FormatSpec parse(
+		String spec
+	) {
+		int length = spec.length();
+		int position = 0;
+
+		char fill = ' ';
+		char alignment = '<';
+		if (length >= 2 && isAlignment(spec.charAt(1)))
+		{
+			fill = spec.charAt(0);
+			alignment = spec.charAt(1);
+			position = 2;
+		}
+		else if (length >= 1 && isAlignment(spec.charAt(0)))
+		{
+			alignment = spec.charAt(0);
+			position = 1;
+		}
+
+		boolean zeroPad = false;
+		if (position < length && spec.charAt(position) == '0')
+		{
+			zeroPad = true;
+			position++;
+		}
+
+		int start = position;
+		while (position < length && isDigit(spec.charAt(position)))
+		{
+			position++;
+		}
+		int width = start == position ? 0 : parseNumber(spec, start, position);
+
+		boolean grouping = false;
+		if (position < length && spec.charAt(position) == ',')
+		{
+			grouping = true;
+			position++;
+		}
+
+		int precision = -1;
+		if (position < length && spec.charAt(position) == '.')
+		{
+			start = ++position;
+			while (position < length && isDigit(spec.charAt(position)))
+			{
+				position++;
+			}
+
+			if (start == position)
+			{
+				throw new StringFormatException("Missing precision in format \"" + spec + "\"");
+			}
+
+			precision = parseNumber(spec, start, position);
+		}
+
+		char type = 0;
+		if (position < length && "dxXbf".indexOf(spec.charAt(position)) != -1)
+		{
+			type = spec.charAt(position++);
+		}
+
+		if (position != length || length == 0)
+		{
+			throw new StringFormatException("Unknown format \"" + spec + "\"");
+		}
+
+		if (grouping && type != 0 && type != 'd' && type != 'f')
+		{
+			throw new StringFormatException("Thousands seperators are only supported for decimal numbers in format \"" + spec + "\"");
+		}
+
+		if (precision != -1 && (type == 'd' || type == 'x' || type == 'X' || type == 'b'))
+		{
+			throw new StringFormatException("Precision is not supported for integer types in format \"" + spec + "\"");
+		}
+
+		if (type == 'f' && precision > 18)
+		{
+			throw new StringFormatException("Precision must not exceed 18 in format \"" + spec + "\"");
+		}
+
+		return new FormatSpec(fill, alignment, zeroPad, width, grouping, precision, type);
+	}
+
+	void render(
+		FormatOutput out,
+		Object value
+	) {
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			this.renderIntegral(out, ((Number) value).longValue(), 32);
+			return;
+		}
+
+		if (value instanceof Long longValue)
+		{
+			this.renderIntegral(out, longValue, 64);
+			return;
+		}
+
+		if ((value instanceof Double || value instanceof Float) && this.isNumeric())
+		{
+			this.render(out, ((Number) value).doubleValue());
+			return;
+		}
+
+		if (value instanceof Number && this.type == 0)
+		{
+			this.renderNumberText(out, value.toString());
+			return;
+		}
+
+		if (this.type != 0)
+		{
+			throw new StringFormatException("Format type '" + this.type + "' cannot be applied to " + (value == null ? "null" : value.getClass().getSimpleName()));
+		}
+
+		CharSequence text;
+		if (value == null)
+		{
+			text = "null";
+		}
+		else if (value instanceof CharSequence sequence)
+		{
+			text = sequence;
+		}
+		else
+		{
+			text = value.toString();
+		}
+
+		this.renderText(out, text);
+	}
+
+	void render(
+		FormatOutput out,
+		long value,
+		int bits
+	) {
+		this.renderIntegral(out, value, bits);
+	}
+
+	void render(
+		FormatOutput out,
+		double value
+	) {
+		if (!this.isNumeric())
+		{
+			this.renderNumberText(out, Double.toString(value));
+			return;
+		}
+
+		if (this.type != 0 && this.type != 'f')
+		{
+			throw new StringFormatException("Format type '" + this.type + "' cannot be applied to Double");
+		}
+
+		if (Double.isNaN(value) || Double.isInfinite(value))
+		{
+			this.renderText(out, Double.toString(value));
+			return;
+		}
+
+		int precision = this.precision == -1 ? DEFAULT_PRECISION : this.precision;
+		boolean negative = Double.doubleToRawLongBits(value) < 0;
+		double scaled = Math.abs(value) * POWERS_OF_TEN[precision];
+
+		// Values that fit into a long once scaled are rounded half-up and written directly. Larger values are rare enough to go through
+		// BigDecimal.
+		if (scaled < 9.0e18)
+		{
+			long units = (long) (scaled + 0.5);
+			long integer = units / POWERS_OF_TEN[precision];
+			long fraction = units % POWERS_OF_TEN[precision];
+
+			this.renderFixed(out, negative, integer, fraction, precision);
+			return;
+		}
+
+		String digits = new BigDecimal(value).abs().setScale(precision, RoundingMode.HALF_UP).toPlainString();
+		int point = precision == 0 ? digits.length() : digits.length() - precision - 1;
+		int length = (negative ? 1 : 0) + this.groupedLength(point) + (digits.length() - point);
+
+		int padding = this.width - length;
+		int left = this.padBefore(out, padding, length, negative);
+		for (int i = 0; i < point; i++)
+		{
+			out.put(digits.charAt(i));
+			if (this.grouping && i < point - 1 && (point - 1 - i) % 3 == 0)
+			{
+				out.put(',');
+			}
+		}
+		for (int i = point; i < digits.length(); i++)
+		{
+			out.put(digits.charAt(i));
+		}
+		this.padAfter(out, padding, left);
+	}
+
+	//--------------------------------------------------------------------------------
+	private boolean isNumeric()
+	{
+		return this.type != 0 || this.precision != -1 || this.grouping;
+	}
+
+	private void renderIntegral(
+		FormatOutput out,
+		long value,
+		int bits
+	) {
+		switch (this.type)
+		{
+			case 'x', 'X' -> this.renderUnsigned(out, bits == 32 ? value & 0xFFFFFFFFL : value, 4, this.type == 'X' ? UPPER_HEX : LOWER_HEX);
+			case 'b' -> this.renderUnsigned(out, bits == 32 ? value & 0xFFFFFFFFL : value, 1, LOWER_HEX);
+			case 'f' -> this.renderFixed(out, value < 0, Math.abs(value), 0, this.precision == -1 ? DEFAULT_PRECISION : this.precision);
+			default -> this.renderDecimal(out, value);
+		}
+	}
+
+	private void renderDecimal(
+		FormatOutput out,
+		long value
+	) {
+		boolean negative = value < 0;
+
+		// Work with negative magnitudes, so that Long.MIN_VALUE needs no special case
+		long magnitude = negative ? value : -value;
+		int digits = decimalDigits(magnitude);
+		int length = (negative ? 1 : 0) + this.groupedLength(digits);
+
+		int padding = this.width - length;
+		int left = this.padBefore(out, padding, length, negative);
+		this.putDecimal(out, magnitude, digits);
+		this.padAfter(out, padding, left);
+	}
+
+	private void renderFixed(
+		FormatOutput out,
+		boolean negative,
+		long integer,
+		long fraction,
+		int precision
+	) {
+		// Math.abs(Long.MIN_VALUE) is still negative, and the negative magnitude is exactly what putDecimal expects
+		long magnitude = integer < 0 ? integer : -integer;
+		int digits = decimalDigits(magnitude);
+		int length = (negative ? 1 : 0) + this.groupedLength(digits) + (precision == 0 ? 0 : precision + 1);
+
+		int padding = this.width - length;
+		int left = this.padBefore(out, padding, length, negative);
+		this.putDecimal(out, magnitude, digits);
+
+		if (precision != 0)
+		{
+			out.put('.');
+			for (int i = precision - 1; i >= 0; i--)
+			{
+				out.put((char) ('0' + (fraction / POWERS_OF_TEN[i]) % 10));
+			}
+		}
+
+		this.padAfter(out, padding, left);
+	}
+
+	private void renderUnsigned(
+		FormatOutput out,
+		long value,
+		int shift,
+		char[] alphabet
+	) {
+		int mask = (1 << shift) - 1;
+		int digits = Math.max(1, (64 - Long.numberOfLeadingZeros(value) + shift - 1) / shift);
+
+		int padding = this.width - digits;
+		int left = this.padBefore(out, padding, digits, false);
+		for (int i = digits - 1; i >= 0; i--)
+		{
+			out.put(alphabet[(int) (value >>> (i * shift)) & mask]);
+		}
+		this.padAfter(out, padding, left);
+	}
+
+	private void renderText(
+		FormatOutput out,
+		CharSequence text
+	) {
+		int length = this.precision == -1 ? text.length() : Math.min(text.length(), this.precision);
+		int padding = this.width - length;
+		char fill = this.zeroPad ? '0' : this.fill;
+		int left = this.leftPadding(padding, length);
+
+		out.fill(fill, left);
+		for (int i = 0; i < length; i++)
+		{
+			out.put(text.charAt(i));
+		}
+		out.fill(fill, padding - left);
+	}
+
+	/**
+	 * Writes a number that has already been converted to text, keeping zero padding after the sign.
+	 */
+	private void renderNumberText(
+		FormatOutput out,
+		String text
+	) {
+		if (!this.zeroPad)
+		{
+			this.renderText(out, text);
+			return;
+		}
+
+		boolean negative = text.startsWith("-");
+		int padding = this.width - text.length();
+		int left = this.padBefore(out, padding, text.length(), negative);
+		for (int i = negative ? 1 : 0; i < text.length(); i++)
+		{
+			out.put(text.charAt(i));
+		}
+		this.padAfter(out, padding, left);
+	}
+
+	/**
+	 * Writes padding and sign ahead of a number.
+	 *
+	 * @return Amount of padding written before the number, to be passed to {@link #padAfter(FormatOutput, int, int)}
+	 */
+	private int padBefore(
+		FormatOutput out,
+		int padding,
+		int length,
+		boolean negative
+	) {
+		if (this.zeroPad)
+		{
+			if (negative)
+			{
+				out.put('-');
+			}
+
+			out.fill('0', padding);
+
+			return padding;
+		}
+
+		int left = this.leftPadding(padding, length);
+		out.fill(this.fill, left);
+
+		if (negative)
+		{
+			out.put('-');
+		}
+
+		return left;
+	}
+
+	private void padAfter(
+		FormatOutput out,
+		int padding,
+		int left
+	) {
+		out.fill(this.fill, padding - left);
+	}
+
+	private int leftPadding(
+		int padding,
+		int length
+	) {
+		if (padding <= 0)
+		{
+			return 0;
+		}
+
+		return switch (this.alignment) {
+			case '>' -> padding;
+			// Rounded up, so the string is slightly biased towards the left
+			case '^' -> Math.max(0, this.width / 2 - (length + 1) / 2);
+			default -> 0;
+		};
+	}
+
+	private int groupedLength(
+		int digits
+	) {
+		return this.grouping ? digits + (digits - 1) / 3 : digits;
+	}
+
+	private void putDecimal(
+		FormatOutput out,
+		long magnitude,
+		int digits
+	) {
+		for (int i = digits - 1; i >= 0; i--)
+		{
+			out.put((char) ('0' - (magnitude / POWERS_OF_TEN[i]) % 10));
+
+			if (this.grouping && i > 0 && i % 3 == 0)
+			{
+				out.put(',');
+			}
+		}
+	}
+
+	/**
+	 * Number of decimal digits in a non-positive magnitude.
+	 */
+	private static int decimalDigits(
+		long magnitude
+	) {
+		return magnitude == 0 ? 1 : Strings.stringSize(magnitude) - 1;
+	}
+
+	private static boolean isAlignment(
+		char c
+	) {
+		return c == '<' || c == '>' || c == '^';
+	}
+
+	private static boolean isDigit(
+		char c
+	) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int parseNumber(
+		String spec,
+		int start,
+		int end
+	) {
+		try {
+			return Integer.parseInt(spec, start, end, 10);
+		} catch (NumberFormatException e) {
+			throw new StringFormatException("Number is too large in format \"" + spec + "\"", e);
+		}
+	}
+}
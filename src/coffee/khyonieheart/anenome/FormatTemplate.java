@@ -0,0 +1,888 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.exception.StringFormatException;
+
+/**
+ * A format string that has been parsed ahead of time, see {@link Strings#format(String, Object...)} for the syntax. Compiling a
+ * template once and reusing it skips all parsing on each call, and lets literal text be pre-encoded for {@link #formatUtf8(ByteBuffer, Object...)}.
+ * <p>
+ * A template either takes its values from a list of parameters, or, if it uses {@code {name}} placeholders, from the named values of a
+ * single source object; see {@link #formatNamed(Object)}. The two kinds of placeholder can not be mixed.
+ * <p>
+ * Templates are immutable and may be shared freely between threads.
+ */
+public final class FormatTemplate
+{
+	private final String source;
+	private final String[] literals;
+	private final byte[][] encodedLiterals;
+	private final int[] arguments;
+	private final FormatSpec[] specs;
+	private final String[] names;
+	private final int requiredParameters;
+	private final int literalLength;
+
+	// Accessors for the class most recently formatted with, so that repeated calls with the same class skip even the per-class cache
+	private volatile Binding binding;
+
+	private FormatTemplate(
+		String source,
+		String[] literals,
+		int[] arguments,
+		FormatSpec[] specs,
+		String[] names
+	) {
+		this.source = source;
+		this.literals = literals;
+		this.arguments = arguments;
+		this.specs = specs;
+		this.names = names;
+
+		this.encodedLiterals = new byte[literals.length][];
+		int literalLength = 0;
+		for (int i = 0; i < literals.length; i++)
+		{
+			this.encodedLiterals[i] = literals[i].getBytes(StandardCharsets.UTF_8);
+			literalLength += literals[i].length();
+		}
+		this.literalLength = literalLength;
+
+		int required = 0;
+		for (int argument : arguments)
+		{
+			required = Math.max(required, argument + 1);
+		}
+		this.requiredParameters = names == null ? required : 0;
+	}
+
+	/**
+	 * Parses the given format string.
+	 *
+	 * @param format Format string
+	 *
+	 * @return A compiled template
+	 * @throws StringFormatException If the format string contains an unknown placeholder
+	 */
+	@NotNull
+	public static FormatTemplate compile(
+		@NotNull String format
+	) {
+		Objects.requireNonNull(format);
+
+		String[] literals = new String[4];
+		int[] arguments = new int[3];
+		FormatSpec[] specs = new FormatSpec[3];
+		String[] names = new String[3];
+		int placeholders = 0;
+		int named = 0;
+
+		StringBuilder literal = new StringBuilder();
+		int length = format.length();
+		int i = 0;
+		while (i < length)
+		{
+			char c = format.charAt(i);
+			int close = c == '{' ? findClose(format, i + 1) : -1;
+
+			if (close == -1)
+			{
+				literal.append(c);
+				i++;
+				continue;
+			}
+
+			if (placeholders == arguments.length)
+			{
+				literals = java.util.Arrays.copyOf(literals, placeholders * 2 + 1);
+				arguments = java.util.Arrays.copyOf(arguments, placeholders * 2);
+				specs = java.util.Arrays.copyOf(specs, placeholders * 2);
+				names = java.util.Arrays.copyOf(names, placeholders * 2);
+			}
+
+			String content = format.substring(i + 1, close);
+			literals[placeholders] = literal.toString();
+			literal.setLength(0);
+
+			// Every placeholder consumes the next sequential parameter, positional placeholders included
+			arguments[placeholders] = placeholders;
+			if (!content.isBlank())
+			{
+				int colon = content.indexOf(':');
+				String name = colon == -1 ? content : content.substring(0, colon);
+				if (colon == 0)
+				{
+					specs[placeholders] = FormatSpec.parse(content.substring(1));
+				}
+				else if (isName(name))
+				{
+					names[placeholders] = name;
+					specs[placeholders] = colon == -1 ? null : FormatSpec.parse(content.substring(colon + 1));
+					arguments[placeholders] = 0;
+					named++;
+				}
+				else
+				{
+					arguments[placeholders] = parsePosition(content);
+				}
+			}
+
+			placeholders++;
+			i = close + 1;
+		}
+
+		literals[placeholders] = literal.toString();
+
+		if (named != 0 && named != placeholders)
+		{
+			throw new StringFormatException("Format \"" + format + "\" mixes named and unnamed placeholders");
+		}
+
+		return new FormatTemplate(
+			format,
+			java.util.Arrays.copyOf(literals, placeholders + 1),
+			java.util.Arrays.copyOf(arguments, placeholders),
+			java.util.Arrays.copyOf(specs, placeholders),
+			named == 0 ? null : java.util.Arrays.copyOf(names, placeholders)
+		);
+	}
+
+	/**
+	 * Returns the format string this template was compiled from.
+	 *
+	 * @return Format string
+	 */
+	@NotNull
+	public String source()
+	{
+		return this.source;
+	}
+
+	/**
+	 * Returns the number of parameters this template requires.
+	 *
+	 * @return Minimum number of parameters
+	 */
+	public int requiredParameters()
+	{
+		return this.requiredParameters;
+	}
+
+	/**
+	 * Returns whether this template uses {@code {name}} placeholders, and so must be formatted with {@link #formatNamed(Object)} and its
+	 * siblings.
+	 *
+	 * @return True if this template has named placeholders
+	 */
+	public boolean isNamed()
+	{
+		return this.names != null;
+	}
+
+	/**
+	 * Formats the given parameters into a string.
+	 *
+	 * @param parameters Parameters
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If fewer parameters are given than this template requires
+	 */
+	@NotNull
+	public String format(
+		@NotNull Object... parameters
+	) {
+		StringBuilder builder = new StringBuilder(this.literalLength + (this.arguments.length << 4));
+
+		return this.formatTo(builder, parameters).toString();
+	}
+
+	/**
+	 * Formats the given parameters, appending the result to an existing builder.
+	 *
+	 * @param builder Builder to append to
+	 * @param parameters Parameters
+	 *
+	 * @return The builder given
+	 * @throws StringFormatException If fewer parameters are given than this template requires
+	 */
+	@NotNull
+	public StringBuilder formatTo(
+		@NotNull StringBuilder builder,
+		@NotNull Object... parameters
+	) {
+		Objects.requireNonNull(builder);
+		this.checkParameters(parameters);
+
+		FormatOutput.Chars out = new FormatOutput.Chars(builder);
+
+		for (int i = 0; i < this.arguments.length; i++)
+		{
+			builder.append(this.literals[i]);
+			this.render(out, i, parameters, null, null);
+		}
+		builder.append(this.literals[this.arguments.length]);
+
+		return builder;
+	}
+
+	/**
+	 * Formats a single int parameter into a string without boxing it. Hex and binary output covers 32 bits.
+	 * <p>
+	 * The primitive forms have names of their own rather than overloading {@link #format(Object...)}, so that existing calls keep
+	 * formatting boxed, null and mixed parameters exactly as before.
+	 *
+	 * @param a First parameter
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template requires more than one parameter
+	 */
+	@NotNull
+	public String formatInt(
+		int a
+	) {
+		return this.renderLongs(1, 32, a, 0, 0);
+	}
+
+	/**
+	 * Formats a single long parameter into a string without boxing it. Hex and binary output covers 64 bits.
+	 *
+	 * @param a First parameter
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template requires more than one parameter
+	 */
+	@NotNull
+	public String formatLong(
+		long a
+	) {
+		return this.renderLongs(1, 64, a, 0, 0);
+	}
+
+	/**
+	 * Formats two long parameters into a string without boxing them.
+	 *
+	 * @param a First parameter
+	 * @param b Second parameter
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template requires more than two parameters
+	 */
+	@NotNull
+	public String formatLongs(
+		long a,
+		long b
+	) {
+		return this.renderLongs(2, 64, a, b, 0);
+	}
+
+	/**
+	 * Formats three long parameters into a string without boxing them.
+	 *
+	 * @param a First parameter
+	 * @param b Second parameter
+	 * @param c Third parameter
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template requires more than three parameters
+	 */
+	@NotNull
+	public String formatLongs(
+		long a,
+		long b,
+		long c
+	) {
+		return this.renderLongs(3, 64, a, b, c);
+	}
+
+	/**
+	 * Formats a single double parameter into a string without boxing it.
+	 *
+	 * @param a First parameter
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template requires more than one parameter
+	 */
+	@NotNull
+	public String formatDouble(
+		double a
+	) {
+		return this.renderDoubles(1, a, 0);
+	}
+
+	/**
+	 * Formats two double parameters into a string without boxing them.
+	 *
+	 * @param a First parameter
+	 * @param b Second parameter
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template requires more than two parameters
+	 */
+	@NotNull
+	public String formatDoubles(
+		double a,
+		double b
+	) {
+		return this.renderDoubles(2, a, b);
+	}
+
+	/**
+	 * Formats the given parameters directly into a buffer as UTF-8, without building an intermediate string. Either the whole message is
+	 * written, or nothing is; this method never throws {@link java.nio.BufferOverflowException}. Use {@link #writer(Object...)} to
+	 * write messages larger than the buffer in several parts.
+	 *
+	 * @param destination Buffer to write to
+	 * @param parameters Parameters
+	 *
+	 * @return Number of bytes written, or -1 if the buffer did not have enough space, in which case its position is unchanged
+	 * @throws StringFormatException If fewer parameters are given than this template requires
+	 */
+	public int formatUtf8(
+		@NotNull ByteBuffer destination,
+		@NotNull Object... parameters
+	) {
+		Objects.requireNonNull(destination);
+		this.checkParameters(parameters);
+
+		int start = destination.position();
+		FormatOutput.Utf8 out = FormatOutput.Utf8.acquire();
+
+		try {
+			for (int segment = 0; segment < this.segments(); segment++)
+			{
+				if (this.writeSegment(destination, out, segment, 0, parameters, null, null) != -1)
+				{
+					destination.position(start);
+					return -1;
+				}
+			}
+		} finally {
+			out.release();
+		}
+
+		return destination.position() - start;
+	}
+
+	/**
+	 * Formats the named values of a source object into a string. The source may be a {@link Map}, whose entries are looked up by name, or
+	 * any other object, whose values are read from, in order of preference, the record component, public {@code getName()} or
+	 * {@code isName()} getter, public {@code name()} method or public field of that name.
+	 * <p>
+	 * Accessors are resolved by reflection the first time a class is seen, and then invoked directly through cached method handles, so
+	 * rendering an object costs no more than calling its getters. Int, long and double values are written without being boxed.
+	 *
+	 * @param source Map or object holding the named values
+	 *
+	 * @return Formatted string
+	 * @throws StringFormatException If this template has unnamed placeholders, or the source has no value for one of its names
+	 */
+	@NotNull
+	public String formatNamed(
+		@NotNull Object source
+	) {
+		StringBuilder builder = new StringBuilder(this.literalLength + (this.arguments.length << 4));
+
+		return this.formatNamedTo(builder, source).toString();
+	}
+
+	/**
+	 * Formats the named values of a source object, appending the result to an existing builder. See {@link #formatNamed(Object)}.
+	 *
+	 * @param builder Builder to append to
+	 * @param source Map or object holding the named values
+	 *
+	 * @return The builder given
+	 * @throws StringFormatException If this template has unnamed placeholders, or the source has no value for one of its names
+	 */
+	@NotNull
+	public StringBuilder formatNamedTo(
+		@NotNull StringBuilder builder,
+		@NotNull Object source
+	) {
+		Objects.requireNonNull(builder);
+		this.checkSource(source);
+
+		FormatOutput.Chars out = new FormatOutput.Chars(builder);
+		Binding binding = this.bind(source);
+
+		for (int i = 0; i < this.arguments.length; i++)
+		{
+			builder.append(this.literals[i]);
+			this.render(out, i, null, source, binding);
+		}
+		builder.append(this.literals[this.arguments.length]);
+
+		return builder;
+	}
+
+	/**
+	 * Formats the named values of a source object directly into a buffer as UTF-8. See {@link #formatNamed(Object)} and
+	 * {@link #formatUtf8(ByteBuffer, Object...)}.
+	 *
+	 * @param destination Buffer to write to
+	 * @param source Map or object holding the named values
+	 *
+	 * @return Number of bytes written, or -1 if the buffer did not have enough space, in which case its position is unchanged
+	 * @throws StringFormatException If this template has unnamed placeholders, or the source has no value for one of its names
+	 */
+	public int formatNamedUtf8(
+		@NotNull ByteBuffer destination,
+		@NotNull Object source
+	) {
+		Objects.requireNonNull(destination);
+		this.checkSource(source);
+
+		int start = destination.position();
+		FormatOutput.Utf8 out = FormatOutput.Utf8.acquire();
+		Binding binding = this.bind(source);
+
+		try {
+			for (int segment = 0; segment < this.segments(); segment++)
+			{
+				if (this.writeSegment(destination, out, segment, 0, null, source, binding) != -1)
+				{
+					destination.position(start);
+					return -1;
+				}
+			}
+		} finally {
+			out.release();
+		}
+
+		return destination.position() - start;
+	}
+
+	/**
+	 * Creates a resumable writer that encodes the given parameters as UTF-8 into one or more buffers.
+	 *
+	 * @param parameters Parameters
+	 *
+	 * @return A new writer
+	 * @throws StringFormatException If fewer parameters are given than this template requires
+	 */
+	@NotNull
+	public Utf8Writer writer(
+		@NotNull Object... parameters
+	) {
+		return new Utf8Writer(this).reset(parameters);
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.source;
+	}
+
+	//--------------------------------------------------------------------------------
+	/**
+	 * Renders a placeholder, taking its value from the parameters for unnamed templates, or from the source for named ones.
+	 */
+	private void render(
+		FormatOutput out,
+		int placeholder,
+		Object[] parameters,
+		Object source,
+		Binding binding
+	) {
+		if (this.names != null)
+		{
+			this.renderNamed(out, placeholder, source, binding);
+			return;
+		}
+
+		this.render(out, this.specs[placeholder], parameters[this.arguments[placeholder]]);
+	}
+
+	private void render(
+		FormatOutput out,
+		FormatSpec spec,
+		Object value
+	) {
+		if (spec == null)
+		{
+			out.putObject(value);
+			return;
+		}
+
+		spec.render(out, value);
+	}
+
+	private void renderNamed(
+		FormatOutput out,
+		int placeholder,
+		Object source,
+		Binding binding
+	) {
+		String name = this.names[placeholder];
+		FormatSpec spec = this.specs[placeholder];
+
+		if (binding.accessors == null)
+		{
+			Map<?, ?> map = (Map<?, ?>) source;
+			Object value = map.get(name);
+			if (value == null && !map.containsKey(name))
+			{
+				throw new StringFormatException("No value named \"" + name + "\" in map");
+			}
+
+			this.render(out, spec, value);
+			return;
+		}
+
+		NamedAccessors.Accessor accessor = binding.accessors[placeholder];
+		try {
+			switch (accessor.kind)
+			{
+				case NamedAccessors.INT, NamedAccessors.LONG -> {
+					long value = (long) accessor.handle.invokeExact(source);
+					if (spec == null)
+					{
+						out.putDigits(value);
+						break;
+					}
+
+					spec.render(out, value, accessor.kind == NamedAccessors.INT ? 32 : 64);
+				}
+				case NamedAccessors.DOUBLE -> {
+					double value = (double) accessor.handle.invokeExact(source);
+					if (spec == null)
+					{
+						out.putDouble(value);
+						break;
+					}
+
+					spec.render(out, value);
+				}
+				default -> this.render(out, spec, (Object) accessor.handle.invokeExact(source));
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	/**
+	 * Returns the accessor of each placeholder for the source's class, reusing the last binding if it was for the same class. Maps bind
+	 * without accessors, as their values are looked up by name.
+	 */
+	private Binding bind(
+		Object source
+	) {
+		Class<?> type = source.getClass();
+		Binding binding = this.binding;
+		if (binding != null && binding.type == type)
+		{
+			return binding;
+		}
+
+		NamedAccessors.Accessor[] accessors = null;
+		if (!Map.class.isAssignableFrom(type) && this.names != null)
+		{
+			NamedAccessors named = NamedAccessors.of(type);
+			accessors = new NamedAccessors.Accessor[this.names.length];
+			for (int i = 0; i < accessors.length; i++)
+			{
+				accessors[i] = named.get(this.names[i]);
+			}
+		}
+
+		binding = new Binding(type, accessors);
+		this.binding = binding;
+
+		return binding;
+	}
+
+	private String renderLongs(
+		int count,
+		int bits,
+		long a,
+		long b,
+		long c
+	) {
+		this.checkParameters(count);
+
+		StringBuilder builder = new StringBuilder(this.literalLength + (this.arguments.length << 4));
+		FormatOutput.Chars out = new FormatOutput.Chars(builder);
+
+		for (int i = 0; i < this.arguments.length; i++)
+		{
+			builder.append(this.literals[i]);
+
+			int argument = this.arguments[i];
+			long value = argument == 0 ? a : argument == 1 ? b : c;
+			FormatSpec spec = this.specs[i];
+
+			if (spec == null)
+			{
+				out.putDigits(value);
+				continue;
+			}
+
+			spec.render(out, value, bits);
+		}
+		builder.append(this.literals[this.arguments.length]);
+
+		return builder.toString();
+	}
+
+	private String renderDoubles(
+		int count,
+		double a,
+		double b
+	) {
+		this.checkParameters(count);
+
+		StringBuilder builder = new StringBuilder(this.literalLength + (this.arguments.length << 4));
+		FormatOutput.Chars out = new FormatOutput.Chars(builder);
+
+		for (int i = 0; i < this.arguments.length; i++)
+		{
+			builder.append(this.literals[i]);
+
+			double value = this.arguments[i] == 0 ? a : b;
+			FormatSpec spec = this.specs[i];
+
+			if (spec == null)
+			{
+				out.putDouble(value);
+				continue;
+			}
+
+			spec.render(out, value);
+		}
+		builder.append(this.literals[this.arguments.length]);
+
+		return builder.toString();
+	}
+
+	private int segments()
+	{
+		return this.literals.length + this.arguments.length;
+	}
+
+	/**
+	 * Writes a segment, skipping the given number of bytes already written.
+	 *
+	 * @return Number of bytes of the segment written in total if the buffer filled up, or -1 if the segment is complete
+	 */
+	private int writeSegment(
+		ByteBuffer destination,
+		FormatOutput.Utf8 out,
+		int segment,
+		int offset,
+		Object[] parameters,
+		Object source,
+		Binding binding
+	) {
+		// Even segments are literals, odd segments are placeholders
+		if ((segment & 1) == 0)
+		{
+			byte[] literal = this.encodedLiterals[segment >> 1];
+			int count = Math.min(literal.length - offset, destination.remaining());
+			destination.put(literal, offset, count);
+
+			return offset + count == literal.length ? -1 : offset + count;
+		}
+
+		out.begin(destination, offset);
+		this.render(out, segment >> 1, parameters, source, binding);
+
+		return out.end();
+	}
+
+	private void checkParameters(
+		Object[] parameters
+	) {
+		this.checkParameters(Objects.requireNonNull(parameters).length);
+	}
+
+	private void checkParameters(
+		int count
+	) {
+		if (this.names != null)
+		{
+			throw new StringFormatException("Format \"" + this.source + "\" has named placeholders; use formatNamed");
+		}
+
+		if (count < this.requiredParameters)
+		{
+			throw new StringFormatException("Format \"" + this.source + "\" requires " + this.requiredParameters + " parameters; received " + count);
+		}
+	}
+
+	private void checkSource(
+		Object source
+	) {
+		Objects.requireNonNull(source);
+		if (this.names == null && this.arguments.length != 0)
+		{
+			throw new StringFormatException("Format \"" + this.source + "\" has unnamed placeholders; use format");
+		}
+	}
+
+	private static int findClose(
+		String format,
+		int from
+	) {
+		for (int i = from; i < format.length(); i++)
+		{
+			char c = format.charAt(i);
+			if (c == '}')
+			{
+				return i;
+			}
+
+			// Placeholders never span lines
+			if (c == '\n' || c == '\r')
+			{
+				return -1;
+			}
+		}
+
+		return -1;
+	}
+
+	private static boolean isName(
+		String content
+	) {
+		if (content.isEmpty() || !Character.isJavaIdentifierStart(content.charAt(0)))
+		{
+			return false;
+		}
+
+		for (int i = 1; i < content.length(); i++)
+		{
+			if (!Character.isJavaIdentifierPart(content.charAt(i)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int parsePosition(
+		String content
+	) {
+		for (int i = 0; i < content.length(); i++)
+		{
+			char c = content.charAt(i);
+			if (c < '0' || c > '9')
+			{
+				throw new StringFormatException("Unknown format \"" + content + "\"");
+			}
+		}
+
+		try {
+			return Integer.parseInt(content);
+		} catch (NumberFormatException e) {
+			throw new StringFormatException("Unknown format \"" + content + "\"", e);
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private static final class Binding
+	{
+		private final Class<?> type;
+		private final NamedAccessors.Accessor[] accessors;
+
+		private Binding(
+			Class<?> type,
+			NamedAccessors.Accessor[] accessors
+		) {
+			this.type = type;
+			this.accessors = accessors;
+		}
+	}
+
+	/**
+	 * Encodes one formatted message into as many buffers as needed. Each call to {@link #writeTo(ByteBuffer)} fills the buffer as far
+	 * as possible; once it returns false, the caller drains the buffer (for example by writing it to a channel) and calls it again.
+	 * <p>
+	 * Writers are not thread-safe, but may be reused for another message with {@link #reset(Object...)}.
+	 */
+	public static final class Utf8Writer
+	{
+		private final FormatTemplate template;
+		private final FormatOutput.Utf8 out = new FormatOutput.Utf8();
+		private Object[] parameters;
+		private int segment;
+		private int offset;
+
+		private Utf8Writer(
+			FormatTemplate template
+		) {
+			this.template = template;
+		}
+
+		/**
+		 * Starts a new message with the given parameters, discarding any progress on the previous one.
+		 *
+		 * @param parameters Parameters
+		 *
+		 * @return This writer
+		 * @throws StringFormatException If fewer parameters are given than the template requires
+		 */
+		@NotNull
+		public Utf8Writer reset(
+			@NotNull Object... parameters
+		) {
+			this.template.checkParameters(parameters);
+
+			this.parameters = parameters;
+			this.segment = 0;
+			this.offset = 0;
+
+			return this;
+		}
+
+		/**
+		 * Writes as much of the remaining message as fits into the buffer.
+		 *
+		 * @param destination Buffer to write to
+		 *
+		 * @return True if the message has been completely written, false if the buffer filled up first
+		 */
+		public boolean writeTo(
+			@NotNull ByteBuffer destination
+		) {
+			Objects.requireNonNull(destination);
+
+			while (this.segment < this.template.segments())
+			{
+				int written = this.template.writeSegment(destination, this.out, this.segment, this.offset, this.parameters, null, null);
+				if (written != -1)
+				{
+					this.offset = written;
+					return false;
+				}
+
+				this.segment++;
+				this.offset = 0;
+			}
+
+			return true;
+		}
+
+		/**
+		 * Returns whether the current message has been completely written.
+		 *
+		 * @return True if complete
+		 */
+		public boolean isComplete()
+		{
+			return this.segment == this.template.segments();
+		}
+	}
+}
@@ -0,0 +1,394 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Hirschberg's divide-and-conquer alignment. The longer string is split in half, the optimal crossing point in the shorter string is
+ * found from one forward and one reverse row of the Levenshtein matrix, and both halves are solved recursively. Only single rows are
+ * ever held, so space is linear in the shorter string. Rows are computed 64 cells at a time with bit-parallel arithmetic, and large
+ * subproblems fork their independent halves into the pool.
+ */
+final class Hirschberg extends RecursiveTask<List<EditOperation>>
+{
+	// Subproblems with at most this many matrix cells are solved directly with a full traceback matrix
+	private static final int DIRECT_CELLS = 1 << 14;
+
+	// Subproblems with fewer cells than this are not worth the overhead of forking
+	private static final long PARALLEL_CELLS = 1L << 24;
+
+	private final char[] a;
+	private final char[] b;
+	private final int aStart;
+	private final int aEnd;
+	private final int bStart;
+	private final int bEnd;
+
+	private Hirschberg(
+		char[] a,
+		char[] b,
+		int aStart,
+		int aEnd,
+		int bStart,
+		int bEnd
+	) {
+		this.a = a;
+		this.b = b;
+		this.aStart = aStart;
+		this.aEnd = aEnd;
+		this.bStart = bStart;
+		this.bEnd = bEnd;
+	}
+
+	static EditScript editScript(
+		CharSequence stringA,
+		CharSequence stringB,
+		ForkJoinPool pool
+	) {
+		char[] a = toChars(stringA);
+		char[] b = toChars(stringB);
+
+		// Rows are sized by B, so make B the shorter string and swap the operations back afterwards
+		boolean swapped = b.length > a.length;
+		if (swapped)
+		{
+			char[] temp = a;
+			a = b;
+			b = temp;
+		}
+
+		List<EditOperation> operations = pool.invoke(new Hirschberg(a, b, 0, a.length, 0, b.length));
+		if (swapped)
+		{
+			char[] originalB = a;
+			operations.replaceAll((operation) -> swap(operation, originalB));
+		}
+
+		return new EditScript(operations, stringA.length(), stringB.length());
+	}
+
+	@Override
+	protected List<EditOperation> compute()
+	{
+		int aLength = this.aEnd - this.aStart;
+		int bLength = this.bEnd - this.bStart;
+
+		if (aLength == 0 || bLength == 0)
+		{
+			return this.trivial();
+		}
+
+		if (aLength == 1 || (long) (aLength + 1) * (bLength + 1) <= DIRECT_CELLS)
+		{
+			return this.direct();
+		}
+
+		boolean parallel = (long) aLength * bLength >= PARALLEL_CELLS;
+		int aMiddle = this.aStart + aLength / 2;
+
+		int[] forward;
+		int[] reverse;
+		if (parallel)
+		{
+			ForkJoinTask<int[]> reverseTask = ForkJoinTask.adapt(() -> this.reverseRow(aMiddle)).fork();
+			forward = this.forwardRow(aMiddle);
+			reverse = reverseTask.join();
+		}
+		else
+		{
+			forward = this.forwardRow(aMiddle);
+			reverse = this.reverseRow(aMiddle);
+		}
+
+		int split = 0;
+		int best = Integer.MAX_VALUE;
+		for (int j = 0; j <= bLength; j++)
+		{
+			int cost = forward[j] + reverse[bLength - j];
+			if (cost < best)
+			{
+				best = cost;
+				split = j;
+			}
+		}
+
+		int bMiddle = this.bStart + split;
+		Hirschberg left = new Hirschberg(this.a, this.b, this.aStart, aMiddle, this.bStart, bMiddle);
+		Hirschberg right = new Hirschberg(this.a, this.b, aMiddle, this.aEnd, bMiddle, this.bEnd);
+
+		List<EditOperation> operations;
+		if (parallel)
+		{
+			left.fork();
+			List<EditOperation> rightOperations = right.compute();
+			operations = left.join();
+			operations.addAll(rightOperations);
+		}
+		else
+		{
+			operations = left.compute();
+			operations.addAll(right.compute());
+		}
+
+		return operations;
+	}
+
+	//--------------------------------------------------------------------------------
+	private int[] forwardRow(
+		int aMiddle
+	) {
+		return this.row(this.aStart, aMiddle - this.aStart, 1, false);
+	}
+
+	private int[] reverseRow(
+		int aMiddle
+	) {
+		return this.row(this.aEnd - 1, this.aEnd - aMiddle, -1, true);
+	}
+
+	/**
+	 * Computes one row of the Levenshtein matrix with Myers' bit-parallel algorithm, using Hyyro's formulation for patterns longer than
+	 * a word. B[bStart, bEnd) is the pattern, reversed if requested, and {@code count} characters of A starting at {@code from} are fed
+	 * through it. Entry j of the result is the distance between those characters of A and the first j characters of the pattern.
+	 */
+	private int[] row(
+		int from,
+		int count,
+		int step,
+		boolean reverse
+	) {
+		int length = this.bEnd - this.bStart;
+		int words = (length + 63) >>> 6;
+		PatternMasks masks = new PatternMasks(this.b, this.bStart, this.bEnd, reverse, words);
+
+		// Vertical deltas of the current column; every delta starts at +1 since the first column counts up from 0
+		long[] positive = new long[words];
+		long[] negative = new long[words];
+		java.util.Arrays.fill(positive, -1L);
+
+		char[] a = this.a;
+		for (int k = 0, i = from; k < count; k++, i += step)
+		{
+			long[] equal = masks.get(a[i]);
+
+			// The first row counts up from 0 as well, so the top block always receives a +1 horizontal delta
+			int carry = 1;
+			for (int w = 0; w < words; w++)
+			{
+				long pv = positive[w];
+				long mv = negative[w];
+				long eq = equal[w];
+				long xv = eq | mv;
+				if (carry < 0)
+				{
+					eq |= 1L;
+				}
+
+				long xh = (((eq & pv) + pv) ^ pv) | eq;
+				long ph = mv | ~(xh | pv);
+				long mh = pv & xh;
+				int out = (int) (ph >>> 63) - (int) (mh >>> 63);
+
+				ph <<= 1;
+				mh <<= 1;
+				if (carry < 0)
+				{
+					mh |= 1L;
+				}
+				else if (carry > 0)
+				{
+					ph |= 1L;
+				}
+
+				positive[w] = mh | ~(xv | ph);
+				negative[w] = ph & xv;
+				carry = out;
+			}
+		}
+
+		int[] row = new int[length + 1];
+		row[0] = count;
+		for (int j = 0; j < length; j++)
+		{
+			long bit = 1L << j;
+			int word = j >>> 6;
+			row[j + 1] = row[j] + ((positive[word] & bit) != 0 ? 1 : 0) - ((negative[word] & bit) != 0 ? 1 : 0);
+		}
+
+		return row;
+	}
+
+	private List<EditOperation> trivial()
+	{
+		List<EditOperation> operations = new ArrayList<>(Math.max(this.aEnd - this.aStart, this.bEnd - this.bStart));
+		for (int i = this.aStart; i < this.aEnd; i++)
+		{
+			operations.add(new EditOperation(EditOperation.Type.DELETE, i, this.bStart, this.a[i]));
+		}
+
+		for (int j = this.bStart; j < this.bEnd; j++)
+		{
+			operations.add(new EditOperation(EditOperation.Type.INSERT, this.aStart, j, this.b[j]));
+		}
+
+		return operations;
+	}
+
+	/**
+	 * Solves a small subproblem with a full matrix and traceback.
+	 */
+	private List<EditOperation> direct()
+	{
+		char[] a = this.a;
+		char[] b = this.b;
+		int aLength = this.aEnd - this.aStart;
+		int bLength = this.bEnd - this.bStart;
+		int width = bLength + 1;
+		int[] matrix = new int[(aLength + 1) * width];
+
+		for (int j = 0; j <= bLength; j++)
+		{
+			matrix[j] = j;
+		}
+
+		for (int i = 1; i <= aLength; i++)
+		{
+			int row = i * width;
+			char c = a[this.aStart + i - 1];
+			matrix[row] = i;
+			for (int j = 1; j <= bLength; j++)
+			{
+				int substitute = matrix[row - width + j - 1] + (c == b[this.bStart + j - 1] ? 0 : 1);
+				int delete = matrix[row - width + j] + 1;
+				int insert = matrix[row + j - 1] + 1;
+				matrix[row + j] = Math.min(substitute, Math.min(delete, insert));
+			}
+		}
+
+		// Trace back from the bottom-right corner, collecting operations in reverse
+		List<EditOperation> operations = new ArrayList<>(matrix[matrix.length - 1]);
+		int i = aLength;
+		int j = bLength;
+		while (i > 0 || j > 0)
+		{
+			int current = matrix[i * width + j];
+			int indexA = this.aStart + i - 1;
+			int indexB = this.bStart + j - 1;
+
+			if (i > 0 && j > 0 && a[indexA] == b[indexB] && current == matrix[(i - 1) * width + j - 1])
+			{
+				i--;
+				j--;
+			}
+			else if (i > 0 && j > 0 && current == matrix[(i - 1) * width + j - 1] + 1)
+			{
+				operations.add(new EditOperation(EditOperation.Type.SUBSTITUTE, indexA, indexB, b[indexB]));
+				i--;
+				j--;
+			}
+			else if (i > 0 && current == matrix[(i - 1) * width + j] + 1)
+			{
+				operations.add(new EditOperation(EditOperation.Type.DELETE, indexA, indexB + 1, a[indexA]));
+				i--;
+			}
+			else
+			{
+				operations.add(new EditOperation(EditOperation.Type.INSERT, indexA + 1, indexB, b[indexB]));
+				j--;
+			}
+		}
+
+		Collections.reverse(operations);
+
+		return operations;
+	}
+
+	/**
+	 * Maps an operation computed with A and B swapped back onto the original strings.
+	 */
+	private static EditOperation swap(
+		EditOperation operation,
+		char[] originalB
+	) {
+		return switch (operation.type()) {
+			case INSERT -> new EditOperation(EditOperation.Type.DELETE, operation.indexB(), operation.indexA(), operation.character());
+			case DELETE -> new EditOperation(EditOperation.Type.INSERT, operation.indexB(), operation.indexA(), operation.character());
+			case SUBSTITUTE -> new EditOperation(EditOperation.Type.SUBSTITUTE, operation.indexB(), operation.indexA(), originalB[operation.indexA()]);
+		};
+	}
+
+	private static char[] toChars(
+		CharSequence sequence
+	) {
+		if (sequence instanceof String string)
+		{
+			return string.toCharArray();
+		}
+
+		char[] chars = new char[sequence.length()];
+		for (int i = 0; i < chars.length; i++)
+		{
+			chars[i] = sequence.charAt(i);
+		}
+
+		return chars;
+	}
+
+	/**
+	 * Bit masks of the positions at which each character occurs in the pattern.
+	 */
+	private static final class PatternMasks
+	{
+		private final long[][] latin = new long[256][];
+		private final HashMap<Character, long[]> other = new HashMap<>();
+		private final long[] absent;
+
+		PatternMasks(
+			char[] pattern,
+			int start,
+			int end,
+			boolean reverse,
+			int words
+		) {
+			this.absent = new long[words];
+
+			for (int j = 0; j < end - start; j++)
+			{
+				char c = reverse ? pattern[end - 1 - j] : pattern[start + j];
+				long[] mask;
+				if (c < 256)
+				{
+					mask = this.latin[c];
+					if (mask == null)
+					{
+						mask = this.latin[c] = new long[words];
+					}
+				}
+				else
+				{
+					mask = this.other.computeIfAbsent(c, (key) -> new long[words]);
+				}
+
+				mask[j >>> 6] |= 1L << j;
+			}
+		}
+
+		long[] get(
+			char c
+		) {
+			long[] mask = c < 256 ? this.latin[c] : this.other.get(c);
+
+			return mask == null ? this.absent : mask;
+		}
+	}
+}
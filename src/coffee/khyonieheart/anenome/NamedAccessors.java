@@ -0,0 +1,217 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.concurrent.ConcurrentHashMap;
+
+import coffee.khyonieheart.anenome.exception.StringFormatException;
+
+/**
+ * Accessors for the named values of a class, used by {@link FormatTemplate}'s {@code {name}} placeholders. Each name is resolved once per
+ * class, by reflection, into a {@link MethodHandle}; after that, values are read by invoking the handle directly.
+ * <p>
+ * A name resolves, in order, to a record component, a public {@code getName()} or {@code isName()} getter, a public no-argument method
+ * called {@code name()}, or a public field.
+ */
+final class NamedAccessors
+{
+	/** Accessor returning a reference, or a primitive that is boxed: boolean, char and float. */
+	static final int OBJECT = 0;
+	/** Accessor returning an int, short or byte, widened to long. */
+	static final int INT = 1;
+	/** Accessor returning a long. */
+	static final int LONG = 2;
+	/** Accessor returning a double. */
+	static final int DOUBLE = 3;
+
+	private static final ClassValue<NamedAccessors> CACHE = new ClassValue<>()
+	{
+		@Override
+		protected NamedAccessors computeValue(
+			Class<?> type
+		) {
+			return new NamedAccessors(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final ConcurrentHashMap<String, Accessor> accessors = new ConcurrentHashMap<>();
+
+	private NamedAccessors(
+		Class<?> type
+	) {
+		this.type = type;
+	}
+
+	static NamedAccessors of(
+		Class<?> type
+	) {
+		return CACHE.get(type);
+	}
+
+	/**
+	 * Returns the accessor for a name, resolving it on first use.
+	 *
+	 * @throws StringFormatException If the class has no accessible value by that name
+	 */
+	Accessor get(
+		String name
+	) {
+		return this.accessors.computeIfAbsent(name, this::resolve);
+	}
+
+	/**
+	 * A resolved accessor. The handle's type is {@code (Object)long} for {@link #INT} and {@link #LONG}, {@code (Object)double} for
+	 * {@link #DOUBLE}, and {@code (Object)Object} otherwise, so that it can be called with {@link MethodHandle#invokeExact(Object...)}.
+	 */
+	static final class Accessor
+	{
+		final int kind;
+		final MethodHandle handle;
+
+		private Accessor(
+			int kind,
+			MethodHandle handle
+		) {
+			this.kind = kind;
+			this.handle = handle;
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private Accessor resolve(
+		String name
+	) {
+		try {
+			Method method = this.findMethod(name);
+			if (method != null)
+			{
+				return adapt(unreflect(method), method.getReturnType());
+			}
+
+			Field field = this.findField(name);
+			if (field != null)
+			{
+				makeAccessible(field);
+				return adapt(MethodHandles.lookup().unreflectGetter(field), field.getType());
+			}
+		} catch (IllegalAccessException e) {
+			throw new StringFormatException("Cannot access \"" + name + "\" of " + this.type.getName(), e);
+		}
+
+		throw new StringFormatException("No value named \"" + name + "\" in " + this.type.getName());
+	}
+
+	private Method findMethod(
+		String name
+	) {
+		if (this.type.isRecord())
+		{
+			for (RecordComponent component : this.type.getRecordComponents())
+			{
+				if (component.getName().equals(name))
+				{
+					return component.getAccessor();
+				}
+			}
+		}
+
+		String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		Method getter = this.publicMethod("get" + suffix);
+		if (getter != null && getter.getReturnType() != void.class)
+		{
+			return getter;
+		}
+
+		Method is = this.publicMethod("is" + suffix);
+		if (is != null && is.getReturnType() == boolean.class)
+		{
+			return is;
+		}
+
+		Method plain = this.publicMethod(name);
+		if (plain != null && plain.getReturnType() != void.class)
+		{
+			return plain;
+		}
+
+		return null;
+	}
+
+	private Method publicMethod(
+		String name
+	) {
+		try {
+			Method method = this.type.getMethod(name);
+
+			return Modifier.isStatic(method.getModifiers()) ? null : method;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private Field findField(
+		String name
+	) {
+		try {
+			Field field = this.type.getField(name);
+
+			return Modifier.isStatic(field.getModifiers()) ? null : field;
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle unreflect(
+		Method method
+	)
+		throws IllegalAccessException
+	{
+		makeAccessible(method);
+
+		return MethodHandles.lookup().unreflect(method);
+	}
+
+	/**
+	 * Public members of non-public classes, such as a private nested record, are only reachable once suppressed; where a module forbids
+	 * that, unreflecting fails with the access error that is reported to the caller.
+	 */
+	private static void makeAccessible(
+		AccessibleObject member
+	) {
+		member.trySetAccessible();
+	}
+
+	private static Accessor adapt(
+		MethodHandle handle,
+		Class<?> type
+	) {
+		if (type == int.class || type == short.class || type == byte.class)
+		{
+			return new Accessor(INT, handle.asType(MethodType.methodType(long.class, Object.class)));
+		}
+
+		if (type == long.class)
+		{
+			return new Accessor(LONG, handle.asType(MethodType.methodType(long.class, Object.class)));
+		}
+
+		if (type == double.class)
+		{
+			return new Accessor(DOUBLE, handle.asType(MethodType.methodType(double.class, Object.class)));
+		}
+
+		return new Accessor(OBJECT, handle.asType(MethodType.methodType(Object.class, Object.class)));
+	}
+}
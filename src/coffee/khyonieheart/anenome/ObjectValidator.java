@@ -8,6 +8,9 @@ package coffee.khyonieheart.anenome;
 import java.util.Objects;
 import java.util.function.Predicate;
 
+import coffee.khyonieheart.anenome.jfr.ValidationFailureEvent;
+import coffee.khyonieheart.anenome.metrics.Metrics;
+
 /**
  * Validation tool that allows chaining calls, to reduce clutter.
  */
@@ -43,7 +46,10 @@ public class ObjectValidator<T>
 	{
 		if (this.object == null)
 		{
-			throw new NullPointerException("Object can not be null");
+			String message = "Object can not be null";
+			Metrics.recordValidationFailure();
+			ValidationFailureEvent.emit("ObjectValidator", message);
+			throw new NullPointerException(message);
 		}
 
 		return this;
@@ -60,7 +66,10 @@ public class ObjectValidator<T>
 	{
 		if (this.object != null)
 		{
-			throw new IllegalArgumentException("Object must be a null reference");
+			String message = "Object must be a null reference";
+			Metrics.recordValidationFailure();
+			ValidationFailureEvent.emit("ObjectValidator", message);
+			throw new IllegalArgumentException(message);
 		}
 
 		return this;
@@ -81,7 +90,38 @@ public class ObjectValidator<T>
 	) {
 		if (!Objects.requireNonNull(predicate).test(this.object))
 		{
-			throw new IllegalArgumentException("Validation predicate returned false");
+			String message = "Validation predicate returned false";
+			Metrics.recordValidationFailure();
+			ValidationFailureEvent.emit("ObjectValidator", message);
+			throw new IllegalArgumentException(message);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Tests the object against the given named predicate.
+	 *
+	 * @param name Name of the rule, included in the exception message on failure
+	 * @param predicate Predicate to test with
+	 *
+	 * @return This object validator
+	 * @throws IllegalArgumentException If predicate returns false
+	 * @throws NullPointerException If name or predicate is null
+	 */
+	@NotNull
+	public ObjectValidator<T> testPredicate(
+		@NotNull String name,
+		@NotNull Predicate<T> predicate
+	) {
+		Objects.requireNonNull(name);
+
+		if (!Objects.requireNonNull(predicate).test(this.object))
+		{
+			String message = "Validation rule \"" + name + "\" failed";
+			Metrics.recordValidationFailure();
+			ValidationFailureEvent.emit("ObjectValidator", message);
+			throw new IllegalArgumentException(message);
 		}
 
 		return this;
@@ -101,4 +141,18 @@ public class ObjectValidator<T>
 	) {
 		return new ObjectValidator<>(object);
 	}
+
+	/**
+	 * Creates a builder for a reusable, immutable {@link Validator}. Prefer this over {@link #validate(Object)} when the same rules are
+	 * applied to many objects.
+	 *
+	 * @param <T> Type of object
+	 *
+	 * @return A new validator builder
+	 */
+	@NotNull
+	public static <T> Validator.Builder<T> rules()
+	{
+		return new Validator.Builder<>();
+	}
 }
@@ -6,9 +6,16 @@
 package coffee.khyonieheart.anenome;
 
 import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import coffee.khyonieheart.anenome.jfr.ValidationFailureEvent;
 
 /**
  * Various tools for validating arguments and conditions at runtime.
+ * <p>
+ * Failure messages are only built once a check has failed, in separate methods, so that the checks themselves stay small enough to be
+ * inlined into hot loops.
  */
 public class RuntimeConditions
 {
@@ -27,12 +34,155 @@ public class RuntimeConditions
 	{
 		if (value < 0)
 		{
-			throw new IllegalArgumentException("Value must be positive");
+			throw rejected("Value must be positive");
 		}
 
 		return value;
 	}
 
+	/**
+	 * Validates that an integer is positive, using a lazily computed failure message.
+	 *
+	 * @param value Value to validate
+	 * @param message Supplier for the exception message, only invoked if validation fails
+	 * 
+	 * @return The value given
+	 * @throws IllegalArgumentException If the value given is less than 0
+	 */
+	public static int requirePositive(
+		int value,
+		@NotNull Supplier<String> message
+	)
+		throws IllegalArgumentException
+	{
+		if (value < 0)
+		{
+			throw failure(message);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Validates that a long is positive. 
+	 *
+	 * @param value Value to validate
+	 * 
+	 * @return The value given
+	 * @throws IllegalArgumentException If the value given is less than 0
+	 */
+	public static long requirePositive(
+		long value
+	)
+		throws IllegalArgumentException
+	{
+		if (value < 0)
+		{
+			throw rejected("Value must be positive");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Validates that a double is positive. NaN is never considered positive.
+	 *
+	 * @param value Value to validate
+	 * 
+	 * @return The value given
+	 * @throws IllegalArgumentException If the value given is less than 0 or NaN
+	 */
+	public static double requirePositive(
+		double value
+	)
+		throws IllegalArgumentException
+	{
+		if (!(value >= 0))
+		{
+			throw rejected("Value must be positive");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Validates that every element of an array is positive.
+	 *
+	 * @param values Array to validate
+	 *
+	 * @return The unmodified array given
+	 * @throws IllegalArgumentException If any element is less than 0
+	 * @throws NullPointerException If the array is null
+	 */
+	@NotNull
+	public static int[] requireAllPositive(
+		@NotNull int[] values
+	) {
+		Objects.requireNonNull(values);
+
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i] < 0)
+			{
+				throw notPositive(i, values[i]);
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Validates that every element of an array is positive.
+	 *
+	 * @param values Array to validate
+	 *
+	 * @return The unmodified array given
+	 * @throws IllegalArgumentException If any element is less than 0
+	 * @throws NullPointerException If the array is null
+	 */
+	@NotNull
+	public static long[] requireAllPositive(
+		@NotNull long[] values
+	) {
+		Objects.requireNonNull(values);
+
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i] < 0)
+			{
+				throw notPositive(i, values[i]);
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Validates that every element of an array is positive. NaN is never considered positive.
+	 *
+	 * @param values Array to validate
+	 *
+	 * @return The unmodified array given
+	 * @throws IllegalArgumentException If any element is less than 0 or NaN
+	 * @throws NullPointerException If the array is null
+	 */
+	@NotNull
+	public static double[] requireAllPositive(
+		@NotNull double[] values
+	) {
+		Objects.requireNonNull(values);
+
+		for (int i = 0; i < values.length; i++)
+		{
+			if (!(values[i] >= 0))
+			{
+				throw notPositive(i, values[i]);
+			}
+		}
+
+		return values;
+	}
+
 	/**
 	 * Validates that an integer is within a range.
 	 *
@@ -51,17 +201,265 @@ public class RuntimeConditions
 	) {
 		if (min > max)
 		{
-			throw new IllegalArgumentException("Minimum value must be lower than maximum value");
+			throw invalidRange();
 		}
 
 		if (value < min || value > max)
 		{
-			throw new IllegalArgumentException("Value must be between " + min + " (inclusive) and " + max + " (inclusive); received " + value);
+			throw outOfRange(value, min, max);
 		}
 
 		return value;
 	}
 
+	/**
+	 * Validates that an integer is within a range, using a lazily computed failure message.
+	 *
+	 * @param value Value to validate
+	 * @param min Minimum allowed value
+	 * @param max Maximum allowed value
+	 * @param message Supplier for the exception message, only invoked if validation fails
+	 *
+	 * @return The value given
+	 * @throws IllegalArgumentException If the value given is less than min or greater than max
+	 * @throws IllegalArgumentException If min is greater than max
+	 */
+	public static int requireRange(
+		int value,
+		int min,
+		int max,
+		@NotNull Supplier<String> message
+	) {
+		if (min > max)
+		{
+			throw invalidRange();
+		}
+
+		if (value < min || value > max)
+		{
+			throw failure(message);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Validates that a long is within a range.
+	 *
+	 * @param value Value to validate
+	 * @param min Minimum allowed value
+	 * @param max Maximum allowed value
+	 *
+	 * @return The value given
+	 * @throws IllegalArgumentException If the value given is less than min or greater than max
+	 * @throws IllegalArgumentException If min is greater than max
+	 */
+	public static long requireRange(
+		long value,
+		long min,
+		long max
+	) {
+		if (min > max)
+		{
+			throw invalidRange();
+		}
+
+		if (value < min || value > max)
+		{
+			throw outOfRange(value, min, max);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Validates that a double is within a range. NaN is never considered within range.
+	 *
+	 * @param value Value to validate
+	 * @param min Minimum allowed value
+	 * @param max Maximum allowed value
+	 *
+	 * @return The value given
+	 * @throws IllegalArgumentException If the value given is less than min, greater than max, or NaN
+	 * @throws IllegalArgumentException If min is greater than max
+	 */
+	public static double requireRange(
+		double value,
+		double min,
+		double max
+	) {
+		if (!(min <= max))
+		{
+			throw invalidRange();
+		}
+
+		if (!(value >= min && value <= max))
+		{
+			throw outOfRange(value, min, max);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Validates that every element of an array is within a range.
+	 *
+	 * @param values Array to validate
+	 * @param min Minimum allowed value
+	 * @param max Maximum allowed value
+	 *
+	 * @return The unmodified array given
+	 * @throws IllegalArgumentException If any element is less than min or greater than max
+	 * @throws IllegalArgumentException If min is greater than max
+	 * @throws NullPointerException If the array is null
+	 */
+	@NotNull
+	public static int[] requireAllInRange(
+		@NotNull int[] values,
+		int min,
+		int max
+	) {
+		Objects.requireNonNull(values);
+
+		if (min > max)
+		{
+			throw invalidRange();
+		}
+
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i] < min || values[i] > max)
+			{
+				throw outOfRange(i, values[i], min, max);
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Validates that every element of an array is within a range.
+	 *
+	 * @param values Array to validate
+	 * @param min Minimum allowed value
+	 * @param max Maximum allowed value
+	 *
+	 * @return The unmodified array given
+	 * @throws IllegalArgumentException If any element is less than min or greater than max
+	 * @throws IllegalArgumentException If min is greater than max
+	 * @throws NullPointerException If the array is null
+	 */
+	@NotNull
+	public static long[] requireAllInRange(
+		@NotNull long[] values,
+		long min,
+		long max
+	) {
+		Objects.requireNonNull(values);
+
+		if (min > max)
+		{
+			throw invalidRange();
+		}
+
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i] < min || values[i] > max)
+			{
+				throw outOfRange(i, values[i], min, max);
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Validates that an index lies within {@code [0, length)}. Delegates to {@link Objects#checkIndex(int, int)}, which the JIT treats
+	 * as an intrinsic and can merge with the array bounds checks that follow it.
+	 *
+	 * @param index Index to validate
+	 * @param length Upper bound (exclusive)
+	 *
+	 * @return The index given
+	 * @throws IndexOutOfBoundsException If the index is out of bounds
+	 */
+	public static int checkIndex(
+		int index,
+		int length
+	) {
+		return Objects.checkIndex(index, length);
+	}
+
+	/**
+	 * Validates that an index lies within {@code [0, length)}.
+	 *
+	 * @param index Index to validate
+	 * @param length Upper bound (exclusive)
+	 *
+	 * @return The index given
+	 * @throws IndexOutOfBoundsException If the index is out of bounds
+	 */
+	public static long checkIndex(
+		long index,
+		long length
+	) {
+		return Objects.checkIndex(index, length);
+	}
+
+	/**
+	 * Validates that the sub-range {@code [fromIndex, fromIndex + size)} lies within {@code [0, length)}.
+	 *
+	 * @param fromIndex Lower bound of the sub-range (inclusive)
+	 * @param size Size of the sub-range
+	 * @param length Upper bound of the full range (exclusive)
+	 *
+	 * @return The from index given
+	 * @throws IndexOutOfBoundsException If the sub-range is out of bounds
+	 */
+	public static int checkFromIndexSize(
+		int fromIndex,
+		int size,
+		int length
+	) {
+		return Objects.checkFromIndexSize(fromIndex, size, length);
+	}
+
+	/**
+	 * Validates that the sub-range {@code [fromIndex, fromIndex + size)} lies within {@code [0, length)}.
+	 *
+	 * @param fromIndex Lower bound of the sub-range (inclusive)
+	 * @param size Size of the sub-range
+	 * @param length Upper bound of the full range (exclusive)
+	 *
+	 * @return The from index given
+	 * @throws IndexOutOfBoundsException If the sub-range is out of bounds
+	 */
+	public static long checkFromIndexSize(
+		long fromIndex,
+		long size,
+		long length
+	) {
+		return Objects.checkFromIndexSize(fromIndex, size, length);
+	}
+
+	/**
+	 * Validates that the sub-range {@code [fromIndex, toIndex)} lies within {@code [0, length)}.
+	 *
+	 * @param fromIndex Lower bound of the sub-range (inclusive)
+	 * @param toIndex Upper bound of the sub-range (exclusive)
+	 * @param length Upper bound of the full range (exclusive)
+	 *
+	 * @return The from index given
+	 * @throws IndexOutOfBoundsException If the sub-range is out of bounds
+	 */
+	public static int checkFromToIndex(
+		int fromIndex,
+		int toIndex,
+		int length
+	) {
+		return Objects.checkFromToIndex(fromIndex, toIndex, length);
+	}
+
 	/**
 	 * Validates that an array has at least one element.
 	 *
@@ -84,7 +482,7 @@ public class RuntimeConditions
 
 		if (array.length == 0)
 		{
-			throw new IllegalArgumentException("Array must have at least one element");
+			throw rejected("Array must have at least one element");
 		}
 
 		return array;
@@ -113,9 +511,55 @@ public class RuntimeConditions
 
 		if (collection.isEmpty())
 		{
-			throw new IllegalArgumentException("Collection must have at least one element");
+			throw rejected("Collection must have at least one element");
 		}
 
 		return collection;
 	}
+
+	//-------------------------------------------------------------------------------- 
+	// Failure paths are kept out of line so that the checks above remain small enough to inline.
+
+	private static IllegalArgumentException rejected(
+		String message
+	) {
+		ValidationFailureEvent.emit("RuntimeConditions", message);
+
+		return new IllegalArgumentException(message);
+	}
+
+	private static IllegalArgumentException failure(
+		Supplier<String> message
+	) {
+		return rejected(Objects.requireNonNull(message).get());
+	}
+
+	private static IllegalArgumentException invalidRange()
+	{
+		return rejected("Minimum value must be lower than maximum value");
+	}
+
+	private static IllegalArgumentException outOfRange(
+		Object value,
+		Object min,
+		Object max
+	) {
+		return rejected("Value must be between " + min + " (inclusive) and " + max + " (inclusive); received " + value);
+	}
+
+	private static IllegalArgumentException outOfRange(
+		int index,
+		Object value,
+		Object min,
+		Object max
+	) {
+		return rejected("Value at index " + index + " must be between " + min + " (inclusive) and " + max + " (inclusive); received " + value);
+	}
+
+	private static IllegalArgumentException notPositive(
+		int index,
+		Object value
+	) {
+		return rejected("Value at index " + index + " must be positive; received " + value);
+	}
 }
@@ -0,0 +1,761 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Sorting and searching for large arrays of int and long keys.
+ * <p>
+ * Sorting is a least-significant-digit radix sort over 8-bit digits. It is stable, runs in linear time, and needs a buffer as large as the
+ * input. The counts for every digit are gathered in a single pass, and any digit shared by every key is skipped, so keys drawn from a
+ * small range take fewer passes. Short arrays, where the counting overhead does not pay off, are handed to {@link java.util.Arrays#sort(int[])}.
+ * <p>
+ * The parallel variant first splits the keys on their most significant varying digit, then sorts each of the resulting buckets on the
+ * remaining digits in parallel.
+ */
+public final class Sorting
+{
+	private static final int RADIX_THRESHOLD = 256;
+	private static final int PARALLEL_THRESHOLD = 1 << 17;
+	private static final int PARALLEL_CHUNK = 1 << 16;
+
+	private Sorting() {}
+
+	/**
+	 * Sorts an array into ascending order.
+	 *
+	 * @param data Array to sort
+	 */
+	public static void radixSort(
+		@NotNull int[] data
+	) {
+		radixSort(data, 0, data.length);
+	}
+
+	/**
+	 * Sorts a range of an array into ascending order.
+	 *
+	 * @param data Array to sort
+	 * @param from Index of the first element to sort
+	 * @param to Index after the last element to sort
+	 *
+	 * @throws IndexOutOfBoundsException If the range lies outside of the array
+	 */
+	public static void radixSort(
+		@NotNull int[] data,
+		int from,
+		int to
+	) {
+		RuntimeConditions.checkFromToIndex(from, to, Objects.requireNonNull(data).length);
+
+		if (to - from < RADIX_THRESHOLD)
+		{
+			java.util.Arrays.sort(data, from, to);
+			return;
+		}
+
+		int[] buffer = new int[to - from];
+		int[] sorted = lsd(data, buffer, null, null, from, to, 0, Integer.BYTES);
+		if (sorted != data)
+		{
+			System.arraycopy(buffer, 0, data, from, to - from);
+		}
+	}
+
+	/**
+	 * Sorts an array into ascending order.
+	 *
+	 * @param data Array to sort
+	 */
+	public static void radixSort(
+		@NotNull long[] data
+	) {
+		radixSort(data, 0, data.length);
+	}
+
+	/**
+	 * Sorts a range of an array into ascending order.
+	 *
+	 * @param data Array to sort
+	 * @param from Index of the first element to sort
+	 * @param to Index after the last element to sort
+	 *
+	 * @throws IndexOutOfBoundsException If the range lies outside of the array
+	 */
+	public static void radixSort(
+		@NotNull long[] data,
+		int from,
+		int to
+	) {
+		RuntimeConditions.checkFromToIndex(from, to, Objects.requireNonNull(data).length);
+
+		if (to - from < RADIX_THRESHOLD)
+		{
+			java.util.Arrays.sort(data, from, to);
+			return;
+		}
+
+		long[] buffer = new long[to - from];
+		long[] sorted = lsd(data, buffer, null, null, from, to, 0, Long.BYTES);
+		if (sorted != data)
+		{
+			System.arraycopy(buffer, 0, data, from, to - from);
+		}
+	}
+
+	/**
+	 * Sorts an array of keys into ascending order, applying the same reordering to a payload array. Keys that compare equal keep the
+	 * relative order of their payloads.
+	 *
+	 * @param keys Keys to sort by
+	 * @param payload Values to reorder alongside the keys, such as row indices
+	 *
+	 * @throws IllegalArgumentException If the arrays differ in length
+	 */
+	public static void radixSort(
+		@NotNull int[] keys,
+		@NotNull int[] payload
+	) {
+		requireSameLength(Objects.requireNonNull(keys).length, Objects.requireNonNull(payload).length);
+
+		int[] keyBuffer = new int[keys.length];
+		int[] payloadBuffer = new int[keys.length];
+		int[] sorted = lsd(keys, keyBuffer, payload, payloadBuffer, 0, keys.length, 0, Integer.BYTES);
+		if (sorted != keys)
+		{
+			System.arraycopy(keyBuffer, 0, keys, 0, keys.length);
+			System.arraycopy(payloadBuffer, 0, payload, 0, keys.length);
+		}
+	}
+
+	/**
+	 * Sorts an array of keys into ascending order, applying the same reordering to a payload array. Keys that compare equal keep the
+	 * relative order of their payloads.
+	 *
+	 * @param keys Keys to sort by
+	 * @param payload Values to reorder alongside the keys, such as row indices
+	 *
+	 * @throws IllegalArgumentException If the arrays differ in length
+	 */
+	public static void radixSort(
+		@NotNull long[] keys,
+		@NotNull int[] payload
+	) {
+		requireSameLength(Objects.requireNonNull(keys).length, Objects.requireNonNull(payload).length);
+
+		long[] keyBuffer = new long[keys.length];
+		int[] payloadBuffer = new int[keys.length];
+		long[] sorted = lsd(keys, keyBuffer, payload, payloadBuffer, 0, keys.length, 0, Long.BYTES);
+		if (sorted != keys)
+		{
+			System.arraycopy(keyBuffer, 0, keys, 0, keys.length);
+			System.arraycopy(payloadBuffer, 0, payload, 0, keys.length);
+		}
+	}
+
+	/**
+	 * Returns the indices of an array's elements in ascending order of the elements, leaving the array untouched. Equal elements are
+	 * listed in index order.
+	 *
+	 * @param keys Keys to order
+	 *
+	 * @return Permutation of indices such that {@code keys[order[i]] <= keys[order[i + 1]]}
+	 */
+	@NotNull
+	public static int[] sortedOrder(
+		@NotNull int[] keys
+	) {
+		int[] order = identity(keys.length);
+		radixSort(keys.clone(), order);
+
+		return order;
+	}
+
+	/**
+	 * Returns the indices of an array's elements in ascending order of the elements, leaving the array untouched. Equal elements are
+	 * listed in index order.
+	 *
+	 * @param keys Keys to order
+	 *
+	 * @return Permutation of indices such that {@code keys[order[i]] <= keys[order[i + 1]]}
+	 */
+	@NotNull
+	public static int[] sortedOrder(
+		@NotNull long[] keys
+	) {
+		int[] order = identity(keys.length);
+		radixSort(keys.clone(), order);
+
+		return order;
+	}
+
+	/**
+	 * Sorts an array into ascending order using the common fork-join pool.
+	 *
+	 * @param data Array to sort
+	 */
+	public static void parallelRadixSort(
+		@NotNull int[] data
+	) {
+		parallelRadixSort(data, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sorts an array into ascending order using the given fork-join pool.
+	 *
+	 * @param data Array to sort
+	 * @param pool Pool to run on
+	 */
+	public static void parallelRadixSort(
+		@NotNull int[] data,
+		@NotNull ForkJoinPool pool
+	) {
+		Objects.requireNonNull(data);
+		Objects.requireNonNull(pool);
+
+		if (data.length < PARALLEL_THRESHOLD || pool.getParallelism() == 1)
+		{
+			radixSort(data);
+			return;
+		}
+
+		pool.invoke(ForkJoinTask.adapt(() -> parallelMsd(data)));
+	}
+
+	/**
+	 * Sorts an array into ascending order using the common fork-join pool.
+	 *
+	 * @param data Array to sort
+	 */
+	public static void parallelRadixSort(
+		@NotNull long[] data
+	) {
+		parallelRadixSort(data, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sorts an array into ascending order using the given fork-join pool.
+	 *
+	 * @param data Array to sort
+	 * @param pool Pool to run on
+	 */
+	public static void parallelRadixSort(
+		@NotNull long[] data,
+		@NotNull ForkJoinPool pool
+	) {
+		Objects.requireNonNull(data);
+		Objects.requireNonNull(pool);
+
+		if (data.length < PARALLEL_THRESHOLD || pool.getParallelism() == 1)
+		{
+			radixSort(data);
+			return;
+		}
+
+		pool.invoke(ForkJoinTask.adapt(() -> parallelMsd(data)));
+	}
+
+	/**
+	 * Looks up many keys in one sorted array. Rather than running an independent binary search per key, the keys are visited in
+	 * ascending order and each search gallops forward from where the previous one ended, so the array is swept once from front to
+	 * back. Keys that are already ascending are not reordered.
+	 *
+	 * @param sorted Array sorted into ascending order
+	 * @param keys Keys to look up
+	 *
+	 * @return For each key, at the same index, the index of its first occurrence in the sorted array, or {@code -(insertion point) - 1} if
+	 * it does not occur, matching {@link java.util.Arrays#binarySearch(int[], int)}
+	 */
+	@NotNull
+	public static int[] searchAll(
+		@NotNull int[] sorted,
+		@NotNull int[] keys
+	) {
+		Objects.requireNonNull(sorted);
+		Objects.requireNonNull(keys);
+
+		int[] order = isAscending(keys) ? null : sortedOrder(keys);
+		int[] results = new int[keys.length];
+		int position = 0;
+		for (int i = 0; i < keys.length; i++)
+		{
+			int index = order == null ? i : order[i];
+			int key = keys[index];
+			position = gallop(sorted, position, key);
+			results[index] = position < sorted.length && sorted[position] == key ? position : -position - 1;
+		}
+
+		return results;
+	}
+
+	/**
+	 * Looks up many keys in one sorted array, sweeping the array once. See {@link #searchAll(int[], int[])}.
+	 *
+	 * @param sorted Array sorted into ascending order
+	 * @param keys Keys to look up
+	 *
+	 * @return For each key, at the same index, the index of its first occurrence in the sorted array, or {@code -(insertion point) - 1} if
+	 * it does not occur
+	 */
+	@NotNull
+	public static int[] searchAll(
+		@NotNull long[] sorted,
+		@NotNull long[] keys
+	) {
+		Objects.requireNonNull(sorted);
+		Objects.requireNonNull(keys);
+
+		int[] order = isAscending(keys) ? null : sortedOrder(keys);
+		int[] results = new int[keys.length];
+		int position = 0;
+		for (int i = 0; i < keys.length; i++)
+		{
+			int index = order == null ? i : order[i];
+			long key = keys[index];
+			position = gallop(sorted, position, key);
+			results[index] = position < sorted.length && sorted[position] == key ? position : -position - 1;
+		}
+
+		return results;
+	}
+
+	//--------------------------------------------------------------------------------
+	private static int digit(
+		int key,
+		int shift
+	) {
+		// Flipping the sign bit makes negative keys order before positive ones when compared as unsigned digits
+		return ((key ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+	}
+
+	private static int digit(
+		long key,
+		int shift
+	) {
+		return (int) ((key ^ Long.MIN_VALUE) >>> shift) & 0xFF;
+	}
+
+	/**
+	 * Sorts a range on its lowest digits, moving elements back and forth between the data and buffer arrays, and returns whichever array
+	 * holds the result. The range starts at {@code from} in the data array and at {@code bufferFrom} in the buffer, so the buffer need
+	 * only be as large as the range; the result lies at the returned array's own start index. The payload arrays may be null, and share
+	 * the start index of their key array.
+	 */
+	private static int[] lsd(
+		int[] data,
+		int[] buffer,
+		int[] payload,
+		int[] payloadBuffer,
+		int from,
+		int to,
+		int bufferFrom,
+		int digits
+	) {
+		int length = to - from;
+		if (length < 2)
+		{
+			return data;
+		}
+
+		int[][] counts = new int[digits][256];
+		for (int i = from; i < to; i++)
+		{
+			int key = data[i];
+			for (int d = 0; d < digits; d++)
+			{
+				counts[d][digit(key, d * 8)]++;
+			}
+		}
+
+		int[] source = data;
+		int[] target = buffer;
+		int[] sourcePayload = payload;
+		int[] targetPayload = payloadBuffer;
+		int sourceFrom = from;
+		int targetFrom = bufferFrom;
+		for (int d = 0; d < digits; d++)
+		{
+			int shift = d * 8;
+			int[] offsets = counts[d];
+			if (offsets[digit(source[sourceFrom], shift)] == length)
+			{
+				continue;
+			}
+
+			toOffsets(offsets, targetFrom);
+			for (int i = sourceFrom; i < sourceFrom + length; i++)
+			{
+				int key = source[i];
+				int slot = offsets[digit(key, shift)]++;
+				target[slot] = key;
+				if (sourcePayload != null)
+				{
+					targetPayload[slot] = sourcePayload[i];
+				}
+			}
+
+			int[] temp = source;
+			source = target;
+			target = temp;
+			temp = sourcePayload;
+			sourcePayload = targetPayload;
+			targetPayload = temp;
+			int tempFrom = sourceFrom;
+			sourceFrom = targetFrom;
+			targetFrom = tempFrom;
+		}
+
+		return source;
+	}
+
+	private static long[] lsd(
+		long[] data,
+		long[] buffer,
+		int[] payload,
+		int[] payloadBuffer,
+		int from,
+		int to,
+		int bufferFrom,
+		int digits
+	) {
+		int length = to - from;
+		if (length < 2)
+		{
+			return data;
+		}
+
+		int[][] counts = new int[digits][256];
+		for (int i = from; i < to; i++)
+		{
+			long key = data[i];
+			for (int d = 0; d < digits; d++)
+			{
+				counts[d][digit(key, d * 8)]++;
+			}
+		}
+
+		long[] source = data;
+		long[] target = buffer;
+		int[] sourcePayload = payload;
+		int[] targetPayload = payloadBuffer;
+		int sourceFrom = from;
+		int targetFrom = bufferFrom;
+		for (int d = 0; d < digits; d++)
+		{
+			int shift = d * 8;
+			int[] offsets = counts[d];
+			if (offsets[digit(source[sourceFrom], shift)] == length)
+			{
+				continue;
+			}
+
+			toOffsets(offsets, targetFrom);
+			for (int i = sourceFrom; i < sourceFrom + length; i++)
+			{
+				long key = source[i];
+				int slot = offsets[digit(key, shift)]++;
+				target[slot] = key;
+				if (sourcePayload != null)
+				{
+					targetPayload[slot] = sourcePayload[i];
+				}
+			}
+
+			long[] temp = source;
+			source = target;
+			target = temp;
+			int[] tempPayload = sourcePayload;
+			sourcePayload = targetPayload;
+			targetPayload = tempPayload;
+			int tempFrom = sourceFrom;
+			sourceFrom = targetFrom;
+			targetFrom = tempFrom;
+		}
+
+		return source;
+	}
+
+	/**
+	 * Turns digit counts into the index at which each digit's run starts.
+	 */
+	private static void toOffsets(
+		int[] counts,
+		int from
+	) {
+		int sum = from;
+		for (int d = 0; d < counts.length; d++)
+		{
+			int count = counts[d];
+			counts[d] = sum;
+			sum += count;
+		}
+	}
+
+	private static void parallelMsd(
+		int[] data
+	) {
+		int first = data[0];
+		int differing = IntStream.of(data).parallel().reduce(0, (bits, key) -> bits | (key ^ first));
+		if (differing == 0)
+		{
+			return;
+		}
+
+		// Every key agrees above the highest differing bit, so the split happens on the digit holding it
+		int digits = (31 - Integer.numberOfLeadingZeros(differing)) / 8;
+		int shift = digits * 8;
+
+		int chunks = (data.length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+		int[][] offsets = new int[chunks][256];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			int[] counts = offsets[chunk];
+			int end = Math.min(data.length, (chunk + 1) * PARALLEL_CHUNK);
+			for (int i = chunk * PARALLEL_CHUNK; i < end; i++)
+			{
+				counts[digit(data[i], shift)]++;
+			}
+		});
+
+		int[] buckets = bucketBounds(offsets);
+		int[] buffer = new int[data.length];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			int[] next = offsets[chunk];
+			int end = Math.min(data.length, (chunk + 1) * PARALLEL_CHUNK);
+			for (int i = chunk * PARALLEL_CHUNK; i < end; i++)
+			{
+				int key = data[i];
+				buffer[next[digit(key, shift)]++] = key;
+			}
+		});
+
+		IntStream.range(0, 256).parallel().forEach(bucket -> {
+			int from = buckets[bucket];
+			int to = buckets[bucket + 1];
+			if (to - from < RADIX_THRESHOLD)
+			{
+				java.util.Arrays.sort(buffer, from, to);
+				System.arraycopy(buffer, from, data, from, to - from);
+				return;
+			}
+
+			int[] sorted = lsd(buffer, data, null, null, from, to, from, digits);
+			if (sorted != data)
+			{
+				System.arraycopy(sorted, from, data, from, to - from);
+			}
+		});
+	}
+
+	private static void parallelMsd(
+		long[] data
+	) {
+		long first = data[0];
+		long differing = LongStream.of(data).parallel().reduce(0, (bits, key) -> bits | (key ^ first));
+		if (differing == 0)
+		{
+			return;
+		}
+
+		int digits = (63 - Long.numberOfLeadingZeros(differing)) / 8;
+		int shift = digits * 8;
+
+		int chunks = (data.length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+		int[][] offsets = new int[chunks][256];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			int[] counts = offsets[chunk];
+			int end = Math.min(data.length, (chunk + 1) * PARALLEL_CHUNK);
+			for (int i = chunk * PARALLEL_CHUNK; i < end; i++)
+			{
+				counts[digit(data[i], shift)]++;
+			}
+		});
+
+		int[] buckets = bucketBounds(offsets);
+		long[] buffer = new long[data.length];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			int[] next = offsets[chunk];
+			int end = Math.min(data.length, (chunk + 1) * PARALLEL_CHUNK);
+			for (int i = chunk * PARALLEL_CHUNK; i < end; i++)
+			{
+				long key = data[i];
+				buffer[next[digit(key, shift)]++] = key;
+			}
+		});
+
+		IntStream.range(0, 256).parallel().forEach(bucket -> {
+			int from = buckets[bucket];
+			int to = buckets[bucket + 1];
+			if (to - from < RADIX_THRESHOLD)
+			{
+				java.util.Arrays.sort(buffer, from, to);
+				System.arraycopy(buffer, from, data, from, to - from);
+				return;
+			}
+
+			long[] sorted = lsd(buffer, data, null, null, from, to, from, digits);
+			if (sorted != data)
+			{
+				System.arraycopy(sorted, from, data, from, to - from);
+			}
+		});
+	}
+
+	/**
+	 * Turns per-chunk digit counts into per-chunk write positions, with each chunk writing after the earlier chunks within every bucket,
+	 * and returns the bounds of each bucket.
+	 */
+	private static int[] bucketBounds(
+		int[][] counts
+	) {
+		int[] bounds = new int[257];
+		int sum = 0;
+		for (int d = 0; d < 256; d++)
+		{
+			bounds[d] = sum;
+			for (int[] chunk : counts)
+			{
+				int count = chunk[d];
+				chunk[d] = sum;
+				sum += count;
+			}
+		}
+
+		bounds[256] = sum;
+
+		return bounds;
+	}
+
+	/**
+	 * Returns the first index at or after the given position holding a value of at least the key, probing at doubling distances before
+	 * narrowing down with a binary search.
+	 */
+	private static int gallop(
+		int[] sorted,
+		int position,
+		int key
+	) {
+		if (position >= sorted.length || sorted[position] >= key)
+		{
+			return position;
+		}
+
+		int below = position;
+		int step = 1;
+		while (position + step < sorted.length && sorted[position + step] < key)
+		{
+			below = position + step;
+			step <<= 1;
+		}
+
+		int low = below + 1;
+		int high = (int) Math.min(sorted.length, (long) position + step);
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < key)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private static int gallop(
+		long[] sorted,
+		int position,
+		long key
+	) {
+		if (position >= sorted.length || sorted[position] >= key)
+		{
+			return position;
+		}
+
+		int below = position;
+		int step = 1;
+		while (position + step < sorted.length && sorted[position + step] < key)
+		{
+			below = position + step;
+			step <<= 1;
+		}
+
+		int low = below + 1;
+		int high = (int) Math.min(sorted.length, (long) position + step);
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < key)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private static boolean isAscending(
+		int[] keys
+	) {
+		for (int i = 1; i < keys.length; i++)
+		{
+			if (keys[i - 1] > keys[i])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean isAscending(
+		long[] keys
+	) {
+		for (int i = 1; i < keys.length; i++)
+		{
+			if (keys[i - 1] > keys[i])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int[] identity(
+		int length
+	) {
+		int[] indices = new int[length];
+		for (int i = 0; i < length; i++)
+		{
+			indices[i] = i;
+		}
+
+		return indices;
+	}
+
+	private static void requireSameLength(
+		int keys,
+		int payload
+	) {
+		if (keys != payload)
+		{
+			throw new IllegalArgumentException("Keys and payload must be the same length; received " + keys + " and " + payload);
+		}
+	}
+}
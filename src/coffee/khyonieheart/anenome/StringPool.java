@@ -0,0 +1,269 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free string deduplication cache. Unlike {@link String#intern()}, a pool has a fixed capacity and its contents are
+ * ordinary heap objects, so it may be sized per use case and discarded when no longer needed.
+ * <p>
+ * The pool is a 4-way set-associative table. Each string hashes to a set of four slots; on a miss the new string takes an empty slot in
+ * its set, or evicts a random one if the set is full. Lookups that hit never allocate.
+ * <p>
+ * Pools are safe to use from any number of threads without locking. Concurrent misses on the same content may briefly produce two
+ * distinct canonical instances, which is harmless for deduplication.
+ */
+public final class StringPool
+{
+	private static final int WAYS = 4;
+
+	// Slots are read and written without synchronization. This is safe because String is immutable and safely published through its
+	// final fields; at worst a thread observes a stale slot and takes the miss path.
+	private final String[] slots;
+	private final int setMask;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Constructs a new pool holding at most the given number of strings. The capacity is rounded up to the next power of two, and to at
+	 * least one set.
+	 *
+	 * @param capacity Maximum number of strings to hold
+	 *
+	 * @throws IllegalArgumentException If capacity is less than 1 or greater than 2^30
+	 */
+	public StringPool(
+		@Positive int capacity
+	) {
+		RuntimeConditions.requireRange(capacity, 1, 1 << 30);
+
+		int size = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+		this.slots = new String[size];
+		this.setMask = size / WAYS - 1;
+	}
+
+	/**
+	 * Returns the canonical instance for the given string. On a miss, the given string itself becomes the canonical instance.
+	 *
+	 * @param string String to deduplicate
+	 *
+	 * @return Canonical string with the same contents
+	 */
+	@NotNull
+	public String dedup(
+		@NotNull String string
+	) {
+		Objects.requireNonNull(string);
+
+		int set = this.setOf(string.hashCode());
+		String[] slots = this.slots;
+		for (int i = set; i < set + WAYS; i++)
+		{
+			String candidate = slots[i];
+			if (candidate != null && candidate.equals(string))
+			{
+				this.hits.increment();
+				return candidate;
+			}
+		}
+
+		this.store(set, string);
+
+		return string;
+	}
+
+	/**
+	 * Returns the canonical string for the given sequence. A new string is only created on a miss.
+	 *
+	 * @param sequence Sequence to deduplicate
+	 *
+	 * @return Canonical string with the same contents
+	 */
+	@NotNull
+	public String dedup(
+		@NotNull CharSequence sequence
+	) {
+		if (Objects.requireNonNull(sequence) instanceof String string)
+		{
+			return this.dedup(string);
+		}
+
+		int length = sequence.length();
+		int hash = 0;
+		for (int i = 0; i < length; i++)
+		{
+			hash = 31 * hash + sequence.charAt(i);
+		}
+
+		int set = this.setOf(hash);
+		String[] slots = this.slots;
+		for (int i = set; i < set + WAYS; i++)
+		{
+			String candidate = slots[i];
+			if (candidate != null && candidate.contentEquals(sequence))
+			{
+				this.hits.increment();
+				return candidate;
+			}
+		}
+
+		String string = sequence.toString();
+		this.store(set, string);
+
+		return string;
+	}
+
+	/**
+	 * Returns the canonical string for the given region of a character array. A new string is only created on a miss.
+	 *
+	 * @param chars Source characters
+	 * @param offset Start of the region
+	 * @param length Length of the region
+	 *
+	 * @return Canonical string with the same contents
+	 * @throws IndexOutOfBoundsException If the region lies outside the bounds of the array
+	 */
+	@NotNull
+	public String dedup(
+		@NotNull char[] chars,
+		int offset,
+		int length
+	) {
+		Objects.checkFromIndexSize(offset, length, chars.length);
+
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++)
+		{
+			hash = 31 * hash + chars[i];
+		}
+
+		int set = this.setOf(hash);
+		String[] slots = this.slots;
+		for (int i = set; i < set + WAYS; i++)
+		{
+			String candidate = slots[i];
+			if (candidate != null && matches(candidate, chars, offset, length))
+			{
+				this.hits.increment();
+				return candidate;
+			}
+		}
+
+		String string = new String(chars, offset, length);
+		this.store(set, string);
+
+		return string;
+	}
+
+	/**
+	 * Returns the number of lookups that returned an existing canonical string.
+	 *
+	 * @return Number of hits
+	 */
+	public long hits()
+	{
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that stored a new canonical string.
+	 *
+	 * @return Number of misses
+	 */
+	public long misses()
+	{
+		return this.misses.sum();
+	}
+
+	/**
+	 * Returns the fraction of lookups that were hits.
+	 *
+	 * @return Hit rate between 0 and 1, or 0 if no lookups have been made
+	 */
+	public double hitRate()
+	{
+		long hits = this.hits.sum();
+		long total = hits + this.misses.sum();
+
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Returns the maximum number of strings this pool can hold.
+	 *
+	 * @return Capacity
+	 */
+	public int capacity()
+	{
+		return this.slots.length;
+	}
+
+	/**
+	 * Removes every string from this pool and resets its statistics.
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(this.slots, null);
+		this.hits.reset();
+		this.misses.reset();
+	}
+
+	//--------------------------------------------------------------------------------
+	private int setOf(
+		int hash
+	) {
+		// Multiplicative mixing keeps strings with consecutive hash codes from piling into the same set
+		int spread = hash * 0x9E3779B9;
+		spread ^= spread >>> 16;
+
+		return (spread & this.setMask) * WAYS;
+	}
+
+	private void store(
+		int set,
+		String string
+	) {
+		this.misses.increment();
+
+		String[] slots = this.slots;
+		for (int i = set; i < set + WAYS; i++)
+		{
+			if (slots[i] == null)
+			{
+				slots[i] = string;
+				return;
+			}
+		}
+
+		slots[set + ThreadLocalRandom.current().nextInt(WAYS)] = string;
+	}
+
+	private static boolean matches(
+		String candidate,
+		char[] chars,
+		int offset,
+		int length
+	) {
+		if (candidate.length() != length)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < length; i++)
+		{
+			if (candidate.charAt(i) != chars[offset + i])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
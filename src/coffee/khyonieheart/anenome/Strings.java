@@ -1,24 +1,35 @@
 package coffee.khyonieheart.anenome;
 
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import coffee.khyonieheart.anenome.exception.StringFormatException;
+import coffee.khyonieheart.anenome.jfr.FormatEvent;
+import coffee.khyonieheart.anenome.jfr.LevenshteinEvent;
+import coffee.khyonieheart.anenome.metrics.Metrics;
+import coffee.khyonieheart.anenome.search.KeywordMatcher;
+import coffee.khyonieheart.anenome.search.Searcher;
+import coffee.khyonieheart.anenome.similarity.StringMetric;
 
 /**
  * String utilities.
  */
 public class Strings
 {
-	private static Pattern pattern = Pattern.compile("\\{(.*?)\\}");
-	private static Pattern formatPattern = Pattern.compile("(\\d+)|(.*)([<>^])(\\d+)");
+	private static final int TEMPLATE_CACHE_SIZE = 512;
+	private static final ConcurrentHashMap<String, FormatTemplate> templates = new ConcurrentHashMap<>();
+	private static volatile StringPool formatPool = null;
 
 	/**
-	 * Calculates the Levenshtein distance (sometimes called the "edit distance") between two strings.
+	 * Calculates the Levenshtein distance (sometimes called the "edit distance") between two strings. See {@link StringMetric} for
+	 * other distance metrics.
 	 *
 	 * @param stringA String A
 	 * @param stringB String B
@@ -32,49 +43,111 @@ public class Strings
 		Objects.requireNonNull(stringA);
 		Objects.requireNonNull(stringB);
 
-		int[][] distances = new int[stringB.length() + 1][stringA.length() + 1];
-
-		// Initialize empty sections
-		for (int i = 0; i < stringA.length(); i++)
+		long start = Metrics.startTimer();
+		LevenshteinEvent event = LevenshteinEvent.start();
+		int distance = StringMetric.levenshtein().compute(stringA, stringB);
+		Metrics.LEVENSHTEIN.stopTimer(start);
+		if (event != null)
 		{
-			distances[0][i] = i;
+			event.finish(stringA.length(), stringB.length(), distance);
 		}
 
-		for (int i = 1; i < stringB.length(); i++)
+		return distance;
+	}
+
+	/**
+	 * Calculates the Levenshtein distance between two strings, giving up once it is known to exceed the given limit. Much cheaper than
+	 * {@link #levenshtein(String, String)} when only close matches are of interest.
+	 *
+	 * @param stringA String A
+	 * @param stringB String B
+	 * @param limit Largest distance of interest
+	 *
+	 * @return The Levenshtein distance between A and B if it is at most limit, otherwise limit + 1
+	 * @throws IllegalArgumentException If limit is negative
+	 */
+	public static int levenshtein(
+		@NotNull String stringA,
+		@NotNull String stringB,
+		int limit
+	) {
+		long start = Metrics.startTimer();
+		LevenshteinEvent event = LevenshteinEvent.start();
+		int distance = StringMetric.levenshtein().compute(stringA, stringB, limit);
+		Metrics.LEVENSHTEIN.stopTimer(start);
+		if (event != null)
 		{
-			distances[i][0] = i; 
+			event.finish(stringA.length(), stringB.length(), distance);
 		}
 
-		// Compute
-		int cost = 0;
-		for (int b = 1; b < stringB.length() + 1; b++)
-		{
-			for (int a = 1; a < stringA.length() + 1; a++)
-			{
-				cost = 0;
-				if (stringA.charAt(a - 1) != stringB.charAt(b - 1))
-				{
-					cost = 1;
-				}
+		return distance;
+	}
 
-				distances[b][a] = Arrays.minArray(
-					distances[b - 1][a] + 1,
-					distances[b][a - 1] + 1,
-					distances[b - 1][a - 1] + cost
-				);
-			}
-		}
+	/**
+	 * Computes a minimal sequence of insertions, deletions and substitutions that transforms string A into string B. The number of
+	 * operations is the Levenshtein distance between the two strings.
+	 * <p>
+	 * Uses Hirschberg's algorithm, so memory use is linear in the shorter string rather than quadratic, and large inputs are split
+	 * across the common fork-join pool.
+	 *
+	 * @param stringA String A
+	 * @param stringB String B
+	 *
+	 * @return Edit script from A to B
+	 */
+	@NotNull
+	public static EditScript editScript(
+		@NotNull CharSequence stringA,
+		@NotNull CharSequence stringB
+	) {
+		return editScript(stringA, stringB, ForkJoinPool.commonPool());
+	}
 
-		return distances[stringB.length()][stringA.length()];
+	/**
+	 * Computes a minimal sequence of insertions, deletions and substitutions that transforms string A into string B, splitting large
+	 * inputs across the given fork-join pool.
+	 *
+	 * @param stringA String A
+	 * @param stringB String B
+	 * @param pool Pool to compute in
+	 *
+	 * @return Edit script from A to B
+	 */
+	@NotNull
+	public static EditScript editScript(
+		@NotNull CharSequence stringA,
+		@NotNull CharSequence stringB,
+		@NotNull ForkJoinPool pool
+	) {
+		Objects.requireNonNull(stringA);
+		Objects.requireNonNull(stringB);
+		Objects.requireNonNull(pool);
+
+		return Hirschberg.editScript(stringA, stringB, pool);
 	}
 
 	/**
 	 * Formats a string using the given format.
+	 * <p>
+	 * Placeholders are written between braces:
+	 * <ul>
+	 * <li>{@code {}} - The next parameter</li>
+	 * <li>{@code {n}} - The parameter at index n</li>
+	 * <li>{@code {:x}} - The next parameter, left-aligned and padded with spaces to at least x characters</li>
+	 * <li>{@code {:[fill](<>^)x}} - The next parameter, aligned left, right or centered and padded with the fill character to at least x characters</li>
+	 * <li>{@code {:[[fill](<>^)][0][x][,][.p][dxXbf]}} - The next parameter, with any of the above, plus zero padding, thousands seperators,
+	 * a precision and a numeric type (decimal, lower/upper case hex, binary or fixed-point)</li>
+	 * <li>{@code {name}}, {@code {name:...}} - A named value, see {@link #formatNamed(String, Object)}. A format string with named
+	 * placeholders can not have unnamed ones</li>
+	 * </ul>
+	 * Every placeholder advances the next parameter, including positional placeholders. Format strings are compiled once and cached; see
+	 * {@link #template(String)} to hold on to a compiled template directly.
 	 *
 	 * @param format Format string 
 	 * @param parameters Parameters
 	 *
 	 * @return Format string with its parameters replaced.
+	 * @throws StringFormatException If the format string is invalid, or too few parameters are given
 	 */
 	public static String format(
 		@NotNull String format,
@@ -88,9 +161,263 @@ public class Strings
 			return format;
 		}
 
-		Matcher matcher = pattern.matcher(format);
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).format(parameters));
+
+		return recordFormat(format, parameters.length, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string using the named values of a source object, given by {@code {name}} placeholders with the same format specs as
+	 * {@link #format(String, Object...)}. The source may be a {@link java.util.Map}, a record, or a bean with getters or public fields;
+	 * accessors are resolved once per class and then called through cached method handles, without boxing int, long or double values.
+	 * <pre>
+	 * record Hit(String player, int damage, double critical) {}
+	 * Strings.formatNamed("{player} hit for {damage} ({critical:.1f}x)", new Hit("Khyonie", 12, 1.5));
+	 * </pre>
+	 *
+	 * @param format Format string
+	 * @param source Map or object holding the named values
+	 *
+	 * @return Format string with its placeholders replaced.
+	 * @throws StringFormatException If the format string is invalid, has unnamed placeholders, or names a value the source does not have
+	 * @see FormatTemplate#formatNamed(Object)
+	 */
+	public static String formatNamed(
+		@NotNull String format,
+		@NotNull Object source
+	) {
+		Objects.requireNonNull(format);
+		Objects.requireNonNull(source);
+
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatNamed(source));
+
+		return recordFormat(format, 1, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string with a single int parameter, without boxing it.
+	 * <p>
+	 * The primitive forms have names of their own rather than overloading {@link #format(String, Object...)}, so that existing calls
+	 * keep formatting boxed, null and mixed parameters exactly as before.
+	 *
+	 * @param format Format string
+	 * @param a First parameter
+	 *
+	 * @return Format string with its parameter replaced.
+	 * @throws StringFormatException If the format string is invalid, or requires more than one parameter
+	 */
+	public static String formatInt(
+		@NotNull String format,
+		int a
+	) {
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatInt(a));
+
+		return recordFormat(format, 1, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string with a single long parameter, without boxing it.
+	 *
+	 * @param format Format string
+	 * @param a First parameter
+	 *
+	 * @return Format string with its parameter replaced.
+	 * @throws StringFormatException If the format string is invalid, or requires more than one parameter
+	 */
+	public static String formatLong(
+		@NotNull String format,
+		long a
+	) {
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatLong(a));
+
+		return recordFormat(format, 1, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string with two long parameters, without boxing them.
+	 *
+	 * @param format Format string
+	 * @param a First parameter
+	 * @param b Second parameter
+	 *
+	 * @return Format string with its parameters replaced.
+	 * @throws StringFormatException If the format string is invalid, or requires more than two parameters
+	 */
+	public static String formatLongs(
+		@NotNull String format,
+		long a,
+		long b
+	) {
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatLongs(a, b));
+
+		return recordFormat(format, 2, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string with three long parameters, without boxing them.
+	 *
+	 * @param format Format string
+	 * @param a First parameter
+	 * @param b Second parameter
+	 * @param c Third parameter
+	 *
+	 * @return Format string with its parameters replaced.
+	 * @throws StringFormatException If the format string is invalid, or requires more than three parameters
+	 */
+	public static String formatLongs(
+		@NotNull String format,
+		long a,
+		long b,
+		long c
+	) {
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatLongs(a, b, c));
+
+		return recordFormat(format, 3, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string with a single double parameter, without boxing it.
+	 *
+	 * @param format Format string
+	 * @param a First parameter
+	 *
+	 * @return Format string with its parameter replaced.
+	 * @throws StringFormatException If the format string is invalid, or requires more than one parameter
+	 */
+	public static String formatDouble(
+		@NotNull String format,
+		double a
+	) {
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatDouble(a));
 
-		return matcher.replaceAll(new FormatReplacer(parameters));
+		return recordFormat(format, 1, formatted, start, event);
+	}
+
+	/**
+	 * Formats a string with two double parameters, without boxing them.
+	 *
+	 * @param format Format string
+	 * @param a First parameter
+	 * @param b Second parameter
+	 *
+	 * @return Format string with its parameters replaced.
+	 * @throws StringFormatException If the format string is invalid, or requires more than two parameters
+	 */
+	public static String formatDoubles(
+		@NotNull String format,
+		double a,
+		double b
+	) {
+		long start = Metrics.startTimer();
+		FormatEvent event = FormatEvent.start();
+		String formatted = pooled(template(format).formatDoubles(a, b));
+
+		return recordFormat(format, 2, formatted, start, event);
+	}
+
+	/**
+	 * Returns the compiled template for the given format string, compiling it if it has not been seen before. Up to 512 distinct format
+	 * strings are cached; beyond that, templates are compiled on every call.
+	 *
+	 * @param format Format string
+	 *
+	 * @return Compiled template
+	 * @throws StringFormatException If the format string is invalid
+	 */
+	@NotNull
+	public static FormatTemplate template(
+		@NotNull String format
+	) {
+		Objects.requireNonNull(format);
+
+		FormatTemplate template = templates.get(format);
+		if (template != null)
+		{
+			return template;
+		}
+
+		template = FormatTemplate.compile(format);
+		if (templates.size() < TEMPLATE_CACHE_SIZE)
+		{
+			templates.putIfAbsent(format, template);
+		}
+
+		return template;
+	}
+
+	/**
+	 * Formats a string directly into a buffer as UTF-8, without building an intermediate string. Either the whole message is written, or
+	 * nothing is; this method never throws {@link java.nio.BufferOverflowException}.
+	 *
+	 * @param destination Buffer to write to
+	 * @param format Format string
+	 * @param parameters Parameters
+	 *
+	 * @return Number of bytes written, or -1 if the buffer did not have enough space, in which case its position is unchanged
+	 * @throws StringFormatException If the format string is invalid, or too few parameters are given
+	 * @see FormatTemplate#writer(Object...)
+	 */
+	public static int formatUtf8(
+		@NotNull ByteBuffer destination,
+		@NotNull String format,
+		@NotNull Object... parameters
+	) {
+		return template(format).formatUtf8(destination, parameters);
+	}
+
+	/**
+	 * Formats a string directly into a buffer as UTF-8 using a compiled template.
+	 *
+	 * @param destination Buffer to write to
+	 * @param template Compiled template
+	 * @param parameters Parameters
+	 *
+	 * @return Number of bytes written, or -1 if the buffer did not have enough space, in which case its position is unchanged
+	 * @throws StringFormatException If too few parameters are given
+	 */
+	public static int formatUtf8(
+		@NotNull ByteBuffer destination,
+		@NotNull FormatTemplate template,
+		@NotNull Object... parameters
+	) {
+		return Objects.requireNonNull(template).formatUtf8(destination, parameters);
+	}
+
+	/**
+	 * Routes the output of {@link #format(String, Object...)} through the given pool, so that repeated formatted strings share a single
+	 * instance. Passing null disables pooling, which is the default.
+	 *
+	 * @param pool Pool to deduplicate formatted strings with, or null
+	 */
+	public static void setFormatPool(
+		@Nullable StringPool pool
+	) {
+		formatPool = pool;
+	}
+
+	/**
+	 * Returns the pool that formatted strings are currently routed through.
+	 *
+	 * @return Current format pool, or null if pooling is disabled
+	 */
+	@Nullable
+	public static StringPool getFormatPool()
+	{
+		return formatPool;
 	}
 
 	/**
@@ -140,6 +467,41 @@ public class Strings
 		out.println(format(format, parameters));
 	}
 
+	/**
+	 * Queues a formatted string on the given {@link AsyncPrintSink}. Formatting and writing happen on the sink's background thread.
+	 *
+	 * @param format Format string
+	 * @param out Sink to be used
+	 * @param parameters Parameters
+	 *
+	 * @return True if the message was queued, false if it was dropped
+	 */
+	public static boolean pformat(
+		@NotNull String format,
+		@NotNull AsyncPrintSink out,
+		@NotNull Object... parameters
+	) {
+		return Objects.requireNonNull(out).pformat(format, parameters);
+	}
+
+	/**
+	 * Queues a formatted string on the given {@link AsyncPrintSink}, and terminates the line. Formatting and writing happen on the sink's
+	 * background thread.
+	 *
+	 * @param format Format string
+	 * @param out Sink to be used
+	 * @param parameters Parameters
+	 *
+	 * @return True if the message was queued, false if it was dropped
+	 */
+	public static boolean pformatln(
+		@NotNull String format,
+		@NotNull AsyncPrintSink out,
+		@NotNull Object... parameters
+	) {
+		return Objects.requireNonNull(out).pformatln(format, parameters);
+	}
+
 	/**
 	 * Prints a formatted string to System.out, and terminates the line.
 	 *
@@ -153,111 +515,540 @@ public class Strings
 		pformatln(format, System.out, parameters);
 	}
 
+	/**
+	 * Joins the elements of an array into a string, using either the provided mapper or {@link String#valueOf(Object)}. The result is
+	 * built in a single, exactly sized buffer.
+	 *
+	 * @param <T> Type of array
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 * @param mapper Optional mapper function to convert non-null elements to a string
+	 *
+	 * @return Joined string
+	 * @implNote Null elements, and null values returned by the mapper, are written as "null".
+	 */
+	@NotNull
+	public static <T> String join(
+		@NotNull CharSequence delimiter,
+		@NotNull T[] data,
+		@Nullable Function<? super T, ? extends CharSequence> mapper
+	) {
+		Objects.requireNonNull(delimiter);
+		Objects.requireNonNull(data);
+
+		CharSequence[] parts = new CharSequence[data.length];
+		for (int i = 0; i < data.length; i++)
+		{
+			parts[i] = toPart(data[i], mapper);
+		}
+
+		return joinParts(delimiter, parts, parts.length);
+	}
+
+	/**
+	 * Joins the elements of an array into a string. The result is built in a single, exactly sized buffer.
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 *
+	 * @return Joined string
+	 */
+	@NotNull
+	public static String join(
+		@NotNull CharSequence delimiter,
+		@NotNull Object... data
+	) {
+		return join(delimiter, data, null);
+	}
+
+	/**
+	 * Joins the elements of an iterable into a string, using either the provided mapper or {@link String#valueOf(Object)}. The result
+	 * is built in a single, exactly sized buffer.
+	 *
+	 * @param <T> Type of element
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 * @param mapper Optional mapper function to convert non-null elements to a string
+	 *
+	 * @return Joined string
+	 */
+	@NotNull
+	public static <T> String join(
+		@NotNull CharSequence delimiter,
+		@NotNull Iterable<? extends T> data,
+		@Nullable Function<? super T, ? extends CharSequence> mapper
+	) {
+		Objects.requireNonNull(delimiter);
+		Objects.requireNonNull(data);
+
+		if (data instanceof Collection<? extends T> collection)
+		{
+			CharSequence[] parts = new CharSequence[collection.size()];
+			int count = 0;
+			for (T element : collection)
+			{
+				parts[count++] = toPart(element, mapper);
+			}
+
+			return joinParts(delimiter, parts, count);
+		}
+
+		List<CharSequence> parts = new ArrayList<>();
+		for (T element : data)
+		{
+			parts.add(toPart(element, mapper));
+		}
+
+		return joinParts(delimiter, parts.toArray(new CharSequence[0]), parts.size());
+	}
+
+	/**
+	 * Joins the elements of an iterable into a string. The result is built in a single, exactly sized buffer.
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 *
+	 * @return Joined string
+	 */
+	@NotNull
+	public static String join(
+		@NotNull CharSequence delimiter,
+		@NotNull Iterable<?> data
+	) {
+		return join(delimiter, data, null);
+	}
+
+	/**
+	 * Joins the elements of an int array into a string, without creating an intermediate string per element.
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 *
+	 * @return Joined string
+	 */
+	@NotNull
+	public static String join(
+		@NotNull CharSequence delimiter,
+		@NotNull int[] data
+	) {
+		Objects.requireNonNull(delimiter);
+		Objects.requireNonNull(data);
+
+		if (data.length == 0)
+		{
+			return "";
+		}
+
+		int size = delimiter.length() * (data.length - 1);
+		for (int i = 0; i < data.length; i++)
+		{
+			size += stringSize(data[i]);
+		}
+
+		StringBuilder builder = new StringBuilder(size);
+		builder.append(data[0]);
+		for (int i = 1; i < data.length; i++)
+		{
+			builder.append(delimiter).append(data[i]);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Joins the elements of a long array into a string, without creating an intermediate string per element.
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 *
+	 * @return Joined string
+	 */
+	@NotNull
+	public static String join(
+		@NotNull CharSequence delimiter,
+		@NotNull long[] data
+	) {
+		Objects.requireNonNull(delimiter);
+		Objects.requireNonNull(data);
+
+		if (data.length == 0)
+		{
+			return "";
+		}
+
+		int size = delimiter.length() * (data.length - 1);
+		for (int i = 0; i < data.length; i++)
+		{
+			size += stringSize(data[i]);
+		}
+
+		StringBuilder builder = new StringBuilder(size);
+		builder.append(data[0]);
+		for (int i = 1; i < data.length; i++)
+		{
+			builder.append(delimiter).append(data[i]);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Joins the elements of a double array into a string, using {@link Double#toString(double)} for each element.
+	 *
+	 * @param delimiter Sequence to seperate elements with
+	 * @param data Elements to join
+	 *
+	 * @return Joined string
+	 */
+	@NotNull
+	public static String join(
+		@NotNull CharSequence delimiter,
+		@NotNull double[] data
+	) {
+		Objects.requireNonNull(delimiter);
+		Objects.requireNonNull(data);
+
+		CharSequence[] parts = new CharSequence[data.length];
+		for (int i = 0; i < data.length; i++)
+		{
+			parts[i] = Double.toString(data[i]);
+		}
+
+		return joinParts(delimiter, parts, parts.length);
+	}
+
+	/**
+	 * Splits a sequence around every occurrence of the given character. Unlike {@link String#split(String)}, no regular expression is
+	 * involved and trailing empty strings are kept, so a sequence containing n delimiters always yields n + 1 parts.
+	 *
+	 * @param string Sequence to split
+	 * @param delimiter Character to split around
+	 *
+	 * @return Array of parts
+	 */
+	@NotNull
+	public static String[] split(
+		@NotNull CharSequence string,
+		char delimiter
+	) {
+		Objects.requireNonNull(string);
+
+		String[] parts = new String[count(string, delimiter) + 1];
+		int length = string.length();
+		int start = 0;
+		int part = 0;
+		for (int i = 0; i < length; i++)
+		{
+			if (string.charAt(i) == delimiter)
+			{
+				parts[part++] = string.subSequence(start, i).toString();
+				start = i + 1;
+			}
+		}
+		parts[part] = string.subSequence(start, length).toString();
+
+		return parts;
+	}
+
+	/**
+	 * Splits a sequence around every occurrence of the given literal delimiter. Unlike {@link String#split(String)}, no regular
+	 * expression is involved and trailing empty strings are kept.
+	 *
+	 * @param string Sequence to split
+	 * @param delimiter Literal delimiter to split around
+	 *
+	 * @return Array of parts
+	 * @throws IllegalArgumentException If the delimiter is empty
+	 */
+	@NotNull
+	public static String[] split(
+		@NotNull CharSequence string,
+		@NotNull String delimiter
+	) {
+		Objects.requireNonNull(string);
+		requireDelimiter(delimiter);
+
+		String[] parts = new String[count(string, delimiter) + 1];
+		int start = 0;
+		int part = 0;
+		for (int i = indexOf(string, delimiter, 0); i != -1; i = indexOf(string, delimiter, start))
+		{
+			parts[part++] = string.subSequence(start, i).toString();
+			start = i + delimiter.length();
+		}
+		parts[part] = string.subSequence(start, string.length()).toString();
+
+		return parts;
+	}
+
+	/**
+	 * Splits a sequence around every occurrence of the given character, returning views into the original sequence instead of copies.
+	 * Follows the same rules as {@link #split(CharSequence, char)}.
+	 *
+	 * @param string Sequence to split
+	 * @param delimiter Character to split around
+	 *
+	 * @return Array of views over each part
+	 */
+	@NotNull
+	public static CharSequenceView[] splitViews(
+		@NotNull CharSequence string,
+		char delimiter
+	) {
+		Objects.requireNonNull(string);
+
+		CharSequenceView[] parts = new CharSequenceView[count(string, delimiter) + 1];
+		int length = string.length();
+		int start = 0;
+		int part = 0;
+		for (int i = 0; i < length; i++)
+		{
+			if (string.charAt(i) == delimiter)
+			{
+				parts[part++] = new CharSequenceView(string, start, i);
+				start = i + 1;
+			}
+		}
+		parts[part] = new CharSequenceView(string, start, length);
+
+		return parts;
+	}
+
+	/**
+	 * Splits a sequence around every occurrence of the given literal delimiter, returning views into the original sequence instead of
+	 * copies. Follows the same rules as {@link #split(CharSequence, String)}.
+	 *
+	 * @param string Sequence to split
+	 * @param delimiter Literal delimiter to split around
+	 *
+	 * @return Array of views over each part
+	 * @throws IllegalArgumentException If the delimiter is empty
+	 */
+	@NotNull
+	public static CharSequenceView[] splitViews(
+		@NotNull CharSequence string,
+		@NotNull String delimiter
+	) {
+		Objects.requireNonNull(string);
+		requireDelimiter(delimiter);
+
+		CharSequenceView[] parts = new CharSequenceView[count(string, delimiter) + 1];
+		int start = 0;
+		int part = 0;
+		for (int i = indexOf(string, delimiter, 0); i != -1; i = indexOf(string, delimiter, start))
+		{
+			parts[part++] = new CharSequenceView(string, start, i);
+			start = i + delimiter.length();
+		}
+		parts[part] = new CharSequenceView(string, start, string.length());
+
+		return parts;
+	}
+
+	/**
+	 * Compiles a reusable matcher for a single pattern. Prefer this over {@link String#indexOf(String)} when searching for the same
+	 * pattern repeatedly or within large texts.
+	 *
+	 * @param pattern Pattern to search for
+	 *
+	 * @return A new thread-safe searcher
+	 * @throws IllegalArgumentException If the pattern is empty
+	 */
+	@NotNull
+	public static Searcher searcher(
+		@NotNull String pattern
+	) {
+		return Searcher.compile(pattern);
+	}
+
+	/**
+	 * Compiles a reusable matcher that finds all of the given keywords in a single pass.
+	 *
+	 * @param keywords Keywords to search for
+	 *
+	 * @return A new thread-safe matcher
+	 * @throws IllegalArgumentException If no keywords are given, or any keyword is empty
+	 */
+	@NotNull
+	public static KeywordMatcher keywordMatcher(
+		@NotNull @NotEmpty String... keywords
+	) {
+		return KeywordMatcher.compile(keywords);
+	}
+
 	//-------------------------------------------------------------------------------- 
-	private static class FormatReplacer implements Function<MatchResult, String>
-	{
-		private final ArrayIterator<Object> formatIterator;
+	private static String pooled(
+		String formatted
+	) {
+		StringPool pool = formatPool;
+		if (pool != null)
+		{
+			return pool.dedup(formatted);
+		}
+
+		return formatted;
+	}
+
+	private static String recordFormat(
+		String format,
+		int argumentCount,
+		String formatted,
+		long start,
+		FormatEvent event
+	) {
+		Metrics.FORMAT.stopTimer(start);
+		if (event != null)
+		{
+			event.finish(format, argumentCount, formatted.length());
+		}
+
+		return formatted;
+	}
+
+	private static <T> CharSequence toPart(
+		T element,
+		Function<? super T, ? extends CharSequence> mapper
+	) {
+		if (element == null)
+		{
+			return "null";
+		}
+
+		if (mapper == null)
+		{
+			return element.toString();
+		}
+
+		CharSequence part = mapper.apply(element);
+
+		return part == null ? "null" : part;
+	}
 
-		public FormatReplacer(
-			Object[] parameters
-		) {
-			this.formatIterator = new ArrayIterator<>(parameters);
+	private static String joinParts(
+		CharSequence delimiter,
+		CharSequence[] parts,
+		int count
+	) {
+		if (count == 0)
+		{
+			return "";
 		}
 
-		@Override
-		public String apply(
-			MatchResult match
-		) {
-			Object obj = formatIterator.next();
-			String format = match.group(1);
+		int size = delimiter.length() * (count - 1);
+		for (int i = 0; i < count; i++)
+		{
+			size += parts[i].length();
+		}
+
+		StringBuilder builder = new StringBuilder(size);
+		builder.append(parts[0]);
+		for (int i = 1; i < count; i++)
+		{
+			builder.append(delimiter).append(parts[i]);
+		}
+
+		return builder.toString();
+	}
 
-			if (format.isBlank())
+	/**
+	 * Number of characters needed to print the given value in base 10.
+	 */
+	static int stringSize(
+		long value
+	) {
+		int sign = 1;
+		if (value >= 0)
+		{
+			sign = 0;
+			value = -value;
+		}
+
+		long bound = -10;
+		for (int i = 1; i < 19; i++)
+		{
+			if (value > bound)
 			{
-				return obj == null ? "null" : obj.toString();
+				return i + sign;
 			}
 
-			// Positional parameter
-			try {
-				int index = Integer.parseInt(format);
+			bound *= 10;
+		}
 
-				obj = formatIterator.getBacking()[index].toString();
+		return 19 + sign;
+	}
 
-				return obj == null ? "null" : obj.toString();
-			} catch (NumberFormatException e) {}
+	private static void requireDelimiter(
+		String delimiter
+	) {
+		if (Objects.requireNonNull(delimiter).isEmpty())
+		{
+			throw new IllegalArgumentException("Delimiter must not be empty");
+		}
+	}
 
-			// Formatting
-			if (format.startsWith(":"))
+	private static int count(
+		CharSequence string,
+		char delimiter
+	) {
+		int count = 0;
+		int length = string.length();
+		for (int i = 0; i < length; i++)
+		{
+			if (string.charAt(i) == delimiter)
 			{
-				format = format.substring(1);
+				count++;
+			}
+		}
 
-				Matcher matcher = formatPattern.matcher(format);
+		return count;
+	}
 
-				if (!matcher.matches())
-				{
-					throw new StringFormatException("Unknown format \"" + format + "\"");
-				}
+	private static int count(
+		CharSequence string,
+		String delimiter
+	) {
+		int count = 0;
+		for (int i = indexOf(string, delimiter, 0); i != -1; i = indexOf(string, delimiter, i + delimiter.length()))
+		{
+			count++;
+		}
 
-				if (matcher.group(1) == null)
-				{
-					String padChar = matcher.group(2);
-
-					if (padChar.isEmpty())
-					{
-						padChar = " ";
-					}
-
-					char alignment = matcher.group(3).charAt(0);
-					int size = Integer.parseInt(matcher.group(4));
-					String string = obj == null ? "null" : obj.toString();
-
-					StringBuilder builder = new StringBuilder(padChar.repeat(size));
-					switch (alignment) // {:[fill](^<>)x}
-					{
-						case '<' -> builder.replace(0, string.length(), string);
-						case '>' -> {
-							if (string.length() >= builder.length())
-							{
-								return string;
-							} 
-
-							builder.replace(builder.length() - string.length(), builder.length(), string);
-						}
-						case '^' -> {
-							if (string.length() >= builder.length())
-							{
-								return string;
-							} 
-
-							int roundedSize = (int) Math.ceil((double) string.length() / 2); // Rounded up, so the string is slightly biased towards the left
-							int remainingSize = string.length() - roundedSize;
-							
-							builder.replace(builder.length() / 2 - roundedSize, builder.length() / 2 + remainingSize, string);
-						}
-					}
-
-					return builder.toString();
-				}
+		return count;
+	}
 
-				// {:x} - Left-aligned, fill at least x characters, padded with spaces
-				int size = Integer.parseInt(matcher.group(1));
-				obj = formatIterator.next();
+	private static int indexOf(
+		CharSequence string,
+		String target,
+		int from
+	) {
+		if (string instanceof String s)
+		{
+			return s.indexOf(target, from);
+		}
 
-				String string = obj == null ? "null" : obj.toString();
-				
-				if (string.length() >= size)
-				{
-					return string;
-				}
+		char first = target.charAt(0);
+		int last = string.length() - target.length();
+		outer:
+		for (int i = from; i <= last; i++)
+		{
+			if (string.charAt(i) != first)
+			{
+				continue;
+			}
 
-				while (string.length() < size)
+			for (int j = 1; j < target.length(); j++)
+			{
+				if (string.charAt(i + j) != target.charAt(j))
 				{
-					string += ' ';
+					continue outer;
 				}
-
-				return string;
 			}
 
-			throw new StringFormatException("Unknown format \"" + format + "\"");
+			return i;
 		}
+
+		return -1;
 	}
 }
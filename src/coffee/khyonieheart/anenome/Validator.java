@@ -0,0 +1,409 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import coffee.khyonieheart.anenome.jfr.ValidationFailureEvent;
+import coffee.khyonieheart.anenome.metrics.Metrics;
+import coffee.khyonieheart.anenome.operation.Result;
+
+/**
+ * An immutable set of validation rules, built once through {@link ObjectValidator#rules()} and reused for any number of objects.
+ * Validators hold no mutable state and may be shared freely between threads.
+ */
+public final class Validator<T>
+{
+	private final boolean requireNonNull;
+	private final String[] names;
+	private final Predicate<? super T>[] predicates;
+	private final boolean failFast;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Validator(
+		Builder<T> builder
+	) {
+		this.requireNonNull = builder.requireNonNull;
+		this.names = builder.names.toArray(new String[0]);
+		this.predicates = builder.predicates.toArray(new Predicate[0]);
+		this.failFast = builder.failFast;
+	}
+
+	/**
+	 * Tests the given object against every rule without allocating.
+	 *
+	 * @param object Object to test
+	 *
+	 * @return True if every rule passes
+	 */
+	public boolean isValid(
+		@Nullable T object
+	) {
+		if (object == null && this.requireNonNull)
+		{
+			Metrics.recordValidationFailure();
+			ValidationFailureEvent.emit("Validator", "Object can not be null");
+			return false;
+		}
+
+		for (int i = 0; i < this.predicates.length; i++)
+		{
+			if (!this.predicates[i].test(object))
+			{
+				Metrics.recordValidationFailure();
+				ValidationFailureEvent.emit("Validator", this.names[i]);
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Validates the given object, throwing on the first failed rule.
+	 *
+	 * @param object Object to validate
+	 *
+	 * @return The unmodified object given
+	 * @throws NullPointerException If this validator requires a non-null object and a null reference was given
+	 * @throws IllegalArgumentException If any rule fails
+	 */
+	@Nullable
+	public T require(
+		@Nullable T object
+	) {
+		if (object == null && this.requireNonNull)
+		{
+			Metrics.recordValidationFailure();
+			ValidationFailureEvent.emit("Validator", "Object can not be null");
+			throw new NullPointerException("Object can not be null");
+		}
+
+		for (int i = 0; i < this.predicates.length; i++)
+		{
+			if (!this.predicates[i].test(object))
+			{
+				Metrics.recordValidationFailure();
+				ValidationFailureEvent.emit("Validator", this.names[i]);
+				throw new IllegalArgumentException("Validation rule \"" + this.names[i] + "\" failed");
+			}
+		}
+
+		return object;
+	}
+
+	/**
+	 * Validates the given object. In fail-fast mode, at most one violation is reported.
+	 *
+	 * @param object Object to validate
+	 *
+	 * @return An Ok containing the unmodified object, or an Error containing every violation found
+	 */
+	@NotNull
+	public Result<T, List<Violation>> validate(
+		@Nullable T object
+	) {
+		List<Violation> violations = this.collect(object, -1, null);
+
+		if (violations == null)
+		{
+			return Result.ok(object);
+		}
+
+		return Result.error(violations);
+	}
+
+	/**
+	 * Validates every element of the given array in a single pass. In fail-fast mode, validation stops at the first offending element.
+	 *
+	 * @param objects Array to validate
+	 *
+	 * @return An Ok containing the unmodified array, or an Error containing every violation found, ordered by index
+	 */
+	@NotNull
+	public Result<T[], List<Violation>> validateAll(
+		@NotNull T[] objects
+	) {
+		Objects.requireNonNull(objects);
+
+		return this.toResult(objects, this.collectAll(i -> objects[i], objects.length));
+	}
+
+	/**
+	 * Validates every element of the given collection in a single pass. In fail-fast mode, validation stops at the first offending element.
+	 *
+	 * @param <C> Type of collection
+	 *
+	 * @param objects Collection to validate
+	 *
+	 * @return An Ok containing the unmodified collection, or an Error containing every violation found, ordered by iteration order
+	 */
+	@NotNull
+	public <C extends Collection<? extends T>> Result<C, List<Violation>> validateAll(
+		@NotNull C objects
+	) {
+		Objects.requireNonNull(objects);
+
+		return this.toResult(objects, this.collectAll(indexed(objects), objects.size()));
+	}
+
+	/**
+	 * Validates every element of the given array across the common fork-join pool. Reported violations are ordered by index, and in
+	 * fail-fast mode only the violation with the lowest index is reported.
+	 *
+	 * @param objects Array to validate
+	 *
+	 * @return An Ok containing the unmodified array, or an Error containing the violations found
+	 */
+	@NotNull
+	public Result<T[], List<Violation>> validateAllParallel(
+		@NotNull T[] objects
+	) {
+		Objects.requireNonNull(objects);
+
+		return this.toResult(objects, this.collectAllParallel(i -> objects[i], objects.length));
+	}
+
+	/**
+	 * Validates every element of the given collection across the common fork-join pool. Reported violations are ordered by iteration
+	 * order, and in fail-fast mode only the violation with the lowest index is reported.
+	 *
+	 * @param <C> Type of collection
+	 *
+	 * @param objects Collection to validate
+	 *
+	 * @return An Ok containing the unmodified collection, or an Error containing the violations found
+	 */
+	@NotNull
+	public <C extends Collection<? extends T>> Result<C, List<Violation>> validateAllParallel(
+		@NotNull C objects
+	) {
+		Objects.requireNonNull(objects);
+
+		return this.toResult(objects, this.collectAllParallel(indexed(objects), objects.size()));
+	}
+
+	//--------------------------------------------------------------------------------
+	private List<Violation> collect(
+		T object,
+		int index,
+		List<Violation> violations
+	) {
+		if (object == null && this.requireNonNull)
+		{
+			return append(violations, new Violation(index, "notNull", null));
+		}
+
+		for (int i = 0; i < this.predicates.length; i++)
+		{
+			if (this.predicates[i].test(object))
+			{
+				continue;
+			}
+
+			violations = append(violations, new Violation(index, this.names[i], object));
+
+			if (this.failFast)
+			{
+				break;
+			}
+		}
+
+		return violations;
+	}
+
+	private List<Violation> collectAll(
+		IntFunction<? extends T> getter,
+		int size
+	) {
+		List<Violation> violations = null;
+
+		for (int i = 0; i < size; i++)
+		{
+			violations = this.collect(getter.apply(i), i, violations);
+
+			if (this.failFast && violations != null)
+			{
+				break;
+			}
+		}
+
+		return violations;
+	}
+
+	private List<Violation> collectAllParallel(
+		IntFunction<? extends T> getter,
+		int size
+	) {
+		if (this.failFast)
+		{
+			return IntStream.range(0, size)
+				.parallel()
+				.mapToObj(i -> this.collect(getter.apply(i), i, null))
+				.filter(Objects::nonNull)
+				.findFirst()
+				.orElse(null);
+		}
+
+		List<Violation> violations = IntStream.range(0, size)
+			.parallel()
+			.mapToObj(i -> this.collect(getter.apply(i), i, null))
+			.filter(Objects::nonNull)
+			.flatMap(List::stream)
+			.toList();
+
+		return violations.isEmpty() ? null : violations;
+	}
+
+	private <R> Result<R, List<Violation>> toResult(
+		R value,
+		List<Violation> violations
+	) {
+		if (violations == null)
+		{
+			return Result.ok(value);
+		}
+
+		return Result.error(violations);
+	}
+
+	private static List<Violation> append(
+		List<Violation> violations,
+		Violation violation
+	) {
+		Metrics.recordValidationFailure();
+		ValidationFailureEvent.emit("Validator", violation.rule());
+
+		if (violations == null)
+		{
+			violations = new ArrayList<>(1);
+		}
+
+		violations.add(violation);
+
+		return violations;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> IntFunction<T> indexed(
+		Collection<? extends T> objects
+	) {
+		if (objects instanceof List<? extends T> list && objects instanceof RandomAccess)
+		{
+			return list::get;
+		}
+
+		Object[] array = objects.toArray();
+
+		return i -> (T) array[i];
+	}
+
+	//--------------------------------------------------------------------------------
+	/**
+	 * Mutable builder for {@link Validator}s. Rules are run in the order they were added.
+	 */
+	public static final class Builder<T>
+	{
+		private boolean requireNonNull = false;
+		private final List<String> names = new ArrayList<>();
+		private final List<Predicate<? super T>> predicates = new ArrayList<>();
+		private boolean failFast = true;
+
+		Builder() {}
+
+		/**
+		 * Requires validated objects to not be null. Null objects are rejected before any other rule is run, so later rules may
+		 * assume a non-null argument.
+		 *
+		 * @return This builder
+		 */
+		@NotNull
+		public Builder<T> isNotNull()
+		{
+			this.requireNonNull = true;
+
+			return this;
+		}
+
+		/**
+		 * Adds a named rule.
+		 *
+		 * @param name Name reported when this rule fails
+		 * @param predicate Predicate that must return true for the object to be valid
+		 *
+		 * @return This builder
+		 */
+		@NotNull
+		public Builder<T> rule(
+			@NotNull String name,
+			@NotNull Predicate<? super T> predicate
+		) {
+			this.names.add(Objects.requireNonNull(name));
+			this.predicates.add(Objects.requireNonNull(predicate));
+
+			return this;
+		}
+
+		/**
+		 * Adds a named rule that tests a single field of the object.
+		 *
+		 * @param <F> Type of field
+		 *
+		 * @param name Name reported when this rule fails, typically the field name
+		 * @param accessor Function to retrieve the field from the object
+		 * @param predicate Predicate that must return true for the field to be valid
+		 *
+		 * @return This builder
+		 */
+		@NotNull
+		public <F> Builder<T> field(
+			@NotNull String name,
+			@NotNull Function<? super T, ? extends F> accessor,
+			@NotNull Predicate<? super F> predicate
+		) {
+			Objects.requireNonNull(accessor);
+			Objects.requireNonNull(predicate);
+
+			return this.rule(name, object -> predicate.test(accessor.apply(object)));
+		}
+
+		/**
+		 * Sets whether validation stops at the first failed rule (the default), or collects every failed rule.
+		 *
+		 * @param failFast True to stop at the first failure, false to collect all failures
+		 *
+		 * @return This builder
+		 */
+		@NotNull
+		public Builder<T> failFast(
+			boolean failFast
+		) {
+			this.failFast = failFast;
+
+			return this;
+		}
+
+		/**
+		 * Builds an immutable validator from the rules added so far. This builder may continue to be used afterwards without
+		 * affecting the returned validator.
+		 *
+		 * @return A new validator
+		 */
+		@NotNull
+		public Validator<T> build()
+		{
+			return new Validator<>(this);
+		}
+	}
+}
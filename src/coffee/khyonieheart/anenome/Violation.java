@@ -0,0 +1,71 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome;
+
+import java.util.Objects;
+
+/**
+ * A single failed rule reported by a {@link Validator}.
+ */
+public final class Violation
+{
+	private final int index;
+	private final String rule;
+	private final Object value;
+
+	Violation(
+		int index,
+		@NotNull String rule,
+		@Nullable Object value
+	) {
+		this.index = index;
+		this.rule = Objects.requireNonNull(rule);
+		this.value = value;
+	}
+
+	/**
+	 * Returns the position of the offending element when validating arrays or collections in bulk.
+	 *
+	 * @return Index of the offending element, or -1 if a single object was validated
+	 */
+	public int index()
+	{
+		return this.index;
+	}
+
+	/**
+	 * Returns the name of the rule that failed.
+	 *
+	 * @return Rule name
+	 */
+	@NotNull
+	public String rule()
+	{
+		return this.rule;
+	}
+
+	/**
+	 * Returns the object that failed validation.
+	 *
+	 * @return Offending object. May be null if a null reference was validated.
+	 */
+	@Nullable
+	public Object value()
+	{
+		return this.value;
+	}
+
+	@Override
+	public String toString()
+	{
+		if (this.index < 0)
+		{
+			return "Rule \"" + this.rule + "\" failed";
+		}
+
+		return "Rule \"" + this.rule + "\" failed at index " + this.index;
+	}
+}
@@ -0,0 +1,593 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.cache;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.operation.Option;
+import coffee.khyonieheart.anenome.operation.Result;
+
+/**
+ * Concurrent cache of {@link Result}s, bounded in size and aware of the difference between {@code Ok} and {@code Error} results.
+ * <p>
+ * <ul>
+ * <li>Size: once the maximum size is reached, entries are evicted by Window TinyLFU, which admits a new entry only if it has been
+ * requested more often than the entry it would displace.</li>
+ * <li>Expiry: {@code Ok} and {@code Error} results have separate times to live, so failures can be retried soon while successes stay.</li>
+ * <li>Single flight: concurrent misses on one key run the loader once, and every caller receives that one result. The loader must not
+ * load the key it is loading from within itself.</li>
+ * <li>Refresh: entries older than the refresh interval are reloaded in the background on access, while the current value keeps being
+ * served. A refresh that returns an {@code Error} does not replace a still-live {@code Ok}.</li>
+ * <li>Statistics: hits, misses, loads, failures, evictions and expirations, see {@link #stats()}.</li>
+ * </ul>
+ * <p>
+ * Lookups do not lock. Accesses are recorded in a small lossy buffer and applied to the eviction policy in batches, by whichever thread
+ * next finds the eviction lock free. Writes take the eviction lock.
+ *
+ * @param <K> Type of keys
+ * @param <T> Type of successful values
+ * @param <E> Type of errors
+ */
+public final class Cache<K, T, E>
+{
+	private static final int READ_BUFFER_SIZE = 128;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+	private static final int DRAIN_INTERVAL = 32;
+
+	private final ConcurrentHashMap<K, CacheNode<K, T, E>> entries = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<K, CompletableFuture<Result<T, E>>> loading = new ConcurrentHashMap<>();
+	private final Function<? super K, ? extends Result<T, E>> loader;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final TinyLfuPolicy<K, T, E> policy;
+	private final AtomicReferenceArray<CacheNode<K, T, E>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+	private final AtomicLong reads = new AtomicLong();
+
+	private final long okTtl;
+	private final long errorTtl;
+	private final long refreshAfter;
+	private final Executor executor;
+	private final LongSupplier ticker;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder errorLoads = new LongAdder();
+	private final LongAdder loadFailures = new LongAdder();
+	private final LongAdder loadNanos = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	Cache(
+		CacheBuilder<K, T, E> builder,
+		Function<? super K, ? extends Result<T, E>> loader
+	) {
+		this.loader = loader;
+		this.okTtl = builder.okTtl;
+		this.errorTtl = builder.errorTtl;
+		this.refreshAfter = builder.refreshAfter;
+		this.executor = builder.executor;
+		this.ticker = builder.ticker;
+		this.policy = builder.maximumSize == CacheBuilder.NEVER ? null : new TinyLfuPolicy<>(builder.maximumSize, this::onEvicted);
+	}
+
+	/**
+	 * Starts configuring a new cache.
+	 *
+	 * @param <K> Type of keys
+	 * @param <T> Type of successful values
+	 * @param <E> Type of errors
+	 *
+	 * @return New builder
+	 */
+	@NotNull
+	public static <K, T, E> CacheBuilder<K, T, E> builder()
+	{
+		return new CacheBuilder<>();
+	}
+
+	/**
+	 * Returns the cached result for a key, loading it with the cache's loader if there is no live entry.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return Cached or freshly loaded result
+	 * @throws IllegalStateException If the cache was built without a loader
+	 * @throws RuntimeException Whatever the loader threw, if loading failed
+	 */
+	@NotNull
+	public Result<T, E> get(
+		@NotNull K key
+	) {
+		return this.get(key, this.requireLoader());
+	}
+
+	/**
+	 * Returns the cached result for a key, loading it with the given loader if there is no live entry.
+	 *
+	 * @param key Key to look up
+	 * @param loader Function computing the result if needed
+	 *
+	 * @return Cached or freshly loaded result
+	 * @throws RuntimeException Whatever the loader threw, if loading failed
+	 */
+	@NotNull
+	public Result<T, E> get(
+		@NotNull K key,
+		@NotNull Function<? super K, ? extends Result<T, E>> loader
+	) {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(loader);
+
+		long now = this.ticker.getAsLong();
+		CacheNode<K, T, E> node = this.live(key, now);
+		if (node != null)
+		{
+			return node.value;
+		}
+
+		CompletableFuture<Result<T, E>> future = new CompletableFuture<>();
+		CompletableFuture<Result<T, E>> existing = this.loading.putIfAbsent(key, future);
+		if (existing != null)
+		{
+			return await(existing);
+		}
+
+		try {
+			// Another caller may have finished loading between the miss and claiming the load
+			node = this.entries.get(key);
+			Result<T, E> result = node != null && !node.isExpired(now) ? node.value : this.load(key, loader, false);
+			future.complete(result);
+
+			return result;
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+			throw t;
+		} finally {
+			this.loading.remove(key, future);
+		}
+	}
+
+	/**
+	 * Returns the cached result for a key, loading it in the background with the cache's loader if there is no live entry.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return Future completing with the cached or loaded result, or exceptionally if loading failed
+	 * @throws IllegalStateException If the cache was built without a loader
+	 */
+	@NotNull
+	public CompletableFuture<Result<T, E>> getAsync(
+		@NotNull K key
+	) {
+		Objects.requireNonNull(key);
+		Function<? super K, ? extends Result<T, E>> loader = this.requireLoader();
+
+		CacheNode<K, T, E> node = this.live(key, this.ticker.getAsLong());
+		if (node != null)
+		{
+			return CompletableFuture.completedFuture(node.value);
+		}
+
+		return this.loadAsync(key, loader, false);
+	}
+
+	/**
+	 * Returns the cached result for a key without loading.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return Cached result, or none if there is no live entry
+	 */
+	@NotNull
+	public Option<Result<T, E>> getIfPresent(
+		@NotNull K key
+	) {
+		CacheNode<K, T, E> node = this.live(Objects.requireNonNull(key), this.ticker.getAsLong());
+
+		return node == null ? Option.none() : Option.some(node.value);
+	}
+
+	/**
+	 * Stores a result, replacing any current entry. An {@code Error} result is not stored if errors are not being cached.
+	 *
+	 * @param key Key to store under
+	 * @param result Result to store
+	 */
+	public void put(
+		@NotNull K key,
+		@NotNull Result<T, E> result
+	) {
+		this.store(Objects.requireNonNull(key), Objects.requireNonNull(result), this.ticker.getAsLong(), false);
+	}
+
+	/**
+	 * Reloads the entry for a key in the background with the cache's loader. The current entry, if any, keeps being served until the
+	 * reload completes. If a load of the key is already under way, no second one is started.
+	 *
+	 * @param key Key to reload
+	 *
+	 * @return Future completing with the reloaded result, or exceptionally if loading failed
+	 * @throws IllegalStateException If the cache was built without a loader
+	 */
+	@NotNull
+	public CompletableFuture<Result<T, E>> refresh(
+		@NotNull K key
+	) {
+		return this.loadAsync(Objects.requireNonNull(key), this.requireLoader(), true);
+	}
+
+	/**
+	 * Removes the entry for a key. A load already under way for the key is not cancelled and will store its result.
+	 *
+	 * @param key Key to remove
+	 */
+	public void invalidate(
+		@NotNull K key
+	) {
+		Objects.requireNonNull(key);
+
+		this.evictionLock.lock();
+		try {
+			CacheNode<K, T, E> removed = this.entries.remove(key);
+			if (removed != null && this.policy != null)
+			{
+				this.policy.remove(removed);
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes every entry.
+	 */
+	public void invalidateAll()
+	{
+		this.evictionLock.lock();
+		try {
+			this.entries.clear();
+			if (this.policy != null)
+			{
+				this.policy.clear();
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes every expired entry and applies buffered accesses to the eviction policy. Expired entries are otherwise only removed when
+	 * they are looked up or evicted, so calling this occasionally releases the memory of entries that are no longer requested.
+	 */
+	public void cleanUp()
+	{
+		long now = this.ticker.getAsLong();
+
+		this.evictionLock.lock();
+		try {
+			this.drainReads();
+			for (CacheNode<K, T, E> node : this.entries.values())
+			{
+				if (node.isExpired(now))
+				{
+					this.removeExpired(node);
+				}
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of entries, including expired entries not yet removed.
+	 *
+	 * @return Approximate number of entries
+	 */
+	public long estimatedSize()
+	{
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns a snapshot of this cache's statistics.
+	 *
+	 * @return Current statistics
+	 */
+	@NotNull
+	public CacheStats stats()
+	{
+		return new CacheStats(
+			this.hits.sum(),
+			this.misses.sum(),
+			this.loads.sum(),
+			this.errorLoads.sum(),
+			this.loadFailures.sum(),
+			this.loadNanos.sum(),
+			this.evictions.sum(),
+			this.expirations.sum()
+		);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Cache[size=" + this.estimatedSize() + ", " + this.stats() + "]";
+	}
+
+	//--------------------------------------------------------------------------------
+	private Function<? super K, ? extends Result<T, E>> requireLoader()
+	{
+		if (this.loader == null)
+		{
+			throw new IllegalStateException("Cache was built without a loader");
+		}
+
+		return this.loader;
+	}
+
+	/**
+	 * Looks up a live entry, recording a hit or miss, the access, and starting a refresh if one is due.
+	 */
+	@Nullable
+	private CacheNode<K, T, E> live(
+		K key,
+		long now
+	) {
+		CacheNode<K, T, E> node = this.entries.get(key);
+		if (node == null)
+		{
+			this.misses.increment();
+			return null;
+		}
+
+		if (node.isExpired(now))
+		{
+			this.misses.increment();
+			this.evictionLock.lock();
+			try {
+				this.removeExpired(node);
+			} finally {
+				this.evictionLock.unlock();
+			}
+
+			return null;
+		}
+
+		this.hits.increment();
+		this.recordRead(node);
+
+		if (this.loader != null && node.needsRefresh(now) && !this.loading.containsKey(key))
+		{
+			this.loadAsync(key, this.loader, true);
+		}
+
+		return node;
+	}
+
+	private CompletableFuture<Result<T, E>> loadAsync(
+		K key,
+		Function<? super K, ? extends Result<T, E>> loader,
+		boolean refreshing
+	) {
+		CompletableFuture<Result<T, E>> future = new CompletableFuture<>();
+		CompletableFuture<Result<T, E>> existing = this.loading.putIfAbsent(key, future);
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		try {
+			this.executor.execute(() -> {
+				try {
+					future.complete(this.load(key, loader, refreshing));
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				} finally {
+					this.loading.remove(key, future);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			this.loading.remove(key, future);
+			future.completeExceptionally(e);
+		}
+
+		return future;
+	}
+
+	/**
+	 * Runs the loader and stores its result. Must only be called by the holder of the key's loading future.
+	 */
+	private Result<T, E> load(
+		K key,
+		Function<? super K, ? extends Result<T, E>> loader,
+		boolean refreshing
+	) {
+		long start = System.nanoTime();
+		Result<T, E> result;
+		try {
+			result = Objects.requireNonNull(loader.apply(key), "Loader returned null");
+		} catch (Throwable t) {
+			this.loadFailures.increment();
+			this.loadNanos.add(System.nanoTime() - start);
+			throw t;
+		}
+
+		this.loadNanos.add(System.nanoTime() - start);
+		this.loads.increment();
+		if (result.isError())
+		{
+			this.errorLoads.increment();
+		}
+
+		this.store(key, result, this.ticker.getAsLong(), refreshing);
+
+		return result;
+	}
+
+	private void store(
+		K key,
+		Result<T, E> result,
+		long now,
+		boolean refreshing
+	) {
+		long ttl = result.isOk() ? this.okTtl : this.errorTtl;
+
+		this.evictionLock.lock();
+		try {
+			CacheNode<K, T, E> current = this.entries.get(key);
+			if (refreshing && result.isError() && current != null && current.value.isOk() && !current.isExpired(now))
+			{
+				// Keep serving the last good value rather than replace it with a failure
+				return;
+			}
+
+			if (ttl == 0)
+			{
+				if (current != null)
+				{
+					this.entries.remove(key, current);
+					if (this.policy != null)
+					{
+						this.policy.remove(current);
+					}
+				}
+
+				return;
+			}
+
+			CacheNode<K, T, E> node = new CacheNode<>(key, spread(key.hashCode()), result, deadline(now, ttl), deadline(now, this.refreshAfter));
+			CacheNode<K, T, E> replaced = this.entries.put(key, node);
+			if (this.policy != null)
+			{
+				if (replaced != null)
+				{
+					this.policy.remove(replaced);
+				}
+
+				this.drainReads();
+				this.policy.add(node);
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes an expired entry, unless it has already been replaced. Requires the eviction lock.
+	 */
+	private void removeExpired(
+		CacheNode<K, T, E> node
+	) {
+		if (this.entries.remove(node.key, node))
+		{
+			this.expirations.increment();
+			if (this.policy != null)
+			{
+				this.policy.remove(node);
+			}
+		}
+	}
+
+	/**
+	 * Called by the policy for each entry it evicts, while the eviction lock is held.
+	 */
+	private void onEvicted(
+		CacheNode<K, T, E> node
+	) {
+		if (this.entries.remove(node.key, node))
+		{
+			this.evictions.increment();
+		}
+	}
+
+	private void recordRead(
+		CacheNode<K, T, E> node
+	) {
+		if (this.policy == null)
+		{
+			return;
+		}
+
+		long index = this.reads.getAndIncrement();
+		this.readBuffer.lazySet((int) (index & READ_BUFFER_MASK), node);
+		if ((index % DRAIN_INTERVAL) == DRAIN_INTERVAL - 1 && this.evictionLock.tryLock())
+		{
+			try {
+				this.drainReads();
+			} finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Applies buffered reads to the policy. Requires the eviction lock. Reads that were overwritten before being drained are simply lost,
+	 * which only makes the recency and frequency information slightly less precise.
+	 */
+	private void drainReads()
+	{
+		for (int i = 0; i < READ_BUFFER_SIZE; i++)
+		{
+			CacheNode<K, T, E> node = this.readBuffer.getAndSet(i, null);
+			if (node != null)
+			{
+				this.policy.recordAccess(node);
+			}
+		}
+	}
+
+	private static long deadline(
+		long now,
+		long duration
+	) {
+		// Durations of a century or more are treated as never; this also keeps the sum clear of the reserved value
+		return duration >= CacheBuilder.NEVER / 3 ? CacheBuilder.NEVER : now + duration;
+	}
+
+	private static int spread(
+		int hash
+	) {
+		hash *= 0x9E3779B9;
+
+		return hash ^ hash >>> 16;
+	}
+
+	private static <R> R await(
+		CompletableFuture<R> future
+	) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtime)
+			{
+				throw runtime;
+			}
+
+			if (cause instanceof Error error)
+			{
+				throw error;
+			}
+
+			throw new UndeclaredThrowableException(cause);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.operation.Result;
+
+/**
+ * Configures and creates a {@link Cache}. Every setting is optional; by default a cache is unbounded, keeps {@code Ok} results forever,
+ * does not keep {@code Error} results at all, and never refreshes.
+ *
+ * @param <K> Type of keys
+ * @param <T> Type of successful values
+ * @param <E> Type of errors
+ */
+public final class CacheBuilder<K, T, E>
+{
+	static final long NEVER = Long.MAX_VALUE;
+
+	long maximumSize = NEVER;
+	long okTtl = NEVER;
+	long errorTtl = 0;
+	long refreshAfter = NEVER;
+	Executor executor = ForkJoinPool.commonPool();
+	LongSupplier ticker = System::nanoTime;
+
+	CacheBuilder() {}
+
+	/**
+	 * Bounds the number of entries. Beyond this, entries are evicted by Window TinyLFU, which favours keys requested often and recently.
+	 *
+	 * @param maximumSize Maximum number of entries
+	 *
+	 * @return This builder
+	 * @throws IllegalArgumentException If maximumSize is less than 1
+	 */
+	@NotNull
+	public CacheBuilder<K, T, E> maximumSize(
+		long maximumSize
+	) {
+		if (maximumSize < 1)
+		{
+			throw new IllegalArgumentException("Maximum size must be at least 1; received " + maximumSize);
+		}
+
+		this.maximumSize = maximumSize;
+
+		return this;
+	}
+
+	/**
+	 * Expires {@code Ok} results the given time after they were stored.
+	 *
+	 * @param ttl Time to live of successful results
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public CacheBuilder<K, T, E> expireAfterWrite(
+		@NotNull Duration ttl
+	) {
+		this.okTtl = toNanos(ttl);
+
+		return this;
+	}
+
+	/**
+	 * Expires {@code Error} results the given time after they were stored, independently of {@code Ok} results. Caching errors briefly
+	 * keeps a failing backend from being hammered with retries; a zero duration, the default, does not keep them at all, though concurrent
+	 * callers still share a single failed load.
+	 *
+	 * @param ttl Time to live of error results
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public CacheBuilder<K, T, E> expireErrorsAfterWrite(
+		@NotNull Duration ttl
+	) {
+		this.errorTtl = toNanos(ttl);
+
+		return this;
+	}
+
+	/**
+	 * Reloads entries in the background once they are older than the given time and are requested again. Until the reload completes,
+	 * callers keep receiving the current value. Requires a loader.
+	 *
+	 * @param interval Age after which an entry is refreshed on access
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public CacheBuilder<K, T, E> refreshAfterWrite(
+		@NotNull Duration interval
+	) {
+		this.refreshAfter = toNanos(interval);
+
+		return this;
+	}
+
+	/**
+	 * Sets the executor running asynchronous loads and refreshes. Defaults to the common fork-join pool.
+	 *
+	 * @param executor Executor for background loads
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public CacheBuilder<K, T, E> executor(
+		@NotNull Executor executor
+	) {
+		this.executor = Objects.requireNonNull(executor);
+
+		return this;
+	}
+
+	/**
+	 * Sets the time source, in nanoseconds, used for expiry and refresh. Defaults to {@link System#nanoTime()}.
+	 *
+	 * @param ticker Time source
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public CacheBuilder<K, T, E> ticker(
+		@NotNull LongSupplier ticker
+	) {
+		this.ticker = Objects.requireNonNull(ticker);
+
+		return this;
+	}
+
+	/**
+	 * Creates a cache without a loader. Values must be supplied with {@link Cache#put(Object, Result)} or
+	 * {@link Cache#get(Object, Function)}.
+	 *
+	 * @return New cache
+	 */
+	@NotNull
+	public Cache<K, T, E> build()
+	{
+		return new Cache<>(this, null);
+	}
+
+	/**
+	 * Creates a cache that loads missing values with the given loader.
+	 *
+	 * @param loader Function computing the result for a key
+	 *
+	 * @return New cache
+	 */
+	@NotNull
+	public Cache<K, T, E> build(
+		@NotNull Function<? super K, ? extends Result<T, E>> loader
+	) {
+		return new Cache<>(this, Objects.requireNonNull(loader));
+	}
+
+	//--------------------------------------------------------------------------------
+	private static long toNanos(
+		Duration duration
+	) {
+		if (Objects.requireNonNull(duration).isNegative())
+		{
+			throw new IllegalArgumentException("Duration can not be negative; received " + duration);
+		}
+
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return NEVER;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.cache;
+
+import coffee.khyonieheart.anenome.operation.Result;
+
+/**
+ * One cached mapping. The key, value and timestamps never change; storing a new value for a key replaces the whole node. The links and
+ * queue marker belong to the eviction policy and are only touched while holding the eviction lock.
+ * <p>
+ * Timestamps come from a nanosecond ticker that may wrap, so they are compared by subtraction, with {@link CacheBuilder#NEVER} reserved
+ * for entries that never expire or refresh.
+ */
+final class CacheNode<K, T, E>
+{
+	final K key;
+	final int hash;
+	final Result<T, E> value;
+	final long expiresAt;
+	final long refreshAt;
+
+	CacheNode<K, T, E> previous;
+	CacheNode<K, T, E> next;
+	int queue = TinyLfuPolicy.NONE;
+
+	CacheNode(
+		K key,
+		int hash,
+		Result<T, E> value,
+		long expiresAt,
+		long refreshAt
+	) {
+		this.key = key;
+		this.hash = hash;
+		this.value = value;
+		this.expiresAt = expiresAt;
+		this.refreshAt = refreshAt;
+	}
+
+	boolean isExpired(
+		long now
+	) {
+		return this.expiresAt != CacheBuilder.NEVER && now - this.expiresAt >= 0;
+	}
+
+	boolean needsRefresh(
+		long now
+	) {
+		return this.refreshAt != CacheBuilder.NEVER && now - this.refreshAt >= 0;
+	}
+}
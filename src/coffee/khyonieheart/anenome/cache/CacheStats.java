@@ -0,0 +1,143 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.cache;
+
+/**
+ * Point-in-time copy of a {@link Cache}'s counters. Every count is cumulative since the cache was created.
+ */
+public final class CacheStats
+{
+	private final long hits;
+	private final long misses;
+	private final long loads;
+	private final long errorLoads;
+	private final long loadFailures;
+	private final long totalLoadNanos;
+	private final long evictions;
+	private final long expirations;
+
+	CacheStats(
+		long hits,
+		long misses,
+		long loads,
+		long errorLoads,
+		long loadFailures,
+		long totalLoadNanos,
+		long evictions,
+		long expirations
+	) {
+		this.hits = hits;
+		this.misses = misses;
+		this.loads = loads;
+		this.errorLoads = errorLoads;
+		this.loadFailures = loadFailures;
+		this.totalLoadNanos = totalLoadNanos;
+		this.evictions = evictions;
+		this.expirations = expirations;
+	}
+
+	/**
+	 * Returns the number of lookups answered from the cache.
+	 *
+	 * @return Hit count
+	 */
+	public long hits()
+	{
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of lookups that found no live entry. Misses that joined another caller's load count here too.
+	 *
+	 * @return Miss count
+	 */
+	public long misses()
+	{
+		return this.misses;
+	}
+
+	/**
+	 * Returns the fraction of lookups answered from the cache.
+	 *
+	 * @return Hit rate between 0 and 1, or 1 if there have been no lookups
+	 */
+	public double hitRate()
+	{
+		long requests = this.hits + this.misses;
+
+		return requests == 0 ? 1.0 : (double) this.hits / requests;
+	}
+
+	/**
+	 * Returns the number of times the loader returned, including refreshes.
+	 *
+	 * @return Completed load count
+	 */
+	public long loads()
+	{
+		return this.loads;
+	}
+
+	/**
+	 * Returns how many of the completed loads returned an {@code Error} result.
+	 *
+	 * @return Error result count
+	 */
+	public long errorLoads()
+	{
+		return this.errorLoads;
+	}
+
+	/**
+	 * Returns the number of times the loader threw instead of returning.
+	 *
+	 * @return Failed load count
+	 */
+	public long loadFailures()
+	{
+		return this.loadFailures;
+	}
+
+	/**
+	 * Returns the average time spent in the loader, over completed and failed loads alike.
+	 *
+	 * @return Average load time in nanoseconds, or 0 if nothing was loaded
+	 */
+	public double averageLoadNanos()
+	{
+		long total = this.loads + this.loadFailures;
+
+		return total == 0 ? 0 : (double) this.totalLoadNanos / total;
+	}
+
+	/**
+	 * Returns the number of entries removed to stay within the maximum size.
+	 *
+	 * @return Eviction count
+	 */
+	public long evictions()
+	{
+		return this.evictions;
+	}
+
+	/**
+	 * Returns the number of entries removed because they outlived their time to live.
+	 *
+	 * @return Expiration count
+	 */
+	public long expirations()
+	{
+		return this.expirations;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CacheStats[hits=" + this.hits + ", misses=" + this.misses + ", loads=" + this.loads + ", errorLoads=" + this.errorLoads
+			+ ", loadFailures=" + this.loadFailures + ", averageLoadNanos=" + (long) this.averageLoadNanos() + ", evictions=" + this.evictions
+			+ ", expirations=" + this.expirations + "]";
+	}
+}
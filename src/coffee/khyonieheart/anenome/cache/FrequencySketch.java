@@ -0,0 +1,105 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.cache;
+
+/**
+ * Approximate count of how often each key has been seen recently, used to decide whether a new entry deserves the space of an old one.
+ * <p>
+ * This is a count-min sketch of 4-bit counters, sixteen to a long. Each key increments four counters, and its frequency is the smallest
+ * of them, so collisions can only overestimate. Once the number of increments reaches ten times the cache size, every counter is halved,
+ * letting keys that were popular long ago fade out. Not thread safe; the cache only touches it while holding its eviction lock.
+ */
+final class FrequencySketch
+{
+	private static final long[] SEEDS = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final int MAX_COUNT = 15;
+
+	private final long[] table;
+	private final int mask;
+	private final int sampleSize;
+	private int additions;
+
+	FrequencySketch(
+		long maximumSize
+	) {
+		int length = (int) Math.min(1 << 30, Math.max(8, Long.highestOneBit(Math.max(1, maximumSize) - 1) << 1));
+		this.table = new long[length];
+		this.mask = length - 1;
+		this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(1, maximumSize));
+	}
+
+	/**
+	 * Returns the estimated number of recent occurrences of a key, from 0 to 15.
+	 */
+	int frequency(
+		int hash
+	) {
+		int frequency = MAX_COUNT;
+		for (int i = 0; i < SEEDS.length; i++)
+		{
+			int index = this.indexOf(hash, i);
+			int shift = this.shiftOf(hash, i);
+			frequency = Math.min(frequency, (int) ((this.table[index] >>> shift) & 0xF));
+		}
+
+		return frequency;
+	}
+
+	/**
+	 * Records an occurrence of a key.
+	 */
+	void increment(
+		int hash
+	) {
+		boolean added = false;
+		for (int i = 0; i < SEEDS.length; i++)
+		{
+			int index = this.indexOf(hash, i);
+			int shift = this.shiftOf(hash, i);
+			if (((this.table[index] >>> shift) & 0xF) < MAX_COUNT)
+			{
+				this.table[index] += 1L << shift;
+				added = true;
+			}
+		}
+
+		if (added && ++this.additions >= this.sampleSize)
+		{
+			this.halve();
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private int indexOf(
+		int hash,
+		int seed
+	) {
+		long mixed = (hash + SEEDS[seed]) * SEEDS[seed];
+
+		return (int) (mixed ^ mixed >>> 32) & this.mask;
+	}
+
+	/**
+	 * Picks one of the sixteen counters in a slot, using different bits of the hash for each of the four seeds.
+	 */
+	private int shiftOf(
+		int hash,
+		int seed
+	) {
+		return ((hash >>> (seed << 3)) & 0xF) << 2;
+	}
+
+	private void halve()
+	{
+		for (int i = 0; i < this.table.length; i++)
+		{
+			this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+		}
+
+		this.additions >>>= 1;
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Window TinyLFU eviction. New entries enter a small LRU window holding 1% of the capacity. Entries pushed out of the window become
+ * candidates for the main area, a segmented LRU split into a probation queue and a protected queue holding up to 80% of it. A candidate
+ * only displaces the least recently used probation entry if the frequency sketch says it has been requested more often, so a burst of
+ * one-off keys cannot flush out entries that are used steadily. Entries requested again while on probation move to the protected queue.
+ * <p>
+ * Not thread safe; every method must be called while holding the cache's eviction lock.
+ */
+final class TinyLfuPolicy<K, T, E>
+{
+	static final int NONE = 0;
+	static final int WINDOW = 1;
+	static final int PROBATION = 2;
+	static final int PROTECTED = 3;
+
+	private final FrequencySketch sketch;
+	private final long maximumSize;
+	private final long windowMaximum;
+	private final long protectedMaximum;
+	private final Consumer<CacheNode<K, T, E>> evictor;
+
+	private final AccessQueue<K, T, E> window = new AccessQueue<>();
+	private final AccessQueue<K, T, E> probation = new AccessQueue<>();
+	private final AccessQueue<K, T, E> protectedQueue = new AccessQueue<>();
+
+	/**
+	 * @param evictor Called for each entry the policy evicts, after it has been unlinked
+	 */
+	TinyLfuPolicy(
+		long maximumSize,
+		Consumer<CacheNode<K, T, E>> evictor
+	) {
+		this.maximumSize = maximumSize;
+		this.windowMaximum = Math.max(1, maximumSize / 100);
+		this.protectedMaximum = (long) ((maximumSize - this.windowMaximum) * 0.8);
+		this.sketch = new FrequencySketch(maximumSize);
+		this.evictor = evictor;
+	}
+
+	long size()
+	{
+		return this.window.size + this.probation.size + this.protectedQueue.size;
+	}
+
+	void add(
+		CacheNode<K, T, E> node
+	) {
+		this.sketch.increment(node.hash);
+		this.window.addLast(node, WINDOW);
+
+		CacheNode<K, T, E> candidate = null;
+		if (this.window.size > this.windowMaximum)
+		{
+			candidate = this.window.head;
+			this.window.remove(candidate);
+			this.probation.addLast(candidate, PROBATION);
+		}
+
+		while (this.size() > this.maximumSize)
+		{
+			CacheNode<K, T, E> victim = this.victim();
+			if (candidate != null && victim != candidate)
+			{
+				boolean admit = this.sketch.frequency(candidate.hash) > this.sketch.frequency(victim.hash);
+				this.evict(admit ? victim : candidate);
+				candidate = null;
+				continue;
+			}
+
+			this.evict(victim);
+			candidate = null;
+		}
+	}
+
+	void recordAccess(
+		CacheNode<K, T, E> node
+	) {
+		if (node.queue == NONE)
+		{
+			// Already removed; the access was buffered before the removal
+			return;
+		}
+
+		this.sketch.increment(node.hash);
+		switch (node.queue)
+		{
+			case WINDOW -> this.window.moveToEnd(node);
+			case PROBATION -> {
+				this.probation.remove(node);
+				this.protectedQueue.addLast(node, PROTECTED);
+				if (this.protectedQueue.size > this.protectedMaximum)
+				{
+					CacheNode<K, T, E> demoted = this.protectedQueue.head;
+					this.protectedQueue.remove(demoted);
+					this.probation.addLast(demoted, PROBATION);
+				}
+			}
+			default -> this.protectedQueue.moveToEnd(node);
+		}
+	}
+
+	void remove(
+		CacheNode<K, T, E> node
+	) {
+		switch (node.queue)
+		{
+			case WINDOW -> this.window.remove(node);
+			case PROBATION -> this.probation.remove(node);
+			case PROTECTED -> this.protectedQueue.remove(node);
+			default -> {}
+		}
+	}
+
+	void clear()
+	{
+		this.window.clear();
+		this.probation.clear();
+		this.protectedQueue.clear();
+	}
+
+	//--------------------------------------------------------------------------------
+	private CacheNode<K, T, E> victim()
+	{
+		if (this.probation.head != null)
+		{
+			return this.probation.head;
+		}
+
+		if (this.protectedQueue.head != null)
+		{
+			return this.protectedQueue.head;
+		}
+
+		return this.window.head;
+	}
+
+	private void evict(
+		CacheNode<K, T, E> node
+	) {
+		this.remove(node);
+		this.evictor.accept(node);
+	}
+
+	/**
+	 * Intrusive doubly linked list, least recently used first.
+	 */
+	private static final class AccessQueue<K, T, E>
+	{
+		CacheNode<K, T, E> head;
+		CacheNode<K, T, E> tail;
+		long size;
+
+		void addLast(
+			CacheNode<K, T, E> node,
+			int queue
+		) {
+			node.queue = queue;
+			node.previous = this.tail;
+			node.next = null;
+			if (this.tail == null)
+			{
+				this.head = node;
+			}
+			else
+			{
+				this.tail.next = node;
+			}
+
+			this.tail = node;
+			this.size++;
+		}
+
+		void remove(
+			CacheNode<K, T, E> node
+		) {
+			if (node.previous == null)
+			{
+				this.head = node.next;
+			}
+			else
+			{
+				node.previous.next = node.next;
+			}
+
+			if (node.next == null)
+			{
+				this.tail = node.previous;
+			}
+			else
+			{
+				node.next.previous = node.previous;
+			}
+
+			node.previous = null;
+			node.next = null;
+			node.queue = NONE;
+			this.size--;
+		}
+
+		void moveToEnd(
+			CacheNode<K, T, E> node
+		) {
+			if (node != this.tail)
+			{
+				int queue = node.queue;
+				this.remove(node);
+				this.addLast(node, queue);
+			}
+		}
+
+		void clear()
+		{
+			for (CacheNode<K, T, E> node = this.head; node != null; )
+			{
+				CacheNode<K, T, E> next = node.next;
+				node.previous = null;
+				node.next = null;
+				node.queue = NONE;
+				node = next;
+			}
+
+			this.head = null;
+			this.tail = null;
+			this.size = 0;
+		}
+	}
+}
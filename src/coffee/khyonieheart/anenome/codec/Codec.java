@@ -0,0 +1,96 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.codec;
+
+import java.nio.ByteBuffer;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.exception.CodecException;
+
+/**
+ * Reads and writes values of one type in a compact binary form, directly against a {@link ByteBuffer}. Reading and writing start at the
+ * buffer's position and advance it past the value; the buffer's byte order is neither used nor changed. See {@link Codecs} for the
+ * built-in codecs and how to compose them.
+ *
+ * @param <T> Type of values
+ */
+public interface Codec<T>
+{
+	/**
+	 * Writes a value at the buffer's position.
+	 *
+	 * @param out Destination buffer
+	 * @param value Value to write
+	 *
+	 * @throws java.nio.BufferOverflowException If the buffer does not have {@link #sizeOf(Object)} bytes remaining
+	 */
+	public void write(
+		@NotNull ByteBuffer out,
+		T value
+	);
+
+	/**
+	 * Reads a value at the buffer's position.
+	 *
+	 * @param in Source buffer
+	 *
+	 * @return Value read
+	 * @throws CodecException If the input is malformed
+	 * @throws java.nio.BufferUnderflowException If the input ends in the middle of the value
+	 */
+	public T read(
+		@NotNull ByteBuffer in
+	);
+
+	/**
+	 * Returns the exact number of bytes {@link #write(ByteBuffer, Object)} would produce for a value, so that buffers can be sized up
+	 * front.
+	 *
+	 * @param value Value to measure
+	 *
+	 * @return Encoded size in bytes
+	 */
+	public int sizeOf(
+		T value
+	);
+
+	/**
+	 * Encodes a value into a new heap buffer of exactly the right size, ready to be read.
+	 *
+	 * @param value Value to encode
+	 *
+	 * @return Buffer holding the encoded value, positioned at 0
+	 */
+	@NotNull
+	public default ByteBuffer encode(
+		T value
+	) {
+		ByteBuffer out = ByteBuffer.allocate(this.sizeOf(value));
+		this.write(out, value);
+
+		return out.flip();
+	}
+
+	/**
+	 * Decodes a value that must fill the buffer's remaining bytes.
+	 *
+	 * @param in Source buffer
+	 *
+	 * @return Value read
+	 * @throws CodecException If the input is malformed or has bytes left over after the value
+	 */
+	public default T decode(
+		@NotNull ByteBuffer in
+	) {
+		T value = this.read(in);
+		if (in.hasRemaining())
+		{
+			throw new CodecException(in.remaining() + " trailing bytes after value");
+		}
+
+		return value;
+	}
+}
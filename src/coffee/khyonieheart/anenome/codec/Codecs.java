@@ -0,0 +1,968 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.exception.CodecException;
+import coffee.khyonieheart.anenome.operation.Option;
+import coffee.khyonieheart.anenome.operation.Result;
+import coffee.khyonieheart.anenome.tuple.DoubleTuple;
+
+/**
+ * Built-in {@link Codec}s and combinators. The format is untyped and unframed: a reader must know the shape it expects, exactly as the
+ * writer composed it.
+ * <ul>
+ * <li>Ints and longs are zigzag varints; the {@code FIXED_} variants and doubles are little-endian and fixed width.</li>
+ * <li>Strings and byte arrays are a varint length followed by the UTF-8 or raw bytes.</li>
+ * <li>Primitive arrays are a varint count followed by the packed little-endian values, which can be read back without copying through
+ * {@link #readIntView(ByteBuffer)} and its siblings. The {@code VAR_} array variants pack zigzag varints instead, which is smaller for
+ * arrays of small values.</li>
+ * <li>Options and results are a one-byte tag ({@link #TAG_NONE}, {@link #TAG_SOME}, {@link #TAG_OK}, {@link #TAG_ERROR}) followed by
+ * the contained value, if any.</li>
+ * <li>Tuples are their two elements in order, and lists a varint count followed by the elements.</li>
+ * </ul>
+ * Values are not null unless stated otherwise, including values held by an {@link Option} or {@link Result}.
+ */
+public final class Codecs
+{
+	/** Tag of an empty {@link Option}. */
+	public static final byte TAG_NONE = 0;
+	/** Tag of a present {@link Option}, followed by its value. */
+	public static final byte TAG_SOME = 1;
+	/** Tag of a successful {@link Result}, followed by its value. */
+	public static final byte TAG_OK = 2;
+	/** Tag of a failed {@link Result}, followed by its error. */
+	public static final byte TAG_ERROR = 3;
+
+	private static final VarHandle INT_LE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONG_LE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private Codecs() {}
+
+	/** A boolean as a single byte, 0 or 1. */
+	public static final Codec<Boolean> BOOLEAN = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			Boolean value
+		) {
+			out.put(value ? (byte) 1 : (byte) 0);
+		}
+
+		@Override
+		public Boolean read(
+			ByteBuffer in
+		) {
+			byte b = in.get();
+			if ((b & ~1) != 0)
+			{
+				throw new CodecException("Invalid boolean byte " + b);
+			}
+
+			return b == 1;
+		}
+
+		@Override
+		public int sizeOf(
+			Boolean value
+		) {
+			return 1;
+		}
+	};
+
+	/** An int as a zigzag varint, one byte for values from -64 to 63. */
+	public static final Codec<Integer> INT = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			Integer value
+		) {
+			Varints.writeInt(out, value);
+		}
+
+		@Override
+		public Integer read(
+			ByteBuffer in
+		) {
+			return Varints.readInt(in);
+		}
+
+		@Override
+		public int sizeOf(
+			Integer value
+		) {
+			return Varints.sizeOfUnsignedInt(Varints.zigZag(value));
+		}
+	};
+
+	/** A long as a zigzag varint, one byte for values from -64 to 63. */
+	public static final Codec<Long> LONG = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			Long value
+		) {
+			Varints.writeLong(out, value);
+		}
+
+		@Override
+		public Long read(
+			ByteBuffer in
+		) {
+			return Varints.readLong(in);
+		}
+
+		@Override
+		public int sizeOf(
+			Long value
+		) {
+			return Varints.sizeOfUnsignedLong(Varints.zigZag(value));
+		}
+	};
+
+	/** An int as four little-endian bytes, for values such as hashes that are rarely small. */
+	public static final Codec<Integer> FIXED_INT = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			Integer value
+		) {
+			putInt(out, value);
+		}
+
+		@Override
+		public Integer read(
+			ByteBuffer in
+		) {
+			return getInt(in);
+		}
+
+		@Override
+		public int sizeOf(
+			Integer value
+		) {
+			return Integer.BYTES;
+		}
+	};
+
+	/** A long as eight little-endian bytes, for values such as hashes and timestamps that are rarely small. */
+	public static final Codec<Long> FIXED_LONG = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			Long value
+		) {
+			putLong(out, value);
+		}
+
+		@Override
+		public Long read(
+			ByteBuffer in
+		) {
+			return getLong(in);
+		}
+
+		@Override
+		public int sizeOf(
+			Long value
+		) {
+			return Long.BYTES;
+		}
+	};
+
+	/** A double as the eight little-endian bytes of its IEEE 754 representation. */
+	public static final Codec<Double> DOUBLE = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			Double value
+		) {
+			putLong(out, Double.doubleToRawLongBits(value));
+		}
+
+		@Override
+		public Double read(
+			ByteBuffer in
+		) {
+			return Double.longBitsToDouble(getLong(in));
+		}
+
+		@Override
+		public int sizeOf(
+			Double value
+		) {
+			return Double.BYTES;
+		}
+	};
+
+	/**
+	 * A string as a varint byte length followed by its UTF-8 encoding, written straight into the buffer. Unpaired surrogates are written
+	 * as {@code '?'}, as {@link String#getBytes(java.nio.charset.Charset)} does.
+	 */
+	public static final Codec<String> STRING = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			String value
+		) {
+			int length = value.length();
+			Varints.writeUnsignedInt(out, utf8Length(value));
+			for (int i = 0; i < length; i++)
+			{
+				char c = value.charAt(i);
+				if (c < 0x80)
+				{
+					out.put((byte) c);
+				}
+				else if (c < 0x800)
+				{
+					out.put((byte) (0xC0 | c >>> 6));
+					out.put((byte) (0x80 | c & 0x3F));
+				}
+				else if (Character.isSurrogate(c))
+				{
+					if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+					{
+						int codePoint = Character.toCodePoint(c, value.charAt(++i));
+						out.put((byte) (0xF0 | codePoint >>> 18));
+						out.put((byte) (0x80 | codePoint >>> 12 & 0x3F));
+						out.put((byte) (0x80 | codePoint >>> 6 & 0x3F));
+						out.put((byte) (0x80 | codePoint & 0x3F));
+					}
+					else
+					{
+						out.put((byte) '?');
+					}
+				}
+				else
+				{
+					out.put((byte) (0xE0 | c >>> 12));
+					out.put((byte) (0x80 | c >>> 6 & 0x3F));
+					out.put((byte) (0x80 | c & 0x3F));
+				}
+			}
+		}
+
+		@Override
+		public String read(
+			ByteBuffer in
+		) {
+			int length = readLength(in, 1);
+			int position = in.position();
+			String value;
+			if (in.hasArray())
+			{
+				value = new String(in.array(), in.arrayOffset() + position, length, StandardCharsets.UTF_8);
+			}
+			else
+			{
+				byte[] bytes = new byte[length];
+				in.get(position, bytes);
+				value = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			in.position(position + length);
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			String value
+		) {
+			int length = utf8Length(value);
+
+			return Varints.sizeOfUnsignedInt(length) + length;
+		}
+	};
+
+	/** A byte array as a varint length followed by its bytes. */
+	public static final Codec<byte[]> BYTES = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			byte[] value
+		) {
+			Varints.writeUnsignedInt(out, value.length);
+			out.put(value);
+		}
+
+		@Override
+		public byte[] read(
+			ByteBuffer in
+		) {
+			byte[] value = new byte[readLength(in, 1)];
+			in.get(value);
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			byte[] value
+		) {
+			return Varints.sizeOfUnsignedInt(value.length) + value.length;
+		}
+	};
+
+	/** An int array as a varint count followed by the packed four-byte little-endian values. */
+	public static final Codec<int[]> INT_ARRAY = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			int[] value
+		) {
+			Varints.writeUnsignedInt(out, value.length);
+			reserve(out, value.length, Integer.BYTES).asIntBuffer().put(value);
+		}
+
+		@Override
+		public int[] read(
+			ByteBuffer in
+		) {
+			int[] value = new int[readLength(in, Integer.BYTES)];
+			consume(in, value.length, Integer.BYTES).asIntBuffer().get(value);
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			int[] value
+		) {
+			return Varints.sizeOfUnsignedInt(value.length) + value.length * Integer.BYTES;
+		}
+	};
+
+	/** A long array as a varint count followed by the packed eight-byte little-endian values. */
+	public static final Codec<long[]> LONG_ARRAY = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			long[] value
+		) {
+			Varints.writeUnsignedInt(out, value.length);
+			reserve(out, value.length, Long.BYTES).asLongBuffer().put(value);
+		}
+
+		@Override
+		public long[] read(
+			ByteBuffer in
+		) {
+			long[] value = new long[readLength(in, Long.BYTES)];
+			consume(in, value.length, Long.BYTES).asLongBuffer().get(value);
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			long[] value
+		) {
+			return Varints.sizeOfUnsignedInt(value.length) + value.length * Long.BYTES;
+		}
+	};
+
+	/** A double array as a varint count followed by the packed eight-byte little-endian values. */
+	public static final Codec<double[]> DOUBLE_ARRAY = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			double[] value
+		) {
+			Varints.writeUnsignedInt(out, value.length);
+			reserve(out, value.length, Double.BYTES).asDoubleBuffer().put(value);
+		}
+
+		@Override
+		public double[] read(
+			ByteBuffer in
+		) {
+			double[] value = new double[readLength(in, Double.BYTES)];
+			consume(in, value.length, Double.BYTES).asDoubleBuffer().get(value);
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			double[] value
+		) {
+			return Varints.sizeOfUnsignedInt(value.length) + value.length * Double.BYTES;
+		}
+	};
+
+	/** An int array as a varint count followed by one zigzag varint per value. Smaller than {@link #INT_ARRAY} when most values are small. */
+	public static final Codec<int[]> VAR_INT_ARRAY = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			int[] value
+		) {
+			Varints.writeUnsignedInt(out, value.length);
+			for (int element : value)
+			{
+				Varints.writeInt(out, element);
+			}
+		}
+
+		@Override
+		public int[] read(
+			ByteBuffer in
+		) {
+			int[] value = new int[readLength(in, 1)];
+			for (int i = 0; i < value.length; i++)
+			{
+				value[i] = Varints.readInt(in);
+			}
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			int[] value
+		) {
+			int size = Varints.sizeOfUnsignedInt(value.length);
+			for (int element : value)
+			{
+				size += Varints.sizeOfUnsignedInt(Varints.zigZag(element));
+			}
+
+			return size;
+		}
+	};
+
+	/** A long array as a varint count followed by one zigzag varint per value. Smaller than {@link #LONG_ARRAY} when most values are small. */
+	public static final Codec<long[]> VAR_LONG_ARRAY = new Codec<>()
+	{
+		@Override
+		public void write(
+			ByteBuffer out,
+			long[] value
+		) {
+			Varints.writeUnsignedInt(out, value.length);
+			for (long element : value)
+			{
+				Varints.writeLong(out, element);
+			}
+		}
+
+		@Override
+		public long[] read(
+			ByteBuffer in
+		) {
+			long[] value = new long[readLength(in, 1)];
+			for (int i = 0; i < value.length; i++)
+			{
+				value[i] = Varints.readLong(in);
+			}
+
+			return value;
+		}
+
+		@Override
+		public int sizeOf(
+			long[] value
+		) {
+			int size = Varints.sizeOfUnsignedInt(value.length);
+			for (long element : value)
+			{
+				size += Varints.sizeOfUnsignedLong(Varints.zigZag(element));
+			}
+
+			return size;
+		}
+	};
+
+	/**
+	 * Creates a codec for options, writing a one-byte tag followed by the value if present.
+	 *
+	 * @param <T> Type of contained values
+	 * @param value Codec for the contained value
+	 *
+	 * @return Option codec
+	 */
+	@NotNull
+	public static <T> Codec<Option<T>> option(
+		@NotNull Codec<T> value
+	) {
+		return new OptionCodec<>(Objects.requireNonNull(value));
+	}
+
+	/**
+	 * Creates a codec for results, writing a one-byte tag followed by either the value or the error.
+	 *
+	 * @param <T> Type of successful values
+	 * @param <E> Type of errors
+	 * @param value Codec for successful values
+	 * @param error Codec for errors
+	 *
+	 * @return Result codec
+	 */
+	@NotNull
+	public static <T, E> Codec<Result<T, E>> result(
+		@NotNull Codec<T> value,
+		@NotNull Codec<E> error
+	) {
+		return new ResultCodec<>(Objects.requireNonNull(value), Objects.requireNonNull(error));
+	}
+
+	/**
+	 * Creates a codec for tuples, writing both elements in order with no framing.
+	 *
+	 * @param <A> Type of first elements
+	 * @param <B> Type of second elements
+	 * @param a Codec for the first element
+	 * @param b Codec for the second element
+	 *
+	 * @return Tuple codec
+	 */
+	@NotNull
+	public static <A, B> Codec<DoubleTuple<A, B>> tuple(
+		@NotNull Codec<A> a,
+		@NotNull Codec<B> b
+	) {
+		return new TupleCodec<>(Objects.requireNonNull(a), Objects.requireNonNull(b));
+	}
+
+	/**
+	 * Creates a codec for lists, writing a varint count followed by each element. Lists are read back as {@link ArrayList}s.
+	 *
+	 * @param <T> Type of elements
+	 * @param element Codec for each element
+	 *
+	 * @return List codec
+	 */
+	@NotNull
+	public static <T> Codec<List<T>> list(
+		@NotNull Codec<T> element
+	) {
+		return new ListCodec<>(Objects.requireNonNull(element));
+	}
+
+	/**
+	 * Reads an array written by {@link #INT_ARRAY} as a view over the buffer, without copying. The view shares the buffer's memory, so it
+	 * is only valid for as long as the buffer's content is.
+	 *
+	 * @param in Source buffer, advanced past the array
+	 *
+	 * @return Read-only view of the values
+	 * @throws CodecException If the count runs past the end of the buffer
+	 */
+	@NotNull
+	public static IntBuffer readIntView(
+		@NotNull ByteBuffer in
+	) {
+		return consume(in, readLength(in, Integer.BYTES), Integer.BYTES).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+	}
+
+	/**
+	 * Reads an array written by {@link #LONG_ARRAY} as a view over the buffer, without copying. The view shares the buffer's memory, so it
+	 * is only valid for as long as the buffer's content is.
+	 *
+	 * @param in Source buffer, advanced past the array
+	 *
+	 * @return Read-only view of the values
+	 * @throws CodecException If the count runs past the end of the buffer
+	 */
+	@NotNull
+	public static LongBuffer readLongView(
+		@NotNull ByteBuffer in
+	) {
+		return consume(in, readLength(in, Long.BYTES), Long.BYTES).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+	}
+
+	/**
+	 * Reads an array written by {@link #DOUBLE_ARRAY} as a view over the buffer, without copying. The view shares the buffer's memory, so
+	 * it is only valid for as long as the buffer's content is.
+	 *
+	 * @param in Source buffer, advanced past the array
+	 *
+	 * @return Read-only view of the values
+	 * @throws CodecException If the count runs past the end of the buffer
+	 */
+	@NotNull
+	public static DoubleBuffer readDoubleView(
+		@NotNull ByteBuffer in
+	) {
+		return consume(in, readLength(in, Double.BYTES), Double.BYTES).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+	}
+
+	/**
+	 * Reads bytes written by {@link #BYTES} as a view over the buffer, without copying. The view shares the buffer's memory, so it is only
+	 * valid for as long as the buffer's content is.
+	 *
+	 * @param in Source buffer, advanced past the bytes
+	 *
+	 * @return Read-only view of the bytes
+	 * @throws CodecException If the length runs past the end of the buffer
+	 */
+	@NotNull
+	public static ByteBuffer readBytesView(
+		@NotNull ByteBuffer in
+	) {
+		return consume(in, readLength(in, 1), 1).asReadOnlyBuffer();
+	}
+
+	//--------------------------------------------------------------------------------
+	private static final class OptionCodec<T> implements Codec<Option<T>>
+	{
+		private final Codec<T> value;
+
+		private OptionCodec(
+			Codec<T> value
+		) {
+			this.value = value;
+		}
+
+		@Override
+		public void write(
+			ByteBuffer out,
+			Option<T> option
+		) {
+			if (option.isNone())
+			{
+				out.put(TAG_NONE);
+				return;
+			}
+
+			out.put(TAG_SOME);
+			this.value.write(out, option.unwrap());
+		}
+
+		@Override
+		public Option<T> read(
+			ByteBuffer in
+		) {
+			byte tag = in.get();
+
+			return switch (tag)
+			{
+				case TAG_NONE -> Option.none();
+				case TAG_SOME -> Option.some(this.value.read(in));
+				default -> throw new CodecException("Expected an option tag; found " + tag);
+			};
+		}
+
+		@Override
+		public int sizeOf(
+			Option<T> option
+		) {
+			return option.isNone() ? 1 : 1 + this.value.sizeOf(option.unwrap());
+		}
+	}
+
+	private static final class ResultCodec<T, E> implements Codec<Result<T, E>>
+	{
+		private final Codec<T> value;
+		private final Codec<E> error;
+
+		private ResultCodec(
+			Codec<T> value,
+			Codec<E> error
+		) {
+			this.value = value;
+			this.error = error;
+		}
+
+		@Override
+		public void write(
+			ByteBuffer out,
+			Result<T, E> result
+		) {
+			if (result.isOk())
+			{
+				out.put(TAG_OK);
+				this.value.write(out, result.unwrap());
+				return;
+			}
+
+			out.put(TAG_ERROR);
+			this.error.write(out, result.unwrapError());
+		}
+
+		@Override
+		public Result<T, E> read(
+			ByteBuffer in
+		) {
+			byte tag = in.get();
+
+			return switch (tag)
+			{
+				case TAG_OK -> Result.ok(this.value.read(in));
+				case TAG_ERROR -> Result.error(this.error.read(in));
+				default -> throw new CodecException("Expected a result tag; found " + tag);
+			};
+		}
+
+		@Override
+		public int sizeOf(
+			Result<T, E> result
+		) {
+			return 1 + (result.isOk() ? this.value.sizeOf(result.unwrap()) : this.error.sizeOf(result.unwrapError()));
+		}
+	}
+
+	private static final class TupleCodec<A, B> implements Codec<DoubleTuple<A, B>>
+	{
+		private final Codec<A> a;
+		private final Codec<B> b;
+
+		private TupleCodec(
+			Codec<A> a,
+			Codec<B> b
+		) {
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		public void write(
+			ByteBuffer out,
+			DoubleTuple<A, B> tuple
+		) {
+			this.a.write(out, tuple.a());
+			this.b.write(out, tuple.b());
+		}
+
+		@Override
+		public DoubleTuple<A, B> read(
+			ByteBuffer in
+		) {
+			A first = this.a.read(in);
+
+			return new DoubleTuple<>(first, this.b.read(in));
+		}
+
+		@Override
+		public int sizeOf(
+			DoubleTuple<A, B> tuple
+		) {
+			return this.a.sizeOf(tuple.a()) + this.b.sizeOf(tuple.b());
+		}
+	}
+
+	private static final class ListCodec<T> implements Codec<List<T>>
+	{
+		private final Codec<T> element;
+
+		private ListCodec(
+			Codec<T> element
+		) {
+			this.element = element;
+		}
+
+		@Override
+		public void write(
+			ByteBuffer out,
+			List<T> list
+		) {
+			Varints.writeUnsignedInt(out, list.size());
+			for (T value : list)
+			{
+				this.element.write(out, value);
+			}
+		}
+
+		@Override
+		public List<T> read(
+			ByteBuffer in
+		) {
+			int count = Varints.readUnsignedInt(in);
+			if (count < 0)
+			{
+				throw new CodecException("Invalid list size " + Integer.toUnsignedString(count));
+			}
+
+			// Elements may encode to nothing, so the count can not be checked against the input; only trust it as far as the input goes
+			List<T> list = new ArrayList<>(Math.min(count, in.remaining()));
+			for (int i = 0; i < count; i++)
+			{
+				list.add(this.element.read(in));
+			}
+
+			return list;
+		}
+
+		@Override
+		public int sizeOf(
+			List<T> list
+		) {
+			int size = Varints.sizeOfUnsignedInt(list.size());
+			for (T value : list)
+			{
+				size += this.element.sizeOf(value);
+			}
+
+			return size;
+		}
+	}
+
+	/**
+	 * Reads a varint count and checks that that many elements of the given size fit in the remaining input, so that corrupt input can not
+	 * cause huge allocations.
+	 */
+	private static int readLength(
+		ByteBuffer in,
+		int elementSize
+	) {
+		int count = Varints.readUnsignedInt(in);
+		if (count < 0 || (long) count * elementSize > in.remaining())
+		{
+			throw new CodecException("Length " + Integer.toUnsignedString(count) + " runs past the end of the input (" + in.remaining() + " bytes remaining)");
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns a little-endian slice over the next count elements of output and advances past them.
+	 */
+	private static ByteBuffer reserve(
+		ByteBuffer out,
+		int count,
+		int elementSize
+	) {
+		int length = count * elementSize;
+		if (out.remaining() < length)
+		{
+			throw new BufferOverflowException();
+		}
+
+		int position = out.position();
+		out.position(position + length);
+
+		return out.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Returns a little-endian slice over the next count elements of input and advances past them. The count must have been checked by
+	 * {@link #readLength(ByteBuffer, int)}.
+	 */
+	private static ByteBuffer consume(
+		ByteBuffer in,
+		int count,
+		int elementSize
+	) {
+		int position = in.position();
+		int length = count * elementSize;
+		in.position(position + length);
+
+		return in.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static void putInt(
+		ByteBuffer out,
+		int value
+	) {
+		if (out.remaining() < Integer.BYTES)
+		{
+			throw new BufferOverflowException();
+		}
+
+		INT_LE.set(out, out.position(), value);
+		out.position(out.position() + Integer.BYTES);
+	}
+
+	private static void putLong(
+		ByteBuffer out,
+		long value
+	) {
+		if (out.remaining() < Long.BYTES)
+		{
+			throw new BufferOverflowException();
+		}
+
+		LONG_LE.set(out, out.position(), value);
+		out.position(out.position() + Long.BYTES);
+	}
+
+	private static int getInt(
+		ByteBuffer in
+	) {
+		if (in.remaining() < Integer.BYTES)
+		{
+			throw new BufferUnderflowException();
+		}
+
+		int value = (int) INT_LE.get(in, in.position());
+		in.position(in.position() + Integer.BYTES);
+
+		return value;
+	}
+
+	private static long getLong(
+		ByteBuffer in
+	) {
+		if (in.remaining() < Long.BYTES)
+		{
+			throw new BufferUnderflowException();
+		}
+
+		long value = (long) LONG_LE.get(in, in.position());
+		in.position(in.position() + Long.BYTES);
+
+		return value;
+	}
+
+	private static int utf8Length(
+		String value
+	) {
+		int length = value.length();
+		int bytes = length;
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+			if (c < 0x80)
+			{
+				continue;
+			}
+
+			if (c < 0x800)
+			{
+				bytes++;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				bytes += 2;
+				i++;
+			}
+			else if (!Character.isSurrogate(c))
+			{
+				bytes += 2;
+			}
+		}
+
+		return bytes;
+	}
+}
@@ -0,0 +1,250 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.codec;
+
+import java.nio.ByteBuffer;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.exception.CodecException;
+
+/**
+ * Variable-length integers: seven bits per byte, least significant group first, with the high bit set on every byte but the last.
+ * Unsigned values below 128 take one byte. Signed values are zigzag encoded first, so that small negative numbers stay short too.
+ */
+public final class Varints
+{
+	private Varints() {}
+
+	/**
+	 * Writes an int as an unsigned varint of one to five bytes.
+	 *
+	 * @param out Destination buffer
+	 * @param value Value, treated as unsigned
+	 */
+	public static void writeUnsignedInt(
+		@NotNull ByteBuffer out,
+		int value
+	) {
+		while ((value & ~0x7F) != 0)
+		{
+			out.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+
+		out.put((byte) value);
+	}
+
+	/**
+	 * Writes a long as an unsigned varint of one to ten bytes.
+	 *
+	 * @param out Destination buffer
+	 * @param value Value, treated as unsigned
+	 */
+	public static void writeUnsignedLong(
+		@NotNull ByteBuffer out,
+		long value
+	) {
+		while ((value & ~0x7FL) != 0)
+		{
+			out.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+
+		out.put((byte) value);
+	}
+
+	/**
+	 * Writes a signed int as a zigzag varint.
+	 *
+	 * @param out Destination buffer
+	 * @param value Value
+	 */
+	public static void writeInt(
+		@NotNull ByteBuffer out,
+		int value
+	) {
+		writeUnsignedInt(out, zigZag(value));
+	}
+
+	/**
+	 * Writes a signed long as a zigzag varint.
+	 *
+	 * @param out Destination buffer
+	 * @param value Value
+	 */
+	public static void writeLong(
+		@NotNull ByteBuffer out,
+		long value
+	) {
+		writeUnsignedLong(out, zigZag(value));
+	}
+
+	/**
+	 * Reads an unsigned varint of at most 32 bits.
+	 *
+	 * @param in Source buffer
+	 *
+	 * @return Value, as unsigned
+	 * @throws CodecException If the varint is longer than five bytes or exceeds 32 bits
+	 */
+	public static int readUnsignedInt(
+		@NotNull ByteBuffer in
+	) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			byte b = in.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+			{
+				if (shift == 28 && (b & 0x70) != 0)
+				{
+					break;
+				}
+
+				return value;
+			}
+		}
+
+		throw new CodecException("Varint does not fit in 32 bits");
+	}
+
+	/**
+	 * Reads an unsigned varint of at most 64 bits.
+	 *
+	 * @param in Source buffer
+	 *
+	 * @return Value, as unsigned
+	 * @throws CodecException If the varint is longer than ten bytes or exceeds 64 bits
+	 */
+	public static long readUnsignedLong(
+		@NotNull ByteBuffer in
+	) {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7)
+		{
+			byte b = in.get();
+			value |= (b & 0x7FL) << shift;
+			if (b >= 0)
+			{
+				if (shift == 63 && (b & 0x7E) != 0)
+				{
+					break;
+				}
+
+				return value;
+			}
+		}
+
+		throw new CodecException("Varint does not fit in 64 bits");
+	}
+
+	/**
+	 * Reads a signed zigzag varint of at most 32 bits.
+	 *
+	 * @param in Source buffer
+	 *
+	 * @return Value
+	 * @throws CodecException If the varint is malformed
+	 */
+	public static int readInt(
+		@NotNull ByteBuffer in
+	) {
+		return unZigZag(readUnsignedInt(in));
+	}
+
+	/**
+	 * Reads a signed zigzag varint of at most 64 bits.
+	 *
+	 * @param in Source buffer
+	 *
+	 * @return Value
+	 * @throws CodecException If the varint is malformed
+	 */
+	public static long readLong(
+		@NotNull ByteBuffer in
+	) {
+		return unZigZag(readUnsignedLong(in));
+	}
+
+	/**
+	 * Returns the encoded size of an unsigned int varint.
+	 *
+	 * @param value Value, treated as unsigned
+	 *
+	 * @return Size in bytes, from 1 to 5
+	 */
+	public static int sizeOfUnsignedInt(
+		int value
+	) {
+		return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+	}
+
+	/**
+	 * Returns the encoded size of an unsigned long varint.
+	 *
+	 * @param value Value, treated as unsigned
+	 *
+	 * @return Size in bytes, from 1 to 10
+	 */
+	public static int sizeOfUnsignedLong(
+		long value
+	) {
+		return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+	}
+
+	/**
+	 * Maps a signed int onto an unsigned one so that values of small magnitude stay small: 0, -1, 1, -2 become 0, 1, 2, 3.
+	 *
+	 * @param value Signed value
+	 *
+	 * @return Zigzag encoded value
+	 */
+	public static int zigZag(
+		int value
+	) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Maps a signed long onto an unsigned one so that values of small magnitude stay small.
+	 *
+	 * @param value Signed value
+	 *
+	 * @return Zigzag encoded value
+	 */
+	public static long zigZag(
+		long value
+	) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverses {@link #zigZag(int)}.
+	 *
+	 * @param value Zigzag encoded value
+	 *
+	 * @return Signed value
+	 */
+	public static int unZigZag(
+		int value
+	) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reverses {@link #zigZag(long)}.
+	 *
+	 * @param value Zigzag encoded value
+	 *
+	 * @return Signed value
+	 */
+	public static long unZigZag(
+		long value
+	) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+import java.lang.reflect.Array;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Collects an unknown number of objects and produces an exactly sized array, replacing the collect-then-convert pattern of
+ * {@link coffee.khyonieheart.anenome.Arrays#toArray(Class, java.util.Collection)}. Elements are written into a list of chunks that is never
+ * copied as it grows, so each element is copied exactly once, when the result is built. May hold more elements than fit in a plain
+ * array, in which case the result must be built as a {@link BigArray}. Not thread safe.
+ *
+ * @param <T> Type of elements
+ */
+public final class ArrayBuilder<T>
+{
+	private final Class<T> type;
+
+	private Object[][] chunks = new Object[8][];
+	private int chunkCount;
+	private Object[] current;
+	private int position;
+	private long size;
+
+	/**
+	 * Constructs an empty builder for arrays of the given type.
+	 *
+	 * @param type Component type of the arrays to build
+	 */
+	public ArrayBuilder(
+		@NotNull Class<T> type
+	) {
+		this.type = Objects.requireNonNull(type);
+	}
+
+	/**
+	 * Appends an element.
+	 *
+	 * @param value Element to append
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public ArrayBuilder<T> add(
+		@Nullable T value
+	) {
+		if (this.current == null || this.position == this.current.length)
+		{
+			this.nextChunk();
+		}
+
+		this.current[this.position++] = value;
+		this.size++;
+
+		return this;
+	}
+
+	/**
+	 * Appends every element of an array.
+	 *
+	 * @param values Elements to append
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public ArrayBuilder<T> addAll(
+		@NotNull T[] values
+	) {
+		return this.addAll(values, 0, values.length);
+	}
+
+	/**
+	 * Appends a range of an array.
+	 *
+	 * @param values Source array
+	 * @param offset Index of the first element to append
+	 * @param length Number of elements to append
+	 *
+	 * @return This builder
+	 * @throws IndexOutOfBoundsException If the range lies outside of the array
+	 */
+	@NotNull
+	public ArrayBuilder<T> addAll(
+		@NotNull T[] values,
+		int offset,
+		int length
+	) {
+		RuntimeConditions.checkFromIndexSize(offset, length, Objects.requireNonNull(values).length);
+
+		while (length > 0)
+		{
+			if (this.current == null || this.position == this.current.length)
+			{
+				this.nextChunk();
+			}
+
+			int run = Math.min(length, this.current.length - this.position);
+			System.arraycopy(values, offset, this.current, this.position, run);
+			this.position += run;
+			this.size += run;
+			offset += run;
+			length -= run;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Appends every element of an iterable.
+	 *
+	 * @param values Elements to append
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public ArrayBuilder<T> addAll(
+		@NotNull Iterable<? extends T> values
+	) {
+		for (T value : Objects.requireNonNull(values))
+		{
+			this.add(value);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Returns the number of elements appended so far.
+	 *
+	 * @return Number of elements
+	 */
+	public long size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Copies every element appended so far into an exactly sized array. The builder may keep being used afterwards.
+	 *
+	 * @return Array of every element, in order
+	 * @throws IllegalStateException If there are too many elements for a plain array
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public T[] build()
+	{
+		T[] array = (T[]) Array.newInstance(this.type, Chunks.requireArrayLength(this.size));
+		int offset = 0;
+		for (int i = 0; i < this.chunkCount; i++)
+		{
+			int length = this.chunkSize(i);
+			System.arraycopy(this.chunks[i], 0, array, offset, length);
+			offset += length;
+		}
+
+		return array;
+	}
+
+	/**
+	 * Copies every element appended so far into an exactly sized big array. The builder may keep being used afterwards.
+	 *
+	 * @return Big array of every element, in order
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public BigArray<T> buildBig()
+	{
+		BigArray<T> array = new BigArray<>(this.size);
+		long offset = 0;
+		for (int i = 0; i < this.chunkCount; i++)
+		{
+			int length = this.chunkSize(i);
+			array.copyFrom((T[]) this.chunks[i], 0, offset, length);
+			offset += length;
+		}
+
+		return array;
+	}
+
+	/**
+	 * Discards every element, releasing all chunks.
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(this.chunks, 0, this.chunkCount, null);
+		this.chunkCount = 0;
+		this.current = null;
+		this.position = 0;
+		this.size = 0;
+	}
+
+	//--------------------------------------------------------------------------------
+	private void nextChunk()
+	{
+		if (this.chunkCount == this.chunks.length)
+		{
+			this.chunks = java.util.Arrays.copyOf(this.chunks, this.chunkCount * 2);
+		}
+
+		this.current = new Object[Chunks.nextBuilderChunk(this.size)];
+		this.chunks[this.chunkCount++] = this.current;
+		this.position = 0;
+	}
+
+	private int chunkSize(
+		int chunk
+	) {
+		return chunk == this.chunkCount - 1 ? this.position : this.chunks[chunk].length;
+	}
+}
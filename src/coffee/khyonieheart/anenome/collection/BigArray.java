@@ -0,0 +1,278 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.Positive;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Fixed-length array of objects indexed by long, for data beyond the 2^31 element limit of Java arrays. Elements are held in chunks of
+ * 2^24, with the last chunk sized to fit, so a small big array costs no more than a plain one. Bulk copies move whole runs of a chunk at a
+ * time with {@link System#arraycopy(Object, int, Object, int, int)}. Not thread safe.
+ *
+ * @param <T> Type of elements
+ */
+public final class BigArray<T>
+{
+	private final Object[][] chunks;
+	private final long length;
+
+	/**
+	 * Constructs a big array of the given length, filled with nulls.
+	 *
+	 * @param length Number of elements
+	 */
+	public BigArray(
+		@Positive long length
+	) {
+		this.length = RuntimeConditions.requirePositive(length);
+		this.chunks = new Object[Chunks.chunkCount(length)][];
+		for (int i = 0; i < this.chunks.length; i++)
+		{
+			this.chunks[i] = new Object[Chunks.chunkLength(length, i)];
+		}
+	}
+
+	/**
+	 * Constructs a big array holding a copy of the given values.
+	 *
+	 * @param <T> Type of elements
+	 *
+	 * @param values Initial values
+	 *
+	 * @return New big array
+	 */
+	@NotNull
+	public static <T> BigArray<T> of(
+		@NotNull T[] values
+	) {
+		BigArray<T> array = new BigArray<>(values.length);
+		array.copyFrom(values, 0, 0, values.length);
+
+		return array;
+	}
+
+	/**
+	 * Returns the number of elements.
+	 *
+	 * @return Length of this array
+	 */
+	public long length()
+	{
+		return this.length;
+	}
+
+	/**
+	 * Returns the element at the given index.
+	 *
+	 * @param index Index of the element
+	 *
+	 * @return Element at the index
+	 * @throws IndexOutOfBoundsException If index is outside of this array
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T get(
+		long index
+	) {
+		RuntimeConditions.checkIndex(index, this.length);
+
+		return (T) this.chunks[Chunks.chunk(index)][Chunks.offset(index)];
+	}
+
+	/**
+	 * Replaces the element at the given index.
+	 *
+	 * @param index Index of the element
+	 * @param value New value
+	 *
+	 * @throws IndexOutOfBoundsException If index is outside of this array
+	 */
+	public void set(
+		long index,
+		@Nullable T value
+	) {
+		RuntimeConditions.checkIndex(index, this.length);
+
+		this.chunks[Chunks.chunk(index)][Chunks.offset(index)] = value;
+	}
+
+	/**
+	 * Sets every element to the given value.
+	 *
+	 * @param value Value to fill with
+	 */
+	public void fill(
+		@Nullable T value
+	) {
+		for (Object[] chunk : this.chunks)
+		{
+			java.util.Arrays.fill(chunk, value);
+		}
+	}
+
+	/**
+	 * Copies a range of a plain array into this array.
+	 *
+	 * @param source Array to copy from
+	 * @param sourceOffset Index of the first element to copy
+	 * @param destination Index in this array to copy to
+	 * @param length Number of elements to copy
+	 *
+	 * @throws IndexOutOfBoundsException If either range lies outside of its array
+	 */
+	public void copyFrom(
+		@NotNull T[] source,
+		int sourceOffset,
+		long destination,
+		int length
+	) {
+		RuntimeConditions.checkFromIndexSize(sourceOffset, length, Objects.requireNonNull(source).length);
+		RuntimeConditions.checkFromIndexSize(destination, length, this.length);
+
+		while (length > 0)
+		{
+			int offset = Chunks.offset(destination);
+			int run = Math.min(length, Chunks.CHUNK_SIZE - offset);
+			System.arraycopy(source, sourceOffset, this.chunks[Chunks.chunk(destination)], offset, run);
+
+			sourceOffset += run;
+			destination += run;
+			length -= run;
+		}
+	}
+
+	/**
+	 * Copies a range of this array into a plain array.
+	 *
+	 * @param source Index in this array to copy from
+	 * @param destination Array to copy to
+	 * @param destinationOffset Index of the first element to write
+	 * @param length Number of elements to copy
+	 *
+	 * @throws IndexOutOfBoundsException If either range lies outside of its array
+	 */
+	public void copyTo(
+		long source,
+		@NotNull T[] destination,
+		int destinationOffset,
+		int length
+	) {
+		RuntimeConditions.checkFromIndexSize(source, length, this.length);
+		RuntimeConditions.checkFromIndexSize(destinationOffset, length, Objects.requireNonNull(destination).length);
+
+		while (length > 0)
+		{
+			int offset = Chunks.offset(source);
+			int run = Math.min(length, Chunks.CHUNK_SIZE - offset);
+			System.arraycopy(this.chunks[Chunks.chunk(source)], offset, destination, destinationOffset, run);
+
+			source += run;
+			destinationOffset += run;
+			length -= run;
+		}
+	}
+
+	/**
+	 * Copies a range of one big array into another. The arrays may be the same, with overlapping ranges, in which case the copy behaves as
+	 * if the source range were first copied to a temporary array.
+	 *
+	 * @param <T> Type of elements
+	 *
+	 * @param source Array to copy from
+	 * @param sourceIndex Index of the first element to copy
+	 * @param destination Array to copy to
+	 * @param destinationIndex Index of the first element to write
+	 * @param length Number of elements to copy
+	 *
+	 * @throws IndexOutOfBoundsException If either range lies outside of its array
+	 */
+	public static <T> void copy(
+		@NotNull BigArray<? extends T> source,
+		long sourceIndex,
+		@NotNull BigArray<T> destination,
+		long destinationIndex,
+		long length
+	) {
+		RuntimeConditions.checkFromIndexSize(sourceIndex, length, Objects.requireNonNull(source).length);
+		RuntimeConditions.checkFromIndexSize(destinationIndex, length, Objects.requireNonNull(destination).length);
+
+		if (source == destination && sourceIndex < destinationIndex && destinationIndex < sourceIndex + length)
+		{
+			// Overlapping move towards higher indices, so copy from the end to avoid overwriting elements not yet copied
+			long sourceEnd = sourceIndex + length;
+			long destinationEnd = destinationIndex + length;
+			while (length > 0)
+			{
+				int run = (int) Math.min(length, Math.min(Chunks.offset(sourceEnd - 1), Chunks.offset(destinationEnd - 1)) + 1);
+				sourceEnd -= run;
+				destinationEnd -= run;
+				System.arraycopy(source.chunks[Chunks.chunk(sourceEnd)], Chunks.offset(sourceEnd), destination.chunks[Chunks.chunk(destinationEnd)], Chunks.offset(destinationEnd), run);
+				length -= run;
+			}
+
+			return;
+		}
+
+		while (length > 0)
+		{
+			int sourceOffset = Chunks.offset(sourceIndex);
+			int destinationOffset = Chunks.offset(destinationIndex);
+			int run = (int) Math.min(length, Chunks.CHUNK_SIZE - Math.max(sourceOffset, destinationOffset));
+			System.arraycopy(source.chunks[Chunks.chunk(sourceIndex)], sourceOffset, destination.chunks[Chunks.chunk(destinationIndex)], destinationOffset, run);
+
+			sourceIndex += run;
+			destinationIndex += run;
+			length -= run;
+		}
+	}
+
+	/**
+	 * Copies this array into a new big array of the given length, truncating or padding with nulls as needed.
+	 *
+	 * @param length Length of the copy
+	 *
+	 * @return Copy of this array
+	 */
+	@NotNull
+	public BigArray<T> copyOf(
+		@Positive long length
+	) {
+		BigArray<T> copy = new BigArray<>(length);
+		copy(this, 0, copy, 0, Math.min(length, this.length));
+
+		return copy;
+	}
+
+	/**
+	 * Copies this array into a plain array.
+	 *
+	 * @param generator Function creating an array of the requested length
+	 *
+	 * @return Plain array holding every element
+	 * @throws IllegalStateException If this array is too long for a plain array
+	 */
+	@NotNull
+	public T[] toArray(
+		@NotNull IntFunction<T[]> generator
+	) {
+		T[] array = generator.apply(Chunks.requireArrayLength(this.length));
+		this.copyTo(0, array, 0, array.length);
+
+		return array;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "BigArray[length=" + this.length + "]";
+	}
+}
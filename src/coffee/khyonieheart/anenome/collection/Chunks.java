@@ -0,0 +1,75 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+/**
+ * Chunk geometry shared by the big arrays and array builders. Big arrays split a long index into a chunk number and an offset within the
+ * chunk, so every chunk but the last holds exactly {@link #CHUNK_SIZE} elements. Builders instead grow chunk by chunk, each new chunk
+ * as large as everything before it, up to the same size.
+ */
+final class Chunks
+{
+	static final int CHUNK_SHIFT = 24;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	private static final int FIRST_BUILDER_CHUNK = 16;
+
+	private Chunks() {}
+
+	static int chunk(
+		long index
+	) {
+		return (int) (index >>> CHUNK_SHIFT);
+	}
+
+	static int offset(
+		long index
+	) {
+		return (int) (index & CHUNK_MASK);
+	}
+
+	static int chunkCount(
+		long length
+	) {
+		return (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+	}
+
+	/**
+	 * Returns the length of the given chunk of a big array, which is shorter than the others only if it is the last.
+	 */
+	static int chunkLength(
+		long length,
+		int chunk
+	) {
+		return (int) Math.min(CHUNK_SIZE, length - ((long) chunk << CHUNK_SHIFT));
+	}
+
+	/**
+	 * Returns the length of the next chunk for a builder already holding the given number of elements.
+	 */
+	static int nextBuilderChunk(
+		long size
+	) {
+		return (int) Math.max(FIRST_BUILDER_CHUNK, Math.min(CHUNK_SIZE, size));
+	}
+
+	/**
+	 * Checks that the given number of elements fits in a single Java array.
+	 */
+	static int requireArrayLength(
+		long length
+	) {
+		if (length > MAX_ARRAY_LENGTH)
+		{
+			throw new IllegalStateException("Length " + length + " exceeds the maximum array length of " + MAX_ARRAY_LENGTH + "; use a big array instead");
+		}
+
+		return (int) length;
+	}
+}
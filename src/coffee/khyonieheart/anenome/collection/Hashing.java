@@ -0,0 +1,77 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+/**
+ * Sizing and slot selection shared by the open-addressing maps. Tables are always a power of two in size and are kept at most three
+ * quarters full. Keys are spread with Fibonacci hashing, so sequential IDs land far apart instead of forming one long probe run.
+ */
+final class Hashing
+{
+	static final int MIN_CAPACITY = 8;
+	static final int MAX_CAPACITY = 1 << 30;
+
+	private static final int INT_PHI = 0x9E3779B9;
+	private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+	private Hashing() {}
+
+	/**
+	 * Returns the table size needed to hold the given number of keys without resizing.
+	 */
+	static int capacityFor(
+		int expected
+	) {
+		if (expected < 0)
+		{
+			throw new IllegalArgumentException("Expected size must be positive");
+		}
+
+		long needed = Math.max(MIN_CAPACITY, (long) expected + (expected + 2) / 3);
+		if (needed > MAX_CAPACITY)
+		{
+			throw new IllegalArgumentException("Expected size " + expected + " is too large");
+		}
+
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	/**
+	 * Returns the number of keys a table of the given size holds before it must grow.
+	 */
+	static int thresholdFor(
+		int capacity
+	) {
+		return capacity - (capacity >>> 2);
+	}
+
+	static int grow(
+		int capacity
+	) {
+		if (capacity >= MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Map can not grow beyond " + thresholdFor(MAX_CAPACITY) + " keys");
+		}
+
+		return capacity << 1;
+	}
+
+	static int slot(
+		int key,
+		int mask
+	) {
+		return (key * INT_PHI >>> 16 ^ key * INT_PHI) & mask;
+	}
+
+	static int slot(
+		long key,
+		int mask
+	) {
+		long hash = key * LONG_PHI;
+
+		return (int) (hash ^ hash >>> 32) & mask;
+	}
+}
@@ -0,0 +1,615 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Positive;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+import coffee.khyonieheart.anenome.operation.IntOption;
+
+/**
+ * Map from ints to ints, stored in two flat arrays with linear probing. Compared to a {@code HashMap<Integer, Integer>} there is no entry
+ * object and no boxing, so a mapping costs eight bytes of table plus slack rather than several dozen.
+ * <p>
+ * Slot zero of the key array doubles as the empty marker, so the key 0 is kept beside the table. Removal shifts later entries of the
+ * probe run back instead of leaving tombstones, so lookups never slow down after many removals. Not thread safe.
+ */
+public final class IntIntMap
+{
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int threshold;
+	private int size;
+
+	private boolean hasZeroKey;
+	private int zeroValue;
+
+	private int modifications;
+
+	/**
+	 * Constructs an empty map.
+	 */
+	public IntIntMap()
+	{
+		this(0);
+	}
+
+	/**
+	 * Constructs an empty map able to hold the given number of mappings without resizing.
+	 *
+	 * @param expectedSize Expected number of mappings
+	 */
+	public IntIntMap(
+		@Positive int expectedSize
+	) {
+		this.allocate(Hashing.capacityFor(expectedSize));
+	}
+
+	/**
+	 * Returns the number of mappings.
+	 *
+	 * @return Size of this map
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Returns whether this map holds no mappings.
+	 *
+	 * @return True if this map is empty
+	 */
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * Returns whether a key is mapped.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return True if the key is present
+	 */
+	public boolean containsKey(
+		int key
+	) {
+		return key == 0 ? this.hasZeroKey : this.find(key) >= 0;
+	}
+
+	/**
+	 * Returns the value mapped to a key.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return Mapped value, or none if the key is not present
+	 */
+	@NotNull
+	public IntOption get(
+		int key
+	) {
+		if (key == 0)
+		{
+			return this.hasZeroKey ? IntOption.some(this.zeroValue) : IntOption.none();
+		}
+
+		int slot = this.find(key);
+
+		return slot < 0 ? IntOption.none() : IntOption.some(this.values[slot]);
+	}
+
+	/**
+	 * Returns the value mapped to a key, or a default if it is not present.
+	 *
+	 * @param key Key to look up
+	 * @param defaultValue Value to return if the key is not present
+	 *
+	 * @return Mapped value or the default
+	 */
+	public int getOrDefault(
+		int key,
+		int defaultValue
+	) {
+		if (key == 0)
+		{
+			return this.hasZeroKey ? this.zeroValue : defaultValue;
+		}
+
+		int slot = this.find(key);
+
+		return slot < 0 ? defaultValue : this.values[slot];
+	}
+
+	/**
+	 * Maps a key to a value, replacing any previous value.
+	 *
+	 * @param key Key to map
+	 * @param value Value to map to
+	 *
+	 * @return Previous value, or none if the key was not present
+	 */
+	@NotNull
+	public IntOption put(
+		int key,
+		int value
+	) {
+		if (key == 0)
+		{
+			IntOption previous = this.hasZeroKey ? IntOption.some(this.zeroValue) : IntOption.none();
+			this.putZero(value);
+
+			return previous;
+		}
+
+		int slot = this.insertionSlot(key);
+		if (slot < 0)
+		{
+			slot = ~slot;
+			int previous = this.values[slot];
+			this.values[slot] = value;
+
+			return IntOption.some(previous);
+		}
+
+		this.insert(slot, key, value);
+
+		return IntOption.none();
+	}
+
+	/**
+	 * Maps every key of an array to the value at the same index, resizing at most once.
+	 *
+	 * @param keys Keys to map
+	 * @param values Values to map to
+	 *
+	 * @throws IllegalArgumentException If the arrays differ in length
+	 */
+	public void putAll(
+		@NotNull int[] keys,
+		@NotNull int[] values
+	) {
+		if (Objects.requireNonNull(keys).length != Objects.requireNonNull(values).length)
+		{
+			throw new IllegalArgumentException("Key and value arrays must be the same length; received " + keys.length + " and " + values.length);
+		}
+
+		this.reserve(this.size + keys.length);
+		for (int i = 0; i < keys.length; i++)
+		{
+			this.put(keys[i], values[i]);
+		}
+	}
+
+	/**
+	 * Adds to the value mapped to a key, treating a missing key as mapped to 0. Handy for counting.
+	 *
+	 * @param key Key to update
+	 * @param delta Amount to add
+	 *
+	 * @return New value
+	 */
+	public int addTo(
+		int key,
+		int delta
+	) {
+		if (key == 0)
+		{
+			int value = (this.hasZeroKey ? this.zeroValue : 0) + delta;
+			this.putZero(value);
+
+			return value;
+		}
+
+		int slot = this.insertionSlot(key);
+		if (slot < 0)
+		{
+			return this.values[~slot] += delta;
+		}
+
+		this.insert(slot, key, delta);
+
+		return delta;
+	}
+
+	/**
+	 * Removes the mapping for a key.
+	 *
+	 * @param key Key to remove
+	 *
+	 * @return Removed value, or none if the key was not present
+	 */
+	@NotNull
+	public IntOption remove(
+		int key
+	) {
+		if (key == 0)
+		{
+			if (!this.hasZeroKey)
+			{
+				return IntOption.none();
+			}
+
+			this.hasZeroKey = false;
+			this.size--;
+			this.modifications++;
+
+			return IntOption.some(this.zeroValue);
+		}
+
+		int slot = this.find(key);
+		if (slot < 0)
+		{
+			return IntOption.none();
+		}
+
+		int removed = this.values[slot];
+		this.shiftBack(slot);
+		this.size--;
+		this.modifications++;
+
+		return IntOption.some(removed);
+	}
+
+	/**
+	 * Grows the table, if needed, to hold at least the given number of mappings without resizing.
+	 *
+	 * @param expectedSize Expected number of mappings
+	 */
+	public void reserve(
+		@Positive int expectedSize
+	) {
+		int capacity = Hashing.capacityFor(RuntimeConditions.requirePositive(expectedSize));
+		if (capacity > this.keys.length)
+		{
+			this.rehash(capacity);
+		}
+	}
+
+	/**
+	 * Removes every mapping, keeping the current capacity.
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(this.keys, 0);
+		this.hasZeroKey = false;
+		this.size = 0;
+		this.modifications++;
+	}
+
+	/**
+	 * Returns an iterator over the keys of this map, in no particular order.
+	 *
+	 * @return Primitive iterator over keys
+	 */
+	@NotNull
+	public PrimitiveIterator.OfInt keys()
+	{
+		Cursor cursor = this.cursor();
+
+		return new PrimitiveIterator.OfInt()
+		{
+			private boolean ready;
+			private boolean more;
+
+			@Override
+			public boolean hasNext()
+			{
+				if (!this.ready)
+				{
+					this.more = cursor.advance();
+					this.ready = true;
+				}
+
+				return this.more;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if (!this.hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+
+				this.ready = false;
+
+				return cursor.key();
+			}
+		};
+	}
+
+	/**
+	 * Returns a cursor over the mappings of this map, in no particular order. The map must not be modified while the cursor is in use.
+	 *
+	 * @return Cursor positioned before the first mapping
+	 */
+	@NotNull
+	public Cursor cursor()
+	{
+		return new Cursor();
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof IntIntMap other) || other.size != this.size)
+		{
+			return false;
+		}
+
+		Cursor cursor = this.cursor();
+		while (cursor.advance())
+		{
+			int key = cursor.key();
+			if (!other.containsKey(key) || other.getOrDefault(key, 0) != cursor.value())
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = 0;
+		Cursor cursor = this.cursor();
+		while (cursor.advance())
+		{
+			hash += cursor.key() ^ cursor.value();
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder("{");
+		Cursor cursor = this.cursor();
+		while (cursor.advance())
+		{
+			if (builder.length() > 1)
+			{
+				builder.append(", ");
+			}
+
+			builder.append(cursor.key()).append('=').append(cursor.value());
+		}
+
+		return builder.append('}').toString();
+	}
+
+	/**
+	 * Forward-only view of the mappings of an {@link IntIntMap}, reading keys and values without boxing or allocating entries.
+	 */
+	public final class Cursor
+	{
+		// -1 stands for the key 0, which is held outside of the table
+		private int slot = -2;
+		private final int expected = IntIntMap.this.modifications;
+
+		private Cursor() {}
+
+		/**
+		 * Moves to the next mapping.
+		 *
+		 * @return True if there was another mapping, false once the cursor has passed the last one
+		 * @throws ConcurrentModificationException If the map was modified since this cursor was created
+		 */
+		public boolean advance()
+		{
+			if (this.expected != IntIntMap.this.modifications)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			if (this.slot == -2)
+			{
+				this.slot = -1;
+				if (IntIntMap.this.hasZeroKey)
+				{
+					return true;
+				}
+			}
+
+			int[] keys = IntIntMap.this.keys;
+			while (++this.slot < keys.length)
+			{
+				if (keys[this.slot] != 0)
+				{
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * Returns the key of the current mapping.
+		 *
+		 * @return Current key
+		 */
+		public int key()
+		{
+			this.checkPosition();
+
+			return this.slot == -1 ? 0 : IntIntMap.this.keys[this.slot];
+		}
+
+		/**
+		 * Returns the value of the current mapping.
+		 *
+		 * @return Current value
+		 */
+		public int value()
+		{
+			this.checkPosition();
+
+			return this.slot == -1 ? IntIntMap.this.zeroValue : IntIntMap.this.values[this.slot];
+		}
+
+		//--------------------------------------------------------------------------------
+		private void checkPosition()
+		{
+			if (this.slot == -2 || this.slot >= IntIntMap.this.keys.length)
+			{
+				throw new IllegalStateException("Cursor is not positioned on a mapping");
+			}
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private void allocate(
+		int capacity
+	) {
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+		this.mask = capacity - 1;
+		this.threshold = Hashing.thresholdFor(capacity);
+	}
+
+	private int find(
+		int key
+	) {
+		int slot = Hashing.slot(key, this.mask);
+		while (true)
+		{
+			int candidate = this.keys[slot];
+			if (candidate == key)
+			{
+				return slot;
+			}
+
+			if (candidate == 0)
+			{
+				return -1;
+			}
+
+			slot = (slot + 1) & this.mask;
+		}
+	}
+
+	/**
+	 * Returns the complement of the slot holding the key, or the free slot the key would go in.
+	 */
+	private int insertionSlot(
+		int key
+	) {
+		int slot = Hashing.slot(key, this.mask);
+		while (true)
+		{
+			int candidate = this.keys[slot];
+			if (candidate == key)
+			{
+				return ~slot;
+			}
+
+			if (candidate == 0)
+			{
+				return slot;
+			}
+
+			slot = (slot + 1) & this.mask;
+		}
+	}
+
+	private void insert(
+		int slot,
+		int key,
+		int value
+	) {
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		this.size++;
+		this.modifications++;
+
+		if (this.size > this.threshold)
+		{
+			this.rehash(Hashing.grow(this.keys.length));
+		}
+	}
+
+	private void putZero(
+		int value
+	) {
+		if (!this.hasZeroKey)
+		{
+			this.hasZeroKey = true;
+			this.size++;
+			this.modifications++;
+		}
+
+		this.zeroValue = value;
+	}
+
+	/**
+	 * Empties a slot, then walks the rest of its probe run moving back every entry that would otherwise become unreachable.
+	 */
+	private void shiftBack(
+		int slot
+	) {
+		int gap = slot;
+		while (true)
+		{
+			slot = (slot + 1) & this.mask;
+			int key = this.keys[slot];
+			if (key == 0)
+			{
+				this.keys[gap] = 0;
+
+				return;
+			}
+
+			// An entry may only move back if its home slot does not lie between the gap and where it sits now
+			int home = Hashing.slot(key, this.mask);
+			if (gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot))
+			{
+				this.keys[gap] = key;
+				this.values[gap] = this.values[slot];
+				gap = slot;
+			}
+		}
+	}
+
+	private void rehash(
+		int capacity
+	) {
+		int[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		this.allocate(capacity);
+
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			int key = oldKeys[i];
+			if (key != 0)
+			{
+				int slot = Hashing.slot(key, this.mask);
+				while (this.keys[slot] != 0)
+				{
+					slot = (slot + 1) & this.mask;
+				}
+
+				this.keys[slot] = key;
+				this.values[slot] = oldValues[i];
+			}
+		}
+	}
+}
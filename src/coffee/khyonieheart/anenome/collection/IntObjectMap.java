@@ -0,0 +1,606 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.Positive;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Map from ints to objects, stored in two flat arrays with linear probing. Compared to a {@code HashMap<Integer, V>} there is no entry
+ * object and no boxed key per mapping.
+ * <p>
+ * Null values are not permitted, so a null value slot marks an empty slot and a null result always means the key is absent. Removal
+ * shifts later entries of the probe run back instead of leaving tombstones. Not thread safe.
+ *
+ * @param <V> Type of values
+ */
+public final class IntObjectMap<V>
+{
+	private int[] keys;
+	private Object[] values;
+	private int mask;
+	private int threshold;
+	private int size;
+
+	private int modifications;
+
+	/**
+	 * Constructs an empty map.
+	 */
+	public IntObjectMap()
+	{
+		this(0);
+	}
+
+	/**
+	 * Constructs an empty map able to hold the given number of mappings without resizing.
+	 *
+	 * @param expectedSize Expected number of mappings
+	 */
+	public IntObjectMap(
+		@Positive int expectedSize
+	) {
+		this.allocate(Hashing.capacityFor(expectedSize));
+	}
+
+	/**
+	 * Returns the number of mappings.
+	 *
+	 * @return Size of this map
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Returns whether this map holds no mappings.
+	 *
+	 * @return True if this map is empty
+	 */
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * Returns whether a key is mapped.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return True if the key is present
+	 */
+	public boolean containsKey(
+		int key
+	) {
+		return this.get(key) != null;
+	}
+
+	/**
+	 * Returns the value mapped to a key.
+	 *
+	 * @param key Key to look up
+	 *
+	 * @return Mapped value, or null if the key is not present
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(
+		int key
+	) {
+		int slot = this.find(key);
+
+		return slot < 0 ? null : (V) this.values[slot];
+	}
+
+	/**
+	 * Returns the value mapped to a key, or a default if it is not present.
+	 *
+	 * @param key Key to look up
+	 * @param defaultValue Value to return if the key is not present
+	 *
+	 * @return Mapped value or the default
+	 */
+	@Nullable
+	public V getOrDefault(
+		int key,
+		@Nullable V defaultValue
+	) {
+		V value = this.get(key);
+
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * Maps a key to a value, replacing any previous value.
+	 *
+	 * @param key Key to map
+	 * @param value Value to map to
+	 *
+	 * @return Previous value, or null if the key was not present
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V put(
+		int key,
+		@NotNull V value
+	) {
+		Objects.requireNonNull(value);
+
+		int slot = this.insertionSlot(key);
+		if (slot < 0)
+		{
+			slot = ~slot;
+			V previous = (V) this.values[slot];
+			this.values[slot] = value;
+
+			return previous;
+		}
+
+		this.insert(slot, key, value);
+
+		return null;
+	}
+
+	/**
+	 * Maps a key to a value only if the key is not already present.
+	 *
+	 * @param key Key to map
+	 * @param value Value to map to
+	 *
+	 * @return Existing value, or null if the value given was mapped
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(
+		int key,
+		@NotNull V value
+	) {
+		Objects.requireNonNull(value);
+
+		int slot = this.insertionSlot(key);
+		if (slot < 0)
+		{
+			return (V) this.values[~slot];
+		}
+
+		this.insert(slot, key, value);
+
+		return null;
+	}
+
+	/**
+	 * Returns the value mapped to a key, computing and mapping one first if the key is not present.
+	 *
+	 * @param key Key to look up
+	 * @param function Function computing a value for the key
+	 *
+	 * @return Existing or computed value
+	 * @throws NullPointerException If the function returns null
+	 */
+	@NotNull
+	public V computeIfAbsent(
+		int key,
+		@NotNull IntFunction<? extends V> function
+	) {
+		Objects.requireNonNull(function);
+
+		V value = this.get(key);
+		if (value == null)
+		{
+			value = Objects.requireNonNull(function.apply(key), "Computed value can not be null");
+			this.put(key, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Removes the mapping for a key.
+	 *
+	 * @param key Key to remove
+	 *
+	 * @return Removed value, or null if the key was not present
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V remove(
+		int key
+	) {
+		int slot = this.find(key);
+		if (slot < 0)
+		{
+			return null;
+		}
+
+		V removed = (V) this.values[slot];
+		this.shiftBack(slot);
+		this.size--;
+		this.modifications++;
+
+		return removed;
+	}
+
+	/**
+	 * Grows the table, if needed, to hold at least the given number of mappings without resizing.
+	 *
+	 * @param expectedSize Expected number of mappings
+	 */
+	public void reserve(
+		@Positive int expectedSize
+	) {
+		int capacity = Hashing.capacityFor(RuntimeConditions.requirePositive(expectedSize));
+		if (capacity > this.keys.length)
+		{
+			this.rehash(capacity);
+		}
+	}
+
+	/**
+	 * Removes every mapping, keeping the current capacity.
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(this.keys, 0);
+		java.util.Arrays.fill(this.values, null);
+		this.size = 0;
+		this.modifications++;
+	}
+
+	/**
+	 * Returns an iterator over the keys of this map, in no particular order.
+	 *
+	 * @return Primitive iterator over keys
+	 */
+	@NotNull
+	public PrimitiveIterator.OfInt keys()
+	{
+		Cursor cursor = this.cursor();
+
+		return new PrimitiveIterator.OfInt()
+		{
+			private boolean ready;
+			private boolean more;
+
+			@Override
+			public boolean hasNext()
+			{
+				if (!this.ready)
+				{
+					this.more = cursor.advance();
+					this.ready = true;
+				}
+
+				return this.more;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if (!this.hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+
+				this.ready = false;
+
+				return cursor.key();
+			}
+		};
+	}
+
+	/**
+	 * Returns an iterator over the values of this map, in no particular order.
+	 *
+	 * @return Iterator over values
+	 */
+	@NotNull
+	public Iterator<V> values()
+	{
+		Cursor cursor = this.cursor();
+
+		return new Iterator<V>()
+		{
+			private boolean ready;
+			private boolean more;
+
+			@Override
+			public boolean hasNext()
+			{
+				if (!this.ready)
+				{
+					this.more = cursor.advance();
+					this.ready = true;
+				}
+
+				return this.more;
+			}
+
+			@Override
+			public V next()
+			{
+				if (!this.hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+
+				this.ready = false;
+
+				return cursor.value();
+			}
+		};
+	}
+
+	/**
+	 * Returns a cursor over the mappings of this map, in no particular order. The map must not be modified while the cursor is in use.
+	 *
+	 * @return Cursor positioned before the first mapping
+	 */
+	@NotNull
+	public Cursor cursor()
+	{
+		return new Cursor();
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof IntObjectMap<?> other) || other.size != this.size)
+		{
+			return false;
+		}
+
+		Cursor cursor = this.cursor();
+		while (cursor.advance())
+		{
+			if (!cursor.value().equals(other.get(cursor.key())))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = 0;
+		Cursor cursor = this.cursor();
+		while (cursor.advance())
+		{
+			hash += cursor.key() ^ cursor.value().hashCode();
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder("{");
+		Cursor cursor = this.cursor();
+		while (cursor.advance())
+		{
+			if (builder.length() > 1)
+			{
+				builder.append(", ");
+			}
+
+			builder.append(cursor.key()).append('=').append(cursor.value());
+		}
+
+		return builder.append('}').toString();
+	}
+
+	/**
+	 * Forward-only view of the mappings of an {@link IntObjectMap}, reading keys without boxing or allocating entries.
+	 */
+	public final class Cursor
+	{
+		private int slot = -1;
+		private final int expected = IntObjectMap.this.modifications;
+
+		private Cursor() {}
+
+		/**
+		 * Moves to the next mapping.
+		 *
+		 * @return True if there was another mapping, false once the cursor has passed the last one
+		 * @throws ConcurrentModificationException If the map was modified since this cursor was created
+		 */
+		public boolean advance()
+		{
+			if (this.expected != IntObjectMap.this.modifications)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			Object[] values = IntObjectMap.this.values;
+			while (++this.slot < values.length)
+			{
+				if (values[this.slot] != null)
+				{
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * Returns the key of the current mapping.
+		 *
+		 * @return Current key
+		 */
+		public int key()
+		{
+			this.checkPosition();
+
+			return IntObjectMap.this.keys[this.slot];
+		}
+
+		/**
+		 * Returns the value of the current mapping.
+		 *
+		 * @return Current value
+		 */
+		@NotNull
+		@SuppressWarnings("unchecked")
+		public V value()
+		{
+			this.checkPosition();
+
+			return (V) IntObjectMap.this.values[this.slot];
+		}
+
+		//--------------------------------------------------------------------------------
+		private void checkPosition()
+		{
+			if (this.slot < 0 || this.slot >= IntObjectMap.this.keys.length)
+			{
+				throw new IllegalStateException("Cursor is not positioned on a mapping");
+			}
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private void allocate(
+		int capacity
+	) {
+		this.keys = new int[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.threshold = Hashing.thresholdFor(capacity);
+	}
+
+	private int find(
+		int key
+	) {
+		int slot = Hashing.slot(key, this.mask);
+		while (true)
+		{
+			if (this.values[slot] == null)
+			{
+				return -1;
+			}
+
+			if (this.keys[slot] == key)
+			{
+				return slot;
+			}
+
+			slot = (slot + 1) & this.mask;
+		}
+	}
+
+	/**
+	 * Returns the complement of the slot holding the key, or the free slot the key would go in.
+	 */
+	private int insertionSlot(
+		int key
+	) {
+		int slot = Hashing.slot(key, this.mask);
+		while (true)
+		{
+			if (this.values[slot] == null)
+			{
+				return slot;
+			}
+
+			if (this.keys[slot] == key)
+			{
+				return ~slot;
+			}
+
+			slot = (slot + 1) & this.mask;
+		}
+	}
+
+	private void insert(
+		int slot,
+		int key,
+		V value
+	) {
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		this.size++;
+		this.modifications++;
+
+		if (this.size > this.threshold)
+		{
+			this.rehash(Hashing.grow(this.keys.length));
+		}
+	}
+
+	/**
+	 * Empties a slot, then walks the rest of its probe run moving back every entry that would otherwise become unreachable.
+	 */
+	private void shiftBack(
+		int slot
+	) {
+		int gap = slot;
+		while (true)
+		{
+			slot = (slot + 1) & this.mask;
+			if (this.values[slot] == null)
+			{
+				this.keys[gap] = 0;
+				this.values[gap] = null;
+
+				return;
+			}
+
+			// An entry may only move back if its home slot does not lie between the gap and where it sits now
+			int key = this.keys[slot];
+			int home = Hashing.slot(key, this.mask);
+			if (gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot))
+			{
+				this.keys[gap] = key;
+				this.values[gap] = this.values[slot];
+				gap = slot;
+			}
+		}
+	}
+
+	private void rehash(
+		int capacity
+	) {
+		int[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		this.allocate(capacity);
+
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldValues[i] != null)
+			{
+				int slot = Hashing.slot(oldKeys[i], this.mask);
+				while (this.values[slot] != null)
+				{
+					slot = (slot + 1) & this.mask;
+				}
+
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+			}
+		}
+	}
+}
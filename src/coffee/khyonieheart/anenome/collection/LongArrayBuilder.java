@@ -0,0 +1,179 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Collects an unknown number of longs and produces an exactly sized array. Elements are written into a list of chunks that is never
+ * copied as it grows, so each element is copied exactly once, when the result is built. May hold more elements than fit in a plain
+ * array, in which case the result must be built as a {@link LongBigArray}. Not thread safe.
+ */
+public final class LongArrayBuilder
+{
+	private long[][] chunks = new long[8][];
+	private int chunkCount;
+	private long[] current;
+	private int position;
+	private long size;
+
+	/**
+	 * Appends an element.
+	 *
+	 * @param value Element to append
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public LongArrayBuilder add(
+		long value
+	) {
+		if (this.current == null || this.position == this.current.length)
+		{
+			this.nextChunk();
+		}
+
+		this.current[this.position++] = value;
+		this.size++;
+
+		return this;
+	}
+
+	/**
+	 * Appends every element of an array.
+	 *
+	 * @param values Elements to append
+	 *
+	 * @return This builder
+	 */
+	@NotNull
+	public LongArrayBuilder addAll(
+		@NotNull long[] values
+	) {
+		return this.addAll(values, 0, values.length);
+	}
+
+	/**
+	 * Appends a range of an array.
+	 *
+	 * @param values Source array
+	 * @param offset Index of the first element to append
+	 * @param length Number of elements to append
+	 *
+	 * @return This builder
+	 * @throws IndexOutOfBoundsException If the range lies outside of the array
+	 */
+	@NotNull
+	public LongArrayBuilder addAll(
+		@NotNull long[] values,
+		int offset,
+		int length
+	) {
+		RuntimeConditions.checkFromIndexSize(offset, length, Objects.requireNonNull(values).length);
+
+		while (length > 0)
+		{
+			if (this.current == null || this.position == this.current.length)
+			{
+				this.nextChunk();
+			}
+
+			int run = Math.min(length, this.current.length - this.position);
+			System.arraycopy(values, offset, this.current, this.position, run);
+			this.position += run;
+			this.size += run;
+			offset += run;
+			length -= run;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Returns the number of elements appended so far.
+	 *
+	 * @return Number of elements
+	 */
+	public long size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Copies every element appended so far into an exactly sized array. The builder may keep being used afterwards.
+	 *
+	 * @return Array of every element, in order
+	 * @throws IllegalStateException If there are too many elements for a plain array
+	 */
+	@NotNull
+	public long[] build()
+	{
+		long[] array = new long[Chunks.requireArrayLength(this.size)];
+		int offset = 0;
+		for (int i = 0; i < this.chunkCount; i++)
+		{
+			int length = this.chunkSize(i);
+			System.arraycopy(this.chunks[i], 0, array, offset, length);
+			offset += length;
+		}
+
+		return array;
+	}
+
+	/**
+	 * Copies every element appended so far into an exactly sized big array. The builder may keep being used afterwards.
+	 *
+	 * @return Big array of every element, in order
+	 */
+	@NotNull
+	public LongBigArray buildBig()
+	{
+		LongBigArray array = new LongBigArray(this.size);
+		long offset = 0;
+		for (int i = 0; i < this.chunkCount; i++)
+		{
+			int length = this.chunkSize(i);
+			array.copyFrom(this.chunks[i], 0, offset, length);
+			offset += length;
+		}
+
+		return array;
+	}
+
+	/**
+	 * Discards every element, releasing all chunks.
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(this.chunks, 0, this.chunkCount, null);
+		this.chunkCount = 0;
+		this.current = null;
+		this.position = 0;
+		this.size = 0;
+	}
+
+	//--------------------------------------------------------------------------------
+	private void nextChunk()
+	{
+		if (this.chunkCount == this.chunks.length)
+		{
+			this.chunks = java.util.Arrays.copyOf(this.chunks, this.chunkCount * 2);
+		}
+
+		this.current = new long[Chunks.nextBuilderChunk(this.size)];
+		this.chunks[this.chunkCount++] = this.current;
+		this.position = 0;
+	}
+
+	private int chunkSize(
+		int chunk
+	) {
+		return chunk == this.chunkCount - 1 ? this.position : this.chunks[chunk].length;
+	}
+}
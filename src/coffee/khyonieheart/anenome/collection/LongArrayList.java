@@ -0,0 +1,490 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Positive;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Growable list of longs backed by a single long array, avoiding the boxing and per-element objects of an {@code ArrayList<Long>}. Not
+ * thread safe.
+ */
+public final class LongArrayList implements Iterable<Long>
+{
+	private static final long[] EMPTY = new long[0];
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private long[] data;
+	private int size;
+	private int modifications;
+
+	/**
+	 * Constructs an empty list.
+	 */
+	public LongArrayList()
+	{
+		this.data = EMPTY;
+	}
+
+	/**
+	 * Constructs an empty list with room for the given number of elements.
+	 *
+	 * @param capacity Initial capacity
+	 */
+	public LongArrayList(
+		@Positive int capacity
+	) {
+		this.data = RuntimeConditions.requirePositive(capacity) == 0 ? EMPTY : new long[capacity];
+	}
+
+	/**
+	 * Constructs a list holding a copy of the given values.
+	 *
+	 * @param values Initial values
+	 *
+	 * @return New list
+	 */
+	@NotNull
+	public static LongArrayList of(
+		@NotNull long... values
+	) {
+		LongArrayList list = new LongArrayList(values.length);
+		list.addAll(values);
+
+		return list;
+	}
+
+	/**
+	 * Returns the number of elements.
+	 *
+	 * @return Size of this list
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Returns whether this list holds no elements.
+	 *
+	 * @return True if this list is empty
+	 */
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * Returns the element at the given index.
+	 *
+	 * @param index Index of the element
+	 *
+	 * @return Element at the index
+	 * @throws IndexOutOfBoundsException If index is outside of this list
+	 */
+	public long get(
+		int index
+	) {
+		RuntimeConditions.checkIndex(index, this.size);
+
+		return this.data[index];
+	}
+
+	/**
+	 * Replaces the element at the given index.
+	 *
+	 * @param index Index of the element
+	 * @param value New value
+	 *
+	 * @return Previous value
+	 * @throws IndexOutOfBoundsException If index is outside of this list
+	 */
+	public long set(
+		int index,
+		long value
+	) {
+		RuntimeConditions.checkIndex(index, this.size);
+
+		long previous = this.data[index];
+		this.data[index] = value;
+
+		return previous;
+	}
+
+	/**
+	 * Appends an element.
+	 *
+	 * @param value Element to append
+	 */
+	public void add(
+		long value
+	) {
+		if (this.size == this.data.length)
+		{
+			this.grow(this.size + 1);
+		}
+
+		this.data[this.size++] = value;
+		this.modifications++;
+	}
+
+	/**
+	 * Inserts an element, shifting later elements up by one.
+	 *
+	 * @param index Index to insert at, up to and including the size of this list
+	 * @param value Element to insert
+	 *
+	 * @throws IndexOutOfBoundsException If index is negative or greater than the size of this list
+	 */
+	public void add(
+		int index,
+		long value
+	) {
+		RuntimeConditions.checkIndex(index, this.size + 1);
+
+		if (this.size == this.data.length)
+		{
+			this.grow(this.size + 1);
+		}
+
+		System.arraycopy(this.data, index, this.data, index + 1, this.size - index);
+		this.data[index] = value;
+		this.size++;
+		this.modifications++;
+	}
+
+	/**
+	 * Appends every element of an array with a single copy.
+	 *
+	 * @param values Elements to append
+	 */
+	public void addAll(
+		@NotNull long[] values
+	) {
+		this.addAll(values, 0, values.length);
+	}
+
+	/**
+	 * Appends a range of an array with a single copy.
+	 *
+	 * @param values Source array
+	 * @param offset Index of the first element to append
+	 * @param length Number of elements to append
+	 *
+	 * @throws IndexOutOfBoundsException If the range lies outside of the array
+	 */
+	public void addAll(
+		@NotNull long[] values,
+		int offset,
+		int length
+	) {
+		RuntimeConditions.checkFromIndexSize(offset, length, Objects.requireNonNull(values).length);
+
+		this.ensureCapacity(this.size + length);
+		System.arraycopy(values, offset, this.data, this.size, length);
+		this.size += length;
+		this.modifications++;
+	}
+
+	/**
+	 * Appends every element of another list.
+	 *
+	 * @param other List to append
+	 */
+	public void addAll(
+		@NotNull LongArrayList other
+	) {
+		this.addAll(other.data, 0, other.size);
+	}
+
+	/**
+	 * Removes the element at the given index, shifting later elements down by one.
+	 *
+	 * @param index Index of the element
+	 *
+	 * @return Removed element
+	 * @throws IndexOutOfBoundsException If index is outside of this list
+	 */
+	public long removeAt(
+		int index
+	) {
+		RuntimeConditions.checkIndex(index, this.size);
+
+		long removed = this.data[index];
+		System.arraycopy(this.data, index + 1, this.data, index, this.size - index - 1);
+		this.size--;
+		this.modifications++;
+
+		return removed;
+	}
+
+	/**
+	 * Removes the element at the given index by moving the last element into its place. Constant time, but does not preserve order.
+	 *
+	 * @param index Index of the element
+	 *
+	 * @return Removed element
+	 * @throws IndexOutOfBoundsException If index is outside of this list
+	 */
+	public long swapRemove(
+		int index
+	) {
+		RuntimeConditions.checkIndex(index, this.size);
+
+		long removed = this.data[index];
+		this.data[index] = this.data[--this.size];
+		this.modifications++;
+
+		return removed;
+	}
+
+	/**
+	 * Removes the first occurrence of a value.
+	 *
+	 * @param value Value to remove
+	 *
+	 * @return True if the value was present
+	 */
+	public boolean removeValue(
+		long value
+	) {
+		int index = this.indexOf(value);
+		if (index < 0)
+		{
+			return false;
+		}
+
+		this.removeAt(index);
+
+		return true;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of a value.
+	 *
+	 * @param value Value to find
+	 *
+	 * @return Index of the value, or -1 if it is not present
+	 */
+	public int indexOf(
+		long value
+	) {
+		for (int i = 0; i < this.size; i++)
+		{
+			if (this.data[i] == value)
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns whether this list holds a value.
+	 *
+	 * @param value Value to find
+	 *
+	 * @return True if the value is present
+	 */
+	public boolean contains(
+		long value
+	) {
+		return this.indexOf(value) >= 0;
+	}
+
+	/**
+	 * Removes every element, keeping the current capacity.
+	 */
+	public void clear()
+	{
+		this.size = 0;
+		this.modifications++;
+	}
+
+	/**
+	 * Sorts this list in ascending order.
+	 */
+	public void sort()
+	{
+		java.util.Arrays.sort(this.data, 0, this.size);
+		this.modifications++;
+	}
+
+	/**
+	 * Grows the backing array, if needed, to hold at least the given number of elements.
+	 *
+	 * @param capacity Required capacity
+	 */
+	public void ensureCapacity(
+		int capacity
+	) {
+		if (capacity > this.data.length)
+		{
+			this.grow(capacity);
+		}
+	}
+
+	/**
+	 * Shrinks the backing array to the size of this list.
+	 */
+	public void trimToSize()
+	{
+		if (this.size < this.data.length)
+		{
+			this.data = this.size == 0 ? EMPTY : java.util.Arrays.copyOf(this.data, this.size);
+		}
+	}
+
+	/**
+	 * Copies the elements of this list into a new array.
+	 *
+	 * @return Array of every element, in order
+	 */
+	@NotNull
+	public long[] toArray()
+	{
+		return java.util.Arrays.copyOf(this.data, this.size);
+	}
+
+	/**
+	 * Calls an action for every element, in order.
+	 *
+	 * @param action Action to call
+	 */
+	public void forEachLong(
+		@NotNull LongConsumer action
+	) {
+		Objects.requireNonNull(action);
+
+		int expected = this.modifications;
+		for (int i = 0; i < this.size; i++)
+		{
+			action.accept(this.data[i]);
+		}
+
+		if (expected != this.modifications)
+		{
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Returns a sequential stream over the elements of this list.
+	 *
+	 * @return Stream of elements
+	 */
+	@NotNull
+	public LongStream stream()
+	{
+		return java.util.Arrays.stream(this.data, 0, this.size);
+	}
+
+	/**
+	 * Returns an iterator over the elements of this list that does not box them when used through {@link PrimitiveIterator.OfLong#nextLong()}.
+	 *
+	 * @return Primitive iterator
+	 */
+	@Override
+	@NotNull
+	public PrimitiveIterator.OfLong iterator()
+	{
+		return new PrimitiveIterator.OfLong()
+		{
+			private int index;
+			private final int expected = LongArrayList.this.modifications;
+
+			@Override
+			public boolean hasNext()
+			{
+				return this.index < LongArrayList.this.size;
+			}
+
+			@Override
+			public long nextLong()
+			{
+				if (this.expected != LongArrayList.this.modifications)
+				{
+					throw new ConcurrentModificationException();
+				}
+
+				if (this.index >= LongArrayList.this.size)
+				{
+					throw new NoSuchElementException();
+				}
+
+				return LongArrayList.this.data[this.index++];
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof LongArrayList other))
+		{
+			return false;
+		}
+
+		return java.util.Arrays.equals(this.data, 0, this.size, other.data, 0, other.size);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = 1;
+		for (int i = 0; i < this.size; i++)
+		{
+			hash = 31 * hash + Long.hashCode(this.data[i]);
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(this.size * 4 + 2).append('[');
+		for (int i = 0; i < this.size; i++)
+		{
+			if (i > 0)
+			{
+				builder.append(", ");
+			}
+
+			builder.append(this.data[i]);
+		}
+
+		return builder.append(']').toString();
+	}
+
+	//--------------------------------------------------------------------------------
+	private void grow(
+		int required
+	) {
+		if (required < 0 || required > MAX_CAPACITY)
+		{
+			throw new IllegalStateException("List can not hold more than " + MAX_CAPACITY + " elements");
+		}
+
+		int capacity = (int) Math.min(MAX_CAPACITY, Math.max(required, Math.max(10, (long) this.data.length + (this.data.length >> 1))));
+		this.data = java.util.Arrays.copyOf(this.data, capacity);
+	}
+}
@@ -0,0 +1,24 @@
+package coffee.khyonieheart.anenome.exception;
+
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.codec.Codec;
+
+/**
+ * Thrown when a {@link Codec} reads malformed input, such as an unknown tag, an overlong varint or a length that runs past the end of the
+ * buffer.
+ */
+public class CodecException extends RuntimeException
+{
+	/**
+	 * Constructs this exception with a message.
+	 *
+	 * @param message
+	 */
+	public CodecException(
+		@NotNull String message
+	) {
+		super(Objects.requireNonNull(message));
+	}
+}
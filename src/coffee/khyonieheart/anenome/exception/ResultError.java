@@ -0,0 +1,44 @@
+package coffee.khyonieheart.anenome.exception;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.operation.Result;
+
+/**
+ * Lightweight error value for {@link Result}s. A result error never captures a stack trace and does not record suppressed exceptions,
+ * so constructing one costs no more than an ordinary object.
+ * <p>
+ * Because a result error carries no per-throw state, an instance for a failure that happens often may be allocated once and shared:
+ * <pre>{@code
+ * private static final ResultError EMPTY_INPUT = new ResultError("Input is empty");
+ * ...
+ * return Result.error(EMPTY_INPUT);
+ * }</pre>
+ * Shared instances should be given their cause at construction, if at all, since {@link #initCause(Throwable)} would affect every user.
+ */
+public class ResultError extends RuntimeException
+{
+	/**
+	 * Constructs this error with a message.
+	 *
+	 * @param message Description of the error
+	 */
+	public ResultError(
+		@NotNull String message
+	) {
+		super(message, null, false, false);
+	}
+
+	/**
+	 * Constructs this error with a message and a cause.
+	 *
+	 * @param message Description of the error
+	 * @param cause Underlying cause
+	 */
+	public ResultError(
+		@NotNull String message,
+		@Nullable Throwable cause
+	) {
+		super(message, cause, false, false);
+	}
+}
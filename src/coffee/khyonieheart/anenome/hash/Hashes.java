@@ -0,0 +1,167 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.hash;
+
+import java.nio.ByteBuffer;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.Positive;
+import coffee.khyonieheart.anenome.tuple.DoubleTuple;
+
+/**
+ * 64-bit hashing helpers built on {@link XxHash64}: mixing of single values, order-dependent combination of several hashes, hashing of
+ * tuples and arbitrary keys, and mapping a hash onto a number of shards.
+ */
+public final class Hashes
+{
+	private static final long NULL_HASH = XxHash64.avalanche(XxHash64.P5);
+
+	private Hashes() {}
+
+	/**
+	 * Scrambles a value so that every input bit affects every output bit. Useful for spreading sequential ids or weak
+	 * {@link Object#hashCode()} values. This is a bijection, so distinct inputs always give distinct outputs.
+	 *
+	 * @param value Value to scramble
+	 *
+	 * @return Mixed value
+	 */
+	public static long mix(
+		long value
+	) {
+		return XxHash64.avalanche(value * XxHash64.P1 + XxHash64.P4);
+	}
+
+	/**
+	 * Combines two hashes into one. The order matters: {@code combine(a, b)} and {@code combine(b, a)} differ.
+	 *
+	 * @param first Hash of the first component
+	 * @param second Hash of the second component
+	 *
+	 * @return Combined hash
+	 */
+	public static long combine(
+		long first,
+		long second
+	) {
+		return XxHash64.avalanche(XxHash64.merge(XxHash64.round(first, XxHash64.P5), second));
+	}
+
+	/**
+	 * Combines any number of hashes into one, in order.
+	 *
+	 * @param hashes Hashes of each component
+	 *
+	 * @return Combined hash
+	 */
+	public static long combine(
+		@NotNull long... hashes
+	) {
+		long hash = XxHash64.P5 + hashes.length;
+		for (long component : hashes)
+		{
+			hash = XxHash64.merge(XxHash64.round(hash, XxHash64.P5), component);
+		}
+
+		return XxHash64.avalanche(hash);
+	}
+
+	/**
+	 * Hashes a tuple from the hashes of both of its elements, as given by {@link #hash(Object)}.
+	 *
+	 * @param tuple Tuple to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull DoubleTuple<?, ?> tuple
+	) {
+		return combine(hash(tuple.a()), hash(tuple.b()));
+	}
+
+	/**
+	 * Hashes an arbitrary value. Character sequences, byte, int and long arrays, byte buffers and tuples are hashed by content with
+	 * {@link XxHash64}; boxed integers and doubles by value, so that {@code 1}, {@code 1L} and {@code (short) 1} hash alike; anything else
+	 * by mixing its {@link Object#hashCode()}.
+	 *
+	 * @param value Value to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@Nullable Object value
+	) {
+		if (value == null)
+		{
+			return NULL_HASH;
+		}
+
+		if (value instanceof CharSequence text)
+		{
+			return XxHash64.hash(text);
+		}
+
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			return mix(((Number) value).longValue());
+		}
+
+		if (value instanceof Double number)
+		{
+			return mix(Double.doubleToLongBits(number));
+		}
+
+		if (value instanceof byte[] bytes)
+		{
+			return XxHash64.hash(bytes);
+		}
+
+		if (value instanceof int[] ints)
+		{
+			return XxHash64.hash(ints);
+		}
+
+		if (value instanceof long[] longs)
+		{
+			return XxHash64.hash(longs);
+		}
+
+		if (value instanceof ByteBuffer buffer)
+		{
+			return XxHash64.hash(buffer);
+		}
+
+		if (value instanceof DoubleTuple<?, ?> tuple)
+		{
+			return hash(tuple);
+		}
+
+		return mix(value.hashCode());
+	}
+
+	/**
+	 * Maps a hash onto one of a number of shards, from its upper bits. This is a multiply and shift rather than a modulo, and unlike
+	 * {@code hash % shards} it stays evenly balanced when the shard count is not a power of two.
+	 *
+	 * @param hash Well-mixed 64-bit hash
+	 * @param shards Number of shards
+	 *
+	 * @return Shard index, from 0 inclusive to shards exclusive
+	 * @throws IllegalArgumentException If shards is less than 1
+	 */
+	public static int shard(
+		long hash,
+		@Positive int shards
+	) {
+		if (shards < 1)
+		{
+			throw new IllegalArgumentException("Shard count must be at least 1; received " + shards);
+		}
+
+		return (int) (((hash >>> 32) * shards) >>> 32);
+	}
+}
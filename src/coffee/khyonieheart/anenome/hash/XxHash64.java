@@ -0,0 +1,901 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.hash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * The xxHash64 algorithm, a fast non-cryptographic 64-bit hash with good distribution. Output matches the reference implementation for the
+ * same bytes and seed.
+ * <p>
+ * Arrays of ints and longs hash as their little-endian bytes. Character sequences hash as one byte per character when every character
+ * fits in Latin-1, which is both the common case and twice as fast, and otherwise as UTF-16LE. Either way, equal sequences always produce
+ * equal hashes. A {@link Hasher} produces the same hash for the same content fed in pieces.
+ */
+public final class XxHash64
+{
+	static final long P1 = 0x9E3779B185EBCA87L;
+	static final long P2 = 0xC2B2AE3D27D4EB4FL;
+	static final long P3 = 0x165667B19E3779F9L;
+	static final long P4 = 0x85EBCA77C2B2AE63L;
+	static final long P5 = 0x27D4EB2F165667C5L;
+
+	private static final VarHandle ARRAY_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle ARRAY_INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle BUFFER_LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle BUFFER_INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private XxHash64() {}
+
+	/**
+	 * Hashes a byte array with seed 0.
+	 *
+	 * @param data Bytes to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull byte[] data
+	) {
+		return hash(data, 0, data.length, 0);
+	}
+
+	/**
+	 * Hashes a range of a byte array.
+	 *
+	 * @param data Bytes to hash
+	 * @param offset Index of the first byte
+	 * @param length Number of bytes
+	 * @param seed Seed, giving an independent hash function for each value
+	 *
+	 * @return 64-bit hash
+	 * @throws IndexOutOfBoundsException If the range lies outside of the array
+	 */
+	public static long hash(
+		@NotNull byte[] data,
+		int offset,
+		int length,
+		long seed
+	) {
+		RuntimeConditions.checkFromIndexSize(offset, length, Objects.requireNonNull(data).length);
+
+		int end = offset + length;
+		long hash;
+		if (length >= 32)
+		{
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			int limit = end - 32;
+			do
+			{
+				v1 = round(v1, (long) ARRAY_LONG.get(data, offset));
+				v2 = round(v2, (long) ARRAY_LONG.get(data, offset + 8));
+				v3 = round(v3, (long) ARRAY_LONG.get(data, offset + 16));
+				v4 = round(v4, (long) ARRAY_LONG.get(data, offset + 24));
+				offset += 32;
+			}
+			while (offset <= limit);
+
+			hash = converge(v1, v2, v3, v4);
+		}
+		else
+		{
+			hash = seed + P5;
+		}
+
+		hash += length;
+		for (; offset + 8 <= end; offset += 8)
+		{
+			hash = mixLong(hash, (long) ARRAY_LONG.get(data, offset));
+		}
+
+		if (offset + 4 <= end)
+		{
+			hash = mixInt(hash, (int) ARRAY_INT.get(data, offset));
+			offset += 4;
+		}
+
+		for (; offset < end; offset++)
+		{
+			hash = mixByte(hash, data[offset]);
+		}
+
+		return avalanche(hash);
+	}
+
+	/**
+	 * Hashes the remaining bytes of a buffer, from its position to its limit, with seed 0. The buffer's position is not changed.
+	 *
+	 * @param buffer Bytes to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull ByteBuffer buffer
+	) {
+		return hash(buffer, 0);
+	}
+
+	/**
+	 * Hashes the remaining bytes of a buffer, from its position to its limit. The buffer's position is not changed, and its byte order
+	 * does not affect the result.
+	 *
+	 * @param buffer Bytes to hash
+	 * @param seed Seed, giving an independent hash function for each value
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull ByteBuffer buffer,
+		long seed
+	) {
+		if (Objects.requireNonNull(buffer).hasArray())
+		{
+			return hash(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), seed);
+		}
+
+		int offset = buffer.position();
+		int end = buffer.limit();
+		int length = end - offset;
+		long hash;
+		if (length >= 32)
+		{
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			int limit = end - 32;
+			do
+			{
+				v1 = round(v1, (long) BUFFER_LONG.get(buffer, offset));
+				v2 = round(v2, (long) BUFFER_LONG.get(buffer, offset + 8));
+				v3 = round(v3, (long) BUFFER_LONG.get(buffer, offset + 16));
+				v4 = round(v4, (long) BUFFER_LONG.get(buffer, offset + 24));
+				offset += 32;
+			}
+			while (offset <= limit);
+
+			hash = converge(v1, v2, v3, v4);
+		}
+		else
+		{
+			hash = seed + P5;
+		}
+
+		hash += length;
+		for (; offset + 8 <= end; offset += 8)
+		{
+			hash = mixLong(hash, (long) BUFFER_LONG.get(buffer, offset));
+		}
+
+		if (offset + 4 <= end)
+		{
+			hash = mixInt(hash, (int) BUFFER_INT.get(buffer, offset));
+			offset += 4;
+		}
+
+		for (; offset < end; offset++)
+		{
+			hash = mixByte(hash, buffer.get(offset));
+		}
+
+		return avalanche(hash);
+	}
+
+	/**
+	 * Hashes a character sequence with seed 0.
+	 *
+	 * @param text Characters to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull CharSequence text
+	) {
+		return hash(text, 0);
+	}
+
+	/**
+	 * Hashes a character sequence, as its Latin-1 bytes if every character fits in Latin-1 and as UTF-16LE otherwise.
+	 *
+	 * @param text Characters to hash
+	 * @param seed Seed, giving an independent hash function for each value
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull CharSequence text,
+		long seed
+	) {
+		// Bulk encoding a Latin-1 string is a plain array copy, far cheaper than packing lanes one character at a time
+		if (Objects.requireNonNull(text) instanceof String string)
+		{
+			if (!isLatin1(string))
+			{
+				return hashUtf16(string, seed);
+			}
+
+			byte[] bytes = string.getBytes(StandardCharsets.ISO_8859_1);
+
+			return hash(bytes, 0, bytes.length, seed);
+		}
+
+		int length = text.length();
+		for (int i = 0; i < length; i++)
+		{
+			if (text.charAt(i) > 0xFF)
+			{
+				return hashUtf16(text, seed);
+			}
+		}
+
+		int offset = 0;
+		long hash;
+		if (length >= 32)
+		{
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			int limit = length - 32;
+			do
+			{
+				v1 = round(v1, latin1(text, offset, 8));
+				v2 = round(v2, latin1(text, offset + 8, 8));
+				v3 = round(v3, latin1(text, offset + 16, 8));
+				v4 = round(v4, latin1(text, offset + 24, 8));
+				offset += 32;
+			}
+			while (offset <= limit);
+
+			hash = converge(v1, v2, v3, v4);
+		}
+		else
+		{
+			hash = seed + P5;
+		}
+
+		hash += length;
+		for (; offset + 8 <= length; offset += 8)
+		{
+			hash = mixLong(hash, latin1(text, offset, 8));
+		}
+
+		if (offset + 4 <= length)
+		{
+			hash = mixInt(hash, (int) latin1(text, offset, 4));
+			offset += 4;
+		}
+
+		for (; offset < length; offset++)
+		{
+			hash = mixByte(hash, (byte) text.charAt(offset));
+		}
+
+		return avalanche(hash);
+	}
+
+	/**
+	 * Hashes an array of longs as their little-endian bytes, with seed 0.
+	 *
+	 * @param data Values to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull long[] data
+	) {
+		return hash(data, 0);
+	}
+
+	/**
+	 * Hashes an array of longs as their little-endian bytes.
+	 *
+	 * @param data Values to hash
+	 * @param seed Seed, giving an independent hash function for each value
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull long[] data,
+		long seed
+	) {
+		int length = Objects.requireNonNull(data).length;
+		int index = 0;
+		long hash;
+		if (length >= 4)
+		{
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			for (; index + 4 <= length; index += 4)
+			{
+				v1 = round(v1, data[index]);
+				v2 = round(v2, data[index + 1]);
+				v3 = round(v3, data[index + 2]);
+				v4 = round(v4, data[index + 3]);
+			}
+
+			hash = converge(v1, v2, v3, v4);
+		}
+		else
+		{
+			hash = seed + P5;
+		}
+
+		hash += (long) length * Long.BYTES;
+		for (; index < length; index++)
+		{
+			hash = mixLong(hash, data[index]);
+		}
+
+		return avalanche(hash);
+	}
+
+	/**
+	 * Hashes an array of ints as their little-endian bytes, with seed 0.
+	 *
+	 * @param data Values to hash
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull int[] data
+	) {
+		return hash(data, 0);
+	}
+
+	/**
+	 * Hashes an array of ints as their little-endian bytes.
+	 *
+	 * @param data Values to hash
+	 * @param seed Seed, giving an independent hash function for each value
+	 *
+	 * @return 64-bit hash
+	 */
+	public static long hash(
+		@NotNull int[] data,
+		long seed
+	) {
+		int length = Objects.requireNonNull(data).length;
+		int index = 0;
+		long hash;
+		if (length >= 8)
+		{
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			for (; index + 8 <= length; index += 8)
+			{
+				v1 = round(v1, pair(data, index));
+				v2 = round(v2, pair(data, index + 2));
+				v3 = round(v3, pair(data, index + 4));
+				v4 = round(v4, pair(data, index + 6));
+			}
+
+			hash = converge(v1, v2, v3, v4);
+		}
+		else
+		{
+			hash = seed + P5;
+		}
+
+		hash += (long) length * Integer.BYTES;
+		for (; index + 2 <= length; index += 2)
+		{
+			hash = mixLong(hash, pair(data, index));
+		}
+
+		if (index < length)
+		{
+			hash = mixInt(hash, data[index]);
+		}
+
+		return avalanche(hash);
+	}
+
+	/**
+	 * Starts an incremental hash with seed 0.
+	 *
+	 * @return New hasher
+	 */
+	@NotNull
+	public static Hasher newHasher()
+	{
+		return new Hasher(0);
+	}
+
+	/**
+	 * Starts an incremental hash.
+	 *
+	 * @param seed Seed, giving an independent hash function for each value
+	 *
+	 * @return New hasher
+	 */
+	@NotNull
+	public static Hasher newHasher(
+		long seed
+	) {
+		return new Hasher(seed);
+	}
+
+	/**
+	 * Incremental xxHash64. Content may be fed in any number of pieces; the digest equals the one-shot hash of all pieces concatenated, so
+	 * for example {@code putLong(a).putLong(b)} hashes the same as {@link XxHash64#hash(long[])} of {@code {a, b}}. Not thread safe.
+	 */
+	public static final class Hasher
+	{
+		private final long seed;
+		private final byte[] buffer = new byte[32];
+		private int buffered;
+		private long total;
+		private long v1;
+		private long v2;
+		private long v3;
+		private long v4;
+
+		private Hasher(
+			long seed
+		) {
+			this.seed = seed;
+			this.reset();
+		}
+
+		/**
+		 * Adds a range of a byte array.
+		 *
+		 * @param data Bytes to add
+		 * @param offset Index of the first byte
+		 * @param length Number of bytes
+		 *
+		 * @return This hasher
+		 * @throws IndexOutOfBoundsException If the range lies outside of the array
+		 */
+		@NotNull
+		public Hasher update(
+			@NotNull byte[] data,
+			int offset,
+			int length
+		) {
+			RuntimeConditions.checkFromIndexSize(offset, length, Objects.requireNonNull(data).length);
+
+			this.total += length;
+			if (this.buffered > 0)
+			{
+				int take = Math.min(length, 32 - this.buffered);
+				System.arraycopy(data, offset, this.buffer, this.buffered, take);
+				this.buffered += take;
+				offset += take;
+				length -= take;
+				if (this.buffered < 32)
+				{
+					return this;
+				}
+
+				this.stripe(this.buffer, 0);
+				this.buffered = 0;
+			}
+
+			for (; length >= 32; offset += 32, length -= 32)
+			{
+				this.stripe(data, offset);
+			}
+
+			System.arraycopy(data, offset, this.buffer, 0, length);
+			this.buffered = length;
+
+			return this;
+		}
+
+		/**
+		 * Adds a whole byte array.
+		 *
+		 * @param data Bytes to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher update(
+			@NotNull byte[] data
+		) {
+			return this.update(data, 0, data.length);
+		}
+
+		/**
+		 * Adds the remaining bytes of a buffer, consuming them.
+		 *
+		 * @param data Bytes to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher update(
+			@NotNull ByteBuffer data
+		) {
+			if (data.hasArray())
+			{
+				this.update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+				data.position(data.limit());
+
+				return this;
+			}
+
+			byte[] chunk = new byte[Math.min(data.remaining(), 8192)];
+			while (data.hasRemaining())
+			{
+				int length = Math.min(chunk.length, data.remaining());
+				data.get(chunk, 0, length);
+				this.update(chunk, 0, length);
+			}
+
+			return this;
+		}
+
+		/**
+		 * Adds one byte.
+		 *
+		 * @param value Byte to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher putByte(
+			byte value
+		) {
+			this.total++;
+			this.buffer[this.buffered++] = value;
+			if (this.buffered == 32)
+			{
+				this.stripe(this.buffer, 0);
+				this.buffered = 0;
+			}
+
+			return this;
+		}
+
+		/**
+		 * Adds an int as four little-endian bytes.
+		 *
+		 * @param value Int to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher putInt(
+			int value
+		) {
+			if (this.buffered <= 28)
+			{
+				ARRAY_INT.set(this.buffer, this.buffered, value);
+				this.buffered += 4;
+				this.total += 4;
+				if (this.buffered == 32)
+				{
+					this.stripe(this.buffer, 0);
+					this.buffered = 0;
+				}
+
+				return this;
+			}
+
+			for (int i = 0; i < 4; i++)
+			{
+				this.putByte((byte) (value >>> (i * 8)));
+			}
+
+			return this;
+		}
+
+		/**
+		 * Adds a long as eight little-endian bytes.
+		 *
+		 * @param value Long to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher putLong(
+			long value
+		) {
+			if (this.buffered <= 24)
+			{
+				ARRAY_LONG.set(this.buffer, this.buffered, value);
+				this.buffered += 8;
+				this.total += 8;
+				if (this.buffered == 32)
+				{
+					this.stripe(this.buffer, 0);
+					this.buffered = 0;
+				}
+
+				return this;
+			}
+
+			for (int i = 0; i < 8; i++)
+			{
+				this.putByte((byte) (value >>> (i * 8)));
+			}
+
+			return this;
+		}
+
+		/**
+		 * Adds a double as the eight little-endian bytes of {@link Double#doubleToLongBits(double)}.
+		 *
+		 * @param value Double to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher putDouble(
+			double value
+		) {
+			return this.putLong(Double.doubleToLongBits(value));
+		}
+
+		/**
+		 * Adds a character sequence, encoded the same way as {@link XxHash64#hash(CharSequence)}: one byte per character if all fit in
+		 * Latin-1, otherwise UTF-16LE. Sequences are not delimited, so separate adjacent strings with their lengths where ambiguity
+		 * matters.
+		 *
+		 * @param text Characters to add
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher putString(
+			@NotNull CharSequence text
+		) {
+			int length = text.length();
+			boolean latin1 = true;
+			for (int i = 0; i < length && latin1; i++)
+			{
+				latin1 = text.charAt(i) <= 0xFF;
+			}
+
+			for (int i = 0; i < length; i++)
+			{
+				char c = text.charAt(i);
+				this.putByte((byte) c);
+				if (!latin1)
+				{
+					this.putByte((byte) (c >>> 8));
+				}
+			}
+
+			return this;
+		}
+
+		/**
+		 * Returns the hash of everything added so far. The hasher may keep being updated afterwards.
+		 *
+		 * @return 64-bit hash
+		 */
+		public long digest()
+		{
+			long hash = this.total >= 32 ? converge(this.v1, this.v2, this.v3, this.v4) : this.seed + P5;
+			hash += this.total;
+
+			int offset = 0;
+			for (; offset + 8 <= this.buffered; offset += 8)
+			{
+				hash = mixLong(hash, (long) ARRAY_LONG.get(this.buffer, offset));
+			}
+
+			if (offset + 4 <= this.buffered)
+			{
+				hash = mixInt(hash, (int) ARRAY_INT.get(this.buffer, offset));
+				offset += 4;
+			}
+
+			for (; offset < this.buffered; offset++)
+			{
+				hash = mixByte(hash, this.buffer[offset]);
+			}
+
+			return avalanche(hash);
+		}
+
+		/**
+		 * Discards everything added so far.
+		 *
+		 * @return This hasher
+		 */
+		@NotNull
+		public Hasher reset()
+		{
+			this.v1 = this.seed + P1 + P2;
+			this.v2 = this.seed + P2;
+			this.v3 = this.seed;
+			this.v4 = this.seed - P1;
+			this.buffered = 0;
+			this.total = 0;
+
+			return this;
+		}
+
+		//--------------------------------------------------------------------------------
+		private void stripe(
+			byte[] data,
+			int offset
+		) {
+			this.v1 = round(this.v1, (long) ARRAY_LONG.get(data, offset));
+			this.v2 = round(this.v2, (long) ARRAY_LONG.get(data, offset + 8));
+			this.v3 = round(this.v3, (long) ARRAY_LONG.get(data, offset + 16));
+			this.v4 = round(this.v4, (long) ARRAY_LONG.get(data, offset + 24));
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	static long round(
+		long accumulator,
+		long input
+	) {
+		return Long.rotateLeft(accumulator + input * P2, 31) * P1;
+	}
+
+	static long avalanche(
+		long hash
+	) {
+		hash ^= hash >>> 33;
+		hash *= P2;
+		hash ^= hash >>> 29;
+		hash *= P3;
+
+		return hash ^ hash >>> 32;
+	}
+
+	private static long converge(
+		long v1,
+		long v2,
+		long v3,
+		long v4
+	) {
+		long hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+		hash = merge(hash, v1);
+		hash = merge(hash, v2);
+		hash = merge(hash, v3);
+
+		return merge(hash, v4);
+	}
+
+	static long merge(
+		long hash,
+		long value
+	) {
+		return (hash ^ round(0, value)) * P1 + P4;
+	}
+
+	private static long mixLong(
+		long hash,
+		long lane
+	) {
+		return Long.rotateLeft(hash ^ round(0, lane), 27) * P1 + P4;
+	}
+
+	private static long mixInt(
+		long hash,
+		int lane
+	) {
+		return Long.rotateLeft(hash ^ (lane & 0xFFFFFFFFL) * P1, 23) * P2 + P3;
+	}
+
+	private static long mixByte(
+		long hash,
+		byte lane
+	) {
+		return Long.rotateLeft(hash ^ (lane & 0xFFL) * P5, 11) * P1;
+	}
+
+	private static boolean isLatin1(
+		String text
+	) {
+		int wide = 0;
+		for (int i = 0; i < text.length(); i++)
+		{
+			wide |= text.charAt(i);
+		}
+
+		return wide <= 0xFF;
+	}
+
+	/**
+	 * Packs up to eight Latin-1 characters into a little-endian long, one byte each.
+	 */
+	private static long latin1(
+		CharSequence text,
+		int offset,
+		int count
+	) {
+		long lane = 0;
+		for (int i = count - 1; i >= 0; i--)
+		{
+			lane = lane << 8 | text.charAt(offset + i) & 0xFF;
+		}
+
+		return lane;
+	}
+
+	private static long pair(
+		int[] data,
+		int index
+	) {
+		return (data[index] & 0xFFFFFFFFL) | (long) data[index + 1] << 32;
+	}
+
+	/**
+	 * Hashes a sequence containing characters beyond Latin-1 as its UTF-16LE bytes, four characters to a lane.
+	 */
+	private static long hashUtf16(
+		CharSequence text,
+		long seed
+	) {
+		int chars = text.length();
+		long length = (long) chars * 2;
+		int offset = 0;
+		long hash;
+		if (chars >= 16)
+		{
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			for (; offset + 16 <= chars; offset += 16)
+			{
+				v1 = round(v1, utf16(text, offset));
+				v2 = round(v2, utf16(text, offset + 4));
+				v3 = round(v3, utf16(text, offset + 8));
+				v4 = round(v4, utf16(text, offset + 12));
+			}
+
+			hash = converge(v1, v2, v3, v4);
+		}
+		else
+		{
+			hash = seed + P5;
+		}
+
+		hash += length;
+		for (; offset + 4 <= chars; offset += 4)
+		{
+			hash = mixLong(hash, utf16(text, offset));
+		}
+
+		if (offset + 2 <= chars)
+		{
+			hash = mixInt(hash, text.charAt(offset) | text.charAt(offset + 1) << 16);
+			offset += 2;
+		}
+
+		if (offset < chars)
+		{
+			char c = text.charAt(offset);
+			hash = mixByte(hash, (byte) c);
+			hash = mixByte(hash, (byte) (c >>> 8));
+		}
+
+		return avalanche(hash);
+	}
+
+	private static long utf16(
+		CharSequence text,
+		int offset
+	) {
+		return text.charAt(offset) | (long) text.charAt(offset + 1) << 16 | (long) text.charAt(offset + 2) << 32 | (long) text.charAt(offset + 3) << 48;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * Flight Recorder event for a filesystem operation in {@code Folders}. Only operations exceeding the configured threshold (1 millisecond
+ * by default) are recorded.
+ */
+@Name("coffee.khyonieheart.anenome.Folder")
+@Label("Folder Operation")
+@Description("A filesystem operation performed by Folders")
+@Category({ "Anenome", "Filesystem" })
+@Threshold("1 ms")
+@StackTrace(true)
+public final class FolderEvent extends jdk.jfr.Event
+{
+	private static final FolderEvent PROBE = new FolderEvent();
+
+	@Label("Path")
+	private String path;
+
+	@Label("Operation")
+	private String operation;
+
+	@Label("Created")
+	@Description("Whether the folder had to be created")
+	private boolean created;
+
+	private FolderEvent() {}
+
+	/**
+	 * Begins timing a filesystem operation.
+	 *
+	 * @return A started event, or null if this event is not being recorded
+	 */
+	@Nullable
+	public static FolderEvent start()
+	{
+		if (!PROBE.isEnabled())
+		{
+			return null;
+		}
+
+		FolderEvent event = new FolderEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * Ends timing and commits this event if it exceeded the threshold.
+	 *
+	 * @param path Absolute path operated on
+	 * @param operation Name of the operation
+	 * @param created Whether the folder had to be created
+	 */
+	public void finish(
+		String path,
+		String operation,
+		boolean created
+	) {
+		this.end();
+
+		if (this.shouldCommit())
+		{
+			this.path = path;
+			this.operation = operation;
+			this.created = created;
+			this.commit();
+		}
+	}
+}
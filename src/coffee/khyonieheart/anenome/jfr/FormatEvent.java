@@ -0,0 +1,83 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * Flight Recorder event for a call to {@code Strings.format}. Only calls exceeding the configured threshold (20 microseconds by
+ * default) are recorded.
+ */
+@Name("coffee.khyonieheart.anenome.Format")
+@Label("String Format")
+@Description("A call to Strings.format")
+@Category({ "Anenome", "Strings" })
+@Threshold("20 us")
+@StackTrace(true)
+public final class FormatEvent extends jdk.jfr.Event
+{
+	private static final FormatEvent PROBE = new FormatEvent();
+
+	@Label("Template")
+	private String template;
+
+	@Label("Argument Count")
+	private int argumentCount;
+
+	@Label("Output Length")
+	private int outputLength;
+
+	private FormatEvent() {}
+
+	/**
+	 * Begins timing a format call.
+	 *
+	 * @return A started event, or null if this event is not being recorded
+	 */
+	@Nullable
+	public static FormatEvent start()
+	{
+		if (!PROBE.isEnabled())
+		{
+			return null;
+		}
+
+		FormatEvent event = new FormatEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * Ends timing and commits this event if it exceeded the threshold.
+	 *
+	 * @param template Format string
+	 * @param argumentCount Number of arguments given
+	 * @param outputLength Length of the formatted string
+	 */
+	public void finish(
+		String template,
+		int argumentCount,
+		int outputLength
+	) {
+		this.end();
+
+		if (this.shouldCommit())
+		{
+			this.template = template;
+			this.argumentCount = argumentCount;
+			this.outputLength = outputLength;
+			this.commit();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * Flight Recorder event for a string distance computation. Only computations exceeding the configured threshold (100 microseconds by
+ * default) are recorded.
+ */
+@Name("coffee.khyonieheart.anenome.Levenshtein")
+@Label("Levenshtein Distance")
+@Description("A string edit distance computation")
+@Category({ "Anenome", "Strings" })
+@Threshold("100 us")
+@StackTrace(true)
+public final class LevenshteinEvent extends jdk.jfr.Event
+{
+	private static final LevenshteinEvent PROBE = new LevenshteinEvent();
+
+	@Label("Length A")
+	private int lengthA;
+
+	@Label("Length B")
+	private int lengthB;
+
+	@Label("Distance")
+	private int distance;
+
+	private LevenshteinEvent() {}
+
+	/**
+	 * Begins timing a distance computation.
+	 *
+	 * @return A started event, or null if this event is not being recorded
+	 */
+	@Nullable
+	public static LevenshteinEvent start()
+	{
+		if (!PROBE.isEnabled())
+		{
+			return null;
+		}
+
+		LevenshteinEvent event = new LevenshteinEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * Ends timing and commits this event if it exceeded the threshold.
+	 *
+	 * @param lengthA Length of the first string
+	 * @param lengthB Length of the second string
+	 * @param distance Computed distance
+	 */
+	public void finish(
+		int lengthA,
+		int lengthB,
+		int distance
+	) {
+		this.end();
+
+		if (this.shouldCommit())
+		{
+			this.lengthA = lengthA;
+			this.lengthB = lengthB;
+			this.distance = distance;
+			this.commit();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a failed check in {@code RuntimeConditions}, {@code ObjectValidator} or {@code Validator}. Failures are
+ * instantaneous, so this event has no threshold; it may be throttled by disabling it in the recording settings.
+ */
+@Name("coffee.khyonieheart.anenome.ValidationFailure")
+@Label("Validation Failure")
+@Description("A failed runtime condition or validation rule")
+@Category({ "Anenome", "Validation" })
+@StackTrace(true)
+public final class ValidationFailureEvent extends jdk.jfr.Event
+{
+	private static final ValidationFailureEvent PROBE = new ValidationFailureEvent();
+
+	@Label("Source")
+	@Description("Class that performed the check")
+	private String source;
+
+	@Label("Message")
+	private String message;
+
+	private ValidationFailureEvent() {}
+
+	/**
+	 * Records a validation failure if this event is being recorded.
+	 *
+	 * @param source Class that performed the check
+	 * @param message Description of the failure
+	 */
+	public static void emit(
+		String source,
+		String message
+	) {
+		if (!PROBE.isEnabled())
+		{
+			return;
+		}
+
+		ValidationFailureEvent event = new ValidationFailureEvent();
+		if (event.shouldCommit())
+		{
+			event.source = source;
+			event.message = message;
+			event.commit();
+		}
+	}
+}
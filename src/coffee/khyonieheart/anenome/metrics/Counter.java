@@ -0,0 +1,74 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * A named, monotonically increasing count. Backed by a {@link LongAdder}, so increments from many threads do not contend.
+ */
+public final class Counter
+{
+	private final String name;
+	private final LongAdder count = new LongAdder();
+
+	Counter(
+		@NotNull String name
+	) {
+		this.name = Objects.requireNonNull(name);
+	}
+
+	/**
+	 * Returns the name of this counter.
+	 *
+	 * @return Counter name
+	 */
+	@NotNull
+	public String name()
+	{
+		return this.name;
+	}
+
+	/**
+	 * Increments this counter by one.
+	 */
+	public void increment()
+	{
+		this.count.increment();
+	}
+
+	/**
+	 * Increments this counter by the given amount.
+	 *
+	 * @param amount Amount to add
+	 */
+	public void add(
+		long amount
+	) {
+		this.count.add(amount);
+	}
+
+	/**
+	 * Returns the current count.
+	 *
+	 * @return Current count
+	 */
+	public long count()
+	{
+		return this.count.sum();
+	}
+
+	/**
+	 * Resets this counter to zero.
+	 */
+	public void reset()
+	{
+		this.count.reset();
+	}
+}
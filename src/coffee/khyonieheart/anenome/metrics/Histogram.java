@@ -0,0 +1,110 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * A named distribution of non-negative values, typically latencies in nanoseconds. Values are counted in power-of-two buckets, so
+ * recording is a handful of instructions and a histogram has a fixed size regardless of how many values it has seen. Percentiles are
+ * accurate to within a factor of two.
+ */
+public final class Histogram
+{
+	static final int BUCKETS = 64;
+
+	private final String name;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+	Histogram(
+		@NotNull String name
+	) {
+		this.name = Objects.requireNonNull(name);
+
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Returns the name of this histogram.
+	 *
+	 * @return Histogram name
+	 */
+	@NotNull
+	public String name()
+	{
+		return this.name;
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as zero.
+	 *
+	 * @param value Value to record
+	 */
+	public void record(
+		long value
+	) {
+		value = Math.max(0, value);
+
+		// Bucket i holds values in [2^(i-1), 2^i), with bucket 0 holding only zero
+		this.buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))].increment();
+		this.count.increment();
+		this.sum.add(value);
+	}
+
+	/**
+	 * Records the time elapsed since the given start time, as returned by {@link Metrics#startTimer()}. Does nothing if the timer was
+	 * started while metrics were disabled.
+	 *
+	 * @param start Start time in nanoseconds, or 0 if metrics were disabled
+	 */
+	public void stopTimer(
+		long start
+	) {
+		if (start != 0)
+		{
+			this.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Takes a point-in-time copy of this histogram. Values recorded concurrently may or may not be included.
+	 *
+	 * @return Snapshot of this histogram
+	 */
+	@NotNull
+	public HistogramSnapshot snapshot()
+	{
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = this.buckets[i].sum();
+		}
+
+		return new HistogramSnapshot(this.name, this.count.sum(), this.sum.sum(), counts);
+	}
+
+	/**
+	 * Removes every recorded value.
+	 */
+	public void reset()
+	{
+		for (LongAdder bucket : this.buckets)
+		{
+			bucket.reset();
+		}
+
+		this.count.reset();
+		this.sum.reset();
+	}
+}
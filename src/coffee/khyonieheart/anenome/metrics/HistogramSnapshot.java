@@ -0,0 +1,130 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.metrics;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Immutable copy of a {@link Histogram} at a point in time.
+ */
+public final class HistogramSnapshot
+{
+	private final String name;
+	private final long count;
+	private final long sum;
+	private final long[] buckets;
+
+	HistogramSnapshot(
+		String name,
+		long count,
+		long sum,
+		long[] buckets
+	) {
+		this.name = name;
+		this.count = count;
+		this.sum = sum;
+		this.buckets = buckets;
+	}
+
+	/**
+	 * Returns the name of the histogram this snapshot was taken from.
+	 *
+	 * @return Histogram name
+	 */
+	@NotNull
+	public String name()
+	{
+		return this.name;
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 *
+	 * @return Value count
+	 */
+	public long count()
+	{
+		return this.count;
+	}
+
+	/**
+	 * Returns the sum of every value recorded.
+	 *
+	 * @return Value sum
+	 */
+	public long sum()
+	{
+		return this.sum;
+	}
+
+	/**
+	 * Returns the mean of every value recorded.
+	 *
+	 * @return Mean value, or 0 if no values were recorded
+	 */
+	public double mean()
+	{
+		return this.count == 0 ? 0 : (double) this.sum / this.count;
+	}
+
+	/**
+	 * Returns an upper bound for the given percentile. The true percentile lies between half the returned value and the returned value.
+	 *
+	 * @param percentile Percentile between 0 and 100
+	 *
+	 * @return Upper bound of the bucket containing the percentile, or 0 if no values were recorded
+	 * @throws IllegalArgumentException If percentile is outside of 0 to 100
+	 */
+	public long percentile(
+		double percentile
+	) {
+		RuntimeConditions.requireRange(percentile, 0, 100);
+
+		long total = 0;
+		for (long bucket : this.buckets)
+		{
+			total += bucket;
+		}
+
+		if (total == 0)
+		{
+			return 0;
+		}
+
+		long target = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < this.buckets.length; i++)
+		{
+			seen += this.buckets[i];
+			if (seen >= target && this.buckets[i] != 0)
+			{
+				return i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+			}
+		}
+
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the number of values in the given bucket. Bucket 0 holds zero, and bucket i holds values in {@code [2^(i-1), 2^i)}.
+	 *
+	 * @param bucket Bucket index, between 0 and 63
+	 *
+	 * @return Number of values in the bucket
+	 */
+	public long bucket(
+		int bucket
+	) {
+		return this.buckets[RuntimeConditions.checkIndex(bucket, this.buckets.length)];
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.name + "{count=" + this.count + ", mean=" + this.mean() + ", p50<=" + this.percentile(50) + ", p99<=" + this.percentile(99) + "}";
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Optional instrumentation for the library's hot paths. Metrics are disabled by default; while disabled, every hook reduces to a single
+ * read of a volatile flag.
+ * <p>
+ * Built in metrics:
+ * <ul>
+ * <li>{@code strings.format} - Latency of {@code Strings.format}, in nanoseconds</li>
+ * <li>{@code strings.levenshtein} - Latency of {@code Strings.levenshtein}, in nanoseconds</li>
+ * <li>{@code arrays.map} - Latency of {@code Arrays.map}, in nanoseconds</li>
+ * <li>{@code validation.failures} - Number of failed {@code ObjectValidator} and {@code Validator} checks</li>
+ * </ul>
+ * Applications may register their own counters and histograms with {@link #counter(String)} and {@link #histogram(String)}.
+ */
+public class Metrics
+{
+	private static final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+	private static volatile boolean enabled = false;
+
+	public static final Histogram FORMAT = histogram("strings.format");
+	public static final Histogram LEVENSHTEIN = histogram("strings.levenshtein");
+	public static final Histogram ARRAYS_MAP = histogram("arrays.map");
+	public static final Counter VALIDATION_FAILURES = counter("validation.failures");
+
+	/**
+	 * Returns whether library hooks currently record metrics.
+	 *
+	 * @return True if enabled
+	 */
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Switches library hooks on or off. Takes effect immediately for all threads.
+	 *
+	 * @param enabled True to record metrics
+	 */
+	public static void setEnabled(
+		boolean enabled
+	) {
+		Metrics.enabled = enabled;
+	}
+
+	/**
+	 * Starts a timer for use with {@link Histogram#stopTimer(long)}.
+	 *
+	 * @return Current value of {@link System#nanoTime()}, or 0 if metrics are disabled
+	 */
+	public static long startTimer()
+	{
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Hook for failed validations. Does nothing while metrics are disabled.
+	 */
+	public static void recordValidationFailure()
+	{
+		if (enabled)
+		{
+			VALIDATION_FAILURES.increment();
+		}
+	}
+
+	/**
+	 * Returns the counter with the given name, creating it if it does not exist.
+	 *
+	 * @param name Counter name
+	 *
+	 * @return Counter
+	 */
+	@NotNull
+	public static Counter counter(
+		@NotNull String name
+	) {
+		return counters.computeIfAbsent(Objects.requireNonNull(name), Counter::new);
+	}
+
+	/**
+	 * Returns the histogram with the given name, creating it if it does not exist.
+	 *
+	 * @param name Histogram name
+	 *
+	 * @return Histogram
+	 */
+	@NotNull
+	public static Histogram histogram(
+		@NotNull String name
+	) {
+		return histograms.computeIfAbsent(Objects.requireNonNull(name), Histogram::new);
+	}
+
+	/**
+	 * Takes a point-in-time copy of every counter and histogram.
+	 *
+	 * @return Snapshot of all metrics
+	 */
+	@NotNull
+	public static MetricsSnapshot snapshot()
+	{
+		Map<String, Long> counterCounts = new TreeMap<>();
+		counters.forEach((name, counter) -> counterCounts.put(name, counter.count()));
+
+		Map<String, HistogramSnapshot> histogramSnapshots = new TreeMap<>();
+		histograms.forEach((name, histogram) -> histogramSnapshots.put(name, histogram.snapshot()));
+
+		return new MetricsSnapshot(System.currentTimeMillis(), counterCounts, histogramSnapshots);
+	}
+
+	/**
+	 * Resets every counter and histogram.
+	 */
+	public static void reset()
+	{
+		counters.values().forEach(Counter::reset);
+		histograms.values().forEach(Histogram::reset);
+	}
+
+	/**
+	 * Registers a {@link MetricsMXBean} with the platform MBean server, under {@code coffee.khyonieheart.anenome:type=Metrics}. Calling
+	 * this more than once has no further effect.
+	 *
+	 * @throws IllegalStateException If the MBean could not be registered
+	 */
+	public static void registerMBean()
+	{
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			server.registerMBean(new MXBeanImpl(), new ObjectName("coffee.khyonieheart.anenome:type=Metrics"));
+		} catch (InstanceAlreadyExistsException e) {
+			// Already registered
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register metrics MBean", e);
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private static class MXBeanImpl implements MetricsMXBean
+	{
+		@Override
+		public boolean isEnabled()
+		{
+			return Metrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(
+			boolean enabled
+		) {
+			Metrics.setEnabled(enabled);
+		}
+
+		@Override
+		public Map<String, Long> getCounters()
+		{
+			return snapshot().counters();
+		}
+
+		@Override
+		public Map<String, Long> getHistogramCounts()
+		{
+			return mapHistograms(HistogramSnapshot::count);
+		}
+
+		@Override
+		public Map<String, Double> getHistogramMeans()
+		{
+			Map<String, Double> values = new TreeMap<>();
+			snapshot().histograms().forEach((name, histogram) -> values.put(name, histogram.mean()));
+
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getHistogramP50()
+		{
+			return mapHistograms(histogram -> histogram.percentile(50));
+		}
+
+		@Override
+		public Map<String, Long> getHistogramP99()
+		{
+			return mapHistograms(histogram -> histogram.percentile(99));
+		}
+
+		@Override
+		public void reset()
+		{
+			Metrics.reset();
+		}
+
+		private static Map<String, Long> mapHistograms(
+			ToLongFunction<HistogramSnapshot> mapper
+		) {
+			Map<String, Long> values = new TreeMap<>();
+			snapshot().histograms().forEach((name, histogram) -> values.put(name, mapper.applyAsLong(histogram)));
+
+			return values;
+		}
+	}
+}
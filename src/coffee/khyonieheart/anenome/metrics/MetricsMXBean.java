@@ -0,0 +1,32 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link Metrics}, registered through {@link Metrics#registerMBean()}. Every attribute is computed from a fresh snapshot.
+ */
+public interface MetricsMXBean
+{
+	public boolean isEnabled();
+
+	public void setEnabled(
+		boolean enabled
+	);
+
+	public Map<String, Long> getCounters();
+
+	public Map<String, Long> getHistogramCounts();
+
+	public Map<String, Double> getHistogramMeans();
+
+	public Map<String, Long> getHistogramP50();
+
+	public Map<String, Long> getHistogramP99();
+
+	public void reset();
+}
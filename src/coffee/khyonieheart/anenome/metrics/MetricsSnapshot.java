@@ -0,0 +1,69 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Immutable copy of every registered {@link Counter} and {@link Histogram} at a point in time.
+ */
+public final class MetricsSnapshot
+{
+	private final long timestamp;
+	private final Map<String, Long> counters;
+	private final Map<String, HistogramSnapshot> histograms;
+
+	MetricsSnapshot(
+		long timestamp,
+		Map<String, Long> counters,
+		Map<String, HistogramSnapshot> histograms
+	) {
+		this.timestamp = timestamp;
+		this.counters = Collections.unmodifiableMap(counters);
+		this.histograms = Collections.unmodifiableMap(histograms);
+	}
+
+	/**
+	 * Returns the time this snapshot was taken.
+	 *
+	 * @return Milliseconds since the epoch
+	 */
+	public long timestamp()
+	{
+		return this.timestamp;
+	}
+
+	/**
+	 * Returns the count of every counter, keyed by name.
+	 *
+	 * @return Unmodifiable map of counter counts
+	 */
+	@NotNull
+	public Map<String, Long> counters()
+	{
+		return this.counters;
+	}
+
+	/**
+	 * Returns a snapshot of every histogram, keyed by name.
+	 *
+	 * @return Unmodifiable map of histogram snapshots
+	 */
+	@NotNull
+	public Map<String, HistogramSnapshot> histograms()
+	{
+		return this.histograms;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "MetricsSnapshot{counters=" + this.counters + ", histograms=" + this.histograms.values() + "}";
+	}
+}
@@ -0,0 +1,296 @@
+package coffee.khyonieheart.anenome.operation;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * An optional {@code double} value. Unlike {@code Option<Double>}, the value is never boxed, and every empty option is the same shared
+ * instance.
+ */
+public final class DoubleOption
+{
+	private static final DoubleOption NONE = new DoubleOption(false, 0);
+
+	private final boolean present;
+	private final double value;
+
+	private DoubleOption(
+		boolean present,
+		double value
+	) {
+		this.present = present;
+		this.value = value;
+	}
+
+	@NotNull
+	public static DoubleOption some(
+		double value
+	) {
+		return new DoubleOption(true, value);
+	}
+
+	@NotNull
+	public static DoubleOption none()
+	{
+		return NONE;
+	}
+
+	@NotNull
+	public static DoubleOption from(
+		@NotNull OptionalDouble optional
+	) {
+		Objects.requireNonNull(optional);
+
+		if (optional.isPresent())
+		{
+			return some(optional.getAsDouble());
+		}
+
+		return NONE;
+	}
+
+	public double unwrap()
+	{
+		if (!this.present)
+		{
+			throw new IllegalStateException("Attempted to unwrap a None value");
+		}
+
+		return this.value;
+	}
+
+	public double unwrapOr(
+		double defaultValue
+	) {
+		if (this.present)
+		{
+			return this.value;
+		}
+
+		return defaultValue;
+	}
+
+	public double unwrapOrElse(
+		@NotNull DoubleSupplier supplier
+	) {
+		Objects.requireNonNull(supplier);
+
+		if (this.present)
+		{
+			return this.value;
+		}
+
+		return supplier.getAsDouble();
+	}
+
+	public boolean isSome()
+	{
+		return this.present;
+	}
+
+	public boolean isSomeAnd(
+		@NotNull DoublePredicate predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (!this.present)
+		{
+			return false;
+		}
+
+		return predicate.test(this.value);
+	}
+
+	public boolean isNone()
+	{
+		return !this.present;
+	}
+
+	@NotNull
+	public DoubleOption map(
+		@NotNull DoubleUnaryOperator mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return some(mapper.applyAsDouble(this.value));
+		}
+
+		return NONE;
+	}
+
+	@NotNull
+	public IntOption mapToInt(
+		@NotNull DoubleToIntFunction mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return IntOption.some(mapper.applyAsInt(this.value));
+		}
+
+		return IntOption.none();
+	}
+
+	@NotNull
+	public LongOption mapToLong(
+		@NotNull DoubleToLongFunction mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return LongOption.some(mapper.applyAsLong(this.value));
+		}
+
+		return LongOption.none();
+	}
+
+	@NotNull
+	public <U> Option<U> mapToObj(
+		@NotNull DoubleFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return Option.some(mapper.apply(this.value));
+		}
+
+		return Option.none();
+	}
+
+	@Nullable
+	public <U> U mapOr(
+		@Nullable U defaultValue,
+		@NotNull DoubleFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return mapper.apply(this.value);
+		}
+
+		return defaultValue;
+	}
+
+	@Nullable
+	public <U> U mapOrElse(
+		@NotNull DoubleFunction<U> someMapper,
+		@NotNull Supplier<U> noneSupplier
+	) {
+		if (this.present)
+		{
+			return someMapper.apply(this.value);
+		}
+
+		return noneSupplier.get();
+	}
+
+	public void ifSome(
+		@NotNull DoubleConsumer consumer
+	) {
+		Objects.requireNonNull(consumer);
+
+		if (this.present)
+		{
+			consumer.accept(this.value);
+		}
+	}
+
+	@NotNull
+	public <E> DoubleResult<E> okOr(
+		@Nullable E error
+	) {
+		if (this.present)
+		{
+			return DoubleResult.ok(this.value);
+		}
+
+		return DoubleResult.error(error);
+	}
+
+	@NotNull
+	public <E> DoubleResult<E> okOrElse(
+		@NotNull Supplier<E> errorSupplier
+	) {
+		Objects.requireNonNull(errorSupplier);
+
+		if (this.present)
+		{
+			return DoubleResult.ok(this.value);
+		}
+
+		return DoubleResult.error(errorSupplier.get());
+	}
+
+	/**
+	 * Converts this option into a generic option, boxing the value.
+	 *
+	 * @return Equivalent generic option
+	 */
+	@NotNull
+	public Option<Double> boxed()
+	{
+		if (this.present)
+		{
+			return Option.some(this.value);
+		}
+
+		return Option.none();
+	}
+
+	@NotNull
+	public OptionalDouble toOptional()
+	{
+		if (this.present)
+		{
+			return OptionalDouble.of(this.value);
+		}
+
+		return OptionalDouble.empty();
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof DoubleOption other))
+		{
+			return false;
+		}
+
+		return this.present == other.present && Double.compare(this.value, other.value) == 0;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.present ? Double.hashCode(this.value) : -1;
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.present ? "Some(" + this.value + ")" : "None";
+	}
+}
@@ -0,0 +1,262 @@
+package coffee.khyonieheart.anenome.operation;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * Result of an operation that either succeeds with a {@code double} value or fails with an error. Unlike {@code Result<Double, E>}, a
+ * successful value is never boxed.
+ *
+ * @param <E> Type of error
+ */
+public final class DoubleResult<E>
+{
+	private final boolean ok;
+	private final double value;
+	private final E error;
+
+	private DoubleResult(
+		boolean ok,
+		double value,
+		E error
+	) {
+		this.ok = ok;
+		this.value = value;
+		this.error = error;
+	}
+
+	@NotNull
+	public static <E> DoubleResult<E> ok(
+		double value
+	) {
+		return new DoubleResult<>(true, value, null);
+	}
+
+	@NotNull
+	public static <E> DoubleResult<E> error(
+		@Nullable E error
+	) {
+		return new DoubleResult<>(false, 0, error);
+	}
+
+	public double unwrap()
+	{
+		if (!this.ok)
+		{
+			throw new IllegalStateException("Attempted to unwrap a value from an Error");
+		}
+
+		return this.value;
+	}
+
+	@Nullable
+	public E unwrapError()
+	{
+		if (this.ok)
+		{
+			throw new IllegalStateException("Attempted to unwrap an Error from an Ok value");
+		}
+
+		return this.error;
+	}
+
+	public double unwrapOr(
+		double defaultValue
+	) {
+		if (this.ok)
+		{
+			return this.value;
+		}
+
+		return defaultValue;
+	}
+
+	public double unwrapOrElse(
+		@NotNull DoubleSupplier defaultValue
+	) {
+		Objects.requireNonNull(defaultValue);
+
+		if (this.ok)
+		{
+			return this.value;
+		}
+
+		return defaultValue.getAsDouble();
+	}
+
+	public boolean isOk()
+	{
+		return this.ok;
+	}
+
+	public boolean isOkAnd(
+		@NotNull DoublePredicate predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (!this.ok)
+		{
+			return false;
+		}
+
+		return predicate.test(this.value);
+	}
+
+	public boolean isError()
+	{
+		return !this.ok;
+	}
+
+	public boolean isErrorAnd(
+		@NotNull Predicate<E> predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (this.ok)
+		{
+			return false;
+		}
+
+		return predicate.test(this.error);
+	}
+
+	@NotNull
+	public DoubleOption ok()
+	{
+		if (this.ok)
+		{
+			return DoubleOption.some(this.value);
+		}
+
+		return DoubleOption.none();
+	}
+
+	@NotNull
+	public Option<E> error()
+	{
+		if (this.ok)
+		{
+			return Option.none();
+		}
+
+		return Option.some(this.error);
+	}
+
+	@NotNull
+	public DoubleResult<E> map(
+		@NotNull DoubleUnaryOperator mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return new DoubleResult<>(true, mapper.applyAsDouble(this.value), null);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public <U> Result<U, E> mapToObj(
+		@NotNull DoubleFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return Result.ok(mapper.apply(this.value));
+		}
+
+		return Result.error(this.error);
+	}
+
+	@NotNull
+	public <F> DoubleResult<F> mapError(
+		@NotNull Function<E, F> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return new DoubleResult<>(true, this.value, null);
+		}
+
+		return new DoubleResult<>(false, 0, mapper.apply(this.error));
+	}
+
+	@Nullable
+	public <U> U mapOrElse(
+		@NotNull DoubleFunction<U> okMapper,
+		@NotNull Function<E, U> errorMapper
+	) {
+		Objects.requireNonNull(okMapper);
+		Objects.requireNonNull(errorMapper);
+
+		if (this.ok)
+		{
+			return okMapper.apply(this.value);
+		}
+
+		return errorMapper.apply(this.error);
+	}
+
+	@NotNull
+	public DoubleResult<E> inspect(
+		@NotNull DoubleConsumer inspector
+	) {
+		Objects.requireNonNull(inspector);
+
+		if (this.ok)
+		{
+			inspector.accept(this.value);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public DoubleResult<E> inspectError(
+		@NotNull Consumer<E> inspector
+	) {
+		Objects.requireNonNull(inspector);
+
+		if (!this.ok)
+		{
+			inspector.accept(this.error);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Converts this result into a generic result, boxing the value.
+	 *
+	 * @return Equivalent generic result
+	 */
+	@NotNull
+	public Result<Double, E> boxed()
+	{
+		if (this.ok)
+		{
+			return Result.ok(this.value);
+		}
+
+		return Result.error(this.error);
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.ok ? "Ok(" + this.value + ")" : "Error(" + this.error + ")";
+	}
+}
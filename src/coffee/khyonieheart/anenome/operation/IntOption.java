@@ -0,0 +1,312 @@
+package coffee.khyonieheart.anenome.operation;
+
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * An optional {@code int} value. Unlike {@code Option<Integer>}, the value is never boxed, and every empty option is the same shared
+ * instance. Values between -128 and 127 are cached.
+ */
+public final class IntOption
+{
+	private static final IntOption NONE = new IntOption(false, 0);
+
+	// Small values are shared like Integer.valueOf, so the most common lookups never allocate
+	private static final IntOption[] CACHE = new IntOption[256];
+
+	static
+	{
+		for (int i = 0; i < CACHE.length; i++)
+		{
+			CACHE[i] = new IntOption(true, i - 128);
+		}
+	}
+
+	private final boolean present;
+	private final int value;
+
+	private IntOption(
+		boolean present,
+		int value
+	) {
+		this.present = present;
+		this.value = value;
+	}
+
+	@NotNull
+	public static IntOption some(
+		int value
+	) {
+		if (value >= -128 && value <= 127)
+		{
+			return CACHE[value + 128];
+		}
+
+		return new IntOption(true, value);
+	}
+
+	@NotNull
+	public static IntOption none()
+	{
+		return NONE;
+	}
+
+	@NotNull
+	public static IntOption from(
+		@NotNull OptionalInt optional
+	) {
+		Objects.requireNonNull(optional);
+
+		if (optional.isPresent())
+		{
+			return some(optional.getAsInt());
+		}
+
+		return NONE;
+	}
+
+	public int unwrap()
+	{
+		if (!this.present)
+		{
+			throw new IllegalStateException("Attempted to unwrap a None value");
+		}
+
+		return this.value;
+	}
+
+	public int unwrapOr(
+		int defaultValue
+	) {
+		if (this.present)
+		{
+			return this.value;
+		}
+
+		return defaultValue;
+	}
+
+	public int unwrapOrElse(
+		@NotNull IntSupplier supplier
+	) {
+		Objects.requireNonNull(supplier);
+
+		if (this.present)
+		{
+			return this.value;
+		}
+
+		return supplier.getAsInt();
+	}
+
+	public boolean isSome()
+	{
+		return this.present;
+	}
+
+	public boolean isSomeAnd(
+		@NotNull IntPredicate predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (!this.present)
+		{
+			return false;
+		}
+
+		return predicate.test(this.value);
+	}
+
+	public boolean isNone()
+	{
+		return !this.present;
+	}
+
+	@NotNull
+	public IntOption map(
+		@NotNull IntUnaryOperator mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return some(mapper.applyAsInt(this.value));
+		}
+
+		return NONE;
+	}
+
+	@NotNull
+	public LongOption mapToLong(
+		@NotNull IntToLongFunction mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return LongOption.some(mapper.applyAsLong(this.value));
+		}
+
+		return LongOption.none();
+	}
+
+	@NotNull
+	public DoubleOption mapToDouble(
+		@NotNull IntToDoubleFunction mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return DoubleOption.some(mapper.applyAsDouble(this.value));
+		}
+
+		return DoubleOption.none();
+	}
+
+	@NotNull
+	public <U> Option<U> mapToObj(
+		@NotNull IntFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return Option.some(mapper.apply(this.value));
+		}
+
+		return Option.none();
+	}
+
+	@Nullable
+	public <U> U mapOr(
+		@Nullable U defaultValue,
+		@NotNull IntFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return mapper.apply(this.value);
+		}
+
+		return defaultValue;
+	}
+
+	@Nullable
+	public <U> U mapOrElse(
+		@NotNull IntFunction<U> someMapper,
+		@NotNull Supplier<U> noneSupplier
+	) {
+		if (this.present)
+		{
+			return someMapper.apply(this.value);
+		}
+
+		return noneSupplier.get();
+	}
+
+	public void ifSome(
+		@NotNull IntConsumer consumer
+	) {
+		Objects.requireNonNull(consumer);
+
+		if (this.present)
+		{
+			consumer.accept(this.value);
+		}
+	}
+
+	@NotNull
+	public <E> IntResult<E> okOr(
+		@Nullable E error
+	) {
+		if (this.present)
+		{
+			return IntResult.ok(this.value);
+		}
+
+		return IntResult.error(error);
+	}
+
+	@NotNull
+	public <E> IntResult<E> okOrElse(
+		@NotNull Supplier<E> errorSupplier
+	) {
+		Objects.requireNonNull(errorSupplier);
+
+		if (this.present)
+		{
+			return IntResult.ok(this.value);
+		}
+
+		return IntResult.error(errorSupplier.get());
+	}
+
+	/**
+	 * Converts this option into a generic option, boxing the value.
+	 *
+	 * @return Equivalent generic option
+	 */
+	@NotNull
+	public Option<Integer> boxed()
+	{
+		if (this.present)
+		{
+			return Option.some(this.value);
+		}
+
+		return Option.none();
+	}
+
+	@NotNull
+	public OptionalInt toOptional()
+	{
+		if (this.present)
+		{
+			return OptionalInt.of(this.value);
+		}
+
+		return OptionalInt.empty();
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof IntOption other))
+		{
+			return false;
+		}
+
+		return this.present == other.present && this.value == other.value;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.present ? Integer.hashCode(this.value) : -1;
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.present ? "Some(" + this.value + ")" : "None";
+	}
+}
@@ -0,0 +1,262 @@
+package coffee.khyonieheart.anenome.operation;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * Result of an operation that either succeeds with a {@code int} value or fails with an error. Unlike {@code Result<Integer, E>}, a
+ * successful value is never boxed.
+ *
+ * @param <E> Type of error
+ */
+public final class IntResult<E>
+{
+	private final boolean ok;
+	private final int value;
+	private final E error;
+
+	private IntResult(
+		boolean ok,
+		int value,
+		E error
+	) {
+		this.ok = ok;
+		this.value = value;
+		this.error = error;
+	}
+
+	@NotNull
+	public static <E> IntResult<E> ok(
+		int value
+	) {
+		return new IntResult<>(true, value, null);
+	}
+
+	@NotNull
+	public static <E> IntResult<E> error(
+		@Nullable E error
+	) {
+		return new IntResult<>(false, 0, error);
+	}
+
+	public int unwrap()
+	{
+		if (!this.ok)
+		{
+			throw new IllegalStateException("Attempted to unwrap a value from an Error");
+		}
+
+		return this.value;
+	}
+
+	@Nullable
+	public E unwrapError()
+	{
+		if (this.ok)
+		{
+			throw new IllegalStateException("Attempted to unwrap an Error from an Ok value");
+		}
+
+		return this.error;
+	}
+
+	public int unwrapOr(
+		int defaultValue
+	) {
+		if (this.ok)
+		{
+			return this.value;
+		}
+
+		return defaultValue;
+	}
+
+	public int unwrapOrElse(
+		@NotNull IntSupplier defaultValue
+	) {
+		Objects.requireNonNull(defaultValue);
+
+		if (this.ok)
+		{
+			return this.value;
+		}
+
+		return defaultValue.getAsInt();
+	}
+
+	public boolean isOk()
+	{
+		return this.ok;
+	}
+
+	public boolean isOkAnd(
+		@NotNull IntPredicate predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (!this.ok)
+		{
+			return false;
+		}
+
+		return predicate.test(this.value);
+	}
+
+	public boolean isError()
+	{
+		return !this.ok;
+	}
+
+	public boolean isErrorAnd(
+		@NotNull Predicate<E> predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (this.ok)
+		{
+			return false;
+		}
+
+		return predicate.test(this.error);
+	}
+
+	@NotNull
+	public IntOption ok()
+	{
+		if (this.ok)
+		{
+			return IntOption.some(this.value);
+		}
+
+		return IntOption.none();
+	}
+
+	@NotNull
+	public Option<E> error()
+	{
+		if (this.ok)
+		{
+			return Option.none();
+		}
+
+		return Option.some(this.error);
+	}
+
+	@NotNull
+	public IntResult<E> map(
+		@NotNull IntUnaryOperator mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return new IntResult<>(true, mapper.applyAsInt(this.value), null);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public <U> Result<U, E> mapToObj(
+		@NotNull IntFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return Result.ok(mapper.apply(this.value));
+		}
+
+		return Result.error(this.error);
+	}
+
+	@NotNull
+	public <F> IntResult<F> mapError(
+		@NotNull Function<E, F> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return new IntResult<>(true, this.value, null);
+		}
+
+		return new IntResult<>(false, 0, mapper.apply(this.error));
+	}
+
+	@Nullable
+	public <U> U mapOrElse(
+		@NotNull IntFunction<U> okMapper,
+		@NotNull Function<E, U> errorMapper
+	) {
+		Objects.requireNonNull(okMapper);
+		Objects.requireNonNull(errorMapper);
+
+		if (this.ok)
+		{
+			return okMapper.apply(this.value);
+		}
+
+		return errorMapper.apply(this.error);
+	}
+
+	@NotNull
+	public IntResult<E> inspect(
+		@NotNull IntConsumer inspector
+	) {
+		Objects.requireNonNull(inspector);
+
+		if (this.ok)
+		{
+			inspector.accept(this.value);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public IntResult<E> inspectError(
+		@NotNull Consumer<E> inspector
+	) {
+		Objects.requireNonNull(inspector);
+
+		if (!this.ok)
+		{
+			inspector.accept(this.error);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Converts this result into a generic result, boxing the value.
+	 *
+	 * @return Equivalent generic result
+	 */
+	@NotNull
+	public Result<Integer, E> boxed()
+	{
+		if (this.ok)
+		{
+			return Result.ok(this.value);
+		}
+
+		return Result.error(this.error);
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.ok ? "Ok(" + this.value + ")" : "Error(" + this.error + ")";
+	}
+}
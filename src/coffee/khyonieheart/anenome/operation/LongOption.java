@@ -0,0 +1,312 @@
+package coffee.khyonieheart.anenome.operation;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * An optional {@code long} value. Unlike {@code Option<Long>}, the value is never boxed, and every empty option is the same shared
+ * instance. Values between -128 and 127 are cached.
+ */
+public final class LongOption
+{
+	private static final LongOption NONE = new LongOption(false, 0);
+
+	// Small values are shared like Integer.valueOf, so the most common lookups never allocate
+	private static final LongOption[] CACHE = new LongOption[256];
+
+	static
+	{
+		for (int i = 0; i < CACHE.length; i++)
+		{
+			CACHE[i] = new LongOption(true, i - 128);
+		}
+	}
+
+	private final boolean present;
+	private final long value;
+
+	private LongOption(
+		boolean present,
+		long value
+	) {
+		this.present = present;
+		this.value = value;
+	}
+
+	@NotNull
+	public static LongOption some(
+		long value
+	) {
+		if (value >= -128 && value <= 127)
+		{
+			return CACHE[(int) value + 128];
+		}
+
+		return new LongOption(true, value);
+	}
+
+	@NotNull
+	public static LongOption none()
+	{
+		return NONE;
+	}
+
+	@NotNull
+	public static LongOption from(
+		@NotNull OptionalLong optional
+	) {
+		Objects.requireNonNull(optional);
+
+		if (optional.isPresent())
+		{
+			return some(optional.getAsLong());
+		}
+
+		return NONE;
+	}
+
+	public long unwrap()
+	{
+		if (!this.present)
+		{
+			throw new IllegalStateException("Attempted to unwrap a None value");
+		}
+
+		return this.value;
+	}
+
+	public long unwrapOr(
+		long defaultValue
+	) {
+		if (this.present)
+		{
+			return this.value;
+		}
+
+		return defaultValue;
+	}
+
+	public long unwrapOrElse(
+		@NotNull LongSupplier supplier
+	) {
+		Objects.requireNonNull(supplier);
+
+		if (this.present)
+		{
+			return this.value;
+		}
+
+		return supplier.getAsLong();
+	}
+
+	public boolean isSome()
+	{
+		return this.present;
+	}
+
+	public boolean isSomeAnd(
+		@NotNull LongPredicate predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (!this.present)
+		{
+			return false;
+		}
+
+		return predicate.test(this.value);
+	}
+
+	public boolean isNone()
+	{
+		return !this.present;
+	}
+
+	@NotNull
+	public LongOption map(
+		@NotNull LongUnaryOperator mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return some(mapper.applyAsLong(this.value));
+		}
+
+		return NONE;
+	}
+
+	@NotNull
+	public IntOption mapToInt(
+		@NotNull LongToIntFunction mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return IntOption.some(mapper.applyAsInt(this.value));
+		}
+
+		return IntOption.none();
+	}
+
+	@NotNull
+	public DoubleOption mapToDouble(
+		@NotNull LongToDoubleFunction mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return DoubleOption.some(mapper.applyAsDouble(this.value));
+		}
+
+		return DoubleOption.none();
+	}
+
+	@NotNull
+	public <U> Option<U> mapToObj(
+		@NotNull LongFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return Option.some(mapper.apply(this.value));
+		}
+
+		return Option.none();
+	}
+
+	@Nullable
+	public <U> U mapOr(
+		@Nullable U defaultValue,
+		@NotNull LongFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.present)
+		{
+			return mapper.apply(this.value);
+		}
+
+		return defaultValue;
+	}
+
+	@Nullable
+	public <U> U mapOrElse(
+		@NotNull LongFunction<U> someMapper,
+		@NotNull Supplier<U> noneSupplier
+	) {
+		if (this.present)
+		{
+			return someMapper.apply(this.value);
+		}
+
+		return noneSupplier.get();
+	}
+
+	public void ifSome(
+		@NotNull LongConsumer consumer
+	) {
+		Objects.requireNonNull(consumer);
+
+		if (this.present)
+		{
+			consumer.accept(this.value);
+		}
+	}
+
+	@NotNull
+	public <E> LongResult<E> okOr(
+		@Nullable E error
+	) {
+		if (this.present)
+		{
+			return LongResult.ok(this.value);
+		}
+
+		return LongResult.error(error);
+	}
+
+	@NotNull
+	public <E> LongResult<E> okOrElse(
+		@NotNull Supplier<E> errorSupplier
+	) {
+		Objects.requireNonNull(errorSupplier);
+
+		if (this.present)
+		{
+			return LongResult.ok(this.value);
+		}
+
+		return LongResult.error(errorSupplier.get());
+	}
+
+	/**
+	 * Converts this option into a generic option, boxing the value.
+	 *
+	 * @return Equivalent generic option
+	 */
+	@NotNull
+	public Option<Long> boxed()
+	{
+		if (this.present)
+		{
+			return Option.some(this.value);
+		}
+
+		return Option.none();
+	}
+
+	@NotNull
+	public OptionalLong toOptional()
+	{
+		if (this.present)
+		{
+			return OptionalLong.of(this.value);
+		}
+
+		return OptionalLong.empty();
+	}
+
+	@Override
+	public boolean equals(
+		Object object
+	) {
+		if (this == object)
+		{
+			return true;
+		}
+
+		if (!(object instanceof LongOption other))
+		{
+			return false;
+		}
+
+		return this.present == other.present && this.value == other.value;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.present ? Long.hashCode(this.value) : -1;
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.present ? "Some(" + this.value + ")" : "None";
+	}
+}
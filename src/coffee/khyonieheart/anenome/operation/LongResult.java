@@ -0,0 +1,262 @@
+package coffee.khyonieheart.anenome.operation;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+
+/**
+ * Result of an operation that either succeeds with a {@code long} value or fails with an error. Unlike {@code Result<Long, E>}, a
+ * successful value is never boxed.
+ *
+ * @param <E> Type of error
+ */
+public final class LongResult<E>
+{
+	private final boolean ok;
+	private final long value;
+	private final E error;
+
+	private LongResult(
+		boolean ok,
+		long value,
+		E error
+	) {
+		this.ok = ok;
+		this.value = value;
+		this.error = error;
+	}
+
+	@NotNull
+	public static <E> LongResult<E> ok(
+		long value
+	) {
+		return new LongResult<>(true, value, null);
+	}
+
+	@NotNull
+	public static <E> LongResult<E> error(
+		@Nullable E error
+	) {
+		return new LongResult<>(false, 0, error);
+	}
+
+	public long unwrap()
+	{
+		if (!this.ok)
+		{
+			throw new IllegalStateException("Attempted to unwrap a value from an Error");
+		}
+
+		return this.value;
+	}
+
+	@Nullable
+	public E unwrapError()
+	{
+		if (this.ok)
+		{
+			throw new IllegalStateException("Attempted to unwrap an Error from an Ok value");
+		}
+
+		return this.error;
+	}
+
+	public long unwrapOr(
+		long defaultValue
+	) {
+		if (this.ok)
+		{
+			return this.value;
+		}
+
+		return defaultValue;
+	}
+
+	public long unwrapOrElse(
+		@NotNull LongSupplier defaultValue
+	) {
+		Objects.requireNonNull(defaultValue);
+
+		if (this.ok)
+		{
+			return this.value;
+		}
+
+		return defaultValue.getAsLong();
+	}
+
+	public boolean isOk()
+	{
+		return this.ok;
+	}
+
+	public boolean isOkAnd(
+		@NotNull LongPredicate predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (!this.ok)
+		{
+			return false;
+		}
+
+		return predicate.test(this.value);
+	}
+
+	public boolean isError()
+	{
+		return !this.ok;
+	}
+
+	public boolean isErrorAnd(
+		@NotNull Predicate<E> predicate
+	) {
+		Objects.requireNonNull(predicate);
+
+		if (this.ok)
+		{
+			return false;
+		}
+
+		return predicate.test(this.error);
+	}
+
+	@NotNull
+	public LongOption ok()
+	{
+		if (this.ok)
+		{
+			return LongOption.some(this.value);
+		}
+
+		return LongOption.none();
+	}
+
+	@NotNull
+	public Option<E> error()
+	{
+		if (this.ok)
+		{
+			return Option.none();
+		}
+
+		return Option.some(this.error);
+	}
+
+	@NotNull
+	public LongResult<E> map(
+		@NotNull LongUnaryOperator mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return new LongResult<>(true, mapper.applyAsLong(this.value), null);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public <U> Result<U, E> mapToObj(
+		@NotNull LongFunction<U> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return Result.ok(mapper.apply(this.value));
+		}
+
+		return Result.error(this.error);
+	}
+
+	@NotNull
+	public <F> LongResult<F> mapError(
+		@NotNull Function<E, F> mapper
+	) {
+		Objects.requireNonNull(mapper);
+
+		if (this.ok)
+		{
+			return new LongResult<>(true, this.value, null);
+		}
+
+		return new LongResult<>(false, 0, mapper.apply(this.error));
+	}
+
+	@Nullable
+	public <U> U mapOrElse(
+		@NotNull LongFunction<U> okMapper,
+		@NotNull Function<E, U> errorMapper
+	) {
+		Objects.requireNonNull(okMapper);
+		Objects.requireNonNull(errorMapper);
+
+		if (this.ok)
+		{
+			return okMapper.apply(this.value);
+		}
+
+		return errorMapper.apply(this.error);
+	}
+
+	@NotNull
+	public LongResult<E> inspect(
+		@NotNull LongConsumer inspector
+	) {
+		Objects.requireNonNull(inspector);
+
+		if (this.ok)
+		{
+			inspector.accept(this.value);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public LongResult<E> inspectError(
+		@NotNull Consumer<E> inspector
+	) {
+		Objects.requireNonNull(inspector);
+
+		if (!this.ok)
+		{
+			inspector.accept(this.error);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Converts this result into a generic result, boxing the value.
+	 *
+	 * @return Equivalent generic result
+	 */
+	@NotNull
+	public Result<Long, E> boxed()
+	{
+		if (this.ok)
+		{
+			return Result.ok(this.value);
+		}
+
+		return Result.error(this.error);
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.ok ? "Ok(" + this.value + ")" : "Error(" + this.error + ")";
+	}
+}
@@ -2,6 +2,8 @@ package coffee.khyonieheart.anenome.operation;
 
 public class None<T> implements Option<T>
 {
+	private static final None<?> INSTANCE = new None<>();
+
 	@Override
 	public T unwrap() 
 	{
@@ -13,4 +15,13 @@ public class None<T> implements Option<T>
 	{
 		return false;
 	}
+
+	/**
+	 * Returns the shared empty option. None holds no state, so a single instance serves every type.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> None<T> instance()
+	{
+		return (None<T>) INSTANCE;
+	}
 }
@@ -70,7 +70,7 @@ public interface Option<T>
 			return new Some<>(mapper.apply(this.unwrap()));
 		}
 
-		return new None<>();
+		return None.instance();
 	}
 
 	@Nullable
@@ -137,6 +137,6 @@ public interface Option<T>
 	@NotNull
 	public static <T> Option<T> none()
 	{
-		return new None<>();
+		return None.instance();
 	}
 }
@@ -1,5 +1,6 @@
 package coffee.khyonieheart.anenome.operation;
 
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -9,6 +10,7 @@ import java.util.function.Supplier;
 import coffee.khyonieheart.anenome.NotNull;
 import coffee.khyonieheart.anenome.Nullable;
 import coffee.khyonieheart.anenome.exception.InfallibleError;
+import coffee.khyonieheart.anenome.exception.ResultError;
 
 public interface Result<T, E>
 {
@@ -44,6 +46,31 @@ public interface Result<T, E>
 		return defaultValue.get();
 	}
 
+	/**
+	 * Returns the contained value, or throws the error if this is an Error. Error values that are already runtime exceptions, such as
+	 * shared {@link ResultError} instances, are thrown as-is; any other error is wrapped in a {@link ResultError}. Neither path fills in
+	 * a stack trace, so this is considerably cheaper than {@link #unwrap()} when failures are common.
+	 *
+	 * @return Contained value
+	 * @throws RuntimeException If this is an Error
+	 */
+	@Nullable
+	public default T unwrapOrThrow()
+	{
+		if (this.isOk())
+		{
+			return this.unwrap();
+		}
+
+		E error = this.unwrapError();
+		if (error instanceof RuntimeException exception)
+		{
+			throw exception;
+		}
+
+		throw new ResultError("Attempted to unwrap a value from an Error: " + error, error instanceof Throwable cause ? cause : null);
+	}
+
 	public boolean isOk();
 
 	public default boolean isOkAnd(
@@ -82,7 +109,7 @@ public interface Result<T, E>
 	{
 		return switch (this) {
 			case Ok<T, E> ok -> new Some<>(this.unwrap());
-			case Error<T, E> error -> new None<>();
+			case Error<T, E> error -> None.instance();
 			default -> throw new InfallibleError();
 		};
 	}
@@ -91,7 +118,7 @@ public interface Result<T, E>
 	public default Option<E> error()
 	{
 		return switch (this) {
-			case Ok<T, E> ok -> new None<>();
+			case Ok<T, E> ok -> None.instance();
 			case Error<T, E> error -> new Some<>(this.unwrapError());
 			default -> throw new InfallibleError();
 		};
@@ -196,4 +223,82 @@ public interface Result<T, E>
 	) {
 		return new Error<>(error);
 	}
+
+	/**
+	 * Runs the given supplier, capturing any exception it throws as an Error.
+	 *
+	 * @param supplier Supplier to run
+	 *
+	 * @return Ok with the supplied value, or Error with the exception thrown
+	 */
+	@NotNull
+	public static <T> Result<T, Exception> catching(
+		@NotNull ThrowingSupplier<? extends T, ? extends Exception> supplier
+	) {
+		Objects.requireNonNull(supplier);
+
+		try {
+			return new Ok<>(supplier.get());
+		} catch (Exception e) {
+			return new Error<>(e);
+		}
+	}
+
+	/**
+	 * Runs the given supplier, capturing exceptions of the given type as an Error. Other runtime exceptions are rethrown unchanged.
+	 *
+	 * @param type Type of exception to capture
+	 * @param supplier Supplier to run
+	 *
+	 * @return Ok with the supplied value, or Error with the exception thrown
+	 */
+	@NotNull
+	public static <T, X extends Exception> Result<T, X> catching(
+		@NotNull Class<X> type,
+		@NotNull ThrowingSupplier<? extends T, ? extends X> supplier
+	) {
+		Objects.requireNonNull(type);
+		Objects.requireNonNull(supplier);
+
+		try {
+			return new Ok<>(supplier.get());
+		} catch (Exception e) {
+			if (type.isInstance(e))
+			{
+				return new Error<>(type.cast(e));
+			}
+
+			if (e instanceof RuntimeException runtime)
+			{
+				throw runtime;
+			}
+
+			// Only reachable if the supplier sneakily threw an undeclared checked exception
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	/**
+	 * Runs the given supplier, converting any exception it throws into an error value. The mapper may return a shared, preallocated
+	 * error so that the failure path allocates nothing beyond the exception itself.
+	 *
+	 * @param supplier Supplier to run
+	 * @param mapper Converts a thrown exception into an error value
+	 *
+	 * @return Ok with the supplied value, or Error with the mapped exception
+	 */
+	@NotNull
+	public static <T, E> Result<T, E> catching(
+		@NotNull ThrowingSupplier<? extends T, ? extends Exception> supplier,
+		@NotNull Function<? super Exception, ? extends E> mapper
+	) {
+		Objects.requireNonNull(supplier);
+		Objects.requireNonNull(mapper);
+
+		try {
+			return new Ok<>(supplier.get());
+		} catch (Exception e) {
+			return new Error<>(mapper.apply(e));
+		}
+	}
 }
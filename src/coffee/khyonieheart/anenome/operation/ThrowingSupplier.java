@@ -0,0 +1,14 @@
+package coffee.khyonieheart.anenome.operation;
+
+/**
+ * Supplier that may throw a checked exception.
+ *
+ * @param <T> Type of value supplied
+ * @param <X> Type of exception thrown
+ */
+@FunctionalInterface
+public interface ThrowingSupplier<T, X extends Exception>
+{
+	public T get()
+		throws X;
+}
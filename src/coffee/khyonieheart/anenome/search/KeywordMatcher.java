@@ -0,0 +1,352 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.search;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotEmpty;
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Multi-pattern matcher using the Aho-Corasick algorithm. Every keyword is found in a single pass over the text, so the cost of a scan
+ * depends only on the length of the text and the number of matches, not on the number of keywords. Matchers are immutable and may be
+ * shared freely between threads.
+ * <p>
+ * Internally, the keyword trie is compiled into a dense state transition table over the set of characters that appear in the keywords;
+ * any other character is folded into a single shared column.
+ */
+public final class KeywordMatcher
+{
+	private final String[] keywords;
+	private final int alphabetSize;
+	private final int[] latinClasses = new int[256];
+	private final char[] otherChars;
+	private final int[] otherClasses;
+	private final int[] transitions;
+	private final int[] terminal;
+	private final int[] outputLink;
+
+	/**
+	 * Receives matches found while scanning.
+	 */
+	@FunctionalInterface
+	public static interface MatchListener
+	{
+		/**
+		 * Called once per match, in order of match end position.
+		 *
+		 * @param keyword Index of the matched keyword, as given to {@link KeywordMatcher#compile(String...)}
+		 * @param start Start index of the match (inclusive)
+		 * @param end End index of the match (exclusive)
+		 */
+		public void onMatch(
+			int keyword,
+			int start,
+			int end
+		);
+	}
+
+	private KeywordMatcher(
+		String[] keywords
+	) {
+		this.keywords = keywords;
+
+		// Build the alphabet of characters used by the keywords. Class 0 is reserved for all other characters.
+		int total = 0;
+		for (String keyword : keywords)
+		{
+			total += keyword.length();
+		}
+
+		char[] chars = new char[total];
+		int position = 0;
+		for (String keyword : keywords)
+		{
+			keyword.getChars(0, keyword.length(), chars, position);
+			position += keyword.length();
+		}
+		Arrays.sort(chars);
+
+		int classes = 0;
+		char[] others = new char[chars.length];
+		int[] otherClasses = new int[chars.length];
+		int otherCount = 0;
+		for (int i = 0; i < chars.length; i++)
+		{
+			if (i > 0 && chars[i] == chars[i - 1])
+			{
+				continue;
+			}
+
+			classes++;
+			if (chars[i] < 256)
+			{
+				this.latinClasses[chars[i]] = classes;
+				continue;
+			}
+
+			others[otherCount] = chars[i];
+			otherClasses[otherCount++] = classes;
+		}
+
+		this.otherChars = Arrays.copyOf(others, otherCount);
+		this.otherClasses = Arrays.copyOf(otherClasses, otherCount);
+		this.alphabetSize = classes + 1;
+
+		// Build the trie. There can be at most one state per keyword character, plus the root.
+		int maxStates = total + 1;
+		int alphabet = this.alphabetSize;
+		int[] transitions = new int[maxStates * alphabet];
+		int[] terminal = new int[maxStates];
+		Arrays.fill(transitions, -1);
+		Arrays.fill(terminal, -1);
+
+		int states = 1;
+		for (int k = 0; k < keywords.length; k++)
+		{
+			String keyword = keywords[k];
+			int state = 0;
+			for (int i = 0; i < keyword.length(); i++)
+			{
+				int slot = state * alphabet + this.classOf(keyword.charAt(i));
+				if (transitions[slot] == -1)
+				{
+					transitions[slot] = states++;
+				}
+
+				state = transitions[slot];
+			}
+
+			if (terminal[state] == -1)
+			{
+				terminal[state] = k;
+			}
+		}
+
+		// Breadth-first pass to compute failure links, turning the trie into a complete automaton
+		int[] failure = new int[states];
+		int[] outputLink = new int[states];
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+
+		outputLink[0] = -1;
+		for (int c = 0; c < alphabet; c++)
+		{
+			int next = transitions[c];
+			if (next == -1)
+			{
+				transitions[c] = 0;
+				continue;
+			}
+
+			failure[next] = 0;
+			outputLink[next] = -1;
+			queue[tail++] = next;
+		}
+
+		while (head < tail)
+		{
+			int state = queue[head++];
+			for (int c = 0; c < alphabet; c++)
+			{
+				int slot = state * alphabet + c;
+				int next = transitions[slot];
+				int fallback = transitions[failure[state] * alphabet + c];
+
+				if (next == -1)
+				{
+					transitions[slot] = fallback;
+					continue;
+				}
+
+				failure[next] = fallback;
+				outputLink[next] = terminal[fallback] != -1 ? fallback : outputLink[fallback];
+				queue[tail++] = next;
+			}
+		}
+
+		this.transitions = Arrays.copyOf(transitions, states * alphabet);
+		this.terminal = Arrays.copyOf(terminal, states);
+		this.outputLink = outputLink;
+	}
+
+	/**
+	 * Compiles a matcher for the given keywords. If a keyword is given more than once, matches are reported against its first index.
+	 *
+	 * @param keywords Keywords to search for
+	 *
+	 * @return A new matcher
+	 * @throws IllegalArgumentException If no keywords are given, or any keyword is empty
+	 * @throws NullPointerException If any keyword is null
+	 */
+	@NotNull
+	public static KeywordMatcher compile(
+		@NotNull @NotEmpty String... keywords
+	) {
+		Objects.requireNonNull(keywords);
+
+		if (keywords.length == 0)
+		{
+			throw new IllegalArgumentException("At least one keyword is required");
+		}
+
+		for (String keyword : keywords)
+		{
+			if (Objects.requireNonNull(keyword).isEmpty())
+			{
+				throw new IllegalArgumentException("Keywords must not be empty");
+			}
+		}
+
+		return new KeywordMatcher(keywords.clone());
+	}
+
+	/**
+	 * Returns the keyword at the given index.
+	 *
+	 * @param index Keyword index, as reported to a {@link MatchListener}
+	 *
+	 * @return Keyword
+	 */
+	@NotNull
+	public String keyword(
+		int index
+	) {
+		return this.keywords[index];
+	}
+
+	/**
+	 * Returns the number of keywords this matcher was compiled with.
+	 *
+	 * @return Number of keywords
+	 */
+	public int size()
+	{
+		return this.keywords.length;
+	}
+
+	/**
+	 * Reports every keyword occurrence in the text, including overlapping occurrences.
+	 *
+	 * @param text Text to scan
+	 * @param listener Listener to receive matches
+	 */
+	public void scan(
+		@NotNull CharSequence text,
+		@NotNull MatchListener listener
+	) {
+		Objects.requireNonNull(text);
+		Objects.requireNonNull(listener);
+
+		int state = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++)
+		{
+			state = this.transitions[state * this.alphabetSize + this.classOf(text.charAt(i))];
+			this.report(state, i + 1, listener);
+		}
+	}
+
+	/**
+	 * Reports every keyword occurrence within {@code [from, to)} of the given array, including overlapping occurrences.
+	 *
+	 * @param text Text to scan
+	 * @param from Index to start scanning from (inclusive)
+	 * @param to Index to stop scanning at (exclusive)
+	 * @param listener Listener to receive matches
+	 *
+	 * @throws IndexOutOfBoundsException If the range lies outside the bounds of the array
+	 */
+	public void scan(
+		@NotNull char[] text,
+		int from,
+		int to,
+		@NotNull MatchListener listener
+	) {
+		Objects.checkFromToIndex(from, to, text.length);
+		Objects.requireNonNull(listener);
+
+		int state = 0;
+		for (int i = from; i < to; i++)
+		{
+			state = this.transitions[state * this.alphabetSize + this.classOf(text[i])];
+			this.report(state, i + 1, listener);
+		}
+	}
+
+	/**
+	 * Tests whether any keyword occurs in the text, stopping at the first match.
+	 *
+	 * @param text Text to scan
+	 *
+	 * @return True if any keyword occurs
+	 */
+	public boolean containsAny(
+		@NotNull CharSequence text
+	) {
+		Objects.requireNonNull(text);
+
+		int state = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++)
+		{
+			state = this.transitions[state * this.alphabetSize + this.classOf(text.charAt(i))];
+			if (this.terminal[state] != -1 || this.outputLink[state] != -1)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Counts the occurrences of each keyword in the text, including overlapping occurrences.
+	 *
+	 * @param text Text to scan
+	 *
+	 * @return Array where index i holds the number of occurrences of keyword i
+	 */
+	@NotNull
+	public int[] counts(
+		@NotNull CharSequence text
+	) {
+		int[] counts = new int[this.keywords.length];
+		this.scan(text, (keyword, start, end) -> counts[keyword]++);
+
+		return counts;
+	}
+
+	//-------------------------------------------------------------------------------- 
+	private void report(
+		int state,
+		int end,
+		MatchListener listener
+	) {
+		int match = this.terminal[state] != -1 ? state : this.outputLink[state];
+		while (match != -1)
+		{
+			int keyword = this.terminal[match];
+			listener.onMatch(keyword, end - this.keywords[keyword].length(), end);
+			match = this.outputLink[match];
+		}
+	}
+
+	private int classOf(
+		char c
+	) {
+		if (c < 256)
+		{
+			return this.latinClasses[c];
+		}
+
+		int index = Arrays.binarySearch(this.otherChars, c);
+
+		return index < 0 ? 0 : this.otherClasses[index];
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.search;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Reusable single-pattern matcher using the Boyer-Moore-Horspool algorithm. The skip table is computed once when the searcher is
+ * compiled, so repeated searches for the same pattern only pay for the scan itself. Searchers are immutable and may be shared freely
+ * between threads.
+ * <p>
+ * All searches report overlapping occurrences; searching for "aa" in "aaa" finds matches at index 0 and 1.
+ */
+public final class Searcher
+{
+	private final char[] pattern;
+	private final int[] shift = new int[256];
+
+	private Searcher(
+		char[] pattern
+	) {
+		this.pattern = pattern;
+
+		// Shifts are keyed on the low byte of each character. Characters sharing a low byte share the smallest shift, which keeps the
+		// table small while remaining safe.
+		int length = pattern.length;
+		Arrays.fill(this.shift, length);
+		for (int i = 0; i < length - 1; i++)
+		{
+			this.shift[pattern[i] & 0xFF] = length - 1 - i;
+		}
+	}
+
+	/**
+	 * Compiles a searcher for the given pattern.
+	 *
+	 * @param pattern Pattern to search for
+	 *
+	 * @return A new searcher
+	 * @throws IllegalArgumentException If the pattern is empty
+	 */
+	@NotNull
+	public static Searcher compile(
+		@NotNull String pattern
+	) {
+		if (Objects.requireNonNull(pattern).isEmpty())
+		{
+			throw new IllegalArgumentException("Pattern must not be empty");
+		}
+
+		return new Searcher(pattern.toCharArray());
+	}
+
+	/**
+	 * Returns the pattern this searcher was compiled for.
+	 *
+	 * @return Pattern
+	 */
+	@NotNull
+	public String pattern()
+	{
+		return new String(this.pattern);
+	}
+
+	/**
+	 * Finds the first occurrence of the pattern.
+	 *
+	 * @param text Text to search
+	 *
+	 * @return Index of the first occurrence, or -1 if the pattern does not occur
+	 */
+	public int indexOf(
+		@NotNull CharSequence text
+	) {
+		return this.indexOf(text, 0);
+	}
+
+	/**
+	 * Finds the first occurrence of the pattern at or after the given index.
+	 *
+	 * @param text Text to search
+	 * @param from Index to start searching from
+	 *
+	 * @return Index of the first occurrence, or -1 if the pattern does not occur
+	 */
+	public int indexOf(
+		@NotNull CharSequence text,
+		int from
+	) {
+		Objects.requireNonNull(text);
+
+		char[] pattern = this.pattern;
+		int[] shift = this.shift;
+		int last = pattern.length - 1;
+		char lastChar = pattern[last];
+		int end = text.length() - pattern.length;
+
+		for (int i = Math.max(from, 0); i <= end;)
+		{
+			char c = text.charAt(i + last);
+			if (c == lastChar && this.matches(text, i))
+			{
+				return i;
+			}
+
+			i += shift[c & 0xFF];
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Finds the first occurrence of the pattern within {@code [from, to)} of the given array.
+	 *
+	 * @param text Text to search
+	 * @param from Index to start searching from (inclusive)
+	 * @param to Index to stop searching at (exclusive)
+	 *
+	 * @return Index of the first occurrence, or -1 if the pattern does not occur
+	 * @throws IndexOutOfBoundsException If the range lies outside the bounds of the array
+	 */
+	public int indexOf(
+		@NotNull char[] text,
+		int from,
+		int to
+	) {
+		Objects.checkFromToIndex(from, to, text.length);
+
+		char[] pattern = this.pattern;
+		int[] shift = this.shift;
+		int last = pattern.length - 1;
+		char lastChar = pattern[last];
+		int end = to - pattern.length;
+
+		for (int i = from; i <= end;)
+		{
+			char c = text[i + last];
+			if (c == lastChar && this.matches(text, i))
+			{
+				return i;
+			}
+
+			i += shift[c & 0xFF];
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Finds the first occurrence of the pattern in the given array.
+	 *
+	 * @param text Text to search
+	 *
+	 * @return Index of the first occurrence, or -1 if the pattern does not occur
+	 */
+	public int indexOf(
+		@NotNull char[] text
+	) {
+		return this.indexOf(text, 0, text.length);
+	}
+
+	/**
+	 * Finds every occurrence of the pattern.
+	 *
+	 * @param text Text to search
+	 *
+	 * @return Indices of every occurrence, in ascending order
+	 */
+	@NotNull
+	public int[] indexesOf(
+		@NotNull CharSequence text
+	) {
+		int[] indexes = new int[8];
+		int count = 0;
+
+		for (int i = this.indexOf(text, 0); i != -1; i = this.indexOf(text, i + 1))
+		{
+			if (count == indexes.length)
+			{
+				indexes = Arrays.copyOf(indexes, count << 1);
+			}
+
+			indexes[count++] = i;
+		}
+
+		return Arrays.copyOf(indexes, count);
+	}
+
+	/**
+	 * Finds every occurrence of the pattern in the given array.
+	 *
+	 * @param text Text to search
+	 *
+	 * @return Indices of every occurrence, in ascending order
+	 */
+	@NotNull
+	public int[] indexesOf(
+		@NotNull char[] text
+	) {
+		int[] indexes = new int[8];
+		int count = 0;
+
+		for (int i = this.indexOf(text, 0, text.length); i != -1; i = this.indexOf(text, i + 1, text.length))
+		{
+			if (count == indexes.length)
+			{
+				indexes = Arrays.copyOf(indexes, count << 1);
+			}
+
+			indexes[count++] = i;
+		}
+
+		return Arrays.copyOf(indexes, count);
+	}
+
+	/**
+	 * Counts every occurrence of the pattern without allocating.
+	 *
+	 * @param text Text to search
+	 *
+	 * @return Number of occurrences
+	 */
+	public int count(
+		@NotNull CharSequence text
+	) {
+		int count = 0;
+		for (int i = this.indexOf(text, 0); i != -1; i = this.indexOf(text, i + 1))
+		{
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Counts every occurrence of the pattern in the given array without allocating.
+	 *
+	 * @param text Text to search
+	 *
+	 * @return Number of occurrences
+	 */
+	public int count(
+		@NotNull char[] text
+	) {
+		int count = 0;
+		for (int i = this.indexOf(text, 0, text.length); i != -1; i = this.indexOf(text, i + 1, text.length))
+		{
+			count++;
+		}
+
+		return count;
+	}
+
+	//-------------------------------------------------------------------------------- 
+	private boolean matches(
+		CharSequence text,
+		int offset
+	) {
+		char[] pattern = this.pattern;
+		for (int i = pattern.length - 2; i >= 0; i--)
+		{
+			if (text.charAt(offset + i) != pattern[i])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean matches(
+		char[] text,
+		int offset
+	) {
+		char[] pattern = this.pattern;
+		for (int i = pattern.length - 2; i >= 0; i--)
+		{
+			if (text[offset + i] != pattern[i])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Jaro-Winkler distance, one minus the Jaro-Winkler similarity. Jaro similarity rewards characters that appear in both strings near the
+ * same position, and Winkler's adjustment boosts pairs that share a prefix of up to four characters, which suits short strings such as
+ * names and identifiers. The boost is only applied when the Jaro similarity is at least 0.7.
+ * <p>
+ * The bounded mode rejects pairs whose lengths alone rule out a distance within the limit, and again after counting matching characters,
+ * before transpositions are counted.
+ */
+public final class JaroWinkler implements StringMetric
+{
+	static final JaroWinkler STANDARD = new JaroWinkler(0.1);
+
+	private static final double BOOST_THRESHOLD = 0.7;
+	private static final int MAX_PREFIX = 4;
+
+	private final double prefixScale;
+
+	JaroWinkler(
+		double prefixScale
+	) {
+		RuntimeConditions.requireRange(prefixScale, 0.0, 0.25);
+
+		this.prefixScale = prefixScale;
+	}
+
+	/**
+	 * Computes the Jaro-Winkler similarity between two strings.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 *
+	 * @return Similarity between 0 (nothing in common) and 1 (equal)
+	 */
+	public double similarity(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		return 1 - this.distance(a, b, 1.0);
+	}
+
+	/**
+	 * Returns the weight given to a common prefix.
+	 *
+	 * @return Prefix scale
+	 */
+	public double prefixScale()
+	{
+		return this.prefixScale;
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		return this.distance(a, b, 1.0);
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		double limit
+	) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(b);
+
+		if (limit < 0 || Double.isNaN(limit))
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		if (a.length() > b.length())
+		{
+			CharSequence temp = a;
+			a = b;
+			b = temp;
+		}
+
+		int aLength = a.length();
+		int bLength = b.length();
+		if (aLength == 0)
+		{
+			return this.accept(bLength == 0 ? 0 : 1, limit);
+		}
+
+		int prefix = Math.min(MAX_PREFIX, Levenshtein.commonPrefix(a, b));
+
+		// At best every character of the shorter string matches with no transpositions
+		if (this.bestDistance(aLength, aLength, bLength, prefix) > limit)
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		Scratch scratch = Scratch.get();
+		boolean[] matchedA = scratch.flagsA(aLength);
+		boolean[] matchedB = scratch.flagsB(bLength);
+		int window = Math.max(0, bLength / 2 - 1);
+
+		int matches = 0;
+		for (int i = 0; i < aLength; i++)
+		{
+			char c = a.charAt(i);
+			int end = Math.min(bLength, i + window + 1);
+			for (int j = Math.max(0, i - window); j < end; j++)
+			{
+				if (!matchedB[j] && b.charAt(j) == c)
+				{
+					matchedA[i] = true;
+					matchedB[j] = true;
+					matches++;
+					break;
+				}
+			}
+		}
+
+		if (matches == 0)
+		{
+			return this.accept(1, limit);
+		}
+
+		if (this.bestDistance(matches, aLength, bLength, prefix) > limit)
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		int halfTranspositions = 0;
+		int j = 0;
+		for (int i = 0; i < aLength; i++)
+		{
+			if (!matchedA[i])
+			{
+				continue;
+			}
+
+			while (!matchedB[j])
+			{
+				j++;
+			}
+
+			if (a.charAt(i) != b.charAt(j))
+			{
+				halfTranspositions++;
+			}
+
+			j++;
+		}
+
+		double m = matches;
+		double jaro = (m / aLength + m / bLength + (m - halfTranspositions / 2) / m) / 3;
+
+		return this.accept(1 - this.winkler(jaro, prefix), limit);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "JaroWinkler[" + this.prefixScale + "]";
+	}
+
+	//--------------------------------------------------------------------------------
+	private double winkler(
+		double jaro,
+		int prefix
+	) {
+		if (jaro < BOOST_THRESHOLD)
+		{
+			return jaro;
+		}
+
+		return jaro + prefix * this.prefixScale * (1 - jaro);
+	}
+
+	/**
+	 * Lowest distance reachable with the given number of matching characters.
+	 */
+	private double bestDistance(
+		int matches,
+		int aLength,
+		int bLength,
+		int prefix
+	) {
+		double m = matches;
+
+		return 1 - this.winkler((m / aLength + m / bLength + 1) / 3, prefix);
+	}
+
+	private double accept(
+		double distance,
+		double limit
+	) {
+		return distance <= limit ? distance : Double.POSITIVE_INFINITY;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Unit-cost Levenshtein distance: the number of single-character insertions, deletions and substitutions needed to turn one string
+ * into another.
+ * <p>
+ * Common prefixes and suffixes are skipped before any work is done, only two rows of the distance matrix are kept, and the bounded mode
+ * only fills the diagonal band of cells that can still lead to a distance within the limit.
+ */
+public final class Levenshtein implements StringMetric
+{
+	static final Levenshtein INSTANCE = new Levenshtein();
+
+	private Levenshtein() {}
+
+	/**
+	 * Computes the Levenshtein distance between two strings.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 *
+	 * @return Number of edits needed to turn A into B
+	 */
+	public int compute(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(b);
+
+		// Rows are sized by the shorter string
+		if (a.length() > b.length())
+		{
+			CharSequence temp = a;
+			a = b;
+			b = temp;
+		}
+
+		int prefix = commonPrefix(a, b);
+		int aLength = a.length() - prefix;
+		int bLength = b.length() - prefix;
+		int suffix = commonSuffix(a, b, prefix);
+		aLength -= suffix;
+		bLength -= suffix;
+
+		if (aLength == 0)
+		{
+			return bLength;
+		}
+
+		Scratch scratch = Scratch.get();
+		int[] previous = scratch.ints(0, aLength + 1);
+		int[] current = scratch.ints(1, aLength + 1);
+		for (int i = 0; i <= aLength; i++)
+		{
+			previous[i] = i;
+		}
+
+		for (int j = 1; j <= bLength; j++)
+		{
+			char c = b.charAt(prefix + j - 1);
+			int left = j;
+			current[0] = left;
+			for (int i = 1; i <= aLength; i++)
+			{
+				int substitute = previous[i - 1] + (a.charAt(prefix + i - 1) == c ? 0 : 1);
+				left = Math.min(substitute, Math.min(previous[i], left) + 1);
+				current[i] = left;
+			}
+
+			int[] temp = previous;
+			previous = current;
+			current = temp;
+		}
+
+		return previous[aLength];
+	}
+
+	/**
+	 * Computes the Levenshtein distance between two strings, giving up once it is known to exceed the given limit.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 * @param limit Largest distance of interest
+	 *
+	 * @return Number of edits needed to turn A into B if it is at most limit, otherwise limit + 1
+	 * @throws IllegalArgumentException If limit is negative
+	 */
+	public int compute(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		int limit
+	) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(b);
+		if (limit < 0)
+		{
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+
+		if (a.length() > b.length())
+		{
+			CharSequence temp = a;
+			a = b;
+			b = temp;
+		}
+
+		if (b.length() - a.length() > limit)
+		{
+			return limit + 1;
+		}
+
+		if (limit >= b.length())
+		{
+			return this.compute(a, b);
+		}
+
+		int prefix = commonPrefix(a, b);
+		int aLength = a.length() - prefix;
+		int bLength = b.length() - prefix;
+		int suffix = commonSuffix(a, b, prefix);
+		aLength -= suffix;
+		bLength -= suffix;
+
+		if (aLength == 0)
+		{
+			return bLength;
+		}
+
+		// Only cells within limit of the diagonal can lead to a distance within limit. Cells outside the band are treated as limit + 1,
+		// which also keeps every value small enough that adding to it cannot overflow.
+		int outside = limit + 1;
+		Scratch scratch = Scratch.get();
+		int[] previous = scratch.ints(0, aLength + 1);
+		int[] current = scratch.ints(1, aLength + 1);
+		int boundary = Math.min(aLength, limit);
+		for (int i = 0; i <= boundary; i++)
+		{
+			previous[i] = i;
+		}
+
+		java.util.Arrays.fill(previous, boundary + 1, aLength + 1, outside);
+
+		for (int j = 1; j <= bLength; j++)
+		{
+			char c = b.charAt(prefix + j - 1);
+			int from = Math.max(1, j - limit);
+			int to = Math.min(aLength, j + limit);
+
+			current[from - 1] = from == 1 ? Math.min(j, outside) : outside;
+			int best = current[from - 1];
+			for (int i = from; i <= to; i++)
+			{
+				int value;
+				if (a.charAt(prefix + i - 1) == c)
+				{
+					value = previous[i - 1];
+				}
+				else
+				{
+					value = 1 + Math.min(previous[i - 1], Math.min(previous[i], current[i - 1]));
+				}
+
+				value = Math.min(value, outside);
+				current[i] = value;
+				best = Math.min(best, value);
+			}
+
+			if (to < aLength)
+			{
+				current[to + 1] = outside;
+			}
+
+			if (best > limit)
+			{
+				return outside;
+			}
+
+			int[] temp = previous;
+			previous = current;
+			current = temp;
+		}
+
+		return previous[aLength];
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		return this.compute(a, b);
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		double limit
+	) {
+		if (limit < 0 || Double.isNaN(limit))
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		int bound = limit >= Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE - 1 : (int) limit;
+		int distance = this.compute(a, b, bound);
+
+		return distance <= bound ? distance : Double.POSITIVE_INFINITY;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Levenshtein";
+	}
+
+	//--------------------------------------------------------------------------------
+	static int commonPrefix(
+		CharSequence a,
+		CharSequence b
+	) {
+		int length = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < length && a.charAt(i) == b.charAt(i))
+		{
+			i++;
+		}
+
+		return i;
+	}
+
+	static int commonSuffix(
+		CharSequence a,
+		CharSequence b,
+		int prefix
+	) {
+		int aEnd = a.length();
+		int bEnd = b.length();
+		int length = Math.min(aEnd, bEnd) - prefix;
+		int i = 0;
+		while (i < length && a.charAt(aEnd - 1 - i) == b.charAt(bEnd - 1 - i))
+		{
+			i++;
+		}
+
+		return i;
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Optimal string alignment distance, the restricted form of Damerau-Levenshtein distance. In addition to insertions, deletions and
+ * substitutions, swapping two adjacent characters counts as a single edit, which matches the most common kind of typo. As with the
+ * restricted form in general, no substring may be edited more than once.
+ * <p>
+ * Three rows of the distance matrix are kept. The bounded mode stops once two consecutive rows lie entirely beyond the limit, since no
+ * later cell can then fall back within it.
+ */
+public final class OptimalStringAlignment implements StringMetric
+{
+	static final OptimalStringAlignment INSTANCE = new OptimalStringAlignment();
+
+	private OptimalStringAlignment() {}
+
+	/**
+	 * Computes the optimal string alignment distance between two strings.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 *
+	 * @return Number of edits needed to turn A into B
+	 */
+	public int compute(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		return this.compute(a, b, Integer.MAX_VALUE - 1);
+	}
+
+	/**
+	 * Computes the optimal string alignment distance between two strings, giving up once it is known to exceed the given limit.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 * @param limit Largest distance of interest
+	 *
+	 * @return Number of edits needed to turn A into B if it is at most limit, otherwise limit + 1
+	 * @throws IllegalArgumentException If limit is negative
+	 */
+	public int compute(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		int limit
+	) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(b);
+		if (limit < 0)
+		{
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+
+		limit = Math.min(limit, Integer.MAX_VALUE - 1);
+
+		if (a.length() > b.length())
+		{
+			CharSequence temp = a;
+			a = b;
+			b = temp;
+		}
+
+		if (b.length() - a.length() > limit)
+		{
+			return limit + 1;
+		}
+
+		// A transposition never spans the end of a common prefix or suffix, so both can be skipped as with plain Levenshtein
+		int prefix = Levenshtein.commonPrefix(a, b);
+		int aLength = a.length() - prefix;
+		int bLength = b.length() - prefix;
+		int suffix = Levenshtein.commonSuffix(a, b, prefix);
+		aLength -= suffix;
+		bLength -= suffix;
+
+		if (aLength == 0)
+		{
+			return bLength <= limit ? bLength : limit + 1;
+		}
+
+		Scratch scratch = Scratch.get();
+		int[] twoBack = scratch.ints(0, aLength + 1);
+		int[] previous = scratch.ints(1, aLength + 1);
+		int[] current = scratch.ints(2, aLength + 1);
+		for (int i = 0; i <= aLength; i++)
+		{
+			previous[i] = i;
+		}
+
+		boolean previousBeyond = false;
+		char last = 0;
+		for (int j = 1; j <= bLength; j++)
+		{
+			char c = b.charAt(prefix + j - 1);
+			int left = j;
+			current[0] = left;
+			int best = left;
+			for (int i = 1; i <= aLength; i++)
+			{
+				char ca = a.charAt(prefix + i - 1);
+				int value = Math.min(previous[i - 1] + (ca == c ? 0 : 1), Math.min(previous[i], left) + 1);
+				if (i > 1 && j > 1 && ca == last && a.charAt(prefix + i - 2) == c)
+				{
+					value = Math.min(value, twoBack[i - 2] + 1);
+				}
+
+				current[i] = value;
+				left = value;
+				best = Math.min(best, value);
+			}
+
+			boolean beyond = best > limit;
+			if (beyond && previousBeyond)
+			{
+				return limit + 1;
+			}
+
+			previousBeyond = beyond;
+			last = c;
+
+			int[] temp = twoBack;
+			twoBack = previous;
+			previous = current;
+			current = temp;
+		}
+
+		int distance = previous[aLength];
+
+		return distance <= limit ? distance : limit + 1;
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		return this.compute(a, b);
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		double limit
+	) {
+		if (limit < 0 || Double.isNaN(limit))
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		int bound = limit >= Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE - 1 : (int) limit;
+		int distance = this.compute(a, b, bound);
+
+		return distance <= bound ? distance : Double.POSITIVE_INFINITY;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "OptimalStringAlignment";
+	}
+}
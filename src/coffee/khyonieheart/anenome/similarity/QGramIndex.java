@@ -0,0 +1,1032 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Nullable;
+import coffee.khyonieheart.anenome.RuntimeConditions;
+
+/**
+ * Inverted index of strings by their q-grams (substrings of length q), for finding every indexed string within a given Levenshtein
+ * distance of a query without comparing against the whole corpus.
+ * <p>
+ * A single edit destroys at most q of a string's q-grams, so two strings within distance k share at least
+ * {@code max(|a|, |b|) - q + 1 - k * q} q-grams. Queries count shared q-grams through the posting lists, discard every string below that
+ * count or outside the length window, and only compute the exact distance for the few candidates left. For lengths where the bound is
+ * not positive, which happens for short strings relative to k, no string can be ruled out this way, so strings of those lengths are
+ * scanned through a per-length list instead. Queries of {@code (k + 1) * q - 1} characters or fewer therefore cost a scan of every
+ * string of similar length, though a per-string character set signature still rejects most of them without computing a distance; a
+ * smaller q keeps such queries filtered.
+ * <p>
+ * Each string is identified by the position it was added at. Posting lists are growable int arrays of delta-encoded ids, with a zero
+ * delta marking a repeated q-gram in the same string. Strings may be added and removed at any time; removal leaves a tombstone, so ids
+ * are never reused. Queries may run concurrently with each other, and are safely excluded from concurrent updates.
+ */
+public final class QGramIndex
+{
+	private static final int MAGIC = 0x51474958; // "QGIX"
+	private static final int VERSION = 1;
+	private static final int PARALLEL_CHUNK = 1 << 14;
+
+	private final int q;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ThreadLocal<QueryScratch> scratch = ThreadLocal.withInitial(QueryScratch::new);
+
+	private final Postings postings;
+	private int[][] byLength = new int[16][];
+	private int[] byLengthSizes = new int[16];
+	private String[] strings;
+	private long[] signatures;
+	private int size;
+	private final BitSet removed;
+	private int removedCount;
+
+	private QGramIndex(
+		int q,
+		Postings postings,
+		String[] strings,
+		int size,
+		BitSet removed
+	) {
+		this.q = q;
+		this.postings = postings;
+		this.strings = strings;
+		this.size = size;
+		this.removed = removed;
+		this.removedCount = removed.cardinality();
+		this.signatures = new long[strings.length];
+
+		for (int id = 0; id < size; id++)
+		{
+			if (strings[id] != null)
+			{
+				this.addLength(id, strings[id].length());
+				this.signatures[id] = signature(strings[id]);
+			}
+		}
+	}
+
+	/**
+	 * Constructs a new empty index.
+	 *
+	 * @param q Length of the q-grams to index, between 1 and 4. Longer q-grams filter more precisely but lose their bound sooner as k
+	 * grows; 2 or 3 suit most corpora.
+	 *
+	 * @throws IllegalArgumentException If q is outside of the range 1 to 4
+	 */
+	public QGramIndex(
+		int q
+	) {
+		this(RuntimeConditions.requireRange(q, 1, 4), new Postings(64), new String[16], 0, new BitSet());
+	}
+
+	/**
+	 * Builds an index over the given strings. Strings are assigned ids in list order.
+	 *
+	 * @param q Length of the q-grams to index, between 1 and 4
+	 * @param strings Strings to index
+	 * @param parallel Whether to split the work across the common fork-join pool
+	 *
+	 * @return New index
+	 * @throws IllegalArgumentException If q is outside of the range 1 to 4
+	 * @throws NullPointerException If the list or any of its elements is null
+	 */
+	@NotNull
+	public static QGramIndex build(
+		int q,
+		@NotNull List<String> strings,
+		boolean parallel
+	) {
+		RuntimeConditions.requireRange(q, 1, 4);
+		String[] array = strings.toArray(new String[Math.max(16, strings.size())]);
+		int size = strings.size();
+		for (int i = 0; i < size; i++)
+		{
+			Objects.requireNonNull(array[i], "Indexed strings can not be null");
+		}
+
+		int chunks = (size + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+		Postings postings;
+		if (!parallel || chunks <= 1)
+		{
+			postings = new Postings(64);
+			addGrams(postings, array, 0, size, q);
+		}
+		else
+		{
+			// Each chunk indexes a contiguous range of ids, so concatenating chunks in order keeps every posting list sorted
+			Postings[] parts = IntStream.range(0, chunks)
+				.parallel()
+				.mapToObj((chunk) -> {
+					Postings part = new Postings(64);
+					addGrams(part, array, chunk * PARALLEL_CHUNK, Math.min(size, (chunk + 1) * PARALLEL_CHUNK), q);
+					return part;
+				})
+				.toArray(Postings[]::new);
+
+			postings = parts[0];
+			for (int i = 1; i < parts.length; i++)
+			{
+				postings.appendAll(parts[i]);
+			}
+		}
+
+		postings.trim();
+
+		return new QGramIndex(q, postings, array, size, new BitSet());
+	}
+
+	/**
+	 * Adds a string to this index.
+	 *
+	 * @param string String to add
+	 *
+	 * @return Id of the added string
+	 */
+	public int add(
+		@NotNull String string
+	) {
+		Objects.requireNonNull(string);
+
+		this.lock.writeLock().lock();
+		try {
+			if (this.size == this.strings.length)
+			{
+				this.strings = java.util.Arrays.copyOf(this.strings, this.size + (this.size >>> 1) + 1);
+				this.signatures = java.util.Arrays.copyOf(this.signatures, this.strings.length);
+			}
+
+			int id = this.size;
+			this.strings[id] = string;
+			this.size++;
+			addGrams(this.postings, this.strings, id, id + 1, this.q);
+			this.addLength(id, string.length());
+			this.signatures[id] = signature(string);
+
+			return id;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a string from this index. The id is not reused.
+	 *
+	 * @param id Id of the string to remove
+	 *
+	 * @return True if the string was present
+	 * @throws IndexOutOfBoundsException If no string was ever added with the given id
+	 */
+	public boolean remove(
+		int id
+	) {
+		this.lock.writeLock().lock();
+		try {
+			RuntimeConditions.checkIndex(id, this.size);
+			if (this.removed.get(id))
+			{
+				return false;
+			}
+
+			this.removed.set(id);
+			this.strings[id] = null;
+			this.removedCount++;
+
+			return true;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the string with the given id.
+	 *
+	 * @param id Id of the string
+	 *
+	 * @return Indexed string, or null if it has been removed
+	 * @throws IndexOutOfBoundsException If no string was ever added with the given id
+	 */
+	@Nullable
+	public String get(
+		int id
+	) {
+		this.lock.readLock().lock();
+		try {
+			RuntimeConditions.checkIndex(id, this.size);
+
+			return this.strings[id];
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of strings currently in this index.
+	 *
+	 * @return Number of strings added and not removed
+	 */
+	public int size()
+	{
+		this.lock.readLock().lock();
+		try {
+			return this.size - this.removedCount;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the q-gram length of this index.
+	 *
+	 * @return q
+	 */
+	public int q()
+	{
+		return this.q;
+	}
+
+	/**
+	 * Finds every indexed string within the given Levenshtein distance of the query.
+	 *
+	 * @param query String to match
+	 * @param k Largest accepted distance
+	 *
+	 * @return Ids of matching strings, in ascending order
+	 * @throws IllegalArgumentException If k is negative
+	 */
+	@NotNull
+	public int[] search(
+		@NotNull CharSequence query,
+		int k
+	) {
+		return this.filter(query, k, true);
+	}
+
+	/**
+	 * Finds every indexed string that passes the q-gram count and length filters for the given distance, without computing any exact
+	 * distances. Every string within Levenshtein distance k of the query is included, along with some that are not; use this to verify
+	 * candidates with a different {@link StringMetric} whose distance is bounded below by Levenshtein distance.
+	 *
+	 * @param query String to match
+	 * @param k Largest distance of interest
+	 *
+	 * @return Ids of candidate strings, in ascending order
+	 * @throws IllegalArgumentException If k is negative
+	 */
+	@NotNull
+	public int[] candidates(
+		@NotNull CharSequence query,
+		int k
+	) {
+		return this.filter(query, k, false);
+	}
+
+	/**
+	 * Writes this index to a file, replacing it if it exists.
+	 *
+	 * @param path File to write
+	 *
+	 * @throws IOException If the file could not be written
+	 */
+	public void save(
+		@NotNull Path path
+	)
+		throws IOException
+	{
+		try (OutputStream out = Files.newOutputStream(Objects.requireNonNull(path))) {
+			this.writeTo(out);
+		}
+	}
+
+	/**
+	 * Writes this index to a stream. The stream is not closed.
+	 *
+	 * @param stream Stream to write to
+	 *
+	 * @throws IOException If the stream could not be written
+	 */
+	public void writeTo(
+		@NotNull OutputStream stream
+	)
+		throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Objects.requireNonNull(stream), 1 << 16));
+
+		this.lock.readLock().lock();
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(this.q);
+			out.writeInt(this.size);
+			for (int i = 0; i < this.size; i++)
+			{
+				String string = this.strings[i];
+				if (string == null)
+				{
+					writeVarInt(out, 0);
+					continue;
+				}
+
+				// Lengths are offset by one so that zero can mark a removed string
+				writeVarInt(out, string.length() + 1);
+				for (int j = 0; j < string.length(); j++)
+				{
+					writeVarInt(out, string.charAt(j));
+				}
+			}
+
+			this.postings.writeTo(out);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * Reads an index from a file written by {@link #save(Path)}.
+	 *
+	 * @param path File to read
+	 *
+	 * @return Index read from the file
+	 * @throws IOException If the file could not be read, or is not a valid index
+	 */
+	@NotNull
+	public static QGramIndex load(
+		@NotNull Path path
+	)
+		throws IOException
+	{
+		try (InputStream in = Files.newInputStream(Objects.requireNonNull(path))) {
+			return readFrom(in);
+		}
+	}
+
+	/**
+	 * Reads an index from a stream written by {@link #writeTo(OutputStream)}. The stream is not closed.
+	 *
+	 * @param stream Stream to read from
+	 *
+	 * @return Index read from the stream
+	 * @throws IOException If the stream could not be read, or does not contain a valid index
+	 */
+	@NotNull
+	public static QGramIndex readFrom(
+		@NotNull InputStream stream
+	)
+		throws IOException
+	{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(Objects.requireNonNull(stream), 1 << 16));
+		if (in.readInt() != MAGIC)
+		{
+			throw new IOException("Not a q-gram index");
+		}
+
+		int version = in.readInt();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported q-gram index version " + version);
+		}
+
+		int q = in.readInt();
+		int size = in.readInt();
+		if (q < 1 || q > 4 || size < 0)
+		{
+			throw new IOException("Corrupt q-gram index header");
+		}
+
+		String[] strings = new String[Math.max(16, size)];
+		BitSet removed = new BitSet();
+		char[] buffer = new char[64];
+		for (int i = 0; i < size; i++)
+		{
+			int length = readVarInt(in) - 1;
+			if (length < 0)
+			{
+				removed.set(i);
+				continue;
+			}
+
+			if (buffer.length < length)
+			{
+				buffer = new char[Math.max(length, buffer.length * 2)];
+			}
+
+			for (int j = 0; j < length; j++)
+			{
+				buffer[j] = (char) readVarInt(in);
+			}
+
+			strings[i] = new String(buffer, 0, length);
+		}
+
+		return new QGramIndex(q, Postings.readFrom(in), strings, size, removed);
+	}
+
+	//--------------------------------------------------------------------------------
+	private int[] filter(
+		CharSequence query,
+		int k,
+		boolean verify
+	) {
+		Objects.requireNonNull(query);
+		if (k < 0)
+		{
+			throw new IllegalArgumentException("Distance can not be negative; received " + k);
+		}
+
+		int q = this.q;
+		int queryLength = query.length();
+		Levenshtein levenshtein = Levenshtein.INSTANCE;
+		QueryScratch scratch = this.scratch.get();
+
+		this.lock.readLock().lock();
+		try {
+			String[] strings = this.strings;
+			long[] signatures = this.signatures;
+			long querySignature = signature(query);
+			int size = this.size;
+			int matches = 0;
+
+			// Candidates whose length gives a bound of zero or less cannot be filtered by q-gram counts, so those lengths are scanned
+			// directly instead. Every other length within k of the query is left to the count filter.
+			int vacuous = (k + 1) * q - 1;
+			int lengthFrom = Math.max(0, queryLength - k);
+			int lengthTo = queryLength + k;
+			if (queryLength <= vacuous)
+			{
+				for (int length = lengthFrom; length <= Math.min(lengthTo, vacuous) && length < this.byLength.length; length++)
+				{
+					int[] ids = this.byLength[length];
+					int count = this.byLengthSizes[length];
+					for (int i = 0; i < count; i++)
+					{
+						String string = strings[ids[i]];
+						if (string != null && signatureBound(querySignature, signatures[ids[i]]) <= k && (!verify || levenshtein.compute(query, string, k) <= k))
+						{
+							matches = scratch.addResult(matches, ids[i]);
+						}
+					}
+				}
+
+				if (lengthTo <= vacuous || queryLength < q)
+				{
+					int[] results = java.util.Arrays.copyOf(scratch.results, matches);
+					java.util.Arrays.sort(results);
+
+					return results;
+				}
+			}
+
+			// Group the query's q-grams so that each posting list is walked once, with the number of times the gram occurs in the query
+			int gramCount = queryLength - q + 1;
+			long[] grams = scratch.grams(gramCount);
+			for (int i = 0; i < gramCount; i++)
+			{
+				grams[i] = gram(query, i, q);
+			}
+
+			java.util.Arrays.sort(grams, 0, gramCount);
+
+			int[] counts = scratch.counts(size);
+			int touched = 0;
+			for (int i = 0; i < gramCount;)
+			{
+				long key = grams[i];
+				int multiplicity = 1;
+				while (i + multiplicity < gramCount && grams[i + multiplicity] == key)
+				{
+					multiplicity++;
+				}
+
+				i += multiplicity;
+				touched = this.postings.count(key, multiplicity, counts, scratch, touched);
+			}
+
+			int[] touchedIds = scratch.touched;
+			for (int t = 0; t < touched; t++)
+			{
+				int id = touchedIds[t];
+				int shared = counts[id];
+				counts[id] = 0;
+
+				String string = strings[id];
+				if (string == null)
+				{
+					continue;
+				}
+
+				int length = string.length();
+				if (length < lengthFrom || length > lengthTo || Math.max(length, queryLength) <= vacuous)
+				{
+					continue;
+				}
+
+				long bound = (long) Math.max(length, queryLength) - q + 1 - (long) k * q;
+				if (shared < bound || signatureBound(querySignature, signatures[id]) > k)
+				{
+					continue;
+				}
+
+				if (!verify || levenshtein.compute(query, string, k) <= k)
+				{
+					matches = scratch.addResult(matches, id);
+				}
+			}
+
+			int[] results = java.util.Arrays.copyOf(scratch.results, matches);
+			java.util.Arrays.sort(results);
+
+			return results;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Summarizes the set of characters in a string as a 64-bit mask.
+	 */
+	private static long signature(
+		CharSequence string
+	) {
+		long signature = 0;
+		for (int i = 0; i < string.length(); i++)
+		{
+			signature |= 1L << string.charAt(i);
+		}
+
+		return signature;
+	}
+
+	/**
+	 * Lower bound on the edit distance between two strings with the given signatures. Every character class present in one string but
+	 * not the other needs its own edit, though a substitution may fix one class on each side at once. Classes that share a bit only
+	 * ever lower the count, so the bound holds despite collisions.
+	 */
+	private static int signatureBound(
+		long a,
+		long b
+	) {
+		return Math.max(Long.bitCount(a & ~b), Long.bitCount(b & ~a));
+	}
+
+	private void addLength(
+		int id,
+		int length
+	) {
+		if (length >= this.byLength.length)
+		{
+			int capacity = Math.max(length + 1, this.byLength.length * 2);
+			this.byLength = java.util.Arrays.copyOf(this.byLength, capacity);
+			this.byLengthSizes = java.util.Arrays.copyOf(this.byLengthSizes, capacity);
+		}
+
+		int[] ids = this.byLength[length];
+		int count = this.byLengthSizes[length];
+		if (ids == null)
+		{
+			ids = this.byLength[length] = new int[8];
+		}
+		else if (count == ids.length)
+		{
+			ids = this.byLength[length] = java.util.Arrays.copyOf(ids, count * 2);
+		}
+
+		ids[count] = id;
+		this.byLengthSizes[length] = count + 1;
+	}
+
+	private static void addGrams(
+		Postings postings,
+		String[] strings,
+		int from,
+		int to,
+		int q
+	) {
+		for (int id = from; id < to; id++)
+		{
+			String string = strings[id];
+			int grams = string.length() - q + 1;
+			for (int i = 0; i < grams; i++)
+			{
+				postings.append(gram(string, i, q), id);
+			}
+		}
+	}
+
+	/**
+	 * Packs q characters into a key. Up to four 16-bit characters fit exactly, so distinct q-grams never collide.
+	 */
+	private static long gram(
+		CharSequence string,
+		int offset,
+		int q
+	) {
+		long key = 0;
+		for (int i = 0; i < q; i++)
+		{
+			key = (key << 16) | string.charAt(offset + i);
+		}
+
+		return key;
+	}
+
+	static void writeVarInt(
+		DataOutputStream out,
+		int value
+	)
+		throws IOException
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+
+	static int readVarInt(
+		DataInputStream in
+	)
+		throws IOException
+	{
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Posting lists keyed by packed q-gram, in an open-addressing table. Each list holds ids as deltas from the previous id, starting
+	 * from 0, so a list can be extended in place as long as ids are appended in ascending order.
+	 */
+	private static final class Postings
+	{
+		private long[] keys;
+		private int[] slots;
+		private int count;
+
+		private int[][] lists;
+		private long[] listKeys;
+		private int[] sizes;
+		private int[] lastIds;
+
+		Postings(
+			int capacity
+		) {
+			int tableSize = Integer.highestOneBit(Math.max(4, capacity) - 1) << 2;
+			this.keys = new long[tableSize];
+			this.slots = new int[tableSize];
+			java.util.Arrays.fill(this.slots, -1);
+			this.lists = new int[Math.max(4, capacity)][];
+			this.listKeys = new long[this.lists.length];
+			this.sizes = new int[this.lists.length];
+			this.lastIds = new int[this.lists.length];
+		}
+
+		void append(
+			long key,
+			int id
+		) {
+			int slot = this.slotFor(key);
+			int[] list = this.lists[slot];
+			int size = this.sizes[slot];
+			if (size == list.length)
+			{
+				list = this.lists[slot] = java.util.Arrays.copyOf(list, size + (size >>> 1) + 2);
+			}
+
+			list[size] = id - this.lastIds[slot];
+			this.sizes[slot] = size + 1;
+			this.lastIds[slot] = id;
+		}
+
+		/**
+		 * Appends every list of another table, whose ids must all be greater than any id in this table.
+		 */
+		void appendAll(
+			Postings other
+		) {
+			for (int source = 0; source < other.count; source++)
+			{
+				int otherSize = other.sizes[source];
+				if (otherSize == 0)
+				{
+					continue;
+				}
+
+				int slot = this.slotFor(other.listKeys[source]);
+				int size = this.sizes[slot];
+				int[] list = this.lists[slot];
+				if (list.length < size + otherSize)
+				{
+					list = this.lists[slot] = java.util.Arrays.copyOf(list, size + otherSize);
+				}
+
+				// The other list starts from id 0, so only its first delta needs rebasing
+				int[] otherList = other.lists[source];
+				list[size] = otherList[0] - this.lastIds[slot];
+				System.arraycopy(otherList, 1, list, size + 1, otherSize - 1);
+				this.sizes[slot] = size + otherSize;
+				this.lastIds[slot] = other.lastIds[source];
+			}
+		}
+
+		/**
+		 * Adds each id's share of the given q-gram to its count, recording ids seen for the first time.
+		 *
+		 * @return New number of touched ids
+		 */
+		int count(
+			long key,
+			int multiplicity,
+			int[] counts,
+			QueryScratch scratch,
+			int touched
+		) {
+			int slot = this.find(key);
+			if (slot < 0)
+			{
+				return touched;
+			}
+
+			int[] list = this.lists[slot];
+			int size = this.sizes[slot];
+			int id = 0;
+			int i = 0;
+			while (i < size)
+			{
+				id += list[i++];
+				int occurrences = 1;
+				while (i < size && list[i] == 0)
+				{
+					occurrences++;
+					i++;
+				}
+
+				if (counts[id] == 0)
+				{
+					touched = scratch.touch(touched, id);
+				}
+
+				counts[id] += Math.min(occurrences, multiplicity);
+			}
+
+			return touched;
+		}
+
+		void trim()
+		{
+			for (int slot = 0; slot < this.count; slot++)
+			{
+				if (this.lists[slot].length != this.sizes[slot])
+				{
+					this.lists[slot] = java.util.Arrays.copyOf(this.lists[slot], this.sizes[slot]);
+				}
+			}
+		}
+
+		void writeTo(
+			DataOutputStream out
+		)
+			throws IOException
+		{
+			out.writeInt(this.count);
+			for (int slot = 0; slot < this.count; slot++)
+			{
+				out.writeLong(this.listKeys[slot]);
+				out.writeInt(this.sizes[slot]);
+				int[] list = this.lists[slot];
+				for (int i = 0; i < this.sizes[slot]; i++)
+				{
+					writeVarInt(out, list[i]);
+				}
+			}
+		}
+
+		static Postings readFrom(
+			DataInputStream in
+		)
+			throws IOException
+		{
+			int count = in.readInt();
+			if (count < 0)
+			{
+				throw new IOException("Corrupt q-gram index postings");
+			}
+
+			Postings postings = new Postings(count);
+			for (int i = 0; i < count; i++)
+			{
+				long key = in.readLong();
+				int size = in.readInt();
+				if (size < 0)
+				{
+					throw new IOException("Corrupt q-gram index postings");
+				}
+
+				int slot = postings.slotFor(key);
+				int[] list = new int[size];
+				int id = 0;
+				for (int j = 0; j < size; j++)
+				{
+					list[j] = readVarInt(in);
+					id += list[j];
+				}
+
+				postings.lists[slot] = list;
+				postings.sizes[slot] = size;
+				postings.lastIds[slot] = id;
+			}
+
+			return postings;
+		}
+
+		//--------------------------------------------------------------------------------
+		private int find(
+			long key
+		) {
+			int mask = this.slots.length - 1;
+			for (int i = mix(key) & mask;; i = (i + 1) & mask)
+			{
+				int slot = this.slots[i];
+				if (slot < 0)
+				{
+					return -1;
+				}
+
+				if (this.keys[i] == key)
+				{
+					return slot;
+				}
+			}
+		}
+
+		private int slotFor(
+			long key
+		) {
+			int mask = this.slots.length - 1;
+			int i = mix(key) & mask;
+			for (;; i = (i + 1) & mask)
+			{
+				int slot = this.slots[i];
+				if (slot < 0)
+				{
+					break;
+				}
+
+				if (this.keys[i] == key)
+				{
+					return slot;
+				}
+			}
+
+			int slot = this.count++;
+			this.keys[i] = key;
+			this.slots[i] = slot;
+
+			if (slot == this.lists.length)
+			{
+				int capacity = slot * 2;
+				this.lists = java.util.Arrays.copyOf(this.lists, capacity);
+				this.listKeys = java.util.Arrays.copyOf(this.listKeys, capacity);
+				this.sizes = java.util.Arrays.copyOf(this.sizes, capacity);
+				this.lastIds = java.util.Arrays.copyOf(this.lastIds, capacity);
+			}
+
+			this.lists[slot] = new int[2];
+			this.listKeys[slot] = key;
+
+			if (this.count * 2 > this.slots.length)
+			{
+				this.rehash();
+			}
+
+			return slot;
+		}
+
+		private void rehash()
+		{
+			long[] oldKeys = this.keys;
+			int[] oldSlots = this.slots;
+			this.keys = new long[oldKeys.length * 2];
+			this.slots = new int[oldSlots.length * 2];
+			java.util.Arrays.fill(this.slots, -1);
+
+			int mask = this.slots.length - 1;
+			for (int i = 0; i < oldSlots.length; i++)
+			{
+				if (oldSlots[i] < 0)
+				{
+					continue;
+				}
+
+				int j = mix(oldKeys[i]) & mask;
+				while (this.slots[j] >= 0)
+				{
+					j = (j + 1) & mask;
+				}
+
+				this.keys[j] = oldKeys[i];
+				this.slots[j] = oldSlots[i];
+			}
+		}
+
+		private static int mix(
+			long key
+		) {
+			long h = key * 0x9E3779B97F4A7C15L;
+
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+
+	/**
+	 * Per-thread query buffers, grown as needed and reused between queries.
+	 */
+	private static final class QueryScratch
+	{
+		private int[] counts = new int[0];
+		private int[] touched = new int[64];
+		private int[] results = new int[64];
+		private long[] grams = new long[64];
+
+		int[] counts(
+			int size
+		) {
+			// Counts are reset to zero as they are consumed, so a buffer of sufficient size can be reused as is
+			if (this.counts.length < size)
+			{
+				this.counts = new int[size + (size >>> 2)];
+			}
+
+			return this.counts;
+		}
+
+		long[] grams(
+			int size
+		) {
+			if (this.grams.length < size)
+			{
+				this.grams = new long[size * 2];
+			}
+
+			return this.grams;
+		}
+
+		int touch(
+			int touched,
+			int id
+		) {
+			if (touched == this.touched.length)
+			{
+				this.touched = java.util.Arrays.copyOf(this.touched, touched * 2);
+			}
+
+			this.touched[touched] = id;
+
+			return touched + 1;
+		}
+
+		int addResult(
+			int matches,
+			int id
+		) {
+			if (matches == this.results.length)
+			{
+				this.results = java.util.Arrays.copyOf(this.results, matches * 2);
+			}
+
+			this.results[matches] = id;
+
+			return matches + 1;
+		}
+	}
+}
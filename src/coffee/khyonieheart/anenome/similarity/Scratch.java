@@ -0,0 +1,93 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+/**
+ * Per-thread working buffers shared by the metric engines. Buffers only ever grow, so once a thread has compared strings of a given
+ * length, further comparisons of that length or shorter allocate nothing.
+ */
+final class Scratch
+{
+	private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+	private final int[][] ints = new int[3][];
+	private final double[][] doubles = new double[2][];
+	private boolean[] flagsA = new boolean[0];
+	private boolean[] flagsB = new boolean[0];
+
+	static Scratch get()
+	{
+		return LOCAL.get();
+	}
+
+	int[] ints(
+		int slot,
+		int length
+	) {
+		int[] buffer = this.ints[slot];
+		if (buffer == null || buffer.length < length)
+		{
+			buffer = this.ints[slot] = new int[grow(length)];
+		}
+
+		return buffer;
+	}
+
+	double[] doubles(
+		int slot,
+		int length
+	) {
+		double[] buffer = this.doubles[slot];
+		if (buffer == null || buffer.length < length)
+		{
+			buffer = this.doubles[slot] = new double[grow(length)];
+		}
+
+		return buffer;
+	}
+
+	/**
+	 * Returns a cleared flag buffer of at least the given length.
+	 */
+	boolean[] flagsA(
+		int length
+	) {
+		if (this.flagsA.length < length)
+		{
+			this.flagsA = new boolean[grow(length)];
+		}
+		else
+		{
+			java.util.Arrays.fill(this.flagsA, 0, length, false);
+		}
+
+		return this.flagsA;
+	}
+
+	/**
+	 * Returns a cleared flag buffer of at least the given length.
+	 */
+	boolean[] flagsB(
+		int length
+	) {
+		if (this.flagsB.length < length)
+		{
+			this.flagsB = new boolean[grow(length)];
+		}
+		else
+		{
+			java.util.Arrays.fill(this.flagsB, 0, length, false);
+		}
+
+		return this.flagsB;
+	}
+
+	private static int grow(
+		int length
+	) {
+		return Math.max(16, length + (length >>> 1));
+	}
+}
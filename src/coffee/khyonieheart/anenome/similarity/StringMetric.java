@@ -0,0 +1,233 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+import java.util.List;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * A distance between two strings, where 0 means equal and larger values mean less similar. Implementations are stateless and safe to
+ * share between threads; any working memory is kept in per-thread buffers, so comparisons do not allocate once warmed up.
+ * <p>
+ * Every metric supports a bounded mode through {@link #distance(CharSequence, CharSequence, double)}, which may stop as soon as the
+ * distance is known to exceed a limit. When searching for close matches, the bounded mode is usually much cheaper.
+ */
+public interface StringMetric
+{
+	/**
+	 * Computes the distance between two strings.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 *
+	 * @return Distance between A and B
+	 */
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	);
+
+	/**
+	 * Computes the distance between two strings, giving up once it is known to exceed the given limit.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 * @param limit Largest distance of interest
+	 *
+	 * @return Distance between A and B if it is at most limit, otherwise {@link Double#POSITIVE_INFINITY}
+	 */
+	public default double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		double limit
+	) {
+		double distance = this.distance(a, b);
+
+		return distance <= limit ? distance : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Tests if two strings are within the given distance of each other.
+	 *
+	 * @param a String A
+	 * @param b String B
+	 * @param limit Largest accepted distance
+	 *
+	 * @return True if the distance between A and B is at most limit
+	 */
+	public default boolean isWithin(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		double limit
+	) {
+		return this.distance(a, b, limit) <= limit;
+	}
+
+	/**
+	 * Finds the candidate closest to the query. The limit tightens as closer candidates are found, so later comparisons exit early.
+	 *
+	 * @param query String to match
+	 * @param candidates Strings to search
+	 * @param limit Largest accepted distance
+	 *
+	 * @return Index of the closest candidate within limit, the first such candidate on a tie, or -1 if none are within limit
+	 */
+	public default int nearest(
+		@NotNull CharSequence query,
+		@NotNull List<? extends CharSequence> candidates,
+		double limit
+	) {
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(candidates);
+
+		int best = -1;
+		double bestDistance = limit;
+		for (int i = 0; i < candidates.size(); i++)
+		{
+			double distance = this.distance(query, candidates.get(i), bestDistance);
+			if (distance <= bestDistance && (best == -1 || distance < bestDistance))
+			{
+				best = i;
+				bestDistance = distance;
+
+				if (distance == 0)
+				{
+					break;
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Finds every candidate within the given distance of the query.
+	 *
+	 * @param query String to match
+	 * @param candidates Strings to search
+	 * @param limit Largest accepted distance
+	 *
+	 * @return Indexes of matching candidates, in ascending order
+	 */
+	@NotNull
+	public default int[] within(
+		@NotNull CharSequence query,
+		@NotNull List<? extends CharSequence> candidates,
+		double limit
+	) {
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(candidates);
+
+		int[] matches = new int[8];
+		int count = 0;
+		for (int i = 0; i < candidates.size(); i++)
+		{
+			if (this.distance(query, candidates.get(i), limit) <= limit)
+			{
+				if (count == matches.length)
+				{
+					matches = java.util.Arrays.copyOf(matches, count * 2);
+				}
+
+				matches[count++] = i;
+			}
+		}
+
+		return java.util.Arrays.copyOf(matches, count);
+	}
+
+	/**
+	 * Returns the unit-cost Levenshtein metric: the number of single-character insertions, deletions and substitutions.
+	 *
+	 * @return Levenshtein metric
+	 */
+	@NotNull
+	public static Levenshtein levenshtein()
+	{
+		return Levenshtein.INSTANCE;
+	}
+
+	/**
+	 * Returns the optimal string alignment metric, a restricted Damerau-Levenshtein distance that also counts a transposition of two
+	 * adjacent characters as a single edit.
+	 *
+	 * @return Optimal string alignment metric
+	 */
+	@NotNull
+	public static OptimalStringAlignment damerau()
+	{
+		return OptimalStringAlignment.INSTANCE;
+	}
+
+	/**
+	 * Returns the Jaro-Winkler metric with Winkler's standard prefix scale of 0.1, as a distance between 0 and 1.
+	 *
+	 * @return Jaro-Winkler metric
+	 */
+	@NotNull
+	public static JaroWinkler jaroWinkler()
+	{
+		return JaroWinkler.STANDARD;
+	}
+
+	/**
+	 * Returns a Jaro-Winkler metric with the given prefix scale, as a distance between 0 and 1.
+	 *
+	 * @param prefixScale Weight given to a common prefix, between 0 and 0.25
+	 *
+	 * @return Jaro-Winkler metric
+	 * @throws IllegalArgumentException If the prefix scale is outside of the range 0 to 0.25
+	 */
+	@NotNull
+	public static JaroWinkler jaroWinkler(
+		double prefixScale
+	) {
+		return new JaroWinkler(prefixScale);
+	}
+
+	/**
+	 * Returns a Levenshtein metric with the given cost for each kind of edit.
+	 *
+	 * @param insertCost Cost of inserting a character
+	 * @param deleteCost Cost of deleting a character
+	 * @param substituteCost Cost of substituting one character for another
+	 *
+	 * @return Weighted Levenshtein metric
+	 * @throws IllegalArgumentException If any cost is negative or NaN
+	 */
+	@NotNull
+	public static WeightedLevenshtein weighted(
+		double insertCost,
+		double deleteCost,
+		double substituteCost
+	) {
+		double cost = WeightedLevenshtein.requireCost(substituteCost);
+
+		return new WeightedLevenshtein(insertCost, deleteCost, (x, y) -> cost);
+	}
+
+	/**
+	 * Returns a Levenshtein metric with the given insertion and deletion costs and per-pair substitution costs, such as a keyboard
+	 * distance.
+	 *
+	 * @param insertCost Cost of inserting a character
+	 * @param deleteCost Cost of deleting a character
+	 * @param substituteCost Cost of substituting one character for another. Must return a non-negative cost for differing characters.
+	 *
+	 * @return Weighted Levenshtein metric
+	 * @throws IllegalArgumentException If either cost is negative or NaN
+	 */
+	@NotNull
+	public static WeightedLevenshtein weighted(
+		double insertCost,
+		double deleteCost,
+		@NotNull WeightedLevenshtein.SubstitutionCost substituteCost
+	) {
+		return new WeightedLevenshtein(insertCost, deleteCost, substituteCost);
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.similarity;
+
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+
+/**
+ * Levenshtein distance with configurable costs. Insertions and deletions have fixed costs, while substitutions may be priced per pair of
+ * characters, for example to make neighbouring keys on a keyboard cheaper to confuse.
+ * <p>
+ * Two rows of the distance matrix are kept, and the bounded mode stops once a whole row exceeds the limit.
+ */
+public final class WeightedLevenshtein implements StringMetric
+{
+	/**
+	 * Cost of substituting one character for another.
+	 */
+	@FunctionalInterface
+	public static interface SubstitutionCost
+	{
+		/**
+		 * Returns the cost of replacing a character of string A with a different character of string B. Never called for equal characters,
+		 * which always cost nothing.
+		 *
+		 * @param a Character of A
+		 * @param b Character of B
+		 *
+		 * @return Non-negative cost
+		 */
+		public double cost(
+			char a,
+			char b
+		);
+	}
+
+	private final double insertCost;
+	private final double deleteCost;
+	private final SubstitutionCost substituteCost;
+
+	WeightedLevenshtein(
+		double insertCost,
+		double deleteCost,
+		@NotNull SubstitutionCost substituteCost
+	) {
+		this.insertCost = requireCost(insertCost);
+		this.deleteCost = requireCost(deleteCost);
+		this.substituteCost = Objects.requireNonNull(substituteCost);
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b
+	) {
+		return this.distance(a, b, Double.POSITIVE_INFINITY);
+	}
+
+	@Override
+	public double distance(
+		@NotNull CharSequence a,
+		@NotNull CharSequence b,
+		double limit
+	) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(b);
+
+		if (limit < 0 || Double.isNaN(limit))
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		// Equal characters cost nothing under any weighting, so a common prefix and suffix can be skipped
+		int prefix = Levenshtein.commonPrefix(a, b);
+		int suffix = Levenshtein.commonSuffix(a, b, prefix);
+		int aLength = a.length() - prefix - suffix;
+		int bLength = b.length() - prefix - suffix;
+
+		// Every surplus character must at least be inserted or deleted. The product may round differently from the row sums below, so
+		// the bound is relaxed slightly to never reject a pair the full computation would accept.
+		double lengthCost = aLength > bLength ? (aLength - bLength) * this.deleteCost : (bLength - aLength) * this.insertCost;
+		if (lengthCost * (1 - 1e-9) > limit)
+		{
+			return Double.POSITIVE_INFINITY;
+		}
+
+		// Rows run over A, one row per character of B
+		Scratch scratch = Scratch.get();
+		double[] previous = scratch.doubles(0, aLength + 1);
+		double[] current = scratch.doubles(1, aLength + 1);
+		previous[0] = 0;
+		for (int i = 1; i <= aLength; i++)
+		{
+			previous[i] = previous[i - 1] + this.deleteCost;
+		}
+
+		for (int j = 1; j <= bLength; j++)
+		{
+			char c = b.charAt(prefix + j - 1);
+			double left = previous[0] + this.insertCost;
+			current[0] = left;
+			double best = left;
+			for (int i = 1; i <= aLength; i++)
+			{
+				char ca = a.charAt(prefix + i - 1);
+				double substitute = previous[i - 1] + (ca == c ? 0 : this.substituteCost.cost(ca, c));
+				double value = Math.min(substitute, Math.min(previous[i] + this.insertCost, left + this.deleteCost));
+				current[i] = value;
+				left = value;
+				best = Math.min(best, value);
+			}
+
+			if (best > limit)
+			{
+				return Double.POSITIVE_INFINITY;
+			}
+
+			double[] temp = previous;
+			previous = current;
+			current = temp;
+		}
+
+		double distance = previous[aLength];
+
+		return distance <= limit ? distance : Double.POSITIVE_INFINITY;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "WeightedLevenshtein[insert=" + this.insertCost + ", delete=" + this.deleteCost + "]";
+	}
+
+	//--------------------------------------------------------------------------------
+	static double requireCost(
+		double cost
+	) {
+		if (!(cost >= 0))
+		{
+			throw new IllegalArgumentException("Cost must be positive; received " + cost);
+		}
+
+		return cost;
+	}
+}
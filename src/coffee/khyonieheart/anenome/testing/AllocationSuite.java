@@ -0,0 +1,178 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.testing;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import coffee.khyonieheart.anenome.FormatTemplate;
+import coffee.khyonieheart.anenome.StringPool;
+import coffee.khyonieheart.anenome.Strings;
+import coffee.khyonieheart.anenome.codec.Varints;
+import coffee.khyonieheart.anenome.collection.IntArrayList;
+import coffee.khyonieheart.anenome.collection.IntIntMap;
+import coffee.khyonieheart.anenome.hash.Hashes;
+import coffee.khyonieheart.anenome.hash.XxHash64;
+import coffee.khyonieheart.anenome.metrics.Counter;
+import coffee.khyonieheart.anenome.metrics.Metrics;
+import coffee.khyonieheart.anenome.operation.Option;
+import coffee.khyonieheart.anenome.operation.Result;
+import coffee.khyonieheart.anenome.search.KeywordMatcher;
+import coffee.khyonieheart.anenome.similarity.StringMetric;
+
+/**
+ * Allocation budgets of the library's hot paths. Each case runs an operation that is meant to allocate nothing, or a fixed amount, once
+ * warmed up, and fails if it allocates more. Run {@link #main(String[])} before a release; it prints a report and exits with status 1 if
+ * any budget was exceeded.
+ * <p>
+ * Operations that return a new object, such as {@link Strings#format(String, Object...)}, are not listed; their cost is the object they
+ * return. Budgets assume a HotSpot JVM with escape analysis enabled, as it is by default.
+ */
+public final class AllocationSuite
+{
+	// Results are stored here so that the JIT can not discard the measured calls
+	private static long sink;
+
+	private final List<String> failures = new ArrayList<>();
+
+	private AllocationSuite() {}
+
+	/**
+	 * Runs every case and prints the bytes allocated per call next to its budget.
+	 *
+	 * @param args Unused
+	 */
+	public static void main(
+		String[] args
+	) {
+		if (!Allocations.isSupported())
+		{
+			System.out.println("Allocation measurement is not supported on this JVM; skipping");
+			return;
+		}
+
+		AllocationSuite suite = new AllocationSuite();
+		suite.run();
+
+		if (!suite.failures.isEmpty())
+		{
+			System.out.println(suite.failures.size() + " case(s) exceeded their budget: " + suite.failures);
+			System.exit(1);
+		}
+
+		System.out.println("All cases within budget");
+	}
+
+	//--------------------------------------------------------------------------------
+	private record Score(
+		String name,
+		int score,
+		double seconds
+	) {}
+
+	private void run()
+	{
+		System.out.printf("%-45s %12s %8s%n", "Case", "bytes/call", "budget");
+
+		// Similarity
+		String word = "allocation";
+		String typo = "alocatoin";
+		this.check("Strings.levenshtein", 0, () -> sink += Strings.levenshtein(word, typo));
+		this.check("Strings.levenshtein (bounded)", 0, () -> sink += Strings.levenshtein(word, typo, 2));
+		StringMetric damerau = StringMetric.damerau();
+		this.check("OptimalStringAlignment.distance", 0, () -> sink += (long) damerau.distance(word, typo));
+		StringMetric jaroWinkler = StringMetric.jaroWinkler();
+		this.check("JaroWinkler.distance", 0, () -> sink += (long) (jaroWinkler.distance(word, typo) * 1000));
+
+		// Searching and pooling
+		KeywordMatcher matcher = KeywordMatcher.compile("needle", "pin", "thread");
+		String haystack = "a haystack with a long thread of straw in it";
+		this.check("KeywordMatcher.containsAny", 0, () -> sink += matcher.containsAny(haystack) ? 1 : 0);
+		StringPool pool = new StringPool(64);
+		String pooled = pool.dedup("pooled");
+		StringBuilder pooledBuilder = new StringBuilder("pooled");
+		this.check("StringPool.dedup (hit)", 0, () -> sink += pool.dedup(pooledBuilder) == pooled ? 1 : 0);
+
+		// Formatting
+		FormatTemplate template = FormatTemplate.compile("{0} scored {1}");
+		Object[] parameters = { "player", "points" };
+		ByteBuffer formatBuffer = ByteBuffer.allocate(256);
+		this.check("FormatTemplate.formatUtf8", 0, () -> {
+			formatBuffer.clear();
+			sink += template.formatUtf8(formatBuffer, parameters);
+		});
+		FormatTemplate named = FormatTemplate.compile("{name} scored {score} in {seconds:.1f}s");
+		Score score = new Score("player", 1200, 12.5);
+		this.check("FormatTemplate.formatNamedUtf8 (record)", 0, () -> {
+			formatBuffer.clear();
+			sink += named.formatNamedUtf8(formatBuffer, score);
+		});
+
+		// Options and results
+		Option<String> none = Option.none();
+		this.check("Option.none", 0, () -> sink += Option.none().isSome() ? 1 : 0);
+		this.check("Option.map (None)", 0, () -> sink += none.map(String::length).isSome() ? 1 : 0);
+		Result<String, String> error = Result.error("failed");
+		this.check("Result.ok (Error)", 0, () -> sink += error.ok().isSome() ? 1 : 0);
+
+		// Hashing
+		byte[] bytes = new byte[100];
+		long[] longs = new long[16];
+		StringBuilder text = new StringBuilder("a string that is not a String");
+		XxHash64.Hasher hasher = XxHash64.newHasher();
+		this.check("XxHash64.hash(byte[])", 0, () -> sink += XxHash64.hash(bytes));
+		this.check("XxHash64.hash(long[])", 0, () -> sink += XxHash64.hash(longs));
+		this.check("XxHash64.hash(CharSequence)", 0, () -> sink += XxHash64.hash(text));
+		this.check("XxHash64.Hasher", 0, () -> sink += hasher.reset().putLong(sink).putInt(7).update(bytes).digest());
+		this.check("Hashes.combine", 0, () -> sink = Hashes.combine(sink, 31));
+
+		// Collections
+		IntIntMap map = new IntIntMap();
+		for (int i = 0; i < 1000; i++)
+		{
+			map.put(i, i);
+		}
+
+		this.check("IntIntMap.getOrDefault", 0, () -> sink += map.getOrDefault((int) sink & 1023, -1));
+		this.check("IntIntMap.addTo (existing key)", 0, () -> sink += map.addTo((int) sink & 511, 1));
+		IntArrayList list = new IntArrayList(1024);
+		this.check("IntArrayList.add (within capacity)", 0, () -> {
+			if (list.size() == 1024)
+			{
+				list.clear();
+			}
+
+			list.add((int) sink);
+		});
+
+		// Encoding and metrics
+		ByteBuffer varints = ByteBuffer.allocate(64);
+		this.check("Varints write and read", 0, () -> {
+			varints.clear();
+			Varints.writeLong(varints, sink);
+			varints.flip();
+			sink += Varints.readLong(varints);
+		});
+		Counter counter = Metrics.counter("allocation.suite");
+		this.check("Counter.increment", 0, counter::increment);
+	}
+
+	private void check(
+		String name,
+		long budget,
+		Runnable operation
+	) {
+		double allocated = Allocations.measure(operation);
+		boolean passed = allocated <= budget;
+		System.out.printf("%-45s %12.1f %8d %s%n", name, allocated, budget, passed ? "" : "FAIL");
+
+		if (!passed)
+		{
+			this.failures.add(name);
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.testing;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Positive;
+
+/**
+ * Measures how many bytes an operation allocates on the heap per call, using the JVM's per-thread allocation counter. Intended for tests
+ * that pin down the allocation behaviour of hot paths, so that a stray boxing, varargs array or iterator shows up as a failure rather than
+ * as extra garbage collection in production.
+ * <p>
+ * Operations are warmed up first so that the JIT has compiled them, and escape analysis has removed whatever allocations it is going to
+ * remove. Several samples are then taken and the smallest is reported, so that one-off allocations such as a buffer growing on first use
+ * average out to nothing. Operations run on the calling thread; allocations made by other threads are not counted.
+ */
+public final class Allocations
+{
+	/** Default number of untimed calls made before measuring. */
+	public static final int DEFAULT_WARMUP = 20_000;
+	/** Default number of calls per measured sample. */
+	public static final int DEFAULT_ITERATIONS = 10_000;
+
+	private static final int SAMPLES = 5;
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	private Allocations() {}
+
+	/**
+	 * Returns whether this JVM can count allocated bytes per thread. HotSpot-based JVMs can.
+	 *
+	 * @return True if allocations can be measured
+	 */
+	public static boolean isSupported()
+	{
+		return THREADS != null && THREADS.isThreadAllocatedMemorySupported();
+	}
+
+	/**
+	 * Measures the bytes allocated per call to an operation, with the default warm-up and sample size.
+	 *
+	 * @param operation Operation to measure
+	 *
+	 * @return Bytes allocated per call, in the least allocating sample
+	 * @throws IllegalStateException If allocations can not be measured on this JVM
+	 */
+	public static double measure(
+		@NotNull Runnable operation
+	) {
+		return measure(operation, DEFAULT_WARMUP, DEFAULT_ITERATIONS);
+	}
+
+	/**
+	 * Measures the bytes allocated per call to an operation.
+	 *
+	 * @param operation Operation to measure
+	 * @param warmup Number of untimed calls made first
+	 * @param iterations Number of calls per measured sample
+	 *
+	 * @return Bytes allocated per call, in the least allocating sample
+	 * @throws IllegalStateException If allocations can not be measured on this JVM
+	 * @throws IllegalArgumentException If warmup is negative or iterations is less than 1
+	 */
+	public static double measure(
+		@NotNull Runnable operation,
+		@Positive int warmup,
+		@Positive int iterations
+	) {
+		Objects.requireNonNull(operation);
+		if (warmup < 0)
+		{
+			throw new IllegalArgumentException("Warm-up can not be negative; received " + warmup);
+		}
+
+		if (iterations < 1)
+		{
+			throw new IllegalArgumentException("At least one iteration is required; received " + iterations);
+		}
+
+		if (!isSupported())
+		{
+			throw new IllegalStateException("This JVM does not support measuring allocations per thread");
+		}
+
+		if (!THREADS.isThreadAllocatedMemoryEnabled())
+		{
+			THREADS.setThreadAllocatedMemoryEnabled(true);
+		}
+
+		for (int i = 0; i < warmup; i++)
+		{
+			operation.run();
+		}
+
+		long overhead = overhead();
+		long least = Long.MAX_VALUE;
+		for (int sample = 0; sample < SAMPLES; sample++)
+		{
+			long before = THREADS.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < iterations; i++)
+			{
+				operation.run();
+			}
+
+			long allocated = THREADS.getCurrentThreadAllocatedBytes() - before - overhead;
+			least = Math.min(least, Math.max(0, allocated));
+		}
+
+		return (double) least / iterations;
+	}
+
+	/**
+	 * Asserts that an operation allocates at most the given number of bytes per call, measured with the default warm-up and sample size.
+	 *
+	 * @param bytes Allowed bytes per call; 0 for operations that must not allocate
+	 * @param operation Operation to measure
+	 *
+	 * @throws AssertionError If the operation allocates more
+	 * @throws IllegalStateException If allocations can not be measured on this JVM
+	 */
+	public static void assertAllocatesAtMost(
+		@Positive long bytes,
+		@NotNull Runnable operation
+	) {
+		assertAllocatesAtMost(bytes, operation, DEFAULT_WARMUP, DEFAULT_ITERATIONS);
+	}
+
+	/**
+	 * Asserts that an operation allocates at most the given number of bytes per call.
+	 *
+	 * @param bytes Allowed bytes per call; 0 for operations that must not allocate
+	 * @param operation Operation to measure
+	 * @param warmup Number of untimed calls made first
+	 * @param iterations Number of calls per measured sample
+	 *
+	 * @throws AssertionError If the operation allocates more
+	 * @throws IllegalStateException If allocations can not be measured on this JVM
+	 */
+	public static void assertAllocatesAtMost(
+		@Positive long bytes,
+		@NotNull Runnable operation,
+		@Positive int warmup,
+		@Positive int iterations
+	) {
+		if (bytes < 0)
+		{
+			throw new IllegalArgumentException("Byte budget can not be negative; received " + bytes);
+		}
+
+		double allocated = measure(operation, warmup, iterations);
+		if (allocated > bytes)
+		{
+			throw new AssertionError(String.format("Expected at most %d bytes allocated per call, but measured %.1f", bytes, allocated));
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private static com.sun.management.ThreadMXBean threads()
+	{
+		try {
+			return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads ? threads : null;
+		} catch (LinkageError e) {
+			// The jdk.management module is absent from this runtime
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the bytes reported between two back-to-back reads of the counter, so that the cost of reading it is not charged to the
+	 * operation.
+	 */
+	private static long overhead()
+	{
+		long least = Long.MAX_VALUE;
+		for (int i = 0; i < SAMPLES; i++)
+		{
+			long before = THREADS.getCurrentThreadAllocatedBytes();
+			least = Math.min(least, THREADS.getCurrentThreadAllocatedBytes() - before);
+		}
+
+		return least;
+	}
+}
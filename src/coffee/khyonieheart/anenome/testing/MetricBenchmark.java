@@ -0,0 +1,177 @@
+/*
+ * Anenome ~ Shared code for my projects
+ * Copyright (C) 2024 Hailey-Jane "Khyonie" Garrett (www.khyonieheart.coffee)
+ */
+
+package coffee.khyonieheart.anenome.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import coffee.khyonieheart.anenome.NotNull;
+import coffee.khyonieheart.anenome.Positive;
+import coffee.khyonieheart.anenome.similarity.StringMetric;
+
+/**
+ * Shared harness for comparing the cost of {@link StringMetric}s on the same workload. Run {@link #main(String[])} for a quick report
+ * on typo-like word pairs, or call {@link #measure(StringMetric, List, List, double, int)} with your own data.
+ * <p>
+ * This is a rough guide for choosing a metric, not a substitute for a proper benchmarking framework; results are only meaningful after
+ * the warm-up rounds have let the JIT compile the engines.
+ */
+public final class MetricBenchmark
+{
+	private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+	// Results are published here so that the JIT can not discard the measured comparisons
+	private static volatile double sink;
+
+	private MetricBenchmark() {}
+
+	/**
+	 * Measures the average time of one comparison. Pairs are compared element-wise, for the given number of timed rounds after an equal
+	 * number of warm-up rounds.
+	 *
+	 * @param metric Metric to measure
+	 * @param left First string of each pair
+	 * @param right Second string of each pair
+	 * @param limit Limit for bounded comparisons, or {@link Double#POSITIVE_INFINITY} to measure unbounded comparisons
+	 * @param rounds Number of passes over the pairs
+	 *
+	 * @return Average nanoseconds per comparison
+	 * @throws IllegalArgumentException If the lists differ in size, or rounds is less than 1
+	 */
+	public static double measure(
+		@NotNull StringMetric metric,
+		@NotNull List<? extends CharSequence> left,
+		@NotNull List<? extends CharSequence> right,
+		double limit,
+		@Positive int rounds
+	) {
+		Objects.requireNonNull(metric);
+		Objects.requireNonNull(left);
+		Objects.requireNonNull(right);
+		if (left.size() != right.size())
+		{
+			throw new IllegalArgumentException("Lists must be the same size");
+		}
+
+		if (rounds < 1)
+		{
+			throw new IllegalArgumentException("At least one round is required");
+		}
+
+		boolean bounded = limit != Double.POSITIVE_INFINITY;
+		double total = run(metric, left, right, limit, bounded, rounds);
+
+		long start = System.nanoTime();
+		total += run(metric, left, right, limit, bounded, rounds);
+		long elapsed = System.nanoTime() - start;
+		sink = total;
+
+		return (double) elapsed / ((long) rounds * Math.max(1, left.size()));
+	}
+
+	/**
+	 * Prints the cost of each built-in metric on random words paired with typo variants of themselves and with unrelated words.
+	 *
+	 * @param args Optional word count, rounds and random seed
+	 */
+	public static void main(
+		String[] args
+	) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+		Random random = new Random(seed);
+		List<String> words = new ArrayList<>(count);
+		List<String> typos = new ArrayList<>(count);
+		List<String> unrelated = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			String word = word(random);
+			words.add(word);
+			typos.add(typo(random, word));
+			unrelated.add(word(random));
+		}
+
+		StringMetric[] metrics = {
+			StringMetric.levenshtein(),
+			StringMetric.damerau(),
+			StringMetric.jaroWinkler(),
+			StringMetric.weighted(1, 1, 1)
+		};
+		double[] limits = { 2, 2, 0.15, 2 };
+
+		System.out.printf("%-40s %12s %12s %12s%n", "Metric", "typo ns", "typo ns (k)", "other ns (k)");
+		for (int i = 0; i < metrics.length; i++)
+		{
+			double unbounded = measure(metrics[i], words, typos, Double.POSITIVE_INFINITY, rounds);
+			double bounded = measure(metrics[i], words, typos, limits[i], rounds);
+			double rejected = measure(metrics[i], words, unrelated, limits[i], rounds);
+			System.out.printf("%-40s %12.1f %12.1f %12.1f%n", metrics[i], unbounded, bounded, rejected);
+		}
+	}
+
+	//--------------------------------------------------------------------------------
+	private static double run(
+		StringMetric metric,
+		List<? extends CharSequence> left,
+		List<? extends CharSequence> right,
+		double limit,
+		boolean bounded,
+		int rounds
+	) {
+		double total = 0;
+		for (int round = 0; round < rounds; round++)
+		{
+			for (int i = 0; i < left.size(); i++)
+			{
+				double distance = bounded ? metric.distance(left.get(i), right.get(i), limit) : metric.distance(left.get(i), right.get(i));
+				if (distance != Double.POSITIVE_INFINITY)
+				{
+					total += distance;
+				}
+			}
+		}
+
+		return total;
+	}
+
+	private static String word(
+		Random random
+	) {
+		int length = 4 + random.nextInt(9);
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++)
+		{
+			chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+		}
+
+		return new String(chars);
+	}
+
+	private static String typo(
+		Random random,
+		String word
+	) {
+		StringBuilder builder = new StringBuilder(word);
+		int position = random.nextInt(builder.length() - 1);
+		switch (random.nextInt(4))
+		{
+			case 0 -> builder.insert(position, ALPHABET[random.nextInt(ALPHABET.length)]);
+			case 1 -> builder.deleteCharAt(position);
+			case 2 -> builder.setCharAt(position, ALPHABET[random.nextInt(ALPHABET.length)]);
+			default -> {
+				char c = builder.charAt(position);
+				builder.setCharAt(position, builder.charAt(position + 1));
+				builder.setCharAt(position + 1, c);
+			}
+		}
+
+		return builder.toString();
+	}
+}